@@ -0,0 +1,8 @@
+package com.sih.telemed.telemedbackend.Enums;
+
+public enum CensusImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.sih.telemed.telemedbackend.Enums;
+
+public enum EncounterEventType {
+    CREATED,
+    ASSIGNED,
+    COMPLETED,
+    // full state: periodic per-encounter snapshot, or catch-up from the encounters table
+    SNAPSHOT
+}
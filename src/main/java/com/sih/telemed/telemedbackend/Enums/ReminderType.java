@@ -0,0 +1,16 @@
+package com.sih.telemed.telemedbackend.Enums;
+
+public enum ReminderType {
+    DAY_BEFORE(24 * 60),
+    FIFTEEN_MINUTES(15);
+
+    private final int leadMinutes;
+
+    ReminderType(int leadMinutes) {
+        this.leadMinutes = leadMinutes;
+    }
+
+    public int getLeadMinutes() {
+        return leadMinutes;
+    }
+}
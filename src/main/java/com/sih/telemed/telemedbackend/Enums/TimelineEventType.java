@@ -0,0 +1,9 @@
+package com.sih.telemed.telemedbackend.Enums;
+
+// order matters: events at the same moment are listed in reverse
+// declaration order (the cursor carries the ordinal)
+public enum TimelineEventType {
+    ENCOUNTER,
+    PRESCRIPTION,
+    APPOINTMENT
+}
@@ -1,13 +1,23 @@
 package com.sih.telemed.telemedbackend.Repository;
 
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
 import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentView;
+import com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent;
 import com.sih.telemed.telemedbackend.model.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
@@ -26,6 +36,9 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     List<Appointment> findByDoctorIdAndStatus(Long doctorId, AppointmentStatus status);
 
+    // used to rebuild the in-memory interval index on startup
+    List<Appointment> findByStatusAndDoctorIdIsNotNull(AppointmentStatus status);
+
     // Count scheduled overlapping appointments for a given doctor (used to check availability)
     @Query("""
         SELECT COUNT(a) FROM Appointment a
@@ -36,4 +49,147 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     long countOverlappingScheduledAppointments(@Param("doctorId") Long doctorId,
                                                @Param("startTime") LocalDateTime startTime,
                                                @Param("endTime") LocalDateTime endTime);
+
+    // Oldest-first page of appointments waiting for routing
+    List<Appointment> findByRoutingStatusAndStatusOrderByIdAsc(AppointmentRountingStatus routingStatus,
+                                                               AppointmentStatus status,
+                                                               Pageable pageable);
+
+    // delta sync: appointments of an owner's patients changed in (since, upTo], in cursor order
+    @Query("""
+        SELECT a FROM Appointment a
+        WHERE a.patientId IN (SELECT p.id FROM Patient p WHERE p.owner.id = :ownerId)
+          AND a.changeSeq > :since AND a.changeSeq <= :upTo
+        ORDER BY a.changeSeq
+    """)
+    List<Appointment> findChangedForPatientOwner(@Param("ownerId") Long ownerId,
+                                                 @Param("since") long since,
+                                                 @Param("upTo") long upTo,
+                                                 Pageable pageable);
+
+    // Rolling reminder window: SCHEDULED appointments starting in (after, until]
+    List<Appointment> findByStatusAndStartTimeGreaterThanAndStartTimeLessThanEqual(AppointmentStatus status,
+                                                                                   LocalDateTime after,
+                                                                                   LocalDateTime until);
+
+    // Non-terminal routing rows, used to rebuild assignment timeouts on startup
+    List<Appointment> findByRoutingStatusInAndStatus(Collection<AppointmentRountingStatus> routingStatuses,
+                                                     AppointmentStatus status);
+
+    // ---------------------------------------------------------
+    // READ MODEL: appointment + real patient / doctor names, one query
+    // ---------------------------------------------------------
+    String VIEW_SELECT = """
+        SELECT new com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentView(
+            a.id, a.patientId, a.doctorId, a.startTime, a.endTime, a.teleSlotId,
+            a.status, a.appointmentType, a.routingStatus, p.name, d.name)
+        FROM Appointment a
+        LEFT JOIN Patient p ON p.id = a.patientId
+        LEFT JOIN Doctor d ON d.id = a.doctorId
+    """;
+
+    @Query(VIEW_SELECT + """
+        WHERE a.patientId = :patientId AND a.status = :status
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    List<AppointmentView> findViewsForPatient(@Param("patientId") Long patientId,
+                                              @Param("status") AppointmentStatus status);
+
+    @Query(VIEW_SELECT + """
+        WHERE a.doctorId = :doctorId AND a.status = :status
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    List<AppointmentView> findViewsForDoctor(@Param("doctorId") Long doctorId,
+                                             @Param("status") AppointmentStatus status);
+
+    @Query(VIEW_SELECT + "WHERE a.id = :id")
+    Optional<AppointmentView> findViewById(@Param("id") Long id);
+
+    // ---------------------------------------------------------
+    // KEYSET PAGINATION on (startTime, id)
+    // ---------------------------------------------------------
+    @Query(VIEW_SELECT + """
+        WHERE a.patientId = :patientId AND a.status = :status
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    List<AppointmentView> findPatientPage(@Param("patientId") Long patientId,
+                                          @Param("status") AppointmentStatus status,
+                                          Pageable pageable);
+
+    @Query(VIEW_SELECT + """
+        WHERE a.patientId = :patientId
+          AND a.status = :status
+          AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId))
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    List<AppointmentView> findPatientPageAfter(@Param("patientId") Long patientId,
+                                               @Param("status") AppointmentStatus status,
+                                               @Param("afterStart") LocalDateTime afterStart,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    @Query(VIEW_SELECT + """
+        WHERE a.doctorId = :doctorId AND a.status = :status
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    List<AppointmentView> findDoctorPage(@Param("doctorId") Long doctorId,
+                                         @Param("status") AppointmentStatus status,
+                                         Pageable pageable);
+
+    @Query(VIEW_SELECT + """
+        WHERE a.doctorId = :doctorId
+          AND a.status = :status
+          AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId))
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    List<AppointmentView> findDoctorPageAfter(@Param("doctorId") Long doctorId,
+                                              @Param("status") AppointmentStatus status,
+                                              @Param("afterStart") LocalDateTime afterStart,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // ---------------------------------------------------------
+    // TIMELINE: every status, newest start first, keyset on (startTime, id)
+    // ---------------------------------------------------------
+    String TIMELINE_SELECT = """
+        SELECT new com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent(
+            a.id, a.startTime, a.status, a.appointmentType, d.name)
+        FROM Appointment a
+        LEFT JOIN Doctor d ON d.id = a.doctorId
+    """;
+
+    @Query(TIMELINE_SELECT + """
+        WHERE a.patientId = :patientId AND a.startTime IS NOT NULL
+        ORDER BY a.startTime DESC, a.id DESC
+    """)
+    List<TimelineEvent> findTimeline(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(TIMELINE_SELECT + """
+        WHERE a.patientId = :patientId
+          AND (a.startTime < :at OR (a.startTime = :at AND a.id < :beforeId))
+        ORDER BY a.startTime DESC, a.id DESC
+    """)
+    List<TimelineEvent> findTimelineBefore(@Param("patientId") Long patientId,
+                                           @Param("at") LocalDateTime at,
+                                           @Param("beforeId") Long beforeId,
+                                           Pageable pageable);
+
+    // ---------------------------------------------------------
+    // FORWARD-ONLY CURSORS (must be consumed inside a transaction)
+    // ---------------------------------------------------------
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + """
+        WHERE a.patientId = :patientId AND a.status = :status
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    Stream<AppointmentView> streamViewsForPatient(@Param("patientId") Long patientId,
+                                                  @Param("status") AppointmentStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + """
+        WHERE a.doctorId = :doctorId AND a.status = :status
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    Stream<AppointmentView> streamViewsForDoctor(@Param("doctorId") Long doctorId,
+                                                 @Param("status") AppointmentStatus status);
 }
@@ -0,0 +1,13 @@
+package com.sih.telemed.telemedbackend.Repository;
+
+import com.sih.telemed.telemedbackend.model.CensusImportReject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CensusImportRejectRepository extends JpaRepository<CensusImportReject, Long> {
+
+    // keyset page: rejects after a line, in file order
+    List<CensusImportReject> findByImportIdAndLineGreaterThanOrderByLine(Long importId, long afterLine, Pageable page);
+}
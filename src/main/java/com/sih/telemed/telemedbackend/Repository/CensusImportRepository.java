@@ -0,0 +1,13 @@
+package com.sih.telemed.telemedbackend.Repository;
+
+import com.sih.telemed.telemedbackend.Enums.CensusImportStatus;
+import com.sih.telemed.telemedbackend.model.CensusImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CensusImportRepository extends JpaRepository<CensusImport, Long> {
+
+    List<CensusImport> findByStatusInOrderById(Collection<CensusImportStatus> statuses);
+}
@@ -3,10 +3,17 @@ package com.sih.telemed.telemedbackend.Repository;
 import com.sih.telemed.telemedbackend.model.Doctor;
 import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     List<Doctor> findByHospital(String hospital);
     List<Doctor> findByStatus(DoctorStatus status);
+
+    // name only, for the appointment read model (no entity load)
+    @Query("SELECT d.name FROM Doctor d WHERE d.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
 }
@@ -2,10 +2,17 @@ package com.sih.telemed.telemedbackend.Repository;
 
 
 
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent;
 import com.sih.telemed.telemedbackend.model.Encounter;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -17,5 +24,63 @@ public interface EncounterRepository extends JpaRepository<Encounter, Long> {
 
     List<Encounter> findByDoctorId(Long doctorId);
 
+    List<Encounter> findByStatus(EncounterStatus status);
+
+    // delta sync: a CHW's encounters changed in (since, upTo], in cursor order
+    @Query("""
+        SELECT e FROM Encounter e
+        WHERE e.chwId = :chwId AND e.changeSeq > :since AND e.changeSeq <= :upTo
+        ORDER BY e.changeSeq
+    """)
+    List<Encounter> findChangedForChw(@Param("chwId") Long chwId,
+                                      @Param("since") long since,
+                                      @Param("upTo") long upTo,
+                                      Pageable pageable);
+
+    // OPEN -> ASSIGNED for one doctor; 0 if someone else got there first
+    @Modifying
+    @Query("""
+        UPDATE Encounter e SET e.doctorId = :doctorId, e.status = :to, e.updatedAt = :at, e.changeSeq = :seq
+        WHERE e.id = :id AND e.status = :from
+    """)
+    int claim(@Param("id") Long id,
+              @Param("doctorId") Long doctorId,
+              @Param("from") EncounterStatus from,
+              @Param("to") EncounterStatus to,
+              @Param("at") Instant at,
+              @Param("seq") Long seq);
+
+    // ---------------------------------------------------------
+    // TIMELINE: newest first, keyset on (createdAt, id)
+    // doctorId is the doctor's user id on encounters
+    // ---------------------------------------------------------
+    String TIMELINE_SELECT = """
+        SELECT new com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent(
+            e.id, e.createdAt, e.status, e.provisionalDiagnosis, e.symptoms, d.name)
+        FROM Encounter e
+        LEFT JOIN Doctor d ON d.user.id = e.doctorId
+    """;
+
+    @Query(TIMELINE_SELECT + """
+        WHERE e.patientId = :patientId AND e.createdAt IS NOT NULL
+        ORDER BY e.createdAt DESC, e.id DESC
+    """)
+    List<TimelineEvent> findTimeline(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(TIMELINE_SELECT + """
+        WHERE e.patientId = :patientId
+          AND (e.createdAt < :at OR (e.createdAt = :at AND e.id < :beforeId))
+        ORDER BY e.createdAt DESC, e.id DESC
+    """)
+    List<TimelineEvent> findTimelineBefore(@Param("patientId") Long patientId,
+                                           @Param("at") Instant at,
+                                           @Param("beforeId") Long beforeId,
+                                           Pageable pageable);
+
+    // [doctorId, count] per doctor, for seeding the load counters on startup
+    @Query("SELECT e.doctorId, COUNT(e) FROM Encounter e " +
+            "WHERE e.status = :status AND e.doctorId IS NOT NULL GROUP BY e.doctorId")
+    List<Object[]> countByDoctorForStatus(@Param("status") EncounterStatus status);
+
 }
 
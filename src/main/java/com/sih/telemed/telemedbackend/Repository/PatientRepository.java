@@ -1,9 +1,19 @@
 package com.sih.telemed.telemedbackend.Repository;
 
+import com.sih.telemed.telemedbackend.dto.Patient.PatientSummary;
 import com.sih.telemed.telemedbackend.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
@@ -12,4 +22,55 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     boolean existsByAbhaId(String abhaId);   // ✔ Correct spelling & signature
 
     boolean existsByPhone(String phone);     // ✔ Also correct
+
+    // id + village of many patients in one IN query (bulk encounter upload)
+    interface PatientVillage {
+        Long getId();
+
+        String getVillage();
+    }
+
+    List<PatientVillage> findByIdIn(Collection<Long> ids);
+
+    // name only, for the appointment read model (no entity load)
+    @Query("SELECT p.name FROM Patient p WHERE p.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+
+    // delta sync: owner's patients changed in (since, upTo], in cursor order
+    @Query("""
+        SELECT p FROM Patient p
+        WHERE p.owner.id = :ownerId AND p.changeSeq > :since AND p.changeSeq <= :upTo
+        ORDER BY p.changeSeq
+    """)
+    List<Patient> findChangedForOwner(@Param("ownerId") Long ownerId,
+                                      @Param("since") long since,
+                                      @Param("upTo") long upTo,
+                                      Pageable pageable);
+
+    // ---------------------------------------------------------
+    // LISTING: PatientSummary rows (p.owner.id is the FK column, no join)
+    // keyset on id
+    // ---------------------------------------------------------
+    String SUMMARY_SELECT = """
+        SELECT new com.sih.telemed.telemedbackend.dto.Patient.PatientSummary(
+            p.id, p.owner.id, p.name, p.phone, p.abhaId, p.gender, p.age, p.village, p.block)
+        FROM Patient p
+    """;
+
+    @Query(SUMMARY_SELECT + "WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<PatientSummary> findSummaryPage(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.owner.id = :ownerId AND p.id > :afterId ORDER BY p.id ASC")
+    List<PatientSummary> findSummaryPageForOwner(@Param("ownerId") Long ownerId,
+                                                 @Param("afterId") long afterId,
+                                                 Pageable pageable);
+
+    // FORWARD-ONLY CURSORS (must be consumed inside a transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "ORDER BY p.id ASC")
+    Stream<PatientSummary> streamSummaries();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "WHERE p.owner.id = :ownerId ORDER BY p.id ASC")
+    Stream<PatientSummary> streamSummariesForOwner(@Param("ownerId") Long ownerId);
 }
@@ -0,0 +1,41 @@
+package com.sih.telemed.telemedbackend.Repository;
+
+import com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent;
+import com.sih.telemed.telemedbackend.model.Prescription;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
+
+    // ---------------------------------------------------------
+    // TIMELINE: newest first, keyset on (createdAt, id)
+    // doctorId is the doctors.id, as on appointments
+    // ---------------------------------------------------------
+    String TIMELINE_SELECT = """
+        SELECT new com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent(
+            r.id, r.createdAt, r.instructions, d.name)
+        FROM Prescription r
+        LEFT JOIN Doctor d ON d.id = r.doctorId
+    """;
+
+    @Query(TIMELINE_SELECT + """
+        WHERE r.patientId = :patientId AND r.createdAt IS NOT NULL
+        ORDER BY r.createdAt DESC, r.id DESC
+    """)
+    List<TimelineEvent> findTimeline(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(TIMELINE_SELECT + """
+        WHERE r.patientId = :patientId
+          AND (r.createdAt < :at OR (r.createdAt = :at AND r.id < :beforeId))
+        ORDER BY r.createdAt DESC, r.id DESC
+    """)
+    List<TimelineEvent> findTimelineBefore(@Param("patientId") Long patientId,
+                                           @Param("at") LocalDateTime at,
+                                           @Param("beforeId") Long beforeId,
+                                           Pageable pageable);
+}
@@ -0,0 +1,31 @@
+package com.sih.telemed.telemedbackend.Repository;
+
+import com.sih.telemed.telemedbackend.model.Teleslot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TeleslotRepository extends JpaRepository<Teleslot, Long> {
+
+    List<Teleslot> findByDoctorIdAndStartTimeGreaterThanEqualOrderByStartTimeAsc(Long doctorId, LocalDateTime from);
+
+    // Take one seat only if the slot still has room (never oversubscribes)
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Teleslot t SET t.bookedPatients = COALESCE(t.bookedPatients, 0) + 1
+        WHERE t.id = :id
+          AND (t.maxPatients IS NULL OR COALESCE(t.bookedPatients, 0) < t.maxPatients)
+    """)
+    int tryReserveSeat(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Teleslot t SET t.bookedPatients = t.bookedPatients - 1
+        WHERE t.id = :id AND t.bookedPatients > 0
+    """)
+    int releaseSeat(@Param("id") Long id);
+}
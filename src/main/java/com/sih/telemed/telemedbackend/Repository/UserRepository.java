@@ -1,10 +1,30 @@
 package com.sih.telemed.telemedbackend.Repository;
 
+import com.sih.telemed.telemedbackend.dto.Auth.UserSummary;
 import com.sih.telemed.telemedbackend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);   // ✔ NOT static
         // ✔ only if User has phone field
+
+    // which of these ids exist, in one IN query
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // listing: UserSummary rows, keyset on id (never loads User.patients)
+    @Query("""
+        SELECT new com.sih.telemed.telemedbackend.dto.Auth.UserSummary(u.id, u.username, u.fullName, u.role, u.active)
+        FROM User u
+        WHERE u.id > :afterId
+        ORDER BY u.id ASC
+    """)
+    List<UserSummary> findSummaryPage(@Param("afterId") long afterId, Pageable pageable);
 }
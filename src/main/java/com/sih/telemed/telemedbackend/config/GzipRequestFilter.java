@@ -0,0 +1,148 @@
+package com.sih.telemed.telemedbackend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+// ---------------------------------------------------------
+// Accepts gzip request bodies (Content-Encoding: gzip), so field
+// devices on slow links can compress large sync uploads. Responses
+// are compressed by the server itself (server.compression.*).
+// The inflated body is capped at gzip.request.max-inflated-mb: a
+// few KB of gzip can expand to gigabytes, so reading past the cap
+// fails the request with 413.
+// ---------------------------------------------------------
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private final long maxInflatedBytes;
+
+    public GzipRequestFilter(@Value("${gzip.request.max-inflated-mb:64}") long maxInflatedMb) {
+        this.maxInflatedBytes = maxInflatedMb * 1024 * 1024;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return encoding == null || !encoding.trim().equalsIgnoreCase("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new Decompressed(request, maxInflatedBytes), response);
+    }
+
+    private static final class Decompressed extends HttpServletRequestWrapper {
+
+        private final long maxBytes;
+        private ServletInputStream stream;
+
+        Decompressed(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public synchronized ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                GZIPInputStream in = new GZIPInputStream(super.getInputStream());
+                stream = new ServletInputStream() {
+                    private boolean finished;
+                    private long inflated;
+
+                    @Override
+                    public int read() throws IOException {
+                        int b = in.read();
+                        finished = b < 0;
+                        if (!finished) count(1);
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buf, int off, int len) throws IOException {
+                        int n = in.read(buf, off, len);
+                        finished = n < 0;
+                        if (n > 0) count(n);
+                        return n;
+                    }
+
+                    private void count(int n) {
+                        inflated += n;
+                        if (inflated > maxBytes) {
+                            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                    "Decompressed request body exceeds " + maxBytes + " bytes");
+                        }
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return finished;
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener listener) {
+                        throw new UnsupportedOperationException("Blocking reads only");
+                    }
+                };
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        // decompressed length is unknown up front
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) return null;
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) return null;
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) return Collections.emptyEnumeration();
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) return Collections.emptyEnumeration();
+            return super.getHeaders(name);
+        }
+    }
+}
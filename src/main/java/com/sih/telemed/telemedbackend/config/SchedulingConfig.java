@@ -0,0 +1,27 @@
+package com.sih.telemed.telemedbackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+// ---------------------------------------------------------
+// One pool for every @Scheduled job (picked up by its bean name).
+// Declared here because the STOMP / SockJS schedulers make Spring
+// Boot's own one back off, and @Scheduled would then run everything
+// on a single thread: a long routing drain or checkpoint would hold
+// up the 50 ms event-log fsync and the live feed flush.
+// ---------------------------------------------------------
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("sched-");
+        return scheduler;
+    }
+}
@@ -1,12 +1,20 @@
 package com.sih.telemed.telemedbackend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentPageResponse;
 import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentRequest;
 import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentResponse;
+import com.sih.telemed.telemedbackend.dto.Appoinment.BusyIntervalResponse;
+import com.sih.telemed.telemedbackend.dto.Appoinment.NextSlotResponse;
 import com.sih.telemed.telemedbackend.service.AppointmentService;
+import com.sih.telemed.telemedbackend.service.IdempotencyStore;
+import com.sih.telemed.telemedbackend.util.NdjsonWriter;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,10 +24,16 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
-    public ResponseEntity<AppointmentResponse> book(@RequestBody AppointmentRequest request) {
-        return ResponseEntity.ok(appointmentService.bookAppointment(request));
+    public ResponseEntity<AppointmentResponse> book(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody AppointmentRequest request
+    ) {
+        return ResponseEntity.ok(idempotencyStore.execute("appointments", idempotencyKey, request,
+                () -> appointmentService.bookAppointment(request)));
     }
 
     @PostMapping("/{id}/cancel")
@@ -28,14 +42,31 @@ public class AppointmentController {
         return ResponseEntity.noContent().build();
     }
 
+    // without doctorId the least-busy doctor free for the slot is picked
     @PostMapping("/{id}/assign")
     public ResponseEntity<AppointmentResponse> assignDoctor(
             @PathVariable Long id,
-            @RequestParam Long doctorId
+            @RequestParam(required = false) Long doctorId
     ) {
         return ResponseEntity.ok(appointmentService.assignDoctor(id, doctorId));
     }
 
+    @PostMapping("/{id}/accept")
+    public ResponseEntity<AppointmentResponse> accept(
+            @PathVariable Long id,
+            @RequestParam Long doctorId
+    ) {
+        return ResponseEntity.ok(appointmentService.acceptAssignment(id, doctorId));
+    }
+
+    @PostMapping("/{id}/reject")
+    public ResponseEntity<AppointmentResponse> reject(
+            @PathVariable Long id,
+            @RequestParam Long doctorId
+    ) {
+        return ResponseEntity.ok(appointmentService.rejectAssignment(id, doctorId));
+    }
+
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<List<AppointmentResponse>> getForPatient(@PathVariable Long patientId) {
         return ResponseEntity.ok(appointmentService.getUpcomingAppointmentsForPatient(patientId));
@@ -45,4 +76,60 @@ public class AppointmentController {
     public ResponseEntity<List<AppointmentResponse>> getForDoctor(@PathVariable Long doctorId) {
         return ResponseEntity.ok(appointmentService.getUpcomingAppointmentsForDoctor(doctorId));
     }
+
+    // keyset-paginated variants: ?cursor=<nextCursor>&limit=50
+    @GetMapping("/patient/{patientId}/page")
+    public ResponseEntity<AppointmentPageResponse> getPageForPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(appointmentService.getUpcomingAppointmentsPageForPatient(patientId, cursor, limit));
+    }
+
+    @GetMapping("/doctor/{doctorId}/page")
+    public ResponseEntity<AppointmentPageResponse> getPageForDoctor(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(appointmentService.getUpcomingAppointmentsPageForDoctor(doctorId, cursor, limit));
+    }
+
+    // streaming NDJSON variants (one AppointmentResponse per line)
+    @GetMapping(value = "/patient/{patientId}/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamForPatient(@PathVariable Long patientId) {
+        StreamingResponseBody body = out -> appointmentService.streamUpcomingAppointmentsForPatient(
+                patientId, new NdjsonWriter<>(objectMapper, out));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
+    @GetMapping(value = "/doctor/{doctorId}/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamForDoctor(@PathVariable Long doctorId) {
+        StreamingResponseBody body = out -> appointmentService.streamUpcomingAppointmentsForDoctor(
+                doctorId, new NdjsonWriter<>(objectMapper, out));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
+    @GetMapping("/doctor/{doctorId}/busy")
+    public ResponseEntity<List<BusyIntervalResponse>> getBusyForDoctor(
+            @PathVariable Long doctorId,
+            @RequestParam String from,
+            @RequestParam String to
+    ) {
+        return ResponseEntity.ok(appointmentService.getBusyIntervals(doctorId, from, to));
+    }
+
+    // earliest free slot with any doctor at the hospital; 204 if none within the horizon
+    @GetMapping("/next-available")
+    public ResponseEntity<NextSlotResponse> nextAvailable(
+            @RequestParam String hospital,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "15") int durationMinutes
+    ) {
+        return appointmentService.findNextAvailable(hospital, specialization, after, durationMinutes)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
 }
@@ -0,0 +1,56 @@
+package com.sih.telemed.telemedbackend.controller;
+
+import com.sih.telemed.telemedbackend.dto.Census.CensusImportResponse;
+import com.sih.telemed.telemedbackend.dto.Census.CensusRejectPageResponse;
+import com.sih.telemed.telemedbackend.service.CensusImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/census/imports")
+@RequiredArgsConstructor
+public class CensusImportController {
+
+    private final CensusImportService importService;
+
+    // ---------------------------------------------------------
+    // UPLOAD (raw CSV body, gzip welcome; 202 + the job to poll)
+    // ---------------------------------------------------------
+    @PostMapping(consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<CensusImportResponse> upload(
+            @RequestParam Long importedBy,
+            @RequestParam(required = false) String fileName,
+            @RequestParam(required = false) String village,
+            @RequestParam(required = false) String block,
+            InputStream body) {
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(importService.upload(body, fileName, importedBy, village, block));
+    }
+
+    // ---------------------------------------------------------
+    // PROGRESS
+    // ---------------------------------------------------------
+    @GetMapping("/{id}")
+    public ResponseEntity<CensusImportResponse> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(importService.getImport(id));
+    }
+
+    // REJECTED ROWS: line + reason, in file order (?cursor=<nextCursor>&limit=100)
+    @GetMapping("/{id}/rejects")
+    public ResponseEntity<CensusRejectPageResponse> getRejects(@PathVariable Long id,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(importService.getRejects(id, cursor, limit));
+    }
+
+    // RESUME a failed import from its last committed chunk
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<CensusImportResponse> resume(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.resume(id));
+    }
+}
@@ -3,11 +3,14 @@ package com.sih.telemed.telemedbackend.controller;
 import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
 import com.sih.telemed.telemedbackend.dto.Doctor.DoctorCreateRequest;
 import com.sih.telemed.telemedbackend.dto.Doctor.DoctorResponse;
+import com.sih.telemed.telemedbackend.service.DoctorDirectory;
 import com.sih.telemed.telemedbackend.service.DoctorService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/doctors")
@@ -21,9 +24,23 @@ public class DoctorController {
         return doctorService.createDoctor(request);
     }
 
-    @GetMapping
-    public List<DoctorResponse> getAllDoctors() {
-        return doctorService.getAllDoctors();
+    // full roster, served from the pre-serialized snapshot; 304 while the ETag still matches
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllDoctors(WebRequest request) {
+        DoctorDirectory.Snapshot snapshot = doctorService.directory();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.json());
+    }
+
+    // only the doctors changed after sinceVersion (everything, with "full":true, if it is unknown)
+    @GetMapping(params = "sinceVersion", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getDoctorChanges(@RequestParam long sinceVersion) {
+        return ResponseEntity.ok(doctorService.directoryDelta(sinceVersion));
     }
 
     @PutMapping("/{doctorId}/status")
@@ -33,4 +50,11 @@ public class DoctorController {
     ) {
         return doctorService.updateStatus(doctorId, status);
     }
+
+    // lightweight keep-alive from the doctor's client; silence means OFFLINE
+    @PostMapping("/{doctorId}/heartbeat")
+    public ResponseEntity<Void> heartbeat(@PathVariable Long doctorId) {
+        doctorService.heartbeat(doctorId);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -3,10 +3,14 @@ package com.sih.telemed.telemedbackend.controller;
 
 
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterAssignRequest;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterBulkResponse;
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterCompleteRequest;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterEventResponse;
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterRequest;
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterResponse;
+import com.sih.telemed.telemedbackend.service.EncounterBulkService;
 import com.sih.telemed.telemedbackend.service.EncounterService;
+import com.sih.telemed.telemedbackend.service.IdempotencyStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,15 +23,31 @@ import java.util.List;
 public class EncounterController {
 
     private final EncounterService encounterService;
+    private final EncounterBulkService bulkService;
+    private final IdempotencyStore idempotencyStore;
 
     // ---------------------------------------------------------
     // CREATE ENCOUNTER (CHW creates)
     // ---------------------------------------------------------
     @PostMapping
     public ResponseEntity<EncounterResponse> createEncounter(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @RequestBody EncounterRequest request) {
 
-        return ResponseEntity.ok(encounterService.createEncounter(request));
+        return ResponseEntity.ok(idempotencyStore.execute("encounters", idempotencyKey, request,
+                () -> encounterService.createEncounter(request)));
+    }
+
+    // ---------------------------------------------------------
+    // BULK CREATE (CHW field upload; per-item results, partial success)
+    // ---------------------------------------------------------
+    @PostMapping("/bulk")
+    public ResponseEntity<EncounterBulkResponse> createEncounters(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody List<EncounterRequest> requests) {
+
+        return ResponseEntity.ok(idempotencyStore.execute("encounters-bulk", idempotencyKey, requests,
+                () -> bulkService.createEncounters(requests)));
     }
 
     // ---------------------------------------------------------
@@ -52,6 +72,27 @@ public class EncounterController {
         return ResponseEntity.ok(encounterService.completeEncounter(id, request));
     }
 
+    // ---------------------------------------------------------
+    // DOCTOR PULLS THE NEXT ENCOUNTER (204 when the queue is empty)
+    // ---------------------------------------------------------
+    @PostMapping("/next")
+    public ResponseEntity<EncounterResponse> pullNext(@RequestParam Long doctorId) {
+        return encounterService.pullNext(doctorId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // ---------------------------------------------------------
+    // WAITING QUEUE OF A HOSPITAL (pull order)
+    // ---------------------------------------------------------
+    @GetMapping("/queue")
+    public ResponseEntity<List<EncounterResponse>> getQueue(
+            @RequestParam String hospital,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        return ResponseEntity.ok(encounterService.getQueue(hospital, limit));
+    }
+
     // ---------------------------------------------------------
     // GET ENCOUNTER BY ID
     // ---------------------------------------------------------
@@ -60,6 +101,22 @@ public class EncounterController {
         return ResponseEntity.ok(encounterService.getEncounter(id));
     }
 
+    // ---------------------------------------------------------
+    // HISTORY (event log) AND STATE AT A POINT IN TIME
+    // ---------------------------------------------------------
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<EncounterEventResponse>> getHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(encounterService.getHistory(id));
+    }
+
+    @GetMapping("/{id}/as-of")
+    public ResponseEntity<EncounterResponse> getEncounterAt(
+            @PathVariable Long id,
+            @RequestParam String at) {
+
+        return ResponseEntity.ok(encounterService.getEncounterAt(id, at));
+    }
+
     // ---------------------------------------------------------
     // LIST FOR PATIENT
     // ---------------------------------------------------------
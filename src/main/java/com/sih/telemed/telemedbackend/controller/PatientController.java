@@ -1,13 +1,24 @@
 package com.sih.telemed.telemedbackend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientPageResponse;
 import com.sih.telemed.telemedbackend.dto.Patient.PatientRequest;
 import com.sih.telemed.telemedbackend.dto.Patient.PatientResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientTimelineResponse;
 import com.sih.telemed.telemedbackend.model.Patient;
 import com.sih.telemed.telemedbackend.Repository.PatientRepository;
 import com.sih.telemed.telemedbackend.model.User;
+import com.sih.telemed.telemedbackend.service.PatientSearchIndex;
+import com.sih.telemed.telemedbackend.service.PatientService;
+import com.sih.telemed.telemedbackend.service.PatientTimelineService;
+import com.sih.telemed.telemedbackend.service.SignupGuard;
+import com.sih.telemed.telemedbackend.util.NdjsonWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +30,11 @@ public class PatientController {
 
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final PatientService patientService;
+    private final PatientTimelineService timelineService;
+    private final PatientSearchIndex searchIndex;
+    private final SignupGuard signupGuard;
 
     @PostMapping
     public PatientResponse createPatient(@RequestBody PatientRequest request) {
@@ -31,7 +47,7 @@ public class PatientController {
         patient.setName(request.getName());
         patient.setDob(request.getDob());
         patient.setEmail(request.getEmail());
-        patient.setPhone(request.getPhone());
+        patient.setPhone(SignupGuard.normalizePhone(request.getPhone()));
         patient.setAddress(request.getAddress());
         patient.setBloodGroup(request.getBloodGroup());
         patient.setGender(request.getGender());
@@ -39,10 +55,12 @@ public class PatientController {
         patient.setWeight(request.getWeight());
         patient.setHeight(request.getHeight());
         patient.setAge(request.getAge());
-        patient.setAbhaId(request.getAbhaId());
+        patient.setAbhaId(SignupGuard.normalizeAbhaId(request.getAbhaId()));
         patient.setCreatedAt(LocalDateTime.now());
 
         Patient saved = patientRepository.save(patient);
+        searchIndex.add(saved);
+        signupGuard.recordPatient(saved);
 
         return PatientResponse.builder()
                 .id(saved.getId())
@@ -51,9 +69,28 @@ public class PatientController {
                 .abhaId(saved.getAbhaId())
                 .build();
     }
+
+    // LIST PATIENTS: keyset pages of summaries (?cursor=<nextCursor>&limit=50)
     @GetMapping
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    public PatientPageResponse getAllPatients(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit) {
+        return patientService.getPatientsPage(null, cursor, limit);
+    }
+
+    // EXPORT: every patient (or one owner's) as NDJSON, one PatientSummary per line
+    @GetMapping(value = "/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamPatients(@RequestParam(required = false) Long ownerId) {
+        StreamingResponseBody body = out -> patientService.streamPatients(
+                ownerId, new NdjsonWriter<>(objectMapper, out));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
+    // SEARCH BY NAME / PHONE / ABHA / VILLAGE / BLOCK (best matches first)
+    @GetMapping("/search")
+    public List<PatientResponse> search(@RequestParam String q,
+                                        @RequestParam(required = false) Long ownerId,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        return patientService.search(q, ownerId, limit);
     }
 
     // GET PATIENT BY ID
@@ -63,9 +100,20 @@ public class PatientController {
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
     }
 
-    // GET PATIENTS BY USER
+    // GET PATIENTS BY USER (keyset pages, like the full list)
     @GetMapping("/user/{userId}")
-    public List<Patient> getPatientsByUser(@PathVariable Long userId) {
-        return patientRepository.findByOwnerId(userId);
+    public PatientPageResponse getPatientsByUser(@PathVariable Long userId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+        return patientService.getPatientsPage(userId, cursor, limit);
+    }
+
+    // TIMELINE: encounters, prescriptions and appointments merged, newest
+    // first; ?cursor=<nextCursor> goes further back in time
+    @GetMapping("/{id}/timeline")
+    public PatientTimelineResponse getTimeline(@PathVariable Long id,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        return timelineService.getTimeline(id, cursor, limit);
     }
 }
@@ -3,6 +3,7 @@ package com.sih.telemed.telemedbackend.controller;
 
 import com.sih.telemed.telemedbackend.dto.Patient.PatientSignupDto;
 import com.sih.telemed.telemedbackend.dto.Patient.PatientSignupResponse;
+import com.sih.telemed.telemedbackend.service.IdempotencyStore;
 import com.sih.telemed.telemedbackend.service.PatientSignupService;
 
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ public class PatientSignupController {
 
 
     private final PatientSignupService patientSignupService;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping("/test")
     public String test() {
@@ -23,7 +25,10 @@ public class PatientSignupController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<PatientSignupResponse> register(@RequestBody PatientSignupDto dto) {
-        return ResponseEntity.ok(patientSignupService.register(dto));
+    public ResponseEntity<PatientSignupResponse> register(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody PatientSignupDto dto) {
+        return ResponseEntity.ok(idempotencyStore.execute("patient-register", idempotencyKey, dto,
+                () -> patientSignupService.register(dto)));
     }
 }
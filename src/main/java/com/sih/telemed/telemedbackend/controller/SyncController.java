@@ -0,0 +1,39 @@
+package com.sih.telemed.telemedbackend.controller;
+
+import com.sih.telemed.telemedbackend.dto.Sync.SyncRequest;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncResponse;
+import com.sih.telemed.telemedbackend.service.ChwSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final ChwSyncService syncService;
+
+    // ---------------------------------------------------------
+    // PULL CHANGES SINCE A CURSOR (call again while hasMore)
+    // ---------------------------------------------------------
+    @GetMapping("/chw/{chwId}")
+    public ResponseEntity<SyncResponse> pull(
+            @PathVariable Long chwId,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(syncService.pull(chwId, since, limit));
+    }
+
+    // ---------------------------------------------------------
+    // UPLOAD OFFLINE QUEUE + PULL (body may be gzip)
+    // ---------------------------------------------------------
+    @PostMapping("/chw/{chwId}")
+    public ResponseEntity<SyncResponse> sync(
+            @PathVariable Long chwId,
+            @RequestBody SyncRequest request) {
+
+        return ResponseEntity.ok(syncService.sync(chwId, request));
+    }
+}
@@ -0,0 +1,33 @@
+package com.sih.telemed.telemedbackend.controller;
+
+import com.sih.telemed.telemedbackend.dto.Teleslot.TeleslotRequest;
+import com.sih.telemed.telemedbackend.dto.Teleslot.TeleslotResponse;
+import com.sih.telemed.telemedbackend.service.TeleslotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/teleslots")
+@RequiredArgsConstructor
+public class TeleslotController {
+
+    private final TeleslotService teleslotService;
+
+    @PostMapping
+    public ResponseEntity<TeleslotResponse> create(@RequestBody TeleslotRequest request) {
+        return ResponseEntity.ok(teleslotService.createSlot(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TeleslotResponse> get(@PathVariable Long id) {
+        return ResponseEntity.ok(teleslotService.getSlot(id));
+    }
+
+    @GetMapping("/doctor/{doctorId}")
+    public ResponseEntity<List<TeleslotResponse>> getForDoctor(@PathVariable Long doctorId) {
+        return ResponseEntity.ok(teleslotService.getUpcomingSlotsForDoctor(doctorId));
+    }
+}
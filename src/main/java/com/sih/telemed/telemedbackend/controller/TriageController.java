@@ -0,0 +1,38 @@
+package com.sih.telemed.telemedbackend.controller;
+
+import com.sih.telemed.telemedbackend.dto.Triage.TriageRequest;
+import com.sih.telemed.telemedbackend.dto.Triage.TriageResponse;
+import com.sih.telemed.telemedbackend.service.SymptomTriage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/triage")
+@RequiredArgsConstructor
+public class TriageController {
+
+    private final SymptomTriage triage;
+
+    // ---------------------------------------------------------
+    // PRELIMINARY SYMPTOM ASSESSMENT (local, works without internet)
+    // ---------------------------------------------------------
+    @PostMapping
+    public ResponseEntity<TriageResponse> assess(@RequestBody TriageRequest request) {
+        SymptomTriage.Assessment a = triage.assess(request.getSymptoms());
+
+        return ResponseEntity.ok(TriageResponse.builder()
+                .riskscore(a.risk())
+                .emergency(a.emergency())
+                .symptoms(a.matches().stream()
+                        .map(m -> TriageResponse.Finding.builder()
+                                .code(m.symptom().getCode())
+                                .label(m.symptom().getLabel())
+                                .matched(m.term())
+                                .negated(m.negated())
+                                .build())
+                        .toList())
+                .reasons(a.reasons())
+                .build());
+    }
+}
@@ -1,13 +1,15 @@
 package com.sih.telemed.telemedbackend.controller;
 
 
+import com.sih.telemed.telemedbackend.dto.Auth.UserPageResponse;
 import com.sih.telemed.telemedbackend.model.User;
 import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.service.SignupGuard;
+import com.sih.telemed.telemedbackend.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/users")
@@ -15,6 +17,8 @@ import java.util.List;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final SignupGuard signupGuard;
+    private final UserService userService;
 
     // -------------------------
     // CREATE USER (REGISTER)
@@ -30,7 +34,9 @@ public class UserController {
         request.setActive(true);
         request.setCreatedAt(LocalDateTime.now());
 
-        return userRepository.save(request);
+        User saved = userRepository.save(request);
+        signupGuard.recordUsername(saved.getUsername());
+        return saved;
     }
 
     // -------------------------
@@ -43,10 +49,11 @@ public class UserController {
     }
 
     // -------------------------
-    // LIST ALL USERS (optional)
+    // LIST USERS: keyset pages of summaries (?cursor=<nextCursor>&limit=50)
     // -------------------------
     @GetMapping
-    public List<User> listUsers() {
-        return userRepository.findAll();
+    public UserPageResponse listUsers(@RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit) {
+        return userService.getUsersPage(cursor, limit);
     }
 }
@@ -0,0 +1,41 @@
+package com.sih.telemed.telemedbackend.controller;
+
+import com.sih.telemed.telemedbackend.dto.Vitals.VitalsSeriesResponse;
+import com.sih.telemed.telemedbackend.service.VitalsStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/vitals")
+@RequiredArgsConstructor
+public class VitalsController {
+
+    private final VitalsStore vitalsStore;
+
+    // ---------------------------------------------------------
+    // METRICS RECORDED FOR A PATIENT (metric -> readings)
+    // ---------------------------------------------------------
+    @GetMapping("/patient/{patientId}")
+    public ResponseEntity<Map<String, Integer>> getMetrics(@PathVariable Long patientId) {
+        return ResponseEntity.ok(vitalsStore.metrics(patientId));
+    }
+
+    // ---------------------------------------------------------
+    // ONE METRIC OVER A RANGE, raw or downsampled
+    // e.g. /api/vitals/patient/7/systolic?from=2025-01-01T00:00&bucket=1w
+    // ---------------------------------------------------------
+    @GetMapping("/patient/{patientId}/{metric}")
+    public ResponseEntity<VitalsSeriesResponse> getSeries(
+            @PathVariable Long patientId,
+            @PathVariable String metric,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String bucket,
+            @RequestParam(defaultValue = "500") int maxPoints) {
+
+        return ResponseEntity.ok(vitalsStore.query(patientId, metric, from, to, bucket, maxPoints));
+    }
+}
@@ -0,0 +1,17 @@
+package com.sih.telemed.telemedbackend.dto.Appoinment;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentPageResponse {
+
+    private List<AppointmentResponse> items;
+
+    // pass back as ?cursor= to get the next page; null when there are no more rows
+    private String nextCursor;
+}
@@ -12,6 +12,7 @@ import lombok.*;
 public class AppointmentResponse {
 
     private Long id;
+    private Long patientId;
 
     private String startTime;
     private String endTime;
@@ -0,0 +1,23 @@
+package com.sih.telemed.telemedbackend.dto.Appoinment;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+
+import java.time.LocalDateTime;
+
+// Read-model row: appointment joined with patient and doctor names in one query
+public record AppointmentView(
+        Long id,
+        Long patientId,
+        Long doctorId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String teleSlotId,
+        AppointmentStatus status,
+        AppointmentType appointmentType,
+        AppointmentRountingStatus routingStatus,
+        String patientName,
+        String doctorName
+) {
+}
@@ -0,0 +1,12 @@
+package com.sih.telemed.telemedbackend.dto.Appoinment;
+
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BusyIntervalResponse {
+    private String startTime;
+    private String endTime;
+}
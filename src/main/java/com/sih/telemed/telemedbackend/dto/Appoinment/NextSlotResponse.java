@@ -0,0 +1,16 @@
+package com.sih.telemed.telemedbackend.dto.Appoinment;
+
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NextSlotResponse {
+    private Long doctorId;
+    private String doctorName;
+    private String hospital;
+    private String specialization;
+    private String startTime;
+    private String endTime;
+}
@@ -0,0 +1,17 @@
+package com.sih.telemed.telemedbackend.dto.Auth;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageResponse {
+
+    private List<UserSummary> items;
+
+    // pass back as ?cursor= to get the next page; null when there are no more rows
+    private String nextCursor;
+}
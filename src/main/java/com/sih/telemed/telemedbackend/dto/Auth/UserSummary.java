@@ -0,0 +1,13 @@
+package com.sih.telemed.telemedbackend.dto.Auth;
+
+import com.sih.telemed.telemedbackend.Enums.Role;
+
+// List row: user columns only (never the password or the patients collection)
+public record UserSummary(
+        Long id,
+        String username,
+        String fullName,
+        Role role,
+        boolean active
+) {
+}
@@ -0,0 +1,27 @@
+package com.sih.telemed.telemedbackend.dto.Census;
+
+import com.sih.telemed.telemedbackend.Enums.CensusImportStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CensusImportResponse {
+
+    private Long id;
+    private String fileName;
+    private Long importedBy;
+    private CensusImportStatus status;
+
+    private Long totalRows;         // null until the job has counted the file
+    private long processedRows;
+    private long created;
+    private long rejected;
+    private String error;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
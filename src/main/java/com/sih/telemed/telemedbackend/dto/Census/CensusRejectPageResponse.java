@@ -0,0 +1,17 @@
+package com.sih.telemed.telemedbackend.dto.Census;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CensusRejectPageResponse {
+
+    private List<CensusRejectResponse> items;
+
+    // pass back as ?cursor= to get the next page; null when there are no more rows
+    private String nextCursor;
+}
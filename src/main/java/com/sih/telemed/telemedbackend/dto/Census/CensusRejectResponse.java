@@ -0,0 +1,13 @@
+package com.sih.telemed.telemedbackend.dto.Census;
+
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CensusRejectResponse {
+
+    private long line;
+    private String reason;
+}
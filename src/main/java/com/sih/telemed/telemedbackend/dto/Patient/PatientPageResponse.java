@@ -0,0 +1,17 @@
+package com.sih.telemed.telemedbackend.dto.Patient;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientPageResponse {
+
+    private List<PatientSummary> items;
+
+    // pass back as ?cursor= to get the next page; null when there are no more rows
+    private String nextCursor;
+}
@@ -10,6 +10,8 @@ public class PatientRequest {
     private String email;
     private String phone;
     private String address;
+    private String village;
+    private String block;
     private String bloodGroup;
     private String gender;
     private String bloodPressure;
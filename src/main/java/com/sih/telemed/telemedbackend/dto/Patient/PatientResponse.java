@@ -10,4 +10,11 @@ public class PatientResponse {
     private String name;
     private String phone;
     private String abhaId;
+    private String dob;
+    private String gender;
+    private String age;
+    private String bloodGroup;
+    private String address;
+    private String village;
+    private String block;
 }
@@ -0,0 +1,16 @@
+package com.sih.telemed.telemedbackend.dto.Patient;
+
+// List / export row: only the columns patient lists show, selected
+// straight into this record (no entity, no owner association)
+public record PatientSummary(
+        Long id,
+        Long ownerUserId,
+        String name,
+        String phone,
+        String abhaId,
+        String gender,
+        String age,
+        String village,
+        String block
+) {
+}
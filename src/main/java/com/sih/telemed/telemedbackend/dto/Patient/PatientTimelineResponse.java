@@ -0,0 +1,18 @@
+package com.sih.telemed.telemedbackend.dto.Patient;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientTimelineResponse {
+
+    // newest first
+    private List<TimelineEvent> items;
+
+    // pass back as ?cursor= for older events; null when there are none
+    private String nextCursor;
+}
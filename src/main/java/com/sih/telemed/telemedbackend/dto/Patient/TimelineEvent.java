@@ -0,0 +1,56 @@
+package com.sih.telemed.telemedbackend.dto.Patient;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Enums.TimelineEventType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// One row of a patient's timeline, whatever it came from.
+// Selected straight into this record by the per-source queries
+// (one constructor each); at is Asia/Kolkata wall-clock time,
+// summary a one-line preview (full record via its own endpoint).
+public record TimelineEvent(
+        TimelineEventType type,
+        Long id,
+        LocalDateTime at,
+        String status,
+        String summary,
+        String doctorName
+) {
+
+    static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    static final int SUMMARY_CHARS = 80;
+
+    // encounter: diagnosis if there is one yet, else the symptoms
+    public TimelineEvent(Long id, Instant createdAt, EncounterStatus status,
+                         String provisionalDiagnosis, String symptoms, String doctorName) {
+        this(TimelineEventType.ENCOUNTER, id, LocalDateTime.ofInstant(createdAt, ZONE),
+                status != null ? status.name() : null,
+                brief(provisionalDiagnosis != null && !provisionalDiagnosis.isBlank() ? provisionalDiagnosis : symptoms),
+                doctorName);
+    }
+
+    // appointment: at its start time
+    public TimelineEvent(Long id, LocalDateTime startTime, AppointmentStatus status,
+                         AppointmentType appointmentType, String doctorName) {
+        this(TimelineEventType.APPOINTMENT, id, startTime,
+                status != null ? status.name() : null,
+                appointmentType != null ? appointmentType.name() : null,
+                doctorName);
+    }
+
+    // prescription: the instructions
+    public TimelineEvent(Long id, LocalDateTime createdAt, String instructions, String doctorName) {
+        this(TimelineEventType.PRESCRIPTION, id, createdAt, null, brief(instructions), doctorName);
+    }
+
+    static String brief(String text) {
+        if (text == null) return null;
+        String line = text.strip().replaceAll("\\s+", " ");
+        return line.length() <= SUMMARY_CHARS ? line : line.substring(0, SUMMARY_CHARS - 1) + "…";
+    }
+}
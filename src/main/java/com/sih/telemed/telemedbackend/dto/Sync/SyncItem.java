@@ -0,0 +1,16 @@
+package com.sih.telemed.telemedbackend.dto.Sync;
+
+import lombok.*;
+
+// One change made offline. clientId is the device's own id for the row
+// (also the idempotency key, so a re-sent upload doesn't create twice);
+// patientClientId points at a patient created in the same upload.
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncItem<T> {
+    private String clientId;
+    private String patientClientId;
+    private T data;
+}
@@ -0,0 +1,14 @@
+package com.sih.telemed.telemedbackend.dto.Sync;
+
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncItemResult {
+    private String type;        // patient / encounter / appointment
+    private String clientId;
+    private Long id;            // server id when applied
+    private String error;       // null when applied
+}
@@ -0,0 +1,26 @@
+package com.sih.telemed.telemedbackend.dto.Sync;
+
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentRequest;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientRequest;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterRequest;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncRequest {
+    // cursor from the previous sync; null = everything
+    private Long since;
+    private Integer limit;
+
+    @Builder.Default
+    private List<SyncItem<PatientRequest>> patients = new ArrayList<>();
+    @Builder.Default
+    private List<SyncItem<EncounterRequest>> encounters = new ArrayList<>();
+    @Builder.Default
+    private List<SyncItem<AppointmentRequest>> appointments = new ArrayList<>();
+}
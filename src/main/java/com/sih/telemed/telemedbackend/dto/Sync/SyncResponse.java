@@ -0,0 +1,23 @@
+package com.sih.telemed.telemedbackend.dto.Sync;
+
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientResponse;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterResponse;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncResponse {
+    // send back as `since` next time; hasMore = call again right away
+    private long cursor;
+    private boolean hasMore;
+    private List<PatientResponse> patients;
+    private List<EncounterResponse> encounters;
+    private List<AppointmentResponse> appointments;
+    // per uploaded item, in upload order (empty on a pull)
+    private List<SyncItemResult> results;
+}
@@ -0,0 +1,20 @@
+package com.sih.telemed.telemedbackend.dto.Teleslot;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TeleslotRequest {
+    private Long doctorId;
+    private String startTime;
+    private String endTime;
+    private AppointmentType appointmentType;
+    private Integer maxPatients;
+    private Integer minPatients;
+}
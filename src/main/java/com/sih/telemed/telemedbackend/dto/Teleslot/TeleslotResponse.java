@@ -0,0 +1,21 @@
+package com.sih.telemed.telemedbackend.dto.Teleslot;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Enums.Status;
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeleslotResponse {
+    private Long id;
+    private Long doctorId;
+    private String startTime;
+    private String endTime;
+    private AppointmentType appointmentType;
+    private Status status;
+    private Integer maxPatients;
+    private Integer minPatients;
+    private Integer bookedPatients;
+}
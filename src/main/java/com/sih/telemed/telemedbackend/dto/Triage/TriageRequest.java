@@ -0,0 +1,13 @@
+package com.sih.telemed.telemedbackend.dto.Triage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TriageRequest {
+    // free text, any mix of English / Hindi / Punjabi
+    private String symptoms;
+}
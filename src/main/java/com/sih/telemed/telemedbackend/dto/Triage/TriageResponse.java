@@ -0,0 +1,24 @@
+package com.sih.telemed.telemedbackend.dto.Triage;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TriageResponse {
+    private double riskscore;          // 0..1, as stored on the encounter
+    private boolean emergency;         // riskscore >= emergency threshold
+    private List<Finding> symptoms;
+    private List<String> reasons;      // combination rules that raised the score
+
+    @Data
+    @Builder
+    public static class Finding {
+        private String code;
+        private String label;
+        private String matched;        // the words that matched (normalized)
+        private boolean negated;       // "no fever", "bukhar nahi"
+    }
+}
@@ -0,0 +1,23 @@
+package com.sih.telemed.telemedbackend.dto.Vitals;
+
+import lombok.*;
+
+// Column arrays, one entry per point; t is epoch seconds.
+// Raw (bucketSeconds = 0): value is set, min / max / count are null.
+// Downsampled: t is the bucket start and value is the bucket average.
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VitalsSeriesResponse {
+    private Long patientId;
+    private String metric;
+    private long from;
+    private long to;
+    private long bucketSeconds;
+    private long[] t;
+    private float[] value;
+    private float[] min;
+    private float[] max;
+    private int[] count;
+}
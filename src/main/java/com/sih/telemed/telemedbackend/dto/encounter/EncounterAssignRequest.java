@@ -1,13 +1,12 @@
 package com.sih.telemed.telemedbackend.dto.encounter;
 
-import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
 public class EncounterAssignRequest {
-    @NotNull
+    // doctor's user id; null = least-busy doctor at the patient's hospital
     private Long doctorId;
     private String DoctorName;
 }
@@ -0,0 +1,14 @@
+package com.sih.telemed.telemedbackend.dto.encounter;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class EncounterBulkResponse {
+    private int created;
+    private int rejected;
+    private List<EncounterBulkResult> results;
+}
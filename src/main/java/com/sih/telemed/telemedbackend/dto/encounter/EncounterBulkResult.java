@@ -0,0 +1,13 @@
+package com.sih.telemed.telemedbackend.dto.encounter;
+
+import lombok.Builder;
+import lombok.Data;
+
+// outcome of one item of a bulk upload; index is its position in the request
+@Data
+@Builder
+public class EncounterBulkResult {
+    private int index;
+    private Long id;            // null when rejected
+    private String error;       // null when created
+}
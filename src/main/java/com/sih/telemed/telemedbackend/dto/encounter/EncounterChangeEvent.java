@@ -0,0 +1,23 @@
+package com.sih.telemed.telemedbackend.dto.encounter;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+// compact live-feed message; dashboards fetch the full encounter only if they need it
+@Data
+@Builder
+public class EncounterChangeEvent {
+    private Long id;
+    private EncounterEventType type;
+    private EncounterStatus status;
+    private Long patientId;
+    private Long chwId;
+    private Long doctorId;
+    private Double Riskscore;
+    private Instant updatedAt;
+    private Long changeSeq;
+}
@@ -0,0 +1,17 @@
+package com.sih.telemed.telemedbackend.dto.encounter;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class EncounterEventResponse {
+    private long position;
+    private EncounterEventType type;
+    private Instant at;
+    // encounter after this event
+    private EncounterResponse state;
+}
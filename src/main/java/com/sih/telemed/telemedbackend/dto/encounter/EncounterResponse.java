@@ -16,7 +16,9 @@ public class EncounterResponse {
     private String symptoms;
     private String provisionalDiagnosis;
     private Double Riskscore;
+    private Double bloodSugar;
     private String vitalsJson;
+    private String notes;
     private EncounterStatus status;
     private Instant createdAt;
     private Instant updatedAt;
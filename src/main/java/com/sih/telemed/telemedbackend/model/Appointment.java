@@ -8,9 +8,13 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_patient_change", columnList = "patient_id, change_seq"),
+        @Index(name = "idx_appointments_patient_start", columnList = "patient_id, start_time")
+})
+@EntityListeners(ChangeSeqListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
-public class Appointment {
+public class Appointment implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,4 +43,18 @@ public class Appointment {
 
     // Optional: which hospital was assigned to handle this appointment
     private String assignedHospital;
+
+    // When the patient requested it (routing queue lag is measured from here)
+    private LocalDateTime requestedAt;
+
+    // Last routing-status change (assignment timeouts are measured from here)
+    private LocalDateTime routingUpdatedAt;
+
+    // How many doctors this appointment has been offered to
+    @Builder.Default
+    @Column(columnDefinition = "integer default 0")
+    private Integer routingAttempts = 0;
+
+    // sync cursor position of the last device-visible change (see ChangeCursor)
+    private Long changeSeq;
 }
@@ -0,0 +1,45 @@
+package com.sih.telemed.telemedbackend.model;
+
+import com.sih.telemed.telemedbackend.Enums.CensusImportStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// one uploaded census CSV; progress columns are written by
+// CensusImportService in the same transaction as each chunk's rows
+@Entity
+@Table(name = "census_imports")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CensusImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String fileName;
+    private Long importedBy;        // CHW / admin user id
+
+    // used for rows that leave village / block empty
+    private String defaultVillage;
+    private String defaultBlock;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CensusImportStatus status;
+
+    private Long totalRows;         // data records in the file, known once the job starts
+    private long processedRows;     // records committed (created + rejected); resume skips these
+    private long created;
+    private long rejected;
+
+    @Column(length = 500)
+    private String error;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
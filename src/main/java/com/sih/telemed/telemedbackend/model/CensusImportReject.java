@@ -0,0 +1,27 @@
+package com.sih.telemed.telemedbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "census_import_rejects", indexes = @Index(name = "idx_census_rejects_import_line", columnList = "import_id, line"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CensusImportReject {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "import_id", nullable = false)
+    private Long importId;
+
+    // line of the CSV the record starts on (the header is line 1)
+    private long line;
+
+    @Column(length = 200)
+    private String reason;
+}
@@ -0,0 +1,26 @@
+package com.sih.telemed.telemedbackend.model;
+
+import com.sih.telemed.telemedbackend.service.ChangeCursor;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// ---------------------------------------------------------
+// Stamps change_seq on every JPA insert / update of a ChangeTracked
+// entity. Hibernate gets this bean from Spring, so the cursor is
+// injected. Bulk JPQL / JDBC updates bypass it and set change_seq
+// themselves where the change matters to devices.
+// ---------------------------------------------------------
+@Component
+@RequiredArgsConstructor
+public class ChangeSeqListener {
+
+    private final ChangeCursor changeCursor;
+
+    @PrePersist
+    @PreUpdate
+    void stamp(Object entity) {
+        ((ChangeTracked) entity).setChangeSeq(changeCursor.next());
+    }
+}
@@ -0,0 +1,8 @@
+package com.sih.telemed.telemedbackend.model;
+
+// Rows offline devices sync by cursor; stamped by ChangeSeqListener
+public interface ChangeTracked {
+    Long getChangeSeq();
+
+    void setChangeSeq(Long changeSeq);
+}
@@ -7,13 +7,17 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "encounters")
+@Table(name = "encounters", indexes = {
+        @Index(name = "idx_encounters_chw_change", columnList = "chw_id, change_seq"),
+        @Index(name = "idx_encounters_patient_created", columnList = "patient_id, created_at")
+})
+@EntityListeners(ChangeSeqListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Encounter {
+public class Encounter implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -42,6 +46,10 @@ public class Encounter {
     @Column(columnDefinition = "TEXT")
     private String vitalsJson;
 
+    // doctor's final notes, written when the encounter is completed
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
     // ---------------------------------------------------------
     // Status
     // ---------------------------------------------------------
@@ -53,4 +61,7 @@ public class Encounter {
     // ---------------------------------------------------------
     private Instant createdAt;
     private Instant updatedAt;
+
+    // sync cursor position of the last change (see ChangeCursor)
+    private Long changeSeq;
 }
@@ -6,13 +6,20 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients",
+        indexes = @Index(name = "idx_patients_owner_change", columnList = "user_id, change_seq"),
+        uniqueConstraints = {
+                // names matter: SignupGuard maps violations back to the field
+                @UniqueConstraint(name = "uk_patients_phone", columnNames = "phone"),
+                @UniqueConstraint(name = "uk_patients_abha_id", columnNames = "abha_id")
+        })
+@EntityListeners(ChangeSeqListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Patient {
+public class Patient implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,7 +34,6 @@ public class Patient {
     private String dob;
     private String email;
 
-    @Column(unique = true)
     private String phone;
 
     private String address; // village, block, city combined
@@ -45,4 +51,7 @@ public class Patient {
     private String abhaId;
 
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // sync cursor position of the last change (see ChangeCursor)
+    private Long changeSeq;
 }
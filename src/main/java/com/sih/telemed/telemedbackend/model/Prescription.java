@@ -7,7 +7,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = @Index(name = "idx_prescriptions_patient_created", columnList = "patient_id, created_at"))
 @Data @Builder
 @NoArgsConstructor @AllArgsConstructor
 public class Prescription {
@@ -1,4 +1,21 @@
 package com.sih.telemed.telemedbackend.model;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// ---------------------------------------------------------
+// One entry of the triage dictionary (not persisted).
+// weight: risk this symptom alone carries, 0..1 (the same scale
+// as Encounter.Riskscore); terms: every way a CHW may write it -
+// English, romanized Hindi / Punjabi, Devanagari, Gurmukhi.
+// ---------------------------------------------------------
+@Getter
+@AllArgsConstructor
 public class Symptom {
+    private final String code;
+    private final String label;
+    private final double weight;
+    private final List<String> terms;
 }
@@ -36,5 +36,8 @@ public class Teleslot {
     private Integer maxPatients;
     private Integer minPatients;
 
+    // seats taken so far; only ever changed by conditional UPDATEs in TeleslotRepository
+    @Column(columnDefinition = "integer default 0")
+    private Integer bookedPatients = 0;
 
 }
@@ -13,7 +13,7 @@
     @NoArgsConstructor
     @AllArgsConstructor
     @Builder
-    @Table(name = "`users`")
+    @Table(name = "`users`", uniqueConstraints = @UniqueConstraint(name = "uk_users_username", columnNames = "username"))
     @Getter
     public class User {
 
@@ -21,7 +21,7 @@
         @GeneratedValue(strategy = GenerationType.IDENTITY)
         private Long id;
 
-        @Column(nullable = false, unique = true, length = 80)
+        @Column(nullable = false, length = 80)
         private String username;
 
         @Column(nullable = false)
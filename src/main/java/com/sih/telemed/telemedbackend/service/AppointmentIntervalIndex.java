@@ -0,0 +1,312 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// ---------------------------------------------------------
+// IN-MEMORY INTERVAL INDEX OF SCHEDULED APPOINTMENTS PER DOCTOR
+// (replaces findConflicts / countOverlappingScheduledAppointments
+//  range scans on the hot availability path)
+// ---------------------------------------------------------
+@Component
+@RequiredArgsConstructor
+public class AppointmentIntervalIndex {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final Map<Long, DoctorTimeline> timelines = new ConcurrentHashMap<>();
+
+    // appointmentId -> doctorId, so re-assignments can drop the old entry
+    private final Map<Long, Long> doctorOfAppointment = new ConcurrentHashMap<>();
+
+    // derived structures (e.g. the free-slot bitmap) refreshed on every change
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public interface ChangeListener {
+        // [start, end) of doctorId's timeline changed; called under the index lock
+        void changed(Long doctorId, LocalDateTime start, LocalDateTime end);
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    // ---------------------------------------------------------
+    // REBUILD FROM DB (on startup)
+    // ---------------------------------------------------------
+    @PostConstruct
+    public void rebuild() {
+        timelines.clear();
+        doctorOfAppointment.clear();
+        appointmentRepository.findByStatusAndDoctorIdIsNotNull(AppointmentStatus.SCHEDULED)
+                .forEach(this::apply);
+        purgeEnded(LocalDateTime.now(ZONE));
+    }
+
+    // ---------------------------------------------------------
+    // DROP APPOINTMENTS THAT HAVE ENDED
+    // Keeps size() a measure of upcoming load and the scan bound
+    // from being held up by old long bookings. Listeners are not
+    // told: the availability bitmap drops past days on its own.
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${appointments.index.purge-ms:3600000}",
+            initialDelayString = "${appointments.index.purge-ms:3600000}")
+    public void purgeEnded() {
+        purgeEnded(LocalDateTime.now(ZONE));
+    }
+
+    synchronized int purgeEnded(LocalDateTime now) {
+        long cutoff = key(now);
+        int purged = 0;
+        for (DoctorTimeline t : timelines.values()) {
+            for (Interval i : t.removeEndedBy(cutoff)) {
+                doctorOfAppointment.remove(i.appointmentId());
+                purged++;
+            }
+        }
+        timelines.values().removeIf(DoctorTimeline::isEmpty);
+        return purged;
+    }
+
+    // ---------------------------------------------------------
+    // KEEP IN STEP WITH AppointmentService (applied after commit)
+    // ---------------------------------------------------------
+    public void track(Appointment a) {
+        Long id = a.getId();
+        Long doctorId = a.getDoctorId();
+        AppointmentStatus status = a.getStatus();
+        LocalDateTime start = a.getStartTime();
+        LocalDateTime end = a.getEndTime();
+
+        AfterCommit.run(() -> apply(id, doctorId, status, start, end));
+    }
+
+    public void untrack(Long appointmentId) {
+        AfterCommit.run(() -> remove(appointmentId));
+    }
+
+    // ---------------------------------------------------------
+    // QUERIES
+    // ---------------------------------------------------------
+    public long countOverlapping(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        return countOverlapping(doctorId, start, end, null);
+    }
+
+    // excludeAppointmentId: ignore this appointment (e.g. when re-assigning it)
+    public long countOverlapping(Long doctorId, LocalDateTime start, LocalDateTime end, Long excludeAppointmentId) {
+        DoctorTimeline t = timelines.get(doctorId);
+        if (t == null) return 0;
+        long exclude = excludeAppointmentId != null ? excludeAppointmentId : Long.MIN_VALUE;
+        return t.countOverlapping(key(start), key(end), exclude);
+    }
+
+    public boolean isFree(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        return countOverlapping(doctorId, start, end) == 0;
+    }
+
+    public List<Long> findConflicts(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        DoctorTimeline t = timelines.get(doctorId);
+        if (t == null) return List.of();
+        List<Long> ids = new ArrayList<>();
+        for (Interval i : t.overlapping(key(start), key(end))) {
+            ids.add(i.appointmentId());
+        }
+        return ids;
+    }
+
+    // merged busy blocks within [from, to), clipped to the window
+    public List<BusyBlock> busyIntervals(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        DoctorTimeline t = timelines.get(doctorId);
+        if (t == null) return List.of();
+
+        long lo = key(from);
+        long hi = key(to);
+        List<BusyBlock> busy = new ArrayList<>();
+        long curStart = 0;
+        long curEnd = Long.MIN_VALUE;
+
+        for (Interval i : t.overlapping(lo, hi)) {
+            long s = Math.max(i.start(), lo);
+            long e = Math.min(i.end(), hi);
+            if (s <= curEnd) {
+                curEnd = Math.max(curEnd, e);
+                continue;
+            }
+            if (curEnd != Long.MIN_VALUE) busy.add(new BusyBlock(time(curStart), time(curEnd)));
+            curStart = s;
+            curEnd = e;
+        }
+        if (curEnd != Long.MIN_VALUE) busy.add(new BusyBlock(time(curStart), time(curEnd)));
+        return busy;
+    }
+
+    public Set<Long> doctorIds() {
+        return Set.copyOf(timelines.keySet());
+    }
+
+    public int size(Long doctorId) {
+        DoctorTimeline t = timelines.get(doctorId);
+        return t == null ? 0 : t.size();
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    private void apply(Appointment a) {
+        apply(a.getId(), a.getDoctorId(), a.getStatus(), a.getStartTime(), a.getEndTime());
+    }
+
+    private synchronized void apply(Long id, Long doctorId, AppointmentStatus status, LocalDateTime start, LocalDateTime end) {
+        if (id == null) return;
+        if (doctorId == null || status != AppointmentStatus.SCHEDULED || start == null || end == null) {
+            remove(id);
+            return;
+        }
+
+        Long previousDoctor = doctorOfAppointment.put(id, doctorId);
+        if (previousDoctor != null && !previousDoctor.equals(doctorId)) {
+            DoctorTimeline old = timelines.get(previousDoctor);
+            if (old != null) notify(previousDoctor, old.remove(id));
+        }
+        Interval added = new Interval(id, key(start), key(end));
+        notify(doctorId, timelines.computeIfAbsent(doctorId, d -> new DoctorTimeline()).put(added));
+        notify(doctorId, added);
+    }
+
+    private synchronized void remove(Long appointmentId) {
+        Long doctorId = doctorOfAppointment.remove(appointmentId);
+        if (doctorId == null) return;
+        DoctorTimeline t = timelines.get(doctorId);
+        if (t != null) notify(doctorId, t.remove(appointmentId));
+    }
+
+    private void notify(Long doctorId, Interval changed) {
+        if (changed == null) return;
+        for (ChangeListener l : listeners) {
+            l.changed(doctorId, time(changed.start()), time(changed.end()));
+        }
+    }
+
+    private static long key(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime time(long key) {
+        return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+    }
+
+    public record BusyBlock(LocalDateTime start, LocalDateTime end) {
+    }
+
+    record Interval(long appointmentId, long start, long end) {
+    }
+
+    // ---------------------------------------------------------
+    // One doctor's appointments sorted by (start, id).
+    // Overlap with [s, e) only needs candidates starting in
+    // (s - maxLength, e), so queries are O(log n + k).
+    // Lengths are kept as a multiset so maxLength shrinks again
+    // when the longest appointment goes away.
+    // ---------------------------------------------------------
+    static final class DoctorTimeline {
+
+        private static final Comparator<Interval> ORDER =
+                Comparator.comparingLong(Interval::start).thenComparingLong(Interval::appointmentId);
+
+        private final TreeSet<Interval> byStart = new TreeSet<>(ORDER);
+        private final Map<Long, Interval> byId = new HashMap<>();
+        // length -> how many intervals have it
+        private final TreeMap<Long, Integer> lengths = new TreeMap<>();
+
+        // returns the interval it replaced, if any
+        synchronized Interval put(Interval i) {
+            Interval old = byId.put(i.appointmentId(), i);
+            if (old != null) unlink(old);
+            byStart.add(i);
+            lengths.merge(i.end() - i.start(), 1, Integer::sum);
+            return old;
+        }
+
+        synchronized Interval remove(long appointmentId) {
+            Interval old = byId.remove(appointmentId);
+            if (old != null) unlink(old);
+            return old;
+        }
+
+        // everything ending at or before cutoff; only those starting before it can qualify
+        synchronized List<Interval> removeEndedBy(long cutoff) {
+            List<Interval> ended = new ArrayList<>();
+            for (Interval i : byStart.headSet(new Interval(Long.MIN_VALUE, cutoff, 0), false)) {
+                if (i.end() <= cutoff) ended.add(i);
+            }
+            for (Interval i : ended) {
+                byId.remove(i.appointmentId());
+                unlink(i);
+            }
+            return ended;
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+
+        synchronized boolean isEmpty() {
+            return byId.isEmpty();
+        }
+
+        synchronized long maxLength() {
+            return lengths.isEmpty() ? 0 : lengths.lastKey();
+        }
+
+        private void unlink(Interval i) {
+            byStart.remove(i);
+            lengths.computeIfPresent(i.end() - i.start(), (len, n) -> n == 1 ? null : n - 1);
+        }
+
+        synchronized long countOverlapping(long s, long e, long excludeId) {
+            long n = 0;
+            for (Interval i : candidates(s, e)) {
+                if (i.end() > s && i.appointmentId() != excludeId) n++;
+            }
+            return n;
+        }
+
+        synchronized List<Interval> overlapping(long s, long e) {
+            List<Interval> out = new ArrayList<>();
+            for (Interval i : candidates(s, e)) {
+                if (i.end() > s) out.add(i);
+            }
+            return out;
+        }
+
+        private NavigableSet<Interval> candidates(long s, long e) {
+            if (e <= s || byStart.isEmpty()) return new TreeSet<>(ORDER);
+            Interval from = new Interval(Long.MIN_VALUE, s - maxLength(), 0);
+            Interval to = new Interval(Long.MIN_VALUE, e, 0);
+            return byStart.subSet(from, false, to, false);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// ---------------------------------------------------------
+// PER-REQUEST id -> name CACHE
+// For write paths that map a single Appointment entity back to a
+// response (assign, re-assign). Each patient / doctor name is looked
+// up at most once per HTTP request; outside a request every call
+// goes to the DB. List paths use the joined AppointmentView instead.
+// ---------------------------------------------------------
+@Component
+@RequiredArgsConstructor
+public class AppointmentNameResolver {
+
+    private static final String CACHE_ATTRIBUTE = AppointmentNameResolver.class.getName() + ".cache";
+
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+
+    public String patientName(Long patientId) {
+        if (patientId == null) return null;
+        return cache().computeIfAbsent("p" + patientId,
+                k -> patientRepository.findNameById(patientId)).orElse(null);
+    }
+
+    public String doctorName(Long doctorId) {
+        if (doctorId == null) return null;
+        return cache().computeIfAbsent("d" + doctorId,
+                k -> doctorRepository.findNameById(doctorId)).orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<String>> cache() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs == null) return new HashMap<>();
+
+        Object cache = attrs.getAttribute(CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new HashMap<String, Optional<String>>();
+            attrs.setAttribute(CACHE_ATTRIBUTE, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<String, Optional<String>>) cache;
+    }
+}
@@ -0,0 +1,295 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Patient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// ---------------------------------------------------------
+// BACKGROUND ROUTING ENGINE
+// Drains REQUESTED appointments in batches:
+//   1. claim:  REQUESTED -> ASSIGNING   (one JDBC batch; only rows this
+//              UPDATE moved are kept, stamped with the claim time)
+//   2. decide: village -> hospital -> free AVAILABLE doctor (in memory,
+//              status from DoctorPresenceRegistry)
+//   3. commit: ASSIGNING -> WAITING (offered; ASSIGNED once the doctor
+//              accepts) / NO_DOCTOR_AVAILABLE (one JDBC batch, only
+//              where the row still carries this claim's time)
+// Stuck claims and unanswered offers are timed out by AssignmentTimeoutService.
+// ---------------------------------------------------------
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentRoutingEngine {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private static final String CLAIM_SQL = """
+            UPDATE appointments
+               SET routing_status = 'ASSIGNING', routing_updated_at = ?
+             WHERE id = ? AND routing_status = 'REQUESTED'
+            """;
+
+    private static final String COMMIT_SQL = """
+            UPDATE appointments
+               SET routing_status = ?, doctor_id = ?, assigned_hospital = ?,
+                   routing_updated_at = ?, routing_attempts = COALESCE(routing_attempts, 0) + ?,
+                   change_seq = ?
+             WHERE id = ? AND routing_status = 'ASSIGNING' AND routing_updated_at = ?
+            """;
+
+    private final AppointmentRepository appointmentRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorPresenceRegistry presence;
+    private final VillageRoutingService villageRoutingService;
+    private final AppointmentIntervalIndex intervalIndex;
+    private final AssignmentTimeoutService timeoutService;
+    private final DoctorLoadBalancer loadBalancer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ChangeCursor changeCursor;
+
+    @Value("${routing.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${routing.engine.batch-size:100}")
+    private int batchSize;
+
+    @Value("${routing.engine.max-batches-per-tick:10}")
+    private int maxBatchesPerTick;
+
+    // cached view: hospital -> AVAILABLE doctor ids, rebuilt when the presence registry moves on
+    private volatile Map<String, List<Long>> doctorsByHospital = Map.of();
+    private volatile long doctorsVersion = -1;
+
+    private Counter assignedCounter;
+    private Counter noDoctorCounter;
+    private Timer batchTimer;
+    private final AtomicLong queueLagSeconds = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        assignedCounter = Counter.builder("appointments.routing.routed")
+                .tag("outcome", "assigned").register(meterRegistry);
+        noDoctorCounter = Counter.builder("appointments.routing.routed")
+                .tag("outcome", "no_doctor").register(meterRegistry);
+        batchTimer = Timer.builder("appointments.routing.batch").register(meterRegistry);
+        meterRegistry.gauge("appointments.routing.queue.lag.seconds", queueLagSeconds);
+    }
+
+    // ---------------------------------------------------------
+    // TICK: drain until a batch comes back short, at most
+    // max-batches-per-tick batches so the shared scheduler pool
+    // is never held for long
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${routing.engine.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) return;
+        int batches = 0;
+        int routed;
+        do {
+            routed = routeBatch();
+        } while (routed == batchSize && ++batches < maxBatchesPerTick);
+    }
+
+    public int routeBatch() {
+        long t0 = System.nanoTime();
+
+        List<Appointment> batch = transactionTemplate.execute(s -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            queueLagSeconds.set(0);
+            return 0;
+        }
+        batch.forEach(a -> timeoutService.claimed(a.getId()));
+
+        List<Appointment> decided = decide(batch);
+        int[] updated = transactionTemplate.execute(s -> commit(decided));
+
+        int assigned = 0;
+        int noDoctor = 0;
+        for (int i = 0; i < decided.size(); i++) {
+            if (updated == null || updated[i] == 0) continue;   // someone else moved it meanwhile
+            Appointment a = decided.get(i);
+            if (a.getRoutingStatus() == AppointmentRountingStatus.WAITING) {
+                intervalIndex.track(a);
+                timeoutService.offered(a.getId(), a.getDoctorId());
+                assigned++;
+            } else if (a.getRoutingStatus() == AppointmentRountingStatus.ASSIGNED) {
+                intervalIndex.track(a);
+                timeoutService.settled(a.getId());
+                assigned++;
+            } else {
+                timeoutService.settled(a.getId());
+                noDoctor++;
+            }
+        }
+        assignedCounter.increment(assigned);
+        noDoctorCounter.increment(noDoctor);
+
+        long elapsed = System.nanoTime() - t0;
+        batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        log.info("Routed {} appointments ({} assigned, {} no doctor) in {} ms, head-of-queue lag {} s",
+                batch.size(), assigned, noDoctor, elapsed / 1_000_000, queueLagSeconds.get());
+        return batch.size();
+    }
+
+    // ---------------------------------------------------------
+    // 1. CLAIM
+    // ---------------------------------------------------------
+    private List<Appointment> claimBatch() {
+        List<Appointment> page = appointmentRepository.findByRoutingStatusAndStatusOrderByIdAsc(
+                AppointmentRountingStatus.REQUESTED, AppointmentStatus.SCHEDULED, PageRequest.of(0, batchSize));
+        if (page.isEmpty()) return page;
+
+        LocalDateTime oldest = page.get(0).getRequestedAt();
+        queueLagSeconds.set(oldest != null ? Duration.between(oldest, LocalDateTime.now(ZONE)).toSeconds() : 0);
+        return claim(page);
+    }
+
+    // the page was read without locks, so another instance (or an overlapping
+    // routeBatch) may have taken some rows since: keep only the ones moved here.
+    // The claim time, stored to the microsecond, is what commit checks against.
+    List<Appointment> claim(List<Appointment> page) {
+        LocalDateTime claimedAt = LocalDateTime.now(ZONE).truncatedTo(ChronoUnit.MICROS);
+        int[] moved = jdbcTemplate.batchUpdate(CLAIM_SQL, page, page.size(), (ps, a) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(claimedAt));
+            ps.setLong(2, a.getId());
+        })[0];
+
+        // entities are detached once the claim commits, so these edits never flush on their own
+        List<Appointment> claimed = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            if (moved[i] == 0) continue;
+            Appointment a = page.get(i);
+            a.setRoutingStatus(AppointmentRountingStatus.ASSIGNING);
+            a.setRoutingUpdatedAt(claimedAt);
+            claimed.add(a);
+        }
+        return claimed;
+    }
+
+    // ---------------------------------------------------------
+    // 2. DECIDE (no DB access except one patient lookup per batch)
+    // ---------------------------------------------------------
+    private List<Appointment> decide(List<Appointment> batch) {
+        Map<Long, Patient> patients = patientRepository.findAllById(
+                        batch.stream().map(Appointment::getPatientId).filter(Objects::nonNull).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        Map<String, List<Long>> doctors = availableDoctorsByHospital();
+        AppointmentRountingStatus offered = timeoutService.acceptanceRequired()
+                ? AppointmentRountingStatus.WAITING
+                : AppointmentRountingStatus.ASSIGNED;
+
+        // bookings made within this batch, so two rows don't land on one slot
+        Map<Long, List<Appointment>> tentative = new HashMap<>();
+
+        for (Appointment a : batch) {
+            String hospital = a.getAssignedHospital();
+            if (hospital == null) {
+                Patient p = patients.get(a.getPatientId());
+                hospital = villageRoutingService.getHospitalForVillage(p != null ? p.getVillage() : null);
+            }
+            a.setAssignedHospital(hospital);
+
+            Long doctorId = pickDoctor(doctors.getOrDefault(hospital, List.of()), a, tentative);
+            if (doctorId == null) {
+                a.setRoutingStatus(AppointmentRountingStatus.NO_DOCTOR_AVAILABLE);
+                continue;
+            }
+            a.setDoctorId(doctorId);
+            a.setRoutingStatus(offered);
+            tentative.computeIfAbsent(doctorId, d -> new ArrayList<>()).add(a);
+        }
+        return batch;
+    }
+
+    // least-loaded doctor (encounters + appointments) that is free for the slot and hasn't already passed on it
+    private Long pickDoctor(List<Long> candidates, Appointment a, Map<Long, List<Appointment>> tentative) {
+        Long best = null;
+        long bestLoad = Long.MAX_VALUE;
+
+        for (Long doctorId : candidates) {
+            if (timeoutService.wasTried(a.getId(), doctorId)) continue;
+            if (!intervalIndex.isFree(doctorId, a.getStartTime(), a.getEndTime())) continue;
+
+            List<Appointment> mine = tentative.getOrDefault(doctorId, List.of());
+            boolean clash = mine.stream().anyMatch(o ->
+                    o.getStartTime().isBefore(a.getEndTime()) && o.getEndTime().isAfter(a.getStartTime()));
+            if (clash) continue;
+
+            long load = loadBalancer.load(doctorId) + mine.size();
+            if (load < bestLoad) {
+                bestLoad = load;
+                best = doctorId;
+            }
+        }
+        return best;
+    }
+
+    private Map<String, List<Long>> availableDoctorsByHospital() {
+        long version = presence.version();
+        if (version != doctorsVersion) {
+            doctorsByHospital = presence.availableDoctors().stream()
+                    .filter(d -> d.getHospital() != null)
+                    .collect(Collectors.groupingBy(Doctor::getHospital,
+                            Collectors.mapping(Doctor::getId, Collectors.toList())));
+            doctorsVersion = version;
+        }
+        return doctorsByHospital;
+    }
+
+    // ---------------------------------------------------------
+    // 3. COMMIT
+    // ---------------------------------------------------------
+    private int[] commit(List<Appointment> decided) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(ZONE));
+        return jdbcTemplate.batchUpdate(COMMIT_SQL, decided, decided.size(), (ps, a) -> {
+            Timestamp claimedAt = Timestamp.valueOf(a.getRoutingUpdatedAt());
+            boolean found = a.getRoutingStatus() != AppointmentRountingStatus.NO_DOCTOR_AVAILABLE;
+            ps.setString(1, a.getRoutingStatus().name());
+            if (found) ps.setLong(2, a.getDoctorId());
+            else ps.setNull(2, Types.BIGINT);
+            ps.setString(3, a.getAssignedHospital());
+            ps.setTimestamp(4, now);
+            ps.setInt(5, found ? 1 : 0);
+            ps.setLong(6, changeCursor.next());
+            ps.setLong(7, a.getId());
+            ps.setTimestamp(8, claimedAt);
+        })[0];
+    }
+}
@@ -4,19 +4,31 @@ import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
 import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
 import com.sih.telemed.telemedbackend.Repository.PatientRepository;
 import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentPageResponse;
 import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentRequest;
 import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentResponse;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentView;
+import com.sih.telemed.telemedbackend.dto.Appoinment.BusyIntervalResponse;
+import com.sih.telemed.telemedbackend.dto.Appoinment.NextSlotResponse;
 import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
 import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.FlexibleDateTimeParser;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
 
-import java.time.format.DateTimeParseException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,22 +36,32 @@ public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
+    private final AppointmentIntervalIndex intervalIndex;
+    private final AppointmentNameResolver nameResolver;
+    private final DoctorAvailabilityIndex availabilityIndex;
+    private final AssignmentTimeoutService timeoutService;
+    private final ReminderScheduler reminderScheduler;
+    private final TeleslotService teleslotService;
+    private final DoctorLoadBalancer loadBalancer;
+    private final VillageRoutingService villageRoutingService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
 
     // ---------------------------------------------------------
     // FLEXIBLE DATETIME PARSER (supports: 2025-12-08T10:30Z, with offsets, without seconds)
+    // single pass, no exceptions on valid input
     // ---------------------------------------------------------
-    private LocalDateTime parseFlexible(String input) {
+    private LocalDateTime parseFlexible(String field, String input) {
+        return FlexibleDateTimeParser.parse(field, input);
+    }
+
+    private static Long parseSlotId(String teleSlotId) {
+        if (teleSlotId == null || teleSlotId.isBlank()) return null;
         try {
-            // handles: 2025-12-08T10:30:00Z or with +05:30 offset
-            return OffsetDateTime.parse(input).toLocalDateTime();
-        } catch (Exception e1) {
-            try {
-                // handles: 2025-12-08T10:30:00 or 2025-12-08T10:30
-                return LocalDateTime.parse(input);
-            } catch (Exception e2) {
-                // fallback: if seconds missing, append :00
-                return LocalDateTime.parse(input + ":00");
-            }
+            return Long.valueOf(teleSlotId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid teleSlotId: " + teleSlotId);
         }
     }
 
@@ -54,8 +76,8 @@ public class AppointmentService {
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
 
         // Parse times
-        LocalDateTime start = parseFlexible(request.getStartTime());
-        LocalDateTime end = parseFlexible(request.getEndTime());
+        LocalDateTime start = parseFlexible("startTime", request.getStartTime());
+        LocalDateTime end = parseFlexible("endTime", request.getEndTime());
 
         // Validate ordering
         if (!end.isAfter(start)) {
@@ -71,6 +93,12 @@ public class AppointmentService {
             );
         }
 
+        // Take a seat in the tele-slot, if one was chosen (rolled back with the booking)
+        Long slotId = parseSlotId(request.getTeleSlotId());
+        if (slotId != null) {
+            teleslotService.reserveSeat(slotId, request.getDoctorId(), start, end);
+        }
+
         // Save appointment WITHOUT doctorId — doctor will be assigned by routing logic
         Appointment appointment = Appointment.builder()
                 .patientId(request.getPatientId())
@@ -82,12 +110,16 @@ public class AppointmentService {
                 .symptoms(request.getSymptoms())
                 .routingStatus(AppointmentRountingStatus.REQUESTED)
                 .status(AppointmentStatus.SCHEDULED)
+                .requestedAt(now)
                 .build();
 
         Appointment saved = appointmentRepository.save(appointment);
+        intervalIndex.track(saved);
+        reminderScheduler.track(saved);
 
         return AppointmentResponse.builder()
                 .id(saved.getId())
+                .patientId(saved.getPatientId())
                 .startTime(saved.getStartTime().toString())
                 .endTime(saved.getEndTime().toString())
                 .teleSlotId(saved.getTeleSlotId())
@@ -113,32 +145,176 @@ public class AppointmentService {
             throw new IllegalStateException("Unable to cancel a completed appointment.");
         }
 
+        boolean wasScheduled = appointment.getStatus() == AppointmentStatus.SCHEDULED;
+
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
+
+        Long slotId = parseSlotId(appointment.getTeleSlotId());
+        if (wasScheduled && slotId != null) {
+            teleslotService.releaseSeat(slotId);
+        }
+        intervalIndex.untrack(appointmentId);
+        reminderScheduler.untrack(appointmentId);
+        AfterCommit.run(() -> timeoutService.settled(appointmentId));
     }
 
     // ---------------------------------------------------------
-    // GET PATIENT APPOINTMENTS
+    // GET PATIENT APPOINTMENTS (one joined query, real names)
     // ---------------------------------------------------------
     public List<AppointmentResponse> getUpcomingAppointmentsForPatient(Long patientId) {
-        return appointmentRepository.findByPatientIdAndStatus(patientId, AppointmentStatus.SCHEDULED)
+        return appointmentRepository.findViewsForPatient(patientId, AppointmentStatus.SCHEDULED)
                 .stream()
                 .map(this::toResponse)
                 .toList();
     }
 
     // ---------------------------------------------------------
-    // GET DOCTOR APPOINTMENTS
+    // GET DOCTOR APPOINTMENTS (one joined query, real names)
     // ---------------------------------------------------------
     public List<AppointmentResponse> getUpcomingAppointmentsForDoctor(Long doctorId) {
-        return appointmentRepository.findByDoctorIdAndStatus(doctorId, AppointmentStatus.SCHEDULED)
+        return appointmentRepository.findViewsForDoctor(doctorId, AppointmentStatus.SCHEDULED)
                 .stream()
                 .map(this::toResponse)
                 .toList();
     }
 
     // ---------------------------------------------------------
-    // ENTITY → DTO
+    // KEYSET PAGES on (startTime, id)
+    // ---------------------------------------------------------
+    public AppointmentPageResponse getUpcomingAppointmentsPageForPatient(Long patientId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        PageRequest page = PageRequest.of(0, size);
+        List<AppointmentView> rows;
+
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findPatientPage(
+                    patientId, AppointmentStatus.SCHEDULED, page);
+        } else {
+            Cursor c = Cursor.decode(cursor);
+            rows = appointmentRepository.findPatientPageAfter(
+                    patientId, AppointmentStatus.SCHEDULED, c.startTime(), c.id(), page);
+        }
+        return toPage(rows, size);
+    }
+
+    public AppointmentPageResponse getUpcomingAppointmentsPageForDoctor(Long doctorId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        PageRequest page = PageRequest.of(0, size);
+        List<AppointmentView> rows;
+
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findDoctorPage(
+                    doctorId, AppointmentStatus.SCHEDULED, page);
+        } else {
+            Cursor c = Cursor.decode(cursor);
+            rows = appointmentRepository.findDoctorPageAfter(
+                    doctorId, AppointmentStatus.SCHEDULED, c.startTime(), c.id(), page);
+        }
+        return toPage(rows, size);
+    }
+
+    // ---------------------------------------------------------
+    // STREAMING (rows handed to the sink as the JDBC cursor advances;
+    // DTO projections are never managed, so memory stays flat)
+    // ---------------------------------------------------------
+    @Transactional(readOnly = true)
+    public void streamUpcomingAppointmentsForPatient(Long patientId, Consumer<AppointmentResponse> sink) {
+        try (Stream<AppointmentView> rows = appointmentRepository
+                .streamViewsForPatient(patientId, AppointmentStatus.SCHEDULED)) {
+            rows.map(this::toResponse).forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamUpcomingAppointmentsForDoctor(Long doctorId, Consumer<AppointmentResponse> sink) {
+        try (Stream<AppointmentView> rows = appointmentRepository
+                .streamViewsForDoctor(doctorId, AppointmentStatus.SCHEDULED)) {
+            rows.map(this::toResponse).forEach(sink);
+        }
+    }
+
+    private AppointmentPageResponse toPage(List<AppointmentView> rows, int size) {
+        String next = null;
+        if (rows.size() == size) {
+            AppointmentView last = rows.get(rows.size() - 1);
+            next = new Cursor(last.startTime(), last.id()).encode();
+        }
+        return AppointmentPageResponse.builder()
+                .items(rows.stream().map(this::toResponse).toList())
+                .nextCursor(next)
+                .build();
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // opaque page token: base64url("startTime|id")
+    private record Cursor(LocalDateTime startTime, Long id) {
+
+        String encode() {
+            String raw = startTime + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // DOCTOR BUSY BLOCKS (served from the interval index)
+    // ---------------------------------------------------------
+    public List<BusyIntervalResponse> getBusyIntervals(Long doctorId, String from, String to) {
+        LocalDateTime start = parseFlexible("from", from);
+        LocalDateTime end = parseFlexible("to", to);
+
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("to must be after from.");
+        }
+
+        return intervalIndex.busyIntervals(doctorId, start, end)
+                .stream()
+                .map(b -> BusyIntervalResponse.builder()
+                        .startTime(b.start().toString())
+                        .endTime(b.end().toString())
+                        .build())
+                .toList();
+    }
+
+    // ---------------------------------------------------------
+    // NEXT AVAILABLE SLOT AT A HOSPITAL (served from the free-slot bitmap)
+    // ---------------------------------------------------------
+    public Optional<NextSlotResponse> findNextAvailable(String hospital, String specialization,
+                                                        String after, int durationMinutes) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        LocalDateTime from = after == null || after.isBlank() ? now : parseFlexible("after", after);
+        if (from.isBefore(now)) {
+            from = now;
+        }
+
+        return availabilityIndex.nextAvailable(hospital, specialization, from, durationMinutes)
+                .map(m -> NextSlotResponse.builder()
+                        .doctorId(m.doctor().getId())
+                        .doctorName(m.doctor().getName())
+                        .hospital(m.doctor().getHospital())
+                        .specialization(m.doctor().getSpecialization())
+                        .startTime(m.start().toString())
+                        .endTime(m.end().toString())
+                        .build());
+    }
+
+    // ---------------------------------------------------------
+    // ASSIGN DOCTOR (no doctorId: least-busy doctor free for the slot
+    // at the appointment's / patient's hospital)
     // ---------------------------------------------------------
     @Transactional
     public AppointmentResponse assignDoctor(Long appointmentId, Long doctorId) {
@@ -146,31 +322,91 @@ public class AppointmentService {
         Appointment appt = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
 
+        if (doctorId == null) {
+            doctorId = leastBusyFreeDoctor(appt);
+        }
+
+        // Doctor must be free for this slot (in-memory check, no range scan)
+        if (intervalIndex.countOverlapping(doctorId, appt.getStartTime(), appt.getEndTime(), appointmentId) > 0) {
+            throw new IllegalStateException("Doctor already has an appointment in this time slot.");
+        }
+
         appt.setDoctorId(doctorId);
         appt.setRoutingStatus(AppointmentRountingStatus.ASSIGNED);
+        appt.setRoutingUpdatedAt(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
 
         Appointment saved = appointmentRepository.save(appt);
+        intervalIndex.track(saved);
+        AfterCommit.run(() -> timeoutService.settled(appointmentId));
 
-        return AppointmentResponse.builder()
-                .id(saved.getId())
-                .startTime(saved.getStartTime().toString())
-                .endTime(saved.getEndTime().toString())
-                .teleSlotId(saved.getTeleSlotId())
-                .status(saved.getStatus())
-                .appointmentType(saved.getAppointmentType())
-                .routingStatus(saved.getRoutingStatus())
-                .assignedDoctorId(saved.getDoctorId())
-                .patientName("Patient-" + saved.getPatientId())
-                .doctorName("Doctor-" + doctorId)
-                .build();
+        return toResponse(saved);
+    }
+
+    private Long leastBusyFreeDoctor(Appointment appt) {
+        String hospital = appt.getAssignedHospital();
+        if (hospital == null) {
+            String village = patientRepository.findById(appt.getPatientId())
+                    .map(Patient::getVillage)
+                    .orElse(null);
+            hospital = villageRoutingService.getHospitalForVillage(village);
+        }
+        String at = hospital;
+        return loadBalancer.leastBusy(hospital, id -> intervalIndex.countOverlapping(
+                        id, appt.getStartTime(), appt.getEndTime(), appt.getId()) == 0)
+                .map(Doctor::getId)
+                .orElseThrow(() -> new IllegalStateException("No doctor is free for this time slot at " + at + "."));
+    }
+
+    // ---------------------------------------------------------
+    // DOCTOR RESPONDS TO AN OFFER (routing engine leaves it WAITING)
+    // ---------------------------------------------------------
+    @Transactional
+    public AppointmentResponse acceptAssignment(Long appointmentId, Long doctorId) {
+        Appointment appt = findOffer(appointmentId, doctorId);
+
+        appt.setRoutingStatus(AppointmentRountingStatus.ASSIGNED);
+        appt.setRoutingUpdatedAt(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
+
+        Appointment saved = appointmentRepository.save(appt);
+        AfterCommit.run(() -> timeoutService.settled(appointmentId));
+        return toResponse(saved);
+    }
+
+    // the timeout service re-routes it to the next doctor on its next tick
+    @Transactional
+    public AppointmentResponse rejectAssignment(Long appointmentId, Long doctorId) {
+        Appointment appt = findOffer(appointmentId, doctorId);
+
+        appt.setRoutingStatus(AppointmentRountingStatus.REJECTED_BY_DOCTOR);
+        appt.setRoutingUpdatedAt(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
+
+        Appointment saved = appointmentRepository.save(appt);
+        AfterCommit.run(() -> timeoutService.rejected(appointmentId));
+        return toResponse(saved);
+    }
+
+    private Appointment findOffer(Long appointmentId, Long doctorId) {
+        Appointment appt = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
+
+        if (appt.getStatus() != AppointmentStatus.SCHEDULED
+                || appt.getRoutingStatus() != AppointmentRountingStatus.WAITING) {
+            throw new IllegalStateException("Appointment is not waiting for a doctor to accept.");
+        }
+        if (!doctorId.equals(appt.getDoctorId())) {
+            throw new IllegalStateException("Appointment is not offered to this doctor.");
+        }
+        return appt;
     }
+
     // ---------------------------------------------------------
-// SHARED MAPPER: Appointment → AppointmentResponse
-// ---------------------------------------------------------
-    private AppointmentResponse toResponse(Appointment a) {
+    // SHARED MAPPERS: Appointment / AppointmentView → AppointmentResponse
+    // ---------------------------------------------------------
+    AppointmentResponse toResponse(Appointment a) {
 
         return AppointmentResponse.builder()
                 .id(a.getId())
+                .patientId(a.getPatientId())
                 .startTime(a.getStartTime() != null ? a.getStartTime().toString() : null)
                 .endTime(a.getEndTime() != null ? a.getEndTime().toString() : null)
                 .teleSlotId(a.getTeleSlotId())
@@ -178,8 +414,25 @@ public class AppointmentService {
                 .appointmentType(a.getAppointmentType())
                 .routingStatus(a.getRoutingStatus())
                 .assignedDoctorId(a.getDoctorId())
-                .patientName("Patient-" + a.getPatientId())
-                .doctorName(a.getDoctorId() != null ? "Doctor-" + a.getDoctorId() : null)
+                .patientName(nameResolver.patientName(a.getPatientId()))
+                .doctorName(nameResolver.doctorName(a.getDoctorId()))
+                .build();
+    }
+
+    private AppointmentResponse toResponse(AppointmentView v) {
+
+        return AppointmentResponse.builder()
+                .id(v.id())
+                .patientId(v.patientId())
+                .startTime(v.startTime() != null ? v.startTime().toString() : null)
+                .endTime(v.endTime() != null ? v.endTime().toString() : null)
+                .teleSlotId(v.teleSlotId())
+                .status(v.status())
+                .appointmentType(v.appointmentType())
+                .routingStatus(v.routingStatus())
+                .assignedDoctorId(v.doctorId())
+                .patientName(v.patientName())
+                .doctorName(v.doctorName())
                 .build();
     }
 
@@ -0,0 +1,271 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.util.HashedTimerWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ---------------------------------------------------------
+// ASSIGNMENT TIMEOUTS (one timer-wheel entry per pending assignment)
+//   ASSIGNING          claimed by the routing engine but never committed
+//                      -> back to REQUESTED
+//   WAITING            offered to a doctor who hasn't accepted in time
+//   REJECTED_BY_DOCTOR declined by the doctor (fires on the next tick)
+//                      -> REQUESTED without that doctor, or
+//                         NO_DOCTOR_AVAILABLE after max-attempts offers
+// Rebuilt from the non-terminal rows on startup, so nothing polls the table;
+// a tick that fails (database down) puts its ids back on the wheel.
+// ---------------------------------------------------------
+@Slf4j
+@Service
+public class AssignmentTimeoutService {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    // failed ticks try their ids again after this long
+    static final long RETRY_MS = 5_000;
+
+    private static final String REQUEUE_SQL = """
+            UPDATE appointments
+               SET routing_status = 'REQUESTED', routing_updated_at = ?
+             WHERE id = ? AND routing_status = 'ASSIGNING'
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE appointments
+               SET routing_status = ?, doctor_id = NULL, routing_updated_at = ?, change_seq = ?
+             WHERE id = ? AND routing_status = ? AND doctor_id = ?
+            """;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentIntervalIndex intervalIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ChangeCursor changeCursor;
+
+    private final long claimTimeoutMs;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+    private final HashedTimerWheel<Long> wheel;
+
+    // appointmentId -> doctors it was already offered to (skipped on re-routing)
+    private final Map<Long, Set<Long>> triedDoctors = new ConcurrentHashMap<>();
+
+    public AssignmentTimeoutService(AppointmentRepository appointmentRepository,
+                                    AppointmentIntervalIndex intervalIndex,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    ChangeCursor changeCursor,
+                                    @Value("${routing.timeouts.claim-seconds:60}") long claimTimeoutSeconds,
+                                    @Value("${routing.timeouts.offer-seconds:120}") long offerTimeoutSeconds,
+                                    @Value("${routing.timeouts.max-attempts:3}") int maxAttempts,
+                                    @Value("${routing.timeouts.tick-ms:1000}") long tickMs,
+                                    @Value("${routing.timeouts.wheel-size:512}") int wheelSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.intervalIndex = intervalIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.changeCursor = changeCursor;
+        this.claimTimeoutMs = claimTimeoutSeconds * 1000;
+        this.offerTimeoutMs = offerTimeoutSeconds * 1000;
+        this.maxAttempts = maxAttempts;
+        this.wheel = new HashedTimerWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    // ---------------------------------------------------------
+    // REBUILD FROM NON-TERMINAL ROWS (on startup)
+    // ---------------------------------------------------------
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("appointments.routing.timeouts.pending", wheel, HashedTimerWheel::size);
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<Appointment> pending = appointmentRepository.findByRoutingStatusInAndStatus(
+                EnumSet.of(AppointmentRountingStatus.ASSIGNING,
+                        AppointmentRountingStatus.WAITING,
+                        AppointmentRountingStatus.REJECTED_BY_DOCTOR),
+                AppointmentStatus.SCHEDULED);
+
+        for (Appointment a : pending) {
+            long since = a.getRoutingUpdatedAt() != null ? millis(a.getRoutingUpdatedAt()) : System.currentTimeMillis();
+            switch (a.getRoutingStatus()) {
+                case ASSIGNING -> wheel.schedule(a.getId(), since + claimTimeoutMs);
+                case WAITING -> {
+                    remember(a.getId(), a.getDoctorId());
+                    wheel.schedule(a.getId(), since + offerTimeoutMs);
+                }
+                default -> wheel.fireNext(a.getId());
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Restored {} pending assignment timeouts", pending.size());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // LIFECYCLE HOOKS (called once the state change is committed)
+    // ---------------------------------------------------------
+    // doctors must accept offers unless the offer timeout is disabled
+    public boolean acceptanceRequired() {
+        return offerTimeoutMs > 0;
+    }
+
+    public void claimed(Long appointmentId) {
+        wheel.schedule(appointmentId, System.currentTimeMillis() + claimTimeoutMs);
+    }
+
+    public void offered(Long appointmentId, Long doctorId) {
+        remember(appointmentId, doctorId);
+        wheel.schedule(appointmentId, System.currentTimeMillis() + offerTimeoutMs);
+    }
+
+    public void rejected(Long appointmentId) {
+        wheel.fireNext(appointmentId);
+    }
+
+    // accepted, cancelled, manually assigned or given up on: nothing left to time out
+    public void settled(Long appointmentId) {
+        wheel.cancel(appointmentId);
+        triedDoctors.remove(appointmentId);
+    }
+
+    public boolean wasTried(Long appointmentId, Long doctorId) {
+        Set<Long> tried = triedDoctors.get(appointmentId);
+        return tried != null && tried.contains(doctorId);
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    // ---------------------------------------------------------
+    // TICK: fire whatever expired
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${routing.timeouts.tick-ms:1000}")
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    void tick(long nowMillis) {
+        List<Long> expired = wheel.advance(nowMillis);
+        if (expired.isEmpty()) return;
+        try {
+            expire(expired);
+        } catch (RuntimeException e) {
+            // already off the wheel; without this they would wait for the next restart
+            long retryAt = nowMillis + RETRY_MS;
+            for (Long id : expired) {
+                if (!wheel.contains(id)) wheel.schedule(id, retryAt);
+            }
+            meterRegistry.counter("appointments.routing.timeouts", "outcome", "retried").increment(expired.size());
+            log.error("Assignment timeouts for {} appointments failed, retrying in {} ms", expired.size(), RETRY_MS, e);
+        }
+    }
+
+    void expire(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now(ZONE);
+        List<Appointment> requeue = new ArrayList<>();
+        List<Appointment> release = new ArrayList<>();
+
+        for (Appointment a : appointmentRepository.findAllById(ids)) {
+            if (a.getStatus() != AppointmentStatus.SCHEDULED) continue;
+            switch (a.getRoutingStatus()) {
+                case ASSIGNING -> requeue.add(a);
+                case WAITING, REJECTED_BY_DOCTOR -> {
+                    if (a.getDoctorId() != null) release.add(a);
+                }
+                default -> {
+                    // accepted or moved on meanwhile
+                }
+            }
+        }
+        if (requeue.isEmpty() && release.isEmpty()) return;
+
+        Outcome out = transactionTemplate.execute(st -> new Outcome(
+                batch(REQUEUE_SQL, requeue, (ps, a) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(now));
+                    ps.setLong(2, a.getId());
+                }),
+                batch(RELEASE_SQL, release, (ps, a) -> {
+                    ps.setString(1, nextStatus(a).name());
+                    ps.setTimestamp(2, Timestamp.valueOf(now));
+                    ps.setLong(3, changeCursor.next());
+                    ps.setLong(4, a.getId());
+                    ps.setString(5, a.getRoutingStatus().name());
+                    ps.setLong(6, a.getDoctorId());
+                })));
+        if (out == null) return;
+
+        int requeued = 0;
+        int rerouted = 0;
+        int gaveUp = 0;
+        for (int i = 0; i < requeue.size(); i++) {
+            if (out.requeued()[i] > 0) requeued++;
+        }
+        for (int i = 0; i < release.size(); i++) {
+            if (out.released()[i] == 0) continue;   // accepted just before the timeout
+            Appointment a = release.get(i);
+            intervalIndex.untrack(a.getId());
+            if (nextStatus(a) == AppointmentRountingStatus.NO_DOCTOR_AVAILABLE) {
+                triedDoctors.remove(a.getId());
+                gaveUp++;
+            } else {
+                remember(a.getId(), a.getDoctorId());
+                rerouted++;
+            }
+        }
+
+        meterRegistry.counter("appointments.routing.timeouts", "outcome", "requeued").increment(requeued);
+        meterRegistry.counter("appointments.routing.timeouts", "outcome", "rerouted").increment(rerouted);
+        meterRegistry.counter("appointments.routing.timeouts", "outcome", "gave_up").increment(gaveUp);
+        log.info("Assignment timeouts: {} claims re-queued, {} offers re-routed, {} given up", requeued, rerouted, gaveUp);
+    }
+
+    private record Outcome(int[] requeued, int[] released) {
+    }
+
+    private int[] batch(String sql, List<Appointment> rows, ParameterizedPreparedStatementSetter<Appointment> setter) {
+        if (rows.isEmpty()) return new int[0];
+        return jdbcTemplate.batchUpdate(sql, rows, rows.size(), setter)[0];
+    }
+
+    private AppointmentRountingStatus nextStatus(Appointment a) {
+        return a.getRoutingAttempts() >= maxAttempts
+                ? AppointmentRountingStatus.NO_DOCTOR_AVAILABLE
+                : AppointmentRountingStatus.REQUESTED;
+    }
+
+    private void remember(Long appointmentId, Long doctorId) {
+        if (doctorId == null) return;
+        triedDoctors.computeIfAbsent(appointmentId, k -> ConcurrentHashMap.newKeySet()).add(doctorId);
+    }
+
+    private static long millis(LocalDateTime t) {
+        return t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
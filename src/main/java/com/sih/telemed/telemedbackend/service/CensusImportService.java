@@ -0,0 +1,706 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.CensusImportStatus;
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.CensusImportRejectRepository;
+import com.sih.telemed.telemedbackend.Repository.CensusImportRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Census.CensusImportResponse;
+import com.sih.telemed.telemedbackend.dto.Census.CensusRejectPageResponse;
+import com.sih.telemed.telemedbackend.dto.Census.CensusRejectResponse;
+import com.sih.telemed.telemedbackend.model.CensusImport;
+import com.sih.telemed.telemedbackend.model.CensusImportReject;
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.model.User;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.CsvReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// ---------------------------------------------------------
+// VILLAGE CENSUS IMPORT (CSV of household members -> User + Patient)
+// The upload is spooled to census.import.dir and answered at once;
+// one worker thread then walks the file in chunks of chunk-size
+// records:
+//   1. parse       -> CsvReader, one record in memory at a time
+//   2. normalize   -> parallel over the chunk (phone, ABHA, age,
+//                     gender, dates); bad rows become rejects
+//   3. duplicates  -> in the chunk by set, against the tables through
+//                     SignupGuard: Bloom filter, then IN queries
+//   4. write       -> users batch, patients batch (ids from the
+//                     generated keys), rejects batch and the job's
+//                     progress, all in ONE transaction per chunk
+// processed_rows therefore only moves with committed rows: after a
+// crash the job is picked up on startup and skips exactly the
+// records already done. A chunk that loses a race on a unique
+// constraint is re-checked without the filter and retried once.
+// ---------------------------------------------------------
+@Slf4j
+@Service
+public class CensusImportService {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String USER_SQL = """
+            INSERT INTO "users" (username, password, role, active, full_name, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String PATIENT_SQL = """
+            INSERT INTO patients (user_id, name, dob, email, phone, address, village, block,
+                                  blood_group, gender, age, abha_id, created_at, change_seq)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String REJECT_SQL = "INSERT INTO census_import_rejects (import_id, line, reason) VALUES (?, ?, ?)";
+
+    private static final String PROGRESS_SQL = """
+            UPDATE census_imports
+               SET processed_rows = processed_rows + ?, created = created + ?, rejected = rejected + ?, updated_at = ?
+             WHERE id = ?
+            """;
+
+    private static final List<DateTimeFormatter> DOB_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/uuuu"),
+            DateTimeFormatter.ofPattern("dd-MM-uuuu"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CensusImportRepository importRepository;
+    private final CensusImportRejectRepository rejectRepository;
+    private final UserRepository userRepository;
+    private final ChangeCursor changeCursor;
+    private final SignupGuard signupGuard;
+    private final PatientSearchIndex searchIndex;
+    private final Path dir;
+    private final int chunkSize;
+
+    private final Counter created;
+    private final Counter rejected;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "census-import");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CensusImportService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               CensusImportRepository importRepository,
+                               CensusImportRejectRepository rejectRepository,
+                               UserRepository userRepository,
+                               ChangeCursor changeCursor,
+                               SignupGuard signupGuard,
+                               PatientSearchIndex searchIndex,
+                               MeterRegistry meterRegistry,
+                               @Value("${census.import.dir:data/census-imports}") String dir,
+                               @Value("${census.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.importRepository = importRepository;
+        this.rejectRepository = rejectRepository;
+        this.userRepository = userRepository;
+        this.changeCursor = changeCursor;
+        this.signupGuard = signupGuard;
+        this.searchIndex = searchIndex;
+        this.dir = Paths.get(dir);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.created = meterRegistry.counter("census.import.created");
+        this.rejected = meterRegistry.counter("census.import.rejected");
+    }
+
+    // ---------------------------------------------------------
+    // UPLOAD: spool to disk, check the header, queue
+    // ---------------------------------------------------------
+    public CensusImportResponse upload(InputStream body, String fileName, Long importedBy,
+                                       String defaultVillage, String defaultBlock) {
+        if (importedBy == null || !userRepository.existsById(importedBy)) {
+            throw new IllegalArgumentException("Importing user not found");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        CensusImport job = importRepository.save(CensusImport.builder()
+                .fileName(fileName)
+                .importedBy(importedBy)
+                .defaultVillage(blankToNull(defaultVillage))
+                .defaultBlock(blankToNull(defaultBlock))
+                .status(CensusImportStatus.QUEUED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        Path file = file(job.getId());
+        Path part = dir.resolve(job.getId() + ".csv.part");
+        try {
+            Files.createDirectories(dir);
+            Files.copy(body, part, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            fail(job.getId(), "Upload failed: " + e.getMessage());
+            deleteQuietly(part);
+            throw new UncheckedIOException("Census upload failed", e);
+        } catch (RuntimeException e) {
+            // e.g. a gzip body inflating past its cap
+            fail(job.getId(), "Upload failed: " + e.getMessage());
+            deleteQuietly(part);
+            throw e;
+        }
+
+        try (CsvReader csv = open(file)) {
+            Columns.of(csv.next());
+        } catch (IllegalArgumentException e) {
+            fail(job.getId(), e.getMessage());
+            deleteQuietly(file);
+            throw e;
+        }
+
+        worker.execute(() -> run(job.getId()));
+        log.info("Census import {} queued: {} by user {}", job.getId(), fileName, importedBy);
+        return toResponse(job);
+    }
+
+    // a FAILED job (database down, constraint race lost twice) goes on
+    // from its last committed chunk
+    public CensusImportResponse resume(Long id) {
+        CensusImport job = importRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Import not found"));
+        if (job.getStatus() != CensusImportStatus.FAILED) {
+            throw new IllegalStateException("Only a failed import can be resumed");
+        }
+        if (!Files.exists(file(id))) throw new IllegalStateException("Upload of import " + id + " is gone");
+        setStatus(id, CensusImportStatus.QUEUED, null);
+        worker.execute(() -> run(id));
+        return getImport(id);
+    }
+
+    // jobs interrupted by a shutdown or crash
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        List<CensusImport> jobs = importRepository.findByStatusInOrderById(
+                List.of(CensusImportStatus.QUEUED, CensusImportStatus.RUNNING));
+        for (CensusImport job : jobs) {
+            log.info("Census import {} resumes after {} records", job.getId(), job.getProcessedRows());
+            worker.execute(() -> run(job.getId()));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // the chunk in progress rolls back; the job stays RUNNING and resumes on startup
+        worker.shutdownNow();
+    }
+
+    // ---------------------------------------------------------
+    // PROGRESS / REJECTS
+    // ---------------------------------------------------------
+    public CensusImportResponse getImport(Long id) {
+        return importRepository.findById(id)
+                .map(CensusImportService::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("Import not found"));
+    }
+
+    // keyset pages in file order; the cursor is the last line of the previous page
+    public CensusRejectPageResponse getRejects(Long id, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterLine;
+        try {
+            afterLine = cursor == null || cursor.isBlank() ? 0 : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        List<CensusImportReject> rows = rejectRepository.findByImportIdAndLineGreaterThanOrderByLine(
+                id, afterLine, PageRequest.of(0, size));
+        return CensusRejectPageResponse.builder()
+                .items(rows.stream()
+                        .map(r -> CensusRejectResponse.builder().line(r.getLine()).reason(r.getReason()).build())
+                        .toList())
+                .nextCursor(rows.size() == size ? String.valueOf(rows.get(size - 1).getLine()) : null)
+                .build();
+    }
+
+    // ---------------------------------------------------------
+    // THE JOB (worker thread)
+    // ---------------------------------------------------------
+    void run(long id) {
+        CensusImport job = importRepository.findById(id).orElse(null);
+        if (job == null || job.getStatus() == CensusImportStatus.COMPLETED
+                || job.getStatus() == CensusImportStatus.FAILED) {
+            return;
+        }
+        Path file = file(id);
+        if (!Files.exists(file)) {
+            fail(id, "Upload did not complete");
+            return;
+        }
+        try {
+            if (job.getTotalRows() == null) {
+                long total = count(file);
+                jdbcTemplate.update("UPDATE census_imports SET total_rows = ? WHERE id = ?", total, id);
+            }
+            setStatus(id, CensusImportStatus.RUNNING, null);
+
+            try (CsvReader csv = open(file)) {
+                Columns columns = Columns.of(csv.next());
+                long skipped = 0;
+                while (skipped < job.getProcessedRows() && csv.next() != null) skipped++;     // done before a restart
+                List<Row> chunk = new ArrayList<>(chunkSize);
+                String[] record;
+                while ((record = csv.next()) != null) {
+                    chunk.add(new Row(csv.line(), record));
+                    if (chunk.size() == chunkSize) {
+                        importChunk(job, columns, chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                        if (Thread.currentThread().isInterrupted()) return;
+                    }
+                }
+                if (!chunk.isEmpty()) importChunk(job, columns, chunk);
+            }
+
+            setStatus(id, CensusImportStatus.COMPLETED, null);
+            deleteQuietly(file);
+            CensusImport done = importRepository.findById(id).orElseThrow();
+            log.info("Census import {} completed: {} created, {} rejected", id, done.getCreated(), done.getRejected());
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                log.info("Census import {} interrupted; resumes on startup", id);
+                return;
+            }
+            log.error("Census import {} failed", id, e);
+            fail(id, e.getMessage());
+        }
+    }
+
+    private void importChunk(CensusImport job, Columns columns, List<Row> chunk) {
+        // 2. normalize in parallel (pure, no I/O); results stay in file order
+        List<Member> members = chunk.parallelStream()
+                .map(row -> normalize(row, columns, job))
+                .toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(job, members, true));
+        } catch (DataIntegrityViolationException e) {
+            // a row committed around us after the check: look again, every value against the table
+            log.warn("Census import {}: chunk at line {} lost a race ({}), retrying",
+                    job.getId(), chunk.get(0).line(), signupGuard.translate(e).getMessage());
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(job, members, false));
+            } catch (DataIntegrityViolationException again) {
+                throw new IllegalStateException("Chunk at line " + chunk.get(0).line() + ": "
+                        + signupGuard.translate(again).getMessage(), again);
+            }
+        }
+    }
+
+    // 3 + 4, inside the chunk's transaction
+    private void write(CensusImport job, List<Member> members, boolean trustFilter) {
+        List<Member> valid = new ArrayList<>(members.size());
+        List<Member> rejects = new ArrayList<>();
+
+        // in the chunk: first occurrence wins (earlier chunks are in the tables by now)
+        Set<String> phones = new HashSet<>();
+        Set<String> abhaIds = new HashSet<>();
+        for (Member m : members) {
+            String reason = m.reject();
+            if (reason == null && m.phone() != null && !phones.add(m.phone())) reason = "Phone number repeated in the file";
+            if (reason == null && m.abhaId() != null && !abhaIds.add(m.abhaId())) reason = "ABHA ID repeated in the file";
+            if (reason == null) valid.add(m);
+            else rejects.add(m.withReject(reason));
+        }
+
+        // against the tables: one set-based check per field
+        Set<String> takenPhones = signupGuard.taken(SignupGuard.Field.PHONE, phones, trustFilter);
+        Set<String> takenAbhaIds = signupGuard.taken(SignupGuard.Field.ABHA, abhaIds, trustFilter);
+        Set<String> takenUsernames = signupGuard.taken(SignupGuard.Field.USERNAME,
+                valid.stream().map(m -> username(job, m)).toList(), trustFilter);
+        List<Member> rows = new ArrayList<>(valid.size());
+        for (Member m : valid) {
+            String reason = null;
+            if (m.phone() != null && takenPhones.contains(m.phone())) reason = SignupGuard.Field.PHONE.message;
+            else if (m.abhaId() != null && takenAbhaIds.contains(m.abhaId())) reason = SignupGuard.Field.ABHA.message;
+            else if (takenUsernames.contains(username(job, m))) reason = SignupGuard.Field.USERNAME.message;
+            if (reason == null) rows.add(m);
+            else rejects.add(m.withReject(reason));
+        }
+        rejects.sort((a, b) -> Long.compare(a.line(), b.line()));
+
+        List<Patient> patients = rows.isEmpty() ? List.of() : insert(job, rows);
+        if (!rejects.isEmpty()) {
+            jdbcTemplate.batchUpdate(REJECT_SQL, rejects, rejects.size(), (ps, m) -> {
+                ps.setLong(1, job.getId());
+                ps.setLong(2, m.line());
+                ps.setString(3, m.reject());
+            });
+        }
+        jdbcTemplate.update(PROGRESS_SQL, members.size(), patients.size(), rejects.size(),
+                Timestamp.valueOf(LocalDateTime.now()), job.getId());
+
+        for (Patient p : patients) {
+            searchIndex.add(p);
+            signupGuard.recordPatient(p);
+            signupGuard.recordUsername(p.getOwner().getUsername());
+        }
+        int createdCount = patients.size();
+        int rejectedCount = rejects.size();
+        AfterCommit.run(() -> {
+            created.increment(createdCount);
+            rejected.increment(rejectedCount);
+        });
+    }
+
+    // users batch, then patients batch linked through the users' generated ids
+    private List<Patient> insert(CensusImport job, List<Member> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp at = Timestamp.valueOf(now);
+
+        long[] userIds = batchInsert(USER_SQL, rows.size(), (ps, i) -> {
+            Member m = rows.get(i);
+            ps.setString(1, username(job, m));
+            // no password in a census: random until the patient sets one
+            ps.setString(2, UUID.randomUUID().toString());
+            ps.setString(3, Role.PATIENT.name());
+            ps.setBoolean(4, true);
+            ps.setString(5, m.name());
+            ps.setTimestamp(6, at);
+        });
+
+        List<Patient> patients = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Member m = rows.get(i);
+            User owner = new User();
+            owner.setId(userIds[i]);
+            owner.setUsername(username(job, m));
+            patients.add(Patient.builder()
+                    .owner(owner)
+                    .name(m.name())
+                    .dob(m.dob())
+                    .email(m.email())
+                    .phone(m.phone())
+                    .address(m.address())
+                    .village(m.village())
+                    .block(m.block())
+                    .bloodGroup(m.bloodGroup())
+                    .gender(m.gender())
+                    .age(m.age())
+                    .abhaId(m.abhaId())
+                    .createdAt(now)
+                    .build());
+        }
+
+        long[] patientIds = batchInsert(PATIENT_SQL, patients.size(), (ps, i) -> {
+            Patient p = patients.get(i);
+            p.setChangeSeq(changeCursor.next());
+            ps.setLong(1, p.getOwner().getId());
+            ps.setString(2, p.getName());
+            ps.setString(3, p.getDob());
+            ps.setString(4, p.getEmail());
+            ps.setString(5, p.getPhone());
+            ps.setString(6, p.getAddress());
+            ps.setString(7, p.getVillage());
+            ps.setString(8, p.getBlock());
+            ps.setString(9, p.getBloodGroup());
+            ps.setString(10, p.getGender());
+            ps.setString(11, p.getAge());
+            ps.setString(12, p.getAbhaId());
+            ps.setTimestamp(13, at);
+            ps.setLong(14, p.getChangeSeq());
+        });
+        for (int i = 0; i < patients.size(); i++) patients.get(i).setId(patientIds[i]);
+        return patients;
+    }
+
+    private interface RowSetter {
+        void set(PreparedStatement ps, int i) throws SQLException;
+    }
+
+    // one JDBC batch; the generated ids in batch order ("id" or "ID" depending on the driver)
+    private long[] batchInsert(String sql, int size, RowSetter setter) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setter.set(ps, i);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != size) {
+            throw new IllegalStateException("Expected " + size + " generated ids, got " + generated.size());
+        }
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            Object id = generated.get(i).values().stream().filter(Objects::nonNull).findFirst().orElseThrow();
+            ids[i] = ((Number) id).longValue();
+        }
+        return ids;
+    }
+
+    // unique per import and record, so a replayed chunk cannot create a second account
+    private static String username(CensusImport job, Member m) {
+        return "census-" + job.getId() + "-" + m.line();
+    }
+
+    // ---------------------------------------------------------
+    // COLUMNS: header names, case / spacing insensitive
+    // ---------------------------------------------------------
+    enum Column {
+        NAME("name", "full_name", "fullname", "member_name"),
+        AGE("age"),
+        GENDER("gender", "sex"),
+        DOB("dob", "date_of_birth", "birth_date"),
+        PHONE("phone", "mobile", "phone_number", "mobile_number"),
+        ABHA("abha", "abha_id", "abha_number"),
+        VILLAGE("village"),
+        BLOCK("block"),
+        BLOOD_GROUP("blood_group", "bloodgroup"),
+        EMAIL("email"),
+        ADDRESS("address", "household_address");
+
+        final List<String> names;
+
+        Column(String... names) {
+            this.names = List.of(names);
+        }
+    }
+
+    // column -> index in the record, -1 when the file has no such column
+    record Columns(int[] index) {
+
+        private static final Map<String, Column> BY_NAME = Arrays.stream(Column.values())
+                .flatMap(c -> c.names.stream().map(n -> Map.entry(n, c)))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        static Columns of(String[] header) {
+            if (header == null) throw new IllegalArgumentException("The CSV is empty");
+            int[] index = new int[Column.values().length];
+            Arrays.fill(index, -1);
+            for (int i = 0; i < header.length; i++) {
+                String name = header[i].trim().toLowerCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+                Column c = BY_NAME.get(name);
+                if (c != null && index[c.ordinal()] < 0) index[c.ordinal()] = i;
+            }
+            if (index[Column.NAME.ordinal()] < 0) throw new IllegalArgumentException("The CSV needs a name column");
+            return new Columns(index);
+        }
+
+        String get(String[] record, Column c) {
+            int i = index[c.ordinal()];
+            return i < 0 || i >= record.length ? null : blankToNull(record[i]);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // NORMALIZATION (pure; runs on the common pool)
+    // ---------------------------------------------------------
+    record Row(long line, String[] fields) {
+    }
+
+    // a normalized household member, or the reason it was rejected
+    record Member(long line, String name, String age, String gender, String dob, String phone, String abhaId,
+                  String village, String block, String bloodGroup, String email, String address, String reject) {
+
+        static Member rejected(long line, String reason) {
+            return new Member(line, null, null, null, null, null, null, null, null, null, null, null, reason);
+        }
+
+        Member withReject(String reason) {
+            return rejected(line, reason);
+        }
+    }
+
+    static Member normalize(Row row, Columns columns, CensusImport job) {
+        try {
+            return member(row.line(), row.fields(), columns, job);
+        } catch (IllegalArgumentException e) {
+            return Member.rejected(row.line(), e.getMessage());
+        }
+    }
+
+    private static Member member(long line, String[] r, Columns columns, CensusImport job) {
+        String name = columns.get(r, Column.NAME);
+        if (name == null) throw new IllegalArgumentException("Name is required");
+        name = name.replaceAll("\\s+", " ");
+        if (name.length() > 80) throw new IllegalArgumentException("Name is longer than 80 characters");
+
+        String phone = SignupGuard.normalizePhone(columns.get(r, Column.PHONE));
+        String abhaId = SignupGuard.normalizeAbhaId(columns.get(r, Column.ABHA));
+
+        LocalDate born = dob(columns.get(r, Column.DOB));
+        String age = age(columns.get(r, Column.AGE));
+        if (age == null && born != null) age = String.valueOf(Period.between(born, LocalDate.now()).getYears());
+
+        String gender = gender(columns.get(r, Column.GENDER));
+        String bloodGroup = bloodGroup(columns.get(r, Column.BLOOD_GROUP));
+        String email = columns.get(r, Column.EMAIL);
+        if (email != null && !email.matches("[^@\\s]+@[^@\\s]+")) throw new IllegalArgumentException("Invalid email");
+
+        String village = orDefault(columns.get(r, Column.VILLAGE), job.getDefaultVillage());
+        if (village == null) throw new IllegalArgumentException("Village is required");
+        String block = orDefault(columns.get(r, Column.BLOCK), job.getDefaultBlock());
+        String address = columns.get(r, Column.ADDRESS);
+        if (address == null) address = block == null ? village : village + ", " + block;
+
+        return new Member(line, name, age, gender, born != null ? born.toString() : null, phone, abhaId,
+                village, block, bloodGroup, email, address, null);
+    }
+
+    static String age(String raw) {
+        if (raw == null) return null;
+        try {
+            int years = Integer.parseInt(raw);
+            if (years >= 0 && years <= 120) return String.valueOf(years);
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid age");
+    }
+
+    private static final Map<String, String> GENDERS = Map.of(
+            "m", "MALE", "male", "MALE",
+            "f", "FEMALE", "female", "FEMALE",
+            "o", "OTHER", "other", "OTHER",
+            "t", "OTHER", "transgender", "OTHER");
+
+    static String gender(String raw) {
+        if (raw == null) return null;
+        String g = GENDERS.get(raw.toLowerCase(Locale.ROOT));
+        if (g == null) throw new IllegalArgumentException("Invalid gender");
+        return g;
+    }
+
+    // "b+", "B +ve", "AB negative" -> B+, B+, AB-
+    static String bloodGroup(String raw) {
+        if (raw == null) return null;
+        String g = raw.replaceAll("\\s", "").toUpperCase(Locale.ROOT)
+                .replace("POSITIVE", "+").replace("NEGATIVE", "-")
+                .replace("VE", "");
+        if (!g.matches("(A|B|AB|O)[+-]")) throw new IllegalArgumentException("Invalid blood group");
+        return g;
+    }
+
+    static LocalDate dob(String raw) {
+        if (raw == null) return null;
+        for (DateTimeFormatter f : DOB_FORMATS) {
+            try {
+                LocalDate d = LocalDate.parse(raw, f);
+                if (!d.isAfter(LocalDate.now())) return d;
+            } catch (DateTimeParseException ignored) {
+                // next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid date of birth");
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    // the spooled upload of a job
+    Path file(long id) {
+        return dir.resolve(id + ".csv");
+    }
+
+    private static CsvReader open(Path file) {
+        try {
+            return new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file, e);
+        }
+    }
+
+    // data records (header excluded), for progress
+    private static long count(Path file) {
+        long n = -1;
+        try (CsvReader csv = open(file)) {
+            while (csv.next() != null) n++;
+        }
+        return Math.max(0, n);
+    }
+
+    private void setStatus(long id, CensusImportStatus status, String error) {
+        jdbcTemplate.update("UPDATE census_imports SET status = ?, error = ?, updated_at = ? WHERE id = ?",
+                status.name(), error, Timestamp.valueOf(LocalDateTime.now()), id);
+    }
+
+    private void fail(long id, String error) {
+        String message = error == null ? "Import failed" : error;
+        setStatus(id, CensusImportStatus.FAILED, message.length() > 500 ? message.substring(0, 500) : message);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    static CensusImportResponse toResponse(CensusImport job) {
+        return CensusImportResponse.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .importedBy(job.getImportedBy())
+                .status(job.getStatus())
+                .totalRows(job.getTotalRows())
+                .processedRows(job.getProcessedRows())
+                .created(job.getCreated())
+                .rejected(job.getRejected())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
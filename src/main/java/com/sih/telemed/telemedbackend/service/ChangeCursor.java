@@ -0,0 +1,102 @@
+package com.sih.telemed.telemedbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ---------------------------------------------------------
+// MONOTONIC CHANGE CURSOR (encounters, patients, appointments)
+// Every insert / user-visible update stamps the row's change_seq
+// with next(). Sequence numbers are handed out before the writing
+// transaction commits, so a reader must not trust "max(change_seq)":
+// a smaller number may still be in flight. watermark() is the
+// highest number below which every transaction has finished -
+// sync reads stop there, so a cursor never skips a late commit.
+// In-flight numbers are released when their transaction completes
+// (commit or rollback).
+// On first use, rows from before the column existed get
+// change_seq = id and the counter starts above the highest value.
+// ---------------------------------------------------------
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeCursor {
+
+    static final List<String> TABLES = List.of("encounters", "patients", "appointments");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong counter = new AtomicLong();
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private volatile boolean seeded;
+
+    // seq numbers taken by one transaction, released together
+    private static final class Held extends ArrayList<Long> {
+    }
+
+    public long next() {
+        ensureSeeded();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // auto-commit write: done as soon as the statement returns
+            return counter.incrementAndGet();
+        }
+        long seq;
+        synchronized (inFlight) {
+            // issued and in flight at once, or watermark() could pass it
+            seq = counter.incrementAndGet();
+            inFlight.add(seq);
+        }
+        Held held = (Held) TransactionSynchronizationManager.getResource(this);
+        if (held == null) {
+            Held mine = new Held();
+            TransactionSynchronizationManager.bindResource(this, mine);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.removeAll(mine);
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeCursor.this);
+                }
+            });
+            held = mine;
+        }
+        held.add(seq);
+        return seq;
+    }
+
+    // every change_seq <= watermark() is committed (or rolled back)
+    public long watermark() {
+        ensureSeeded();
+        synchronized (inFlight) {
+            long issued = counter.get();
+            return inFlight.isEmpty() ? issued : inFlight.first() - 1;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSeeded() {
+        if (seeded) return;
+        synchronized (this) {
+            if (seeded) return;
+            long max = 0;
+            int backfilled = 0;
+            for (String table : TABLES) {
+                backfilled += jdbcTemplate.update("UPDATE " + table + " SET change_seq = id WHERE change_seq IS NULL");
+                Long m = jdbcTemplate.queryForObject("SELECT MAX(change_seq) FROM " + table, Long.class);
+                if (m != null) max = Math.max(max, m);
+            }
+            counter.set(max);
+            seeded = true;
+            if (backfilled > 0) log.info("Stamped change_seq on {} existing rows", backfilled);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentRequest;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientRequest;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientResponse;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncItem;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncItemResult;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncRequest;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncResponse;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterRequest;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterResponse;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.ChangeTracked;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.model.Patient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// ---------------------------------------------------------
+// DELTA SYNC FOR OFFLINE CHW DEVICES
+// pull: everything the CHW can see (own patients, their
+// appointments, own encounters) with change_seq in (since, upTo],
+// upTo = ChangeCursor.watermark(), so no uncommitted change can
+// slip behind the returned cursor. Pages are cut on change_seq:
+// when a table is truncated the cursor stops at the lowest last
+// seq among truncated tables and rows above it wait for the next
+// call (hasMore = true).
+// sync: one upload with the offline queue (patients first, so
+// encounters / appointments can point at a patient created in the
+// same batch), each item in its own transaction and idempotent on
+// its clientId; then the pull, so one round trip does both ways.
+// ---------------------------------------------------------
+@Service
+@RequiredArgsConstructor
+public class ChwSyncService {
+
+    private static final int DEFAULT_LIMIT = 200;
+    private static final int MAX_LIMIT = 1000;
+
+    private final PatientRepository patientRepository;
+    private final EncounterRepository encounterRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PatientService patientService;
+    private final EncounterService encounterService;
+    private final AppointmentService appointmentService;
+    private final IdempotencyStore idempotencyStore;
+    private final ChangeCursor changeCursor;
+
+    // ---------------------------------------------------------
+    // PULL
+    // ---------------------------------------------------------
+    @Transactional(readOnly = true)
+    public SyncResponse pull(Long chwId, Long since, Integer limit) {
+        long from = since != null ? since : 0;
+        if (from < 0) throw new IllegalArgumentException("since must not be negative");
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        long upTo = changeCursor.watermark();
+
+        // one extra row tells whether the table has more
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Patient> patients = from < upTo ? patientRepository.findChangedForOwner(chwId, from, upTo, page) : List.of();
+        List<Encounter> encounters = from < upTo ? encounterRepository.findChangedForChw(chwId, from, upTo, page) : List.of();
+        List<Appointment> appointments = from < upTo
+                ? appointmentRepository.findChangedForPatientOwner(chwId, from, upTo, page) : List.of();
+
+        long cursor = Math.max(from, upTo);
+        boolean hasMore = false;
+        for (List<? extends ChangeTracked> rows : List.of(patients, encounters, appointments)) {
+            if (rows.size() > size) {
+                hasMore = true;
+                cursor = Math.min(cursor, rows.get(size - 1).getChangeSeq());
+            }
+        }
+
+        return SyncResponse.builder()
+                .cursor(cursor)
+                .hasMore(hasMore)
+                .patients(upTo(patients, cursor, PatientService::toResponse))
+                .encounters(upTo(encounters, cursor, EncounterService::toResponse))
+                .appointments(upTo(appointments, cursor, appointmentService::toResponse))
+                .results(List.of())
+                .build();
+    }
+
+    private static <E extends ChangeTracked, R> List<R> upTo(List<E> rows, long cursor, Function<E, R> mapper) {
+        return rows.stream()
+                .filter(r -> r.getChangeSeq() <= cursor)
+                .map(mapper)
+                .toList();
+    }
+
+    // ---------------------------------------------------------
+    // UPLOAD + PULL
+    // ---------------------------------------------------------
+    public SyncResponse sync(Long chwId, SyncRequest req) {
+        List<SyncItemResult> results = new ArrayList<>();
+        // clientId -> server id of patients in this upload (also on replays)
+        Map<String, Long> patientIds = new HashMap<>();
+
+        for (SyncItem<PatientRequest> item : nonNull(req.getPatients())) {
+            SyncItemResult result = apply("patient", chwId, item, () -> {
+                PatientRequest data = data(item);
+                if (data.getOwnerUserId() == null) data.setOwnerUserId(chwId);
+                return patientService.createPatient(data).getId();
+            });
+            if (result.getId() != null && item.getClientId() != null) {
+                patientIds.put(item.getClientId(), result.getId());
+            }
+            results.add(result);
+        }
+
+        for (SyncItem<EncounterRequest> item : nonNull(req.getEncounters())) {
+            results.add(apply("encounter", chwId, item, () -> {
+                EncounterRequest data = data(item);
+                if (data.getChwId() == null) data.setChwId(chwId);
+                if (data.getPatientId() == null) data.setPatientId(patientId(item, patientIds));
+                return encounterService.createEncounter(data).getId();
+            }));
+        }
+
+        for (SyncItem<AppointmentRequest> item : nonNull(req.getAppointments())) {
+            results.add(apply("appointment", chwId, item, () -> {
+                AppointmentRequest data = data(item);
+                if (data.getPatientId() == null) data.setPatientId(patientId(item, patientIds));
+                return appointmentService.bookAppointment(data).getId();
+            }));
+        }
+
+        SyncResponse response = pull(chwId, req.getSince(), req.getLimit());
+        response.setResults(results);
+        return response;
+    }
+
+    // one failing item doesn't fail the upload; the device retries it next time
+    private SyncItemResult apply(String type, Long chwId, SyncItem<?> item, Supplier<Long> action) {
+        SyncItemResult.SyncItemResultBuilder result = SyncItemResult.builder()
+                .type(type)
+                .clientId(item.getClientId());
+        try {
+            Long id = idempotencyStore.execute("sync:" + chwId + ":" + type, item.getClientId(), item, action);
+            return result.id(id).build();
+        } catch (RuntimeException ex) {
+            return result.error(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName()).build();
+        }
+    }
+
+    private static <T> T data(SyncItem<T> item) {
+        if (item.getData() == null) throw new IllegalArgumentException("Item has no data");
+        return item.getData();
+    }
+
+    private static Long patientId(SyncItem<?> item, Map<String, Long> patientIds) {
+        if (item.getPatientClientId() == null) throw new IllegalArgumentException("patientId is required");
+        Long id = patientIds.get(item.getPatientClientId());
+        if (id == null) {
+            throw new IllegalArgumentException("Patient " + item.getPatientClientId() + " was not created in this upload");
+        }
+        return id;
+    }
+
+    private static <T> List<T> nonNull(List<T> items) {
+        return items != null ? items : List.of();
+    }
+}
@@ -0,0 +1,257 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.model.Doctor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ---------------------------------------------------------
+// FREE-SLOT BITMAP PER DOCTOR PER DAY
+// One bit per 5-minute slot (288 slots -> 5 longs per day).
+// A set bit means busy: outside working hours or covered by a
+// SCHEDULED appointment in the interval index. Days nobody has
+// booked are not stored and read as the working-hours mask.
+// Day arrays are replaced, never mutated, so searches are lock-free.
+// ---------------------------------------------------------
+@Component
+public class DoctorAvailabilityIndex {
+
+    static final int SLOT_MINUTES = 5;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int WORDS = (SLOTS_PER_DAY + 63) / 64;
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final AppointmentIntervalIndex intervalIndex;
+    private final DoctorPresenceRegistry presence;
+    private final int horizonDays;
+
+    // bits outside working hours (and past slot 287) are pre-set
+    private final long[] workingMask;
+
+    // epochDay -> doctorId -> busy words (day-major, so a search does one lookup per day)
+    private final Map<Long, Map<Long, long[]>> days = new ConcurrentHashMap<>();
+
+    // cached view: hospital -> specialization (lower case, "" = any) -> AVAILABLE doctors,
+    // rebuilt when the presence registry's version moves on
+    private volatile Map<String, Map<String, List<Doctor>>> doctorsByHospital = Map.of();
+    private volatile long doctorsVersion = -1;
+
+    public DoctorAvailabilityIndex(AppointmentIntervalIndex intervalIndex,
+                                   DoctorPresenceRegistry presence,
+                                   @Value("${availability.day-start:09:00}") String dayStart,
+                                   @Value("${availability.day-end:17:00}") String dayEnd,
+                                   @Value("${availability.horizon-days:14}") int horizonDays) {
+        this.intervalIndex = intervalIndex;
+        this.presence = presence;
+        this.horizonDays = horizonDays;
+
+        LocalTime open = LocalTime.parse(dayStart);
+        LocalTime close = LocalTime.parse(dayEnd);
+        if (!close.isAfter(open)) {
+            throw new IllegalArgumentException("availability.day-end must be after availability.day-start.");
+        }
+        this.workingMask = new long[WORDS];
+        setBits(workingMask, 0, ceilSlot(open.toSecondOfDay()));
+        setBits(workingMask, close.toSecondOfDay() / 60 / SLOT_MINUTES, WORDS * 64);
+    }
+
+    // ---------------------------------------------------------
+    // BUILD (after the interval index) + FOLLOW ITS CHANGES
+    // ---------------------------------------------------------
+    @PostConstruct
+    void init() {
+        intervalIndex.addListener(this::refresh);
+        rebuild();
+    }
+
+    public void rebuild() {
+        days.clear();
+        LocalDateTime today = LocalDate.now(ZONE).atStartOfDay();
+        for (Long doctorId : intervalIndex.doctorIds()) {
+            // only the days that actually hold bookings get materialized
+            LocalDate done = null;
+            for (AppointmentIntervalIndex.BusyBlock b : intervalIndex.busyIntervals(doctorId, today, LocalDateTime.MAX)) {
+                LocalDateTime from = done != null && !b.start().toLocalDate().isAfter(done)
+                        ? done.plusDays(1).atStartOfDay() : b.start();
+                if (from.isBefore(b.end())) {
+                    refresh(doctorId, from, b.end());
+                    done = b.end().minusNanos(1).toLocalDate();
+                }
+            }
+        }
+    }
+
+    // recompute every day touched by [start, end) from the interval index
+    void refresh(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        LocalDate first = start.toLocalDate();
+        LocalDate last = end.minusNanos(1).toLocalDate();
+
+        for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) {
+            LocalDateTime from = d.atStartOfDay();
+            long[] words = workingMask.clone();
+
+            for (AppointmentIntervalIndex.BusyBlock b : intervalIndex.busyIntervals(doctorId, from, from.plusDays(1))) {
+                int s = (int) (Duration.between(from, b.start()).toSeconds() / 60 / SLOT_MINUTES);
+                int e = ceilSlot(Duration.between(from, b.end()).toSeconds());
+                setBits(words, s, e);
+            }
+            days.computeIfAbsent(d.toEpochDay(), k -> new ConcurrentHashMap<>()).put(doctorId, words);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${availability.purge-ms:3600000}")
+    public void purgePastDays() {
+        long today = LocalDate.now(ZONE).toEpochDay();
+        days.keySet().removeIf(day -> day < today);
+    }
+
+    // ---------------------------------------------------------
+    // SEARCH
+    // ---------------------------------------------------------
+    public record SlotMatch(Doctor doctor, LocalDateTime start, LocalDateTime end) {
+    }
+
+    // earliest run of free slots long enough for durationMinutes, starting at or after `after`,
+    // across every AVAILABLE doctor at the hospital (optionally with that specialization)
+    public Optional<SlotMatch> nextAvailable(String hospital, String specialization,
+                                             LocalDateTime after, int durationMinutes) {
+        int k = (durationMinutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        if (k < 1 || k > SLOTS_PER_DAY) {
+            throw new IllegalArgumentException("durationMinutes must be between 1 and " + 24 * 60 + ".");
+        }
+
+        String spec = specialization == null ? "" : specialization.trim().toLowerCase();
+        List<Doctor> candidates = availableDoctorsByHospital().getOrDefault(hospital, Map.of())
+                .getOrDefault(spec, List.of());
+        if (candidates.isEmpty()) return Optional.empty();
+
+        LocalDate day = after.toLocalDate();
+        int fromSlot = ceilSlot(after.toLocalTime().toSecondOfDay() + (after.getNano() > 0 ? 1 : 0));
+        long[] scratch = new long[WORDS];
+
+        for (int i = 0; i < horizonDays; i++, day = day.plusDays(1), fromSlot = 0) {
+            if (fromSlot >= SLOTS_PER_DAY) continue;
+
+            Map<Long, long[]> booked = days.getOrDefault(day.toEpochDay(), Map.of());
+            int unbookedSlot = -2;   // same answer for every doctor with no bookings that day
+
+            Doctor best = null;
+            int bestSlot = Integer.MAX_VALUE;
+            int bestLoad = Integer.MAX_VALUE;
+
+            for (Doctor d : candidates) {
+                long[] words = booked.get(d.getId());
+                int slot;
+                if (words != null) {
+                    slot = firstFreeRun(words, k, fromSlot, scratch);
+                } else {
+                    if (unbookedSlot == -2) unbookedSlot = firstFreeRun(workingMask, k, fromSlot, scratch);
+                    slot = unbookedSlot;
+                }
+                if (slot < 0 || slot > bestSlot) continue;
+                if (slot == bestSlot) {
+                    // tie: prefer the less booked doctor (loads looked up only on ties)
+                    if (bestLoad == Integer.MAX_VALUE) bestLoad = intervalIndex.size(best.getId());
+                    int load = intervalIndex.size(d.getId());
+                    if (load >= bestLoad) continue;
+                    bestLoad = load;
+                } else {
+                    bestLoad = Integer.MAX_VALUE;
+                }
+                best = d;
+                bestSlot = slot;
+            }
+            if (best != null) {
+                LocalDateTime start = day.atStartOfDay().plusMinutes((long) bestSlot * SLOT_MINUTES);
+                return Optional.of(new SlotMatch(best, start, start.plusMinutes(durationMinutes)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    // ---------------------------------------------------------
+    // WORD-LEVEL BIT OPS
+    // ---------------------------------------------------------
+
+    // first slot >= from that starts k consecutive free slots, or -1
+    static int firstFreeRun(long[] busy, int k, int from, long[] run) {
+        for (int w = 0; w < WORDS; w++) run[w] = ~busy[w];
+
+        // after each step bit i means "slots [i, i + have) are all free"
+        int have = 1;
+        while (have < k) {
+            int s = Math.min(have, k - have);
+            andShifted(run, s);
+            have += s;
+        }
+
+        int fw = from >>> 6;
+        for (int w = fw; w < WORDS; w++) {
+            long bits = w == fw ? run[w] & (-1L << (from & 63)) : run[w];
+            if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        return -1;
+    }
+
+    // run[i] &= run[i + s] for every bit i (bits shifted in from past the end are busy)
+    private static void andShifted(long[] run, int s) {
+        int q = s >>> 6;
+        int r = s & 63;
+        for (int w = 0; w < WORDS; w++) {
+            long lo = w + q < WORDS ? run[w + q] : 0;
+            long hi = w + q + 1 < WORDS ? run[w + q + 1] : 0;
+            run[w] &= r == 0 ? lo : (lo >>> r) | (hi << (64 - r));
+        }
+    }
+
+    // sets bits [from, to)
+    static void setBits(long[] words, int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, words.length * 64);
+        for (int i = from; i < to; ) {
+            int w = i >>> 6;
+            int lo = i & 63;
+            int hi = Math.min(64, lo + (to - i));
+            long mask = hi == 64 ? -1L << lo : ((1L << hi) - 1) & (-1L << lo);
+            words[w] |= mask;
+            i += hi - lo;
+        }
+    }
+
+    private static int ceilSlot(long secondsOfDay) {
+        long slotSeconds = SLOT_MINUTES * 60L;
+        return (int) ((secondsOfDay + slotSeconds - 1) / slotSeconds);
+    }
+
+    private Map<String, Map<String, List<Doctor>>> availableDoctorsByHospital() {
+        long version = presence.version();
+        if (version != doctorsVersion) {
+            Map<String, Map<String, List<Doctor>>> byHospital = new HashMap<>();
+            for (Doctor d : presence.availableDoctors()) {
+                if (d.getHospital() == null) continue;
+                Map<String, List<Doctor>> bySpec = byHospital.computeIfAbsent(d.getHospital(), h -> new HashMap<>());
+                bySpec.computeIfAbsent("", s -> new ArrayList<>()).add(d);
+                if (d.getSpecialization() != null) {
+                    bySpec.computeIfAbsent(d.getSpecialization().trim().toLowerCase(), s -> new ArrayList<>()).add(d);
+                }
+            }
+            doctorsByHospital = byHospital;
+            doctorsVersion = version;
+        }
+        return doctorsByHospital;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.service.DoctorPresenceRegistry.VersionedDoctor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// ---------------------------------------------------------
+// DOCTOR DIRECTORY SNAPSHOT
+// Immutable, pre-serialized JSON of GET /api/doctors, stamped with
+// the presence registry's version. Rebuilt on the first read after
+// a createDoctor / status change (heartbeats don't move the version),
+// re-serializing only the doctors that changed. Polls in between are
+// a volatile read plus an ETag compare.
+// Deltas: doctors whose version is newer than the client's, spliced
+// from the same per-doctor bytes.
+// ---------------------------------------------------------
+@Component
+@RequiredArgsConstructor
+public class DoctorDirectory {
+
+    private static final byte[] FULL_TRUE = ",\"full\":true,\"doctors\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FULL_FALSE = ",\"full\":false,\"doctors\":[".getBytes(StandardCharsets.UTF_8);
+
+    private final DoctorPresenceRegistry presence;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public record Snapshot(long version, String etag, byte[] json, List<Item> items) {
+    }
+
+    // one doctor's serialized DoctorResponse and the version it changed at
+    record Item(Long doctorId, long version, byte[] json) {
+    }
+
+    public Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && s.version() == presence.version()) return s;
+        return rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        // version first: a change landing while we read shows up as a newer version next time
+        long version = presence.version();
+        Snapshot previous = snapshot;
+        if (previous != null && previous.version() == version) return previous;
+
+        Map<Long, Item> reusable = new HashMap<>();
+        if (previous != null) {
+            previous.items().forEach(i -> reusable.put(i.doctorId(), i));
+        }
+
+        List<VersionedDoctor> doctors = presence.versionedDoctors();
+        List<Item> items = doctors.stream().map(v -> {
+            Item old = reusable.get(v.doctor().getId());
+            return old != null && old.version() == v.version() ? old : serialize(v);
+        }).toList();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(items.size() * 200 + 2);
+        out.write('[');
+        writeItems(out, items, Long.MIN_VALUE);
+        out.write(']');
+
+        Snapshot s = new Snapshot(version, "\"" + version + "\"", out.toByteArray(), items);
+        snapshot = s;
+        return s;
+    }
+
+    // {"version":V,"full":bool,"doctors":[...]}; full when sinceVersion is from a previous run or the future
+    public byte[] delta(long sinceVersion) {
+        Snapshot s = current();
+        boolean full = sinceVersion < presence.baseVersion() || sinceVersion > s.version();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(("{\"version\":" + s.version()).getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(full ? FULL_TRUE : FULL_FALSE);
+        writeItems(out, s.items(), full ? Long.MIN_VALUE : sinceVersion);
+        out.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static void writeItems(ByteArrayOutputStream out, List<Item> items, long after) {
+        boolean first = true;
+        for (Item i : items) {
+            if (i.version() <= after) continue;
+            if (!first) out.write(',');
+            out.writeBytes(i.json());
+            first = false;
+        }
+    }
+
+    private Item serialize(VersionedDoctor v) {
+        Doctor d = v.doctor();
+        try {
+            return new Item(d.getId(), v.version(), objectMapper.writeValueAsBytes(DoctorService.toResponse(d)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize doctor " + d.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.IndexedMinHeap;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+// ---------------------------------------------------------
+// LEAST-BUSY DOCTOR SELECTION
+// load = open (ASSIGNED) encounters + SCHEDULED appointments
+//   encounters    lock-free counters, bumped after commit by EncounterService
+//   appointments  mirrored from the interval index on every change
+// Each hospital keeps an indexed min-heap of its AVAILABLE doctors
+// keyed by load, so a pick is O(log n) and every counter change
+// re-positions one doctor in O(log n). Heap membership follows the
+// presence registry's version.
+// ---------------------------------------------------------
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DoctorLoadBalancer {
+
+    private final DoctorPresenceRegistry presence;
+    private final AppointmentIntervalIndex intervalIndex;
+    private final EncounterRepository encounterRepository;
+
+    // doctorId -> counters
+    private final Map<Long, AtomicInteger> openEncounters = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> appointments = new ConcurrentHashMap<>();
+
+    // counter updates take the read side (heaps lock themselves); a membership rebuild takes the write side
+    private final ReadWriteLock heapLock = new ReentrantReadWriteLock();
+    private volatile Map<String, IndexedMinHeap> heaps = Map.of();
+    private volatile Map<Long, IndexedMinHeap> heapOfDoctor = Map.of();
+    private volatile Map<Long, Doctor> doctors = Map.of();
+    private volatile long heapsVersion = -1;
+
+    // ---------------------------------------------------------
+    // SEED COUNTERS (on startup) + FOLLOW THE INTERVAL INDEX
+    // ---------------------------------------------------------
+    @PostConstruct
+    void init() {
+        for (Object[] row : encounterRepository.countByDoctorForStatus(EncounterStatus.ASSIGNED)) {
+            Long doctorId = presence.doctorIdForUser((Long) row[0]);
+            if (doctorId != null) counter(openEncounters, doctorId).set(((Number) row[1]).intValue());
+        }
+        intervalIndex.addListener(this::appointmentsChanged);
+        for (Long doctorId : intervalIndex.doctorIds()) {
+            counter(appointments, doctorId).set(intervalIndex.size(doctorId));
+        }
+        log.info("Load balancer seeded: {} doctors with open encounters, {} with appointments",
+                openEncounters.size(), appointments.size());
+    }
+
+    // called under the interval index lock; size() is already current
+    private void appointmentsChanged(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        counter(appointments, doctorId).set(intervalIndex.size(doctorId));
+        reweigh(doctorId);
+    }
+
+    // ---------------------------------------------------------
+    // ENCOUNTER HOOKS (encounters store the doctor's user id)
+    // ---------------------------------------------------------
+    public void encounterAssigned(Long doctorUserId) {
+        AfterCommit.run(() -> adjust(presence.doctorIdForUser(doctorUserId), 1));
+    }
+
+    public void encounterClosed(Long doctorUserId) {
+        AfterCommit.run(() -> adjust(presence.doctorIdForUser(doctorUserId), -1));
+    }
+
+    // counted at once, so the next pick of the same transaction already
+    // sees it (bulk uploads); taken back if that transaction rolls back
+    public void reserveEncounter(Long doctorUserId) {
+        Long doctorId = presence.doctorIdForUser(doctorUserId);
+        adjust(doctorId, 1);
+        AfterCommit.onRollback(() -> adjust(doctorId, -1));
+    }
+
+    private void adjust(Long doctorId, int delta) {
+        if (doctorId == null) return;
+        counter(openEncounters, doctorId).updateAndGet(v -> Math.max(0, v + delta));
+        reweigh(doctorId);
+    }
+
+    // ---------------------------------------------------------
+    // PICK
+    // ---------------------------------------------------------
+    public int load(Long doctorId) {
+        return value(openEncounters, doctorId) + value(appointments, doctorId);
+    }
+
+    public Optional<Doctor> leastBusy(String hospital) {
+        return leastBusy(hospital, id -> true);
+    }
+
+    // least-loaded AVAILABLE doctor at the hospital that passes accept (e.g. free for a slot)
+    public Optional<Doctor> leastBusy(String hospital, LongPredicate accept) {
+        if (hospital == null) return Optional.empty();
+        refreshHeaps();
+        IndexedMinHeap heap = heaps.get(hospital);
+        if (heap == null) return Optional.empty();
+        Long id = heap.first(accept);
+        return id == null ? Optional.empty() : Optional.ofNullable(doctors.get(id));
+    }
+
+    // ---------------------------------------------------------
+    // HEAPS
+    // ---------------------------------------------------------
+    private void reweigh(Long doctorId) {
+        heapLock.readLock().lock();
+        try {
+            IndexedMinHeap heap = heapOfDoctor.get(doctorId);
+            if (heap != null) heap.update(doctorId, load(doctorId));
+        } finally {
+            heapLock.readLock().unlock();
+        }
+    }
+
+    private void refreshHeaps() {
+        if (heapsVersion == presence.version()) return;
+        heapLock.writeLock().lock();
+        try {
+            long version = presence.version();
+            if (heapsVersion == version) return;
+
+            Map<String, IndexedMinHeap> byHospital = new HashMap<>();
+            Map<Long, IndexedMinHeap> byDoctor = new HashMap<>();
+            Map<Long, Doctor> roster = new HashMap<>();
+            List<Doctor> available = presence.availableDoctors();
+            for (Doctor d : available) {
+                if (d.getHospital() == null) continue;
+                IndexedMinHeap heap = byHospital.computeIfAbsent(d.getHospital(), h -> new IndexedMinHeap());
+                heap.set(d.getId(), load(d.getId()));
+                byDoctor.put(d.getId(), heap);
+                roster.put(d.getId(), d);
+            }
+            heaps = byHospital;
+            heapOfDoctor = byDoctor;
+            doctors = roster;
+            heapsVersion = version;
+        } finally {
+            heapLock.writeLock().unlock();
+        }
+    }
+
+    private static AtomicInteger counter(Map<Long, AtomicInteger> counters, Long doctorId) {
+        return counters.computeIfAbsent(doctorId, k -> new AtomicInteger());
+    }
+
+    private static int value(Map<Long, AtomicInteger> counters, Long doctorId) {
+        AtomicInteger c = counters.get(doctorId);
+        return c == null ? 0 : c.get();
+    }
+}
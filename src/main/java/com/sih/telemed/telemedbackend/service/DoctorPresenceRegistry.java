@@ -0,0 +1,311 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ---------------------------------------------------------
+// DOCTOR PRESENCE (in memory, source of truth for status)
+//   heartbeat   -> only stamps lastSeen (no DB, no allocation)
+//   setStatus   -> explicit change from the doctor's client
+//   sweep       -> AVAILABLE / BUSY doctors silent for longer than
+//                  offline-after-seconds go OFFLINE; their next
+//                  heartbeat restores the status they had
+//                  (off by default: 0 until clients send heartbeats)
+// Status changes are coalesced per doctor and written to the
+// doctors table in one JDBC batch per flush. version() moves on
+// every status or roster change so readers can cache views of
+// the available doctors and rebuild only when it differs.
+// ---------------------------------------------------------
+@Slf4j
+@Component
+public class DoctorPresenceRegistry {
+
+    private static final String FLUSH_SQL = "UPDATE doctors SET status = ? WHERE id = ?";
+
+    private final DoctorRepository doctorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long offlineAfterMs;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // users.id -> doctors.id (encounters reference the doctor's user)
+    private final Map<Long, Long> doctorByUser = new ConcurrentHashMap<>();
+
+    // doctorId -> latest status not yet written (older pending values are simply overwritten)
+    private final Map<Long, DoctorStatus> dirty = new ConcurrentHashMap<>();
+
+    // starts at boot time in ms, so versions handed to clients keep increasing across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final long baseVersion = version.get();
+    private Counter autoOfflineCounter;
+
+    private static final class Entry {
+        // roster copy (no User, no status), read-only once registered
+        final Doctor doctor;
+        final Long userId;
+        volatile DoctorStatus status;
+        volatile long lastSeen;
+        // registry version of the last status / roster change
+        volatile long changedVersion;
+        // status to restore on the next heartbeat, set while auto-offlined
+        volatile DoctorStatus beforeSilence;
+
+        Entry(Doctor doctor, Long userId, DoctorStatus status, long lastSeen, long changedVersion) {
+            this.doctor = doctor;
+            this.userId = userId;
+            this.status = status;
+            this.lastSeen = lastSeen;
+            this.changedVersion = changedVersion;
+        }
+    }
+
+    // a doctor's live state and the registry version it last changed at
+    public record VersionedDoctor(Doctor doctor, long version) {
+    }
+
+    public DoctorPresenceRegistry(DoctorRepository doctorRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${presence.offline-after-seconds:0}") long offlineAfterSeconds) {
+        this.doctorRepository = doctorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.offlineAfterMs = offlineAfterSeconds * 1000;
+    }
+
+    // ---------------------------------------------------------
+    // LOAD ROSTER (once, on startup)
+    // ---------------------------------------------------------
+    @PostConstruct
+    void init() {
+        autoOfflineCounter = Counter.builder("doctors.presence.auto_offline")
+                .description("Doctors moved to OFFLINE after missing heartbeats")
+                .register(meterRegistry);
+        meterRegistry.gauge("doctors.presence.available", this,
+                r -> r.entries.values().stream().filter(e -> e.status == DoctorStatus.AVAILABLE).count());
+        meterRegistry.gauge("doctors.presence.dirty", dirty, Map::size);
+
+        // everyone gets one full silence window to send a first heartbeat
+        doctorRepository.findAll().forEach(this::register);
+        log.info("Presence registry loaded {} doctors", entries.size());
+    }
+
+    // new or changed roster row (status taken from the row)
+    public void register(Doctor d) {
+        DoctorStatus status = d.getStatus() != null ? d.getStatus() : DoctorStatus.AVAILABLE;
+        Long userId = d.getUser() != null ? d.getUser().getId() : null;
+        if (userId != null) doctorByUser.put(userId, d.getId());
+        entries.put(d.getId(), new Entry(snapshot(d), userId, status, System.currentTimeMillis(), version.incrementAndGet()));
+    }
+
+    // ---------------------------------------------------------
+    // CLIENT SIGNALS
+    // ---------------------------------------------------------
+    public void heartbeat(Long doctorId) {
+        Entry e = entry(doctorId);
+        e.lastSeen = System.currentTimeMillis();
+        if (e.beforeSilence != null) {
+            synchronized (e) {
+                if (e.beforeSilence != null) {
+                    change(e, e.beforeSilence);
+                }
+            }
+        }
+    }
+
+    public Doctor setStatus(Long doctorId, DoctorStatus status) {
+        if (status == null) throw new IllegalArgumentException("status is required.");
+        Entry e = entry(doctorId);
+        e.lastSeen = System.currentTimeMillis();
+        synchronized (e) {
+            change(e, status);
+        }
+        return view(e);
+    }
+
+    // caller holds the entry's monitor
+    private void change(Entry e, DoctorStatus status) {
+        e.beforeSilence = null;
+        if (e.status == status) return;
+        e.status = status;
+        dirty.put(e.doctor.getId(), status);
+        e.changedVersion = version.incrementAndGet();
+    }
+
+    // ---------------------------------------------------------
+    // READS
+    // ---------------------------------------------------------
+    public long version() {
+        return version.get();
+    }
+
+    // first version of this process; anything older predates the roster load
+    public long baseVersion() {
+        return baseVersion;
+    }
+
+    public DoctorStatus status(Long doctorId) {
+        Entry e = entries.get(doctorId);
+        return e != null ? e.status : null;
+    }
+
+    public Optional<Doctor> find(Long doctorId) {
+        Entry e = doctorId != null ? entries.get(doctorId) : null;
+        return e != null ? Optional.of(view(e)) : Optional.empty();
+    }
+
+    public Long userIdOf(Long doctorId) {
+        Entry e = entries.get(doctorId);
+        return e != null ? e.userId : null;
+    }
+
+    public Long doctorIdForUser(Long userId) {
+        return userId != null ? doctorByUser.get(userId) : null;
+    }
+
+    // AVAILABLE and active, for routing / slot search
+    public List<Doctor> availableDoctors() {
+        List<Doctor> out = new ArrayList<>();
+        for (Entry e : entries.values()) {
+            if (e.status == DoctorStatus.AVAILABLE && !Boolean.FALSE.equals(e.doctor.getActive())) {
+                out.add(e.doctor);
+            }
+        }
+        return out;
+    }
+
+    // every doctor with its live status, ordered by id
+    public List<Doctor> doctors() {
+        return entries.values().stream()
+                .map(DoctorPresenceRegistry::view)
+                .sorted(Comparator.comparing(Doctor::getId))
+                .toList();
+    }
+
+    public List<VersionedDoctor> versionedDoctors() {
+        return entries.values().stream()
+                .map(e -> new VersionedDoctor(view(e), e.changedVersion))
+                .sorted(Comparator.comparing(v -> v.doctor().getId()))
+                .toList();
+    }
+
+    // ---------------------------------------------------------
+    // SWEEP: silent doctors go OFFLINE
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${presence.sweep-ms:5000}")
+    public void sweep() {
+        sweep(System.currentTimeMillis());
+    }
+
+    void sweep(long nowMillis) {
+        if (offlineAfterMs <= 0) return;
+        long cutoff = nowMillis - offlineAfterMs;
+        int silenced = 0;
+
+        for (Entry e : entries.values()) {
+            if (e.status == DoctorStatus.OFFLINE || e.lastSeen >= cutoff) continue;
+            synchronized (e) {
+                // re-check under the lock: a heartbeat or status change may have landed
+                if (e.status == DoctorStatus.OFFLINE || e.lastSeen >= cutoff) continue;
+                DoctorStatus was = e.status;
+                change(e, DoctorStatus.OFFLINE);
+                e.beforeSilence = was;
+                silenced++;
+            }
+        }
+        if (silenced > 0) {
+            autoOfflineCounter.increment(silenced);
+            log.info("{} doctors marked OFFLINE after {} s without a heartbeat", silenced, offlineAfterMs / 1000);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // WRITE-BEHIND: one batch per flush, latest status per doctor
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${presence.flush-ms:2000}")
+    public void flush() {
+        if (dirty.isEmpty()) return;
+
+        List<Map.Entry<Long, DoctorStatus>> batch = new ArrayList<>(dirty.size());
+        for (Map.Entry<Long, DoctorStatus> d : dirty.entrySet()) {
+            // only drop the value we are about to write; a newer one stays queued
+            if (dirty.remove(d.getKey(), d.getValue())) {
+                batch.add(Map.entry(d.getKey(), d.getValue()));
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(), (ps, d) -> {
+                ps.setString(1, d.getValue().name());
+                ps.setLong(2, d.getKey());
+            });
+            log.debug("Flushed {} doctor status changes", batch.size());
+        } catch (RuntimeException ex) {
+            // retry next time, unless a newer status was queued meanwhile
+            batch.forEach(d -> dirty.putIfAbsent(d.getKey(), d.getValue()));
+            log.warn("Doctor status flush failed, {} changes kept for retry", batch.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    public int pendingWrites() {
+        return dirty.size();
+    }
+
+    // ---------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------
+    private Entry entry(Long doctorId) {
+        Entry e = entries.get(doctorId);
+        if (e != null) return e;
+
+        // created after startup through some other path: pick it up once
+        Doctor d = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+        register(d);
+        return entries.get(doctorId);
+    }
+
+    private static Doctor snapshot(Doctor d) {
+        return Doctor.builder()
+                .id(d.getId())
+                .name(d.getName())
+                .email(d.getEmail())
+                .phone(d.getPhone())
+                .address(d.getAddress())
+                .specialization(d.getSpecialization())
+                .hospital(d.getHospital())
+                .active(d.getActive())
+                .build();
+    }
+
+    private static Doctor view(Entry e) {
+        Doctor d = snapshot(e.doctor);
+        d.setStatus(e.status);
+        return d;
+    }
+}
@@ -8,19 +8,21 @@ import com.sih.telemed.telemedbackend.dto.Doctor.DoctorCreateRequest;
 import com.sih.telemed.telemedbackend.dto.Doctor.DoctorResponse;
 import com.sih.telemed.telemedbackend.model.Doctor;
 import com.sih.telemed.telemedbackend.model.User;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 public class DoctorService {
 
     private final UserRepository userRepository;
     private final DoctorRepository doctorRepository;
+    private final DoctorPresenceRegistry presence;
+    private final DoctorDirectory directory;
+    private final SignupGuard signupGuard;
 
     @Transactional
     public DoctorResponse createDoctor(DoctorCreateRequest req) {
@@ -35,6 +37,7 @@ public class DoctorService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        signupGuard.recordUsername(savedUser.getUsername());
 
         // CREATE DOCTOR RECORD
         Doctor doctor = Doctor.builder()
@@ -49,49 +52,38 @@ public class DoctorService {
                 .build();
 
         Doctor saved = doctorRepository.save(doctor);
+        AfterCommit.run(() -> presence.register(saved));
 
-        return DoctorResponse.builder()
-                .id(saved.getId())
-                .name(saved.getName())
-                .email(saved.getEmail())
-                .phone(saved.getPhone())
-                .specialization(saved.getSpecialization())
-                .hospital(saved.getHospital())
-                .status(saved.getStatus())
-                .build();
+        return toResponse(saved);
     }
 
-    public List<DoctorResponse> getAllDoctors() {
-        return doctorRepository.findAll().stream()
-                .map(d -> DoctorResponse.builder()
-                        .id(d.getId())
-                        .name(d.getName())
-                        .email(d.getEmail())
-                        .phone(d.getPhone())
-                        .specialization(d.getSpecialization())
-                        .hospital(d.getHospital())
-                        .status(d.getStatus())
-                        .build())
-                .toList();
+    // pre-serialized roster; only rebuilt after a doctor or status change
+    public DoctorDirectory.Snapshot directory() {
+        return directory.current();
     }
 
-    @Transactional
-    public DoctorResponse updateStatus(Long doctorId, DoctorStatus status) {
+    public byte[] directoryDelta(long sinceVersion) {
+        return directory.delta(sinceVersion);
+    }
 
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+    // in-memory change; persisted by the registry's next flush
+    public DoctorResponse updateStatus(Long doctorId, DoctorStatus status) {
+        return toResponse(presence.setStatus(doctorId, status));
+    }
 
-        doctor.setStatus(status);
-        doctorRepository.save(doctor);
+    public void heartbeat(Long doctorId) {
+        presence.heartbeat(doctorId);
+    }
 
+    static DoctorResponse toResponse(Doctor d) {
         return DoctorResponse.builder()
-                .id(doctor.getId())
-                .name(doctor.getName())
-                .email(doctor.getEmail())
-                .phone(doctor.getPhone())
-                .specialization(doctor.getSpecialization())
-                .hospital(doctor.getHospital())
-                .status(doctor.getStatus())
+                .id(d.getId())
+                .name(d.getName())
+                .email(d.getEmail())
+                .phone(d.getPhone())
+                .specialization(d.getSpecialization())
+                .hospital(d.getHospital())
+                .status(d.getStatus())
                 .build();
     }
 }
@@ -0,0 +1,205 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterBulkResponse;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterBulkResult;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterRequest;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// ---------------------------------------------------------
+// BULK ENCOUNTER UPLOAD (CHW back from the field)
+// A fixed number of round trips however many items:
+//   1. patients referenced  -> one IN query (id + village)
+//   2. CHWs referenced      -> one IN query (ids only)
+//   3. valid encounters     -> one JDBC batch insert, ids read back
+//                              from the generated keys
+// Items with a missing / unknown patient or CHW are rejected one by
+// one; the rest are created (partial success). Each created
+// encounter goes through the same emergency fast path, queue,
+// event log, feed and vitals store as a single create.
+// ---------------------------------------------------------
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EncounterBulkService {
+
+    static final int MAX_ITEMS = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO encounters (patient_id, chw_id, doctor_id, symptoms, provisional_diagnosis, riskscore,
+                                    blood_sugar, vitals_json, status, created_at, updated_at, change_seq)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PatientRepository patientRepository;
+    private final UserRepository userRepository;
+    private final VillageRoutingService villageRoutingService;
+    private final DoctorLoadBalancer loadBalancer;
+    private final EncounterWorkQueue workQueue;
+    private final VitalsStore vitalsStore;
+    private final EncounterEventLog eventLog;
+    private final EncounterChangeFeed changeFeed;
+    private final ChangeCursor changeCursor;
+    private final SymptomTriage triage;
+
+    @Transactional
+    public EncounterBulkResponse createEncounters(List<EncounterRequest> requests) {
+        if (requests == null || requests.isEmpty()) throw new IllegalArgumentException("No encounters to create");
+        if (requests.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_ITEMS + " encounters per upload");
+        }
+
+        // ---------------------------------------------------------
+        // 1 + 2. REFERENCES, one IN query per table
+        // ---------------------------------------------------------
+        Set<Long> patientIds = new HashSet<>();
+        Set<Long> chwIds = new HashSet<>();
+        for (EncounterRequest req : requests) {
+            if (req == null) continue;
+            if (req.getPatientId() != null) patientIds.add(req.getPatientId());
+            if (req.getChwId() != null) chwIds.add(req.getChwId());
+        }
+        // patient id -> village (may be null)
+        Map<Long, String> villages = new HashMap<>();
+        if (!patientIds.isEmpty()) {
+            patientRepository.findByIdIn(patientIds).forEach(p -> villages.put(p.getId(), p.getVillage()));
+        }
+        Set<Long> chws = chwIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(chwIds));
+
+        EncounterBulkResult[] results = new EncounterBulkResult[requests.size()];
+        List<Encounter> rows = new ArrayList<>();
+        List<Integer> rowIndex = new ArrayList<>();
+        List<String> hospitals = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            EncounterRequest req = requests.get(i);
+            String error = reject(req, villages, chws);
+            if (error != null) {
+                results[i] = EncounterBulkResult.builder().index(i).error(error).build();
+                continue;
+            }
+
+            Encounter encounter = Encounter.builder()
+                    .patientId(req.getPatientId())
+                    .chwId(req.getChwId())
+                    .symptoms(req.getSymptoms())
+                    .provisionalDiagnosis(req.getProvisionalDiagnosis())
+                    .Riskscore(triage.riskscore(req.getSymptoms(), req.getRiskscore()))
+                    .bloodSugar(req.getBloodSugar())
+                    .vitalsJson(req.getVitalsJson())
+                    .status(EncounterStatus.OPEN)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+
+            String hospital = villageRoutingService.getHospitalForVillage(villages.get(req.getPatientId()));
+            if (workQueue.isEmergency(encounter)) {
+                workQueue.emergencyDoctor(hospital).ifPresent(doctorUserId -> {
+                    encounter.setDoctorId(doctorUserId);
+                    encounter.setStatus(EncounterStatus.ASSIGNED);
+                    // counted now, so the next emergency of this upload goes to someone else
+                    loadBalancer.reserveEncounter(doctorUserId);
+                });
+            }
+
+            rows.add(encounter);
+            rowIndex.add(i);
+            hospitals.add(hospital);
+        }
+
+        // ---------------------------------------------------------
+        // 3. ONE BATCH INSERT
+        // ---------------------------------------------------------
+        if (!rows.isEmpty()) insert(rows);
+
+        for (int r = 0; r < rows.size(); r++) {
+            Encounter saved = rows.get(r);
+            eventLog.record(EncounterEventType.CREATED, saved);
+            changeFeed.publish(EncounterEventType.CREATED, saved, null);
+            workQueue.submit(saved, hospitals.get(r));
+            vitalsStore.record(saved);
+            results[rowIndex.get(r)] = EncounterBulkResult.builder().index(rowIndex.get(r)).id(saved.getId()).build();
+        }
+
+        log.info("Bulk upload: {} encounters created, {} rejected", rows.size(), requests.size() - rows.size());
+        return EncounterBulkResponse.builder()
+                .created(rows.size())
+                .rejected(requests.size() - rows.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private static String reject(EncounterRequest req, Map<Long, String> villages, Set<Long> chws) {
+        if (req == null) return "Empty item";
+        if (req.getPatientId() == null) return "patientId is required";
+        if (req.getChwId() == null) return "chwId is required";
+        if (!villages.containsKey(req.getPatientId())) return "Patient not found";
+        if (!chws.contains(req.getChwId())) return "CHW user not found";
+        return null;
+    }
+
+    private void insert(List<Encounter> rows) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Encounter e = rows.get(i);
+                        e.setChangeSeq(changeCursor.next());
+                        ps.setLong(1, e.getPatientId());
+                        ps.setLong(2, e.getChwId());
+                        ps.setObject(3, e.getDoctorId(), Types.BIGINT);
+                        ps.setString(4, e.getSymptoms());
+                        ps.setString(5, e.getProvisionalDiagnosis());
+                        ps.setObject(6, e.getRiskscore(), Types.DOUBLE);
+                        ps.setObject(7, e.getBloodSugar(), Types.DOUBLE);
+                        ps.setString(8, e.getVitalsJson());
+                        ps.setString(9, e.getStatus().name());
+                        ps.setTimestamp(10, Timestamp.from(e.getCreatedAt()));
+                        ps.setTimestamp(11, Timestamp.from(e.getUpdatedAt()));
+                        ps.setLong(12, e.getChangeSeq());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        // one key row per inserted row, in batch order ("id" or "ID" depending on the driver)
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated ids, got " + generated.size());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Object id = generated.get(i).values().stream().filter(Objects::nonNull).findFirst().orElseThrow();
+            rows.get(i).setId(((Number) id).longValue());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterChangeEvent;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ---------------------------------------------------------
+// LIVE ENCOUNTER FEED (STOMP, replaces dashboard polling)
+// Every create / assign / complete is published after commit to
+//   /topic/doctors/{doctorUserId}/encounters
+//   /topic/chws/{chwUserId}/encounters
+// (a reassignment also tells the doctor who lost the encounter).
+// Events are coalesced per encounter until the next flush: a burst
+// of changes to one encounter goes out once, with its latest state.
+// Each destination gets one message per flush - a list of events
+// ordered by changeSeq. Clients that reconnect catch up through the
+// REST lists / delta sync; the feed itself is fire-and-forget.
+// ---------------------------------------------------------
+@Slf4j
+@Component
+public class EncounterChangeFeed {
+
+    public static final String DOCTOR_TOPIC = "/topic/doctors/%d/encounters";
+    public static final String CHW_TOPIC = "/topic/chws/%d/encounters";
+
+    private static final Comparator<EncounterChangeEvent> BY_SEQ = Comparator.comparing(
+            EncounterChangeEvent::getChangeSeq, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // encounterId -> latest event not yet sent, plus everyone who should hear about it
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private record Pending(EncounterChangeEvent event, Set<String> destinations) {
+
+        Pending merge(Pending newer) {
+            Set<String> all = new LinkedHashSet<>(destinations);
+            all.addAll(newer.destinations);
+            EncounterChangeEvent latest = BY_SEQ.compare(newer.event, event) >= 0 ? newer.event : event;
+            return new Pending(latest, all);
+        }
+    }
+
+    public EncounterChangeFeed(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // previousDoctorId: doctor the encounter was taken from, if any
+    public void publish(EncounterEventType type, Encounter e, Long previousDoctorId) {
+        // built after commit, once the flush has stamped changeSeq
+        AfterCommit.run(() -> enqueue(event(type, e), destinations(e, previousDoctorId)));
+    }
+
+    void enqueue(EncounterChangeEvent event, Set<String> destinations) {
+        if (event.getId() == null || destinations.isEmpty()) return;
+        Pending mine = new Pending(event, destinations);
+        Pending merged = pending.merge(event.getId(), mine, Pending::merge);
+        if (merged != mine) meterRegistry.counter("encounters.feed.coalesced").increment();
+    }
+
+    // ---------------------------------------------------------
+    // FLUSH: one message per destination
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${encounters.feed.flush-ms:250}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        Map<String, List<EncounterChangeEvent>> byDestination = new HashMap<>();
+        for (Map.Entry<Long, Pending> p : pending.entrySet()) {
+            // only drop what we are about to send; a newer merge stays queued
+            if (!pending.remove(p.getKey(), p.getValue())) continue;
+            for (String destination : p.getValue().destinations()) {
+                byDestination.computeIfAbsent(destination, d -> new ArrayList<>()).add(p.getValue().event());
+            }
+        }
+
+        byDestination.forEach((destination, events) -> {
+            events.sort(BY_SEQ);
+            try {
+                messagingTemplate.convertAndSend(destination, events);
+                meterRegistry.counter("encounters.feed.sent").increment(events.size());
+            } catch (RuntimeException ex) {
+                // dashboards still refresh from the REST lists; don't stall the other destinations
+                meterRegistry.counter("encounters.feed.failed").increment(events.size());
+                log.warn("Encounter feed push to {} failed: {}", destination, ex.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    public int pendingEvents() {
+        return pending.size();
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    static EncounterChangeEvent event(EncounterEventType type, Encounter e) {
+        return EncounterChangeEvent.builder()
+                .id(e.getId())
+                .type(type)
+                .status(e.getStatus())
+                .patientId(e.getPatientId())
+                .chwId(e.getChwId())
+                .doctorId(e.getDoctorId())
+                .Riskscore(e.getRiskscore())
+                .updatedAt(e.getUpdatedAt())
+                .changeSeq(e.getChangeSeq())
+                .build();
+    }
+
+    private static Set<String> destinations(Encounter e, Long previousDoctorId) {
+        Set<String> out = new LinkedHashSet<>();
+        if (e.getChwId() != null) out.add(CHW_TOPIC.formatted(e.getChwId()));
+        if (e.getDoctorId() != null) out.add(DOCTOR_TOPIC.formatted(e.getDoctorId()));
+        if (previousDoctorId != null) out.add(DOCTOR_TOPIC.formatted(previousDoctorId));
+        return out;
+    }
+}
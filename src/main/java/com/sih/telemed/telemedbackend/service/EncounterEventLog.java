@@ -0,0 +1,489 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.SegmentedLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ---------------------------------------------------------
+// APPEND-ONLY ENCOUNTER EVENT LOG
+// Every state change of an encounter is appended as a compact
+// binary event to a SegmentedLog; the encounters row is the
+// projection (current state) of those events. An event carries
+// only the fields the change touched (a bitmask + values), and is
+// appended once the row's transaction commits. Appends go to the OS
+// right away; fsync-ms batches them into one fsync (group commit).
+// Per-encounter index in memory: the positions of its events, so a
+// replay reads only that encounter's records, never the whole log.
+// SNAPSHOTS:
+//   per encounter - after snapshot-every events, the full state is
+//     appended as a SNAPSHOT event; replay starts from the latest
+//     snapshot at or before the requested time
+//   index checkpoint - every checkpoint-ms the index is written to
+//     index.snap with the log position it covers; startup loads it
+//     and scans only the log tail after that position
+// After a crash (events lost inside the fsync window, or an append
+// that failed), startup compares updated_at of every row with the
+// last event of its encounter and appends a SNAPSHOT for rows the
+// log is behind on. The first start on an existing database seeds
+// the log the same way.
+// ---------------------------------------------------------
+@Slf4j
+@Component
+public class EncounterEventLog {
+
+    private static final byte FORMAT = 1;
+    private static final int CHECKPOINT_MAGIC = 0x45564931;   // "EVI1"
+    private static final String CHECKPOINT_FILE = "index.snap";
+    private static final int RECONCILE_BATCH = 500;
+
+    // field bits of an event
+    private static final int PATIENT = 1;
+    private static final int CHW = 1 << 1;
+    private static final int DOCTOR = 1 << 2;
+    private static final int SYMPTOMS = 1 << 3;
+    private static final int DIAGNOSIS = 1 << 4;
+    private static final int RISK = 1 << 5;
+    private static final int SUGAR = 1 << 6;
+    private static final int VITALS = 1 << 7;
+    private static final int NOTES = 1 << 8;
+    private static final int STATUS = 1 << 9;
+    private static final int CREATED_AT = 1 << 10;
+    private static final int UPDATED_AT = 1 << 11;
+    private static final int ALL = (1 << 12) - 1;
+
+    private static final String UPDATED_SQL =
+            "SELECT id, COALESCE(updated_at, created_at) AS changed FROM encounters";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EncounterRepository encounterRepository;
+    private final MeterRegistry meterRegistry;
+    private final Path dir;
+    private final long segmentBytes;
+    private final int snapshotEvery;
+
+    private final Map<Long, Chain> chains = new ConcurrentHashMap<>();
+
+    private SegmentedLog segments;
+    private long checkpointed = -1;      // log end covered by index.snap
+    private final Object checkpointLock = new Object();   // one checkpoint writer at a time
+    private Counter appended;
+    private Counter appendFailed;
+    private DistributionSummary fsyncBatch;
+
+    // one decoded event; changes holds only the fields this event set
+    public record EncounterEvent(long position, EncounterEventType type, Long encounterId,
+                                 Instant at, Encounter changes) {
+    }
+
+    // event positions of one encounter, in log order
+    private static final class Chain {
+        long[] positions = new long[4];
+        long[] times = new long[4];          // event time, epoch ms
+        boolean[] snapshot = new boolean[4];
+        int size;
+        int sinceSnapshot;
+
+        void add(long position, long at, boolean isSnapshot) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                times = Arrays.copyOf(times, size * 2);
+                snapshot = Arrays.copyOf(snapshot, size * 2);
+            }
+            positions[size] = position;
+            times[size] = at;
+            snapshot[size] = isSnapshot;
+            size++;
+            sinceSnapshot = isSnapshot ? 0 : sinceSnapshot + 1;
+        }
+    }
+
+    // a chain as it stood when a checkpoint copied the index
+    private record ChainCopy(long id, long[] positions, long[] times, boolean[] snapshot, int size) {
+    }
+
+    public EncounterEventLog(JdbcTemplate jdbcTemplate,
+                             EncounterRepository encounterRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${encounters.events.dir:data/encounter-events}") String dir,
+                             @Value("${encounters.events.segment-mb:64}") long segmentMb,
+                             @Value("${encounters.events.snapshot-every:16}") int snapshotEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encounterRepository = encounterRepository;
+        this.meterRegistry = meterRegistry;
+        this.dir = Paths.get(dir);
+        this.segmentBytes = segmentMb * 1024 * 1024;
+        this.snapshotEvery = Math.max(1, snapshotEvery);
+    }
+
+    // ---------------------------------------------------------
+    // STARTUP: checkpoint + log tail, then catch up with the rows
+    // ---------------------------------------------------------
+    @PostConstruct
+    void init() {
+        appended = meterRegistry.counter("encounters.events.appended");
+        appendFailed = meterRegistry.counter("encounters.events.append_failed");
+        fsyncBatch = DistributionSummary.builder("encounters.events.fsync.batch")
+                .description("Events made durable per fsync")
+                .register(meterRegistry);
+
+        segments = new SegmentedLog(dir, segmentBytes);
+        long from = loadCheckpoint();
+        int[] tail = {0};
+        segments.scan(from, (position, payload) -> {
+            ByteBuffer b = ByteBuffer.wrap(payload);
+            b.get();
+            EncounterEventType type = EncounterEventType.values()[b.get()];
+            long id = b.getLong();
+            long at = b.getLong();
+            chains.computeIfAbsent(id, k -> new Chain()).add(position, at, type == EncounterEventType.SNAPSHOT);
+            tail[0]++;
+        });
+        log.info("Encounter event log: {} encounters indexed, {} events replayed after the checkpoint, {} segments",
+                chains.size(), tail[0], segments.segmentCount());
+
+        reconcile();
+        sync();
+    }
+
+    // rows changed after their last event (or never logged) get a SNAPSHOT
+    void reconcile() {
+        List<Long> behind = new ArrayList<>();
+        jdbcTemplate.query(UPDATED_SQL, rs -> {
+            long id = rs.getLong("id");
+            Timestamp changed = rs.getTimestamp("changed");
+            Chain c = chains.get(id);
+            long last = c == null ? Long.MIN_VALUE : lastTime(c);
+            if (c == null || (changed != null && changed.toInstant().toEpochMilli() > last)) behind.add(id);
+        });
+        for (int i = 0; i < behind.size(); i += RECONCILE_BATCH) {
+            encounterRepository.findAllById(behind.subList(i, Math.min(i + RECONCILE_BATCH, behind.size())))
+                    .forEach(e -> record(EncounterEventType.SNAPSHOT, e));
+        }
+        if (!behind.isEmpty()) {
+            log.warn("Encounter event log was behind on {} encounters; appended snapshots", behind.size());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // RECORDING (called inside the row's transaction, appends after commit)
+    // ---------------------------------------------------------
+    public void record(EncounterEventType type, Encounter e) {
+        int fields = switch (type) {
+            case CREATED, SNAPSHOT -> ALL;
+            case ASSIGNED -> DOCTOR | STATUS | UPDATED_AT;
+            case COMPLETED -> DIAGNOSIS | NOTES | STATUS | UPDATED_AT;
+        };
+        Instant at = e.getUpdatedAt() != null ? e.getUpdatedAt()
+                : e.getCreatedAt() != null ? e.getCreatedAt() : Instant.now();
+        // encoded now: the entity may change again before the commit
+        byte[] payload = encode(type, e.getId(), at, e, fields);
+        Long id = e.getId();
+        AfterCommit.run(() -> {
+            try {
+                append(id, type, at.toEpochMilli(), payload);
+            } catch (RuntimeException ex) {
+                // the row is committed; the next startup's reconcile snapshots it
+                appendFailed.increment();
+                log.error("Could not append {} event for encounter {}", type, id, ex);
+            }
+        });
+    }
+
+    private synchronized void append(Long id, EncounterEventType type, long at, byte[] payload) {
+        long position = segments.append(payload);
+        Chain c = chains.computeIfAbsent(id, k -> new Chain());
+        c.add(position, at, type == EncounterEventType.SNAPSHOT);
+        appended.increment();
+
+        if (c.sinceSnapshot >= snapshotEvery) {
+            Encounter state = replay(id, c.positions, c.snapshot, c.size - 1);
+            append(id, EncounterEventType.SNAPSHOT, at,
+                    encode(EncounterEventType.SNAPSHOT, id, Instant.ofEpochMilli(at), state, ALL));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // GROUP FSYNC + INDEX CHECKPOINT
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${encounters.events.fsync-ms:50}")
+    public void sync() {
+        int n = segments.sync();
+        if (n > 0) fsyncBatch.record(n);
+    }
+
+    // the index is copied under the append lock; the file is written and
+    // fsynced outside it, so appends are not held up by the checkpoint
+    @Scheduled(fixedDelayString = "${encounters.events.checkpoint-ms:600000}")
+    public void checkpoint() {
+        synchronized (checkpointLock) {
+            long end;
+            List<ChainCopy> copy;
+            synchronized (this) {
+                end = segments.end();
+                if (end == checkpointed) return;
+                copy = new ArrayList<>(chains.size());
+                // chains only grow, and a full array is replaced rather than
+                // rewritten, so the first size entries stay as they are
+                chains.forEach((id, c) -> copy.add(new ChainCopy(id, c.positions, c.times, c.snapshot, c.size)));
+            }
+            sync();                         // the index must never point past what is durable
+
+            Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeLong(end);
+                out.writeInt(copy.size());
+                for (ChainCopy c : copy) {
+                    out.writeLong(c.id());
+                    out.writeInt(c.size());
+                    for (int i = 0; i < c.size(); i++) {
+                        out.writeLong(c.positions()[i]);
+                        out.writeLong(c.times()[i]);
+                        out.writeBoolean(c.snapshot()[i]);
+                    }
+                }
+                out.flush();
+                fos.getFD().sync();
+            } catch (IOException ex) {
+                log.error("Could not write the encounter event index checkpoint", ex);
+                return;
+            }
+            try {
+                Files.move(tmp, dir.resolve(CHECKPOINT_FILE),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                synchronized (this) {
+                    checkpointed = end;
+                }
+            } catch (IOException ex) {
+                log.error("Could not install the encounter event index checkpoint", ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checkpoint();
+        segments.close();
+    }
+
+    // position to scan from; 0 (full scan) without a usable checkpoint
+    private long loadCheckpoint() {
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != CHECKPOINT_MAGIC) throw new IOException("bad magic");
+            long end = in.readLong();
+            if (end > segments.end()) throw new IOException("checkpoint is ahead of the log");
+            int n = in.readInt();
+            for (int k = 0; k < n; k++) {
+                long id = in.readLong();
+                int size = in.readInt();
+                Chain c = new Chain();
+                for (int i = 0; i < size; i++) c.add(in.readLong(), in.readLong(), in.readBoolean());
+                chains.put(id, c);
+            }
+            checkpointed = end;
+            return end;
+        } catch (NoSuchFileException ex) {
+            return 0;
+        } catch (IOException ex) {
+            log.warn("Ignoring encounter event index checkpoint ({}); scanning the whole log", ex.getMessage());
+            chains.clear();
+            return 0;
+        }
+    }
+
+    // ---------------------------------------------------------
+    // REPLAY
+    // ---------------------------------------------------------
+    // state as of `at`: latest snapshot at or before it, then the events up to it
+    public Optional<Encounter> stateAt(Long encounterId, Instant at) {
+        long[] positions;
+        boolean[] snapshot;
+        int last;
+        synchronized (this) {
+            Chain c = chains.get(encounterId);
+            if (c == null) return Optional.empty();
+            last = c.size - 1;
+            while (last >= 0 && c.times[last] > at.toEpochMilli()) last--;
+            positions = c.positions.clone();
+            snapshot = c.snapshot.clone();
+        }
+        return last < 0 ? Optional.empty() : Optional.of(replay(encounterId, positions, snapshot, last));
+    }
+
+    public List<EncounterEvent> history(Long encounterId) {
+        long[] positions;
+        synchronized (this) {
+            Chain c = chains.get(encounterId);
+            if (c == null) return List.of();
+            positions = Arrays.copyOf(c.positions, c.size);
+        }
+        List<EncounterEvent> events = new ArrayList<>(positions.length);
+        for (long p : positions) events.add(decode(p, segments.read(p)));
+        return events;
+    }
+
+    public int eventCount(Long encounterId) {
+        Chain c = chains.get(encounterId);
+        return c == null ? 0 : c.size;
+    }
+
+    public static void apply(Encounter changes, Encounter state) {
+        if (changes.getPatientId() != null) state.setPatientId(changes.getPatientId());
+        if (changes.getChwId() != null) state.setChwId(changes.getChwId());
+        if (changes.getDoctorId() != null) state.setDoctorId(changes.getDoctorId());
+        if (changes.getSymptoms() != null) state.setSymptoms(changes.getSymptoms());
+        if (changes.getProvisionalDiagnosis() != null) state.setProvisionalDiagnosis(changes.getProvisionalDiagnosis());
+        if (changes.getRiskscore() != null) state.setRiskscore(changes.getRiskscore());
+        if (changes.getBloodSugar() != null) state.setBloodSugar(changes.getBloodSugar());
+        if (changes.getVitalsJson() != null) state.setVitalsJson(changes.getVitalsJson());
+        if (changes.getNotes() != null) state.setNotes(changes.getNotes());
+        if (changes.getStatus() != null) state.setStatus(changes.getStatus());
+        if (changes.getCreatedAt() != null) state.setCreatedAt(changes.getCreatedAt());
+        if (changes.getUpdatedAt() != null) state.setUpdatedAt(changes.getUpdatedAt());
+    }
+
+    private Encounter replay(Long encounterId, long[] positions, boolean[] snapshot, int last) {
+        int first = last;
+        while (first > 0 && !snapshot[first]) first--;
+        Encounter state = new Encounter();
+        for (int i = first; i <= last; i++) {
+            apply(decode(positions[i], segments.read(positions[i])).changes(), state);
+        }
+        state.setId(encounterId);
+        return state;
+    }
+
+    private static long lastTime(Chain c) {
+        long last = Long.MIN_VALUE;
+        for (int i = 0; i < c.size; i++) last = Math.max(last, c.times[i]);
+        return last;
+    }
+
+    // ---------------------------------------------------------
+    // CODEC: [format][type][encounterId][at ms][field mask][values...]
+    // ---------------------------------------------------------
+    static byte[] encode(EncounterEventType type, Long encounterId, Instant at, Encounter e, int fields) {
+        int mask = 0;
+        if ((fields & PATIENT) != 0 && e.getPatientId() != null) mask |= PATIENT;
+        if ((fields & CHW) != 0 && e.getChwId() != null) mask |= CHW;
+        if ((fields & DOCTOR) != 0 && e.getDoctorId() != null) mask |= DOCTOR;
+        if ((fields & SYMPTOMS) != 0 && e.getSymptoms() != null) mask |= SYMPTOMS;
+        if ((fields & DIAGNOSIS) != 0 && e.getProvisionalDiagnosis() != null) mask |= DIAGNOSIS;
+        if ((fields & RISK) != 0 && e.getRiskscore() != null) mask |= RISK;
+        if ((fields & SUGAR) != 0 && e.getBloodSugar() != null) mask |= SUGAR;
+        if ((fields & VITALS) != 0 && e.getVitalsJson() != null) mask |= VITALS;
+        if ((fields & NOTES) != 0 && e.getNotes() != null) mask |= NOTES;
+        if ((fields & STATUS) != 0 && e.getStatus() != null) mask |= STATUS;
+        if ((fields & CREATED_AT) != 0 && e.getCreatedAt() != null) mask |= CREATED_AT;
+        if ((fields & UPDATED_AT) != 0 && e.getUpdatedAt() != null) mask |= UPDATED_AT;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeByte(type.ordinal());
+            out.writeLong(encounterId);
+            out.writeLong(at.toEpochMilli());
+            out.writeShort(mask);
+            if ((mask & PATIENT) != 0) out.writeLong(e.getPatientId());
+            if ((mask & CHW) != 0) out.writeLong(e.getChwId());
+            if ((mask & DOCTOR) != 0) out.writeLong(e.getDoctorId());
+            if ((mask & SYMPTOMS) != 0) writeString(out, e.getSymptoms());
+            if ((mask & DIAGNOSIS) != 0) writeString(out, e.getProvisionalDiagnosis());
+            if ((mask & RISK) != 0) out.writeDouble(e.getRiskscore());
+            if ((mask & SUGAR) != 0) out.writeDouble(e.getBloodSugar());
+            if ((mask & VITALS) != 0) writeString(out, e.getVitalsJson());
+            if ((mask & NOTES) != 0) writeString(out, e.getNotes());
+            if ((mask & STATUS) != 0) out.writeByte(e.getStatus().ordinal());
+            if ((mask & CREATED_AT) != 0) writeInstant(out, e.getCreatedAt());
+            if ((mask & UPDATED_AT) != 0) writeInstant(out, e.getUpdatedAt());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static EncounterEvent decode(long position, byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        byte format = in.get();
+        if (format != FORMAT) throw new IllegalStateException("Unknown event format " + format + " at " + position);
+        EncounterEventType type = EncounterEventType.values()[in.get()];
+        long id = in.getLong();
+        Instant at = Instant.ofEpochMilli(in.getLong());
+        int mask = in.getShort() & 0xFFFF;
+
+        Encounter e = new Encounter();
+        if ((mask & PATIENT) != 0) e.setPatientId(in.getLong());
+        if ((mask & CHW) != 0) e.setChwId(in.getLong());
+        if ((mask & DOCTOR) != 0) e.setDoctorId(in.getLong());
+        if ((mask & SYMPTOMS) != 0) e.setSymptoms(readString(in));
+        if ((mask & DIAGNOSIS) != 0) e.setProvisionalDiagnosis(readString(in));
+        if ((mask & RISK) != 0) e.setRiskscore(in.getDouble());
+        if ((mask & SUGAR) != 0) e.setBloodSugar(in.getDouble());
+        if ((mask & VITALS) != 0) e.setVitalsJson(readString(in));
+        if ((mask & NOTES) != 0) e.setNotes(readString(in));
+        if ((mask & STATUS) != 0) e.setStatus(EncounterStatus.values()[in.get()]);
+        if ((mask & CREATED_AT) != 0) e.setCreatedAt(readInstant(in));
+        if ((mask & UPDATED_AT) != 0) e.setUpdatedAt(readInstant(in));
+        return new EncounterEvent(position, type, id, at, e);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] b = new byte[in.getInt()];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant t) throws IOException {
+        out.writeLong(t.getEpochSecond());
+        out.writeInt(t.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer in) {
+        return Instant.ofEpochSecond(in.getLong(), in.getInt());
+    }
+}
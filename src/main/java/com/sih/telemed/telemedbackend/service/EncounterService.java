@@ -2,23 +2,34 @@ package com.sih.telemed.telemedbackend.service;
 
 
 
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
 import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
 import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
 import com.sih.telemed.telemedbackend.Repository.PatientRepository;
 import com.sih.telemed.telemedbackend.Repository.UserRepository;
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterAssignRequest;
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterCompleteRequest;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterEventResponse;
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterRequest;
 import com.sih.telemed.telemedbackend.dto.encounter.EncounterResponse;
 import com.sih.telemed.telemedbackend.model.Encounter;
 import com.sih.telemed.telemedbackend.model.Patient;
 import com.sih.telemed.telemedbackend.model.User;
+import com.sih.telemed.telemedbackend.util.FlexibleDateTimeParser;
 import lombok.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +40,14 @@ public class EncounterService {
     private final EncounterRepository encounterRepository;
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final VillageRoutingService villageRoutingService;
+    private final DoctorLoadBalancer loadBalancer;
+    private final DoctorPresenceRegistry presence;
+    private final EncounterWorkQueue workQueue;
+    private final VitalsStore vitalsStore;
+    private final EncounterEventLog eventLog;
+    private final EncounterChangeFeed changeFeed;
+    private final SymptomTriage triage;
 
     // ---------------------------------------------------------
     // CREATE ENCOUNTER (CHW creates)
@@ -48,20 +67,36 @@ public class EncounterService {
                 .doctorId(null)               // doctor not assigned yet
                 .symptoms(req.getSymptoms())
                 .provisionalDiagnosis(req.getProvisionalDiagnosis())
-                .Riskscore(req.getRiskscore())
+                .Riskscore(triage.riskscore(req.getSymptoms(), req.getRiskscore()))
+                .bloodSugar(req.getBloodSugar())
                 .vitalsJson(req.getVitalsJson())
                 .status(EncounterStatus.OPEN)
                 .createdAt(Instant.now())
                 .updatedAt(Instant.now())
                 .build();
 
+        // emergencies skip the queue: least-busy doctor now, pushed once committed
+        String hospital = villageRoutingService.getHospitalForVillage(patient.getVillage());
+        if (workQueue.isEmergency(encounter)) {
+            workQueue.emergencyDoctor(hospital).ifPresent(doctorUserId -> {
+                encounter.setDoctorId(doctorUserId);
+                encounter.setStatus(EncounterStatus.ASSIGNED);
+            });
+        }
+
         Encounter saved = encounterRepository.save(encounter);
+        if (saved.getDoctorId() != null) loadBalancer.encounterAssigned(saved.getDoctorId());
+        eventLog.record(EncounterEventType.CREATED, saved);
+        changeFeed.publish(EncounterEventType.CREATED, saved, null);
+        workQueue.submit(saved, hospital);
+        vitalsStore.record(saved);
 
         return toResponse(saved);
     }
 
     // ---------------------------------------------------------
-    // ASSIGN DOCTOR
+    // ASSIGN DOCTOR (no doctorId: least-busy AVAILABLE doctor at the
+    // patient's routed hospital)
     // ---------------------------------------------------------
     @Transactional
     public EncounterResponse assignDoctor(Long encounterId, EncounterAssignRequest req) {
@@ -69,22 +104,53 @@ public class EncounterService {
         Encounter enc = encounterRepository.findById(encounterId)
                 .orElseThrow(() -> new RuntimeException("Encounter not found"));
 
-        User doctor = userRepository.findById(req.getDoctorId())
-                .orElseThrow(() -> new RuntimeException("Doctor not found"));
-
-        if (!doctor.getRole().name().equals("DOCTOR")) {
-            throw new RuntimeException("User is not a doctor");
+        if (enc.getStatus() == EncounterStatus.COMPLETED) {
+            throw new RuntimeException("Encounter already completed");
         }
 
-        enc.setDoctorId(req.getDoctorId());
+        Long doctorUserId = req.getDoctorId() != null
+                ? validateDoctor(req.getDoctorId())
+                : leastBusyDoctor(enc);
+
+        Long previous = enc.getStatus() == EncounterStatus.ASSIGNED ? enc.getDoctorId() : null;
+
+        enc.setDoctorId(doctorUserId);
         enc.setStatus(EncounterStatus.ASSIGNED);
         enc.setUpdatedAt(Instant.now());
 
         encounterRepository.save(enc);
+        eventLog.record(EncounterEventType.ASSIGNED, enc);
+        changeFeed.publish(EncounterEventType.ASSIGNED, enc, doctorUserId.equals(previous) ? null : previous);
+        workQueue.withdraw(encounterId);
+
+        if (!doctorUserId.equals(previous)) {
+            if (previous != null) loadBalancer.encounterClosed(previous);
+            loadBalancer.encounterAssigned(doctorUserId);
+        }
 
         return toResponse(enc);
     }
 
+    private Long validateDoctor(Long doctorUserId) {
+        User doctor = userRepository.findById(doctorUserId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        if (!doctor.getRole().name().equals("DOCTOR")) {
+            throw new RuntimeException("User is not a doctor");
+        }
+        return doctorUserId;
+    }
+
+    private Long leastBusyDoctor(Encounter enc) {
+        Patient patient = patientRepository.findById(enc.getPatientId())
+                .orElseThrow(() -> new RuntimeException("Patient not found"));
+        String hospital = villageRoutingService.getHospitalForVillage(patient.getVillage());
+
+        return loadBalancer.leastBusy(hospital, id -> presence.userIdOf(id) != null)
+                .map(d -> presence.userIdOf(d.getId()))
+                .orElseThrow(() -> new RuntimeException("No doctor available at " + hospital));
+    }
+
     // ---------------------------------------------------------
     // COMPLETE ENCOUNTER (Doctor finishes)
     // ---------------------------------------------------------
@@ -98,16 +164,45 @@ public class EncounterService {
             throw new RuntimeException("Encounter already completed");
         }
 
+        Long assignedTo = enc.getStatus() == EncounterStatus.ASSIGNED ? enc.getDoctorId() : null;
+
         enc.setProvisionalDiagnosis(req.getFinalDiagnosis());
-        enc.setVitalsJson(req.getFinalNotes());
+        enc.setNotes(req.getFinalNotes());
         enc.setStatus(EncounterStatus.COMPLETED);
         enc.setUpdatedAt(Instant.now());
 
         encounterRepository.save(enc);
+        eventLog.record(EncounterEventType.COMPLETED, enc);
+        changeFeed.publish(EncounterEventType.COMPLETED, enc, null);
+        workQueue.withdraw(encounterId);
+        if (assignedTo != null) loadBalancer.encounterClosed(assignedTo);
 
         return toResponse(enc);
     }
 
+    // ---------------------------------------------------------
+    // DOCTOR PULLS THE NEXT ENCOUNTER (risk / age order, in memory)
+    // ---------------------------------------------------------
+    public Optional<EncounterResponse> pullNext(Long doctorUserId) {
+        // the claim has committed by now, so the feed event goes out with the next flush
+        return workQueue.pullNext(doctorUserId).map(e -> {
+            changeFeed.publish(EncounterEventType.ASSIGNED, e, null);
+            return toResponse(e);
+        });
+    }
+
+    // waiting OPEN encounters at a hospital, in pull order
+    public List<EncounterResponse> getQueue(String hospital, int limit) {
+        List<Long> ids = workQueue.peek(hospital, Math.max(1, Math.min(limit, 200)));
+        Map<Long, Encounter> byId = encounterRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Encounter::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(EncounterService::toResponse)
+                .toList();
+    }
+
     // ---------------------------------------------------------
     // GET SINGLE ENCOUNTER
     // ---------------------------------------------------------
@@ -117,12 +212,42 @@ public class EncounterService {
         return toResponse(enc);
     }
 
+    // ---------------------------------------------------------
+    // HISTORY: every recorded change, with the state after it
+    // ---------------------------------------------------------
+    public List<EncounterEventResponse> getHistory(Long encounterId) {
+        List<EncounterEventLog.EncounterEvent> events = eventLog.history(encounterId);
+        if (events.isEmpty()) throw new RuntimeException("Encounter not found");
+
+        Encounter state = new Encounter();
+        state.setId(encounterId);
+        List<EncounterEventResponse> history = new ArrayList<>(events.size());
+        for (EncounterEventLog.EncounterEvent event : events) {
+            EncounterEventLog.apply(event.changes(), state);
+            history.add(EncounterEventResponse.builder()
+                    .position(event.position())
+                    .type(event.type())
+                    .at(event.at())
+                    .state(toResponse(state))
+                    .build());
+        }
+        return history;
+    }
+
+    // state as it was at a past moment (Asia/Kolkata wall-clock time)
+    public EncounterResponse getEncounterAt(Long encounterId, String at) {
+        Instant instant = FlexibleDateTimeParser.parse("at", at).atZone(ZoneId.of("Asia/Kolkata")).toInstant();
+        return eventLog.stateAt(encounterId, instant)
+                .map(EncounterService::toResponse)
+                .orElseThrow(() -> new RuntimeException("Encounter did not exist at " + at));
+    }
+
     // ---------------------------------------------------------
     // LIST FOR PATIENT
     // ---------------------------------------------------------
     public List<EncounterResponse> getEncountersForPatient(Long patientId) {
         return encounterRepository.findByPatientId(patientId)
-                .stream().map(this::toResponse).toList();
+                .stream().map(EncounterService::toResponse).toList();
     }
 
     // ---------------------------------------------------------
@@ -130,21 +255,25 @@ public class EncounterService {
     // ---------------------------------------------------------
     public List<EncounterResponse> getEncountersForCHW(Long chwId) {
         return encounterRepository.findByChwId(chwId)
-                .stream().map(this::toResponse).toList();
+                .stream().map(EncounterService::toResponse).toList();
     }
 
     // ---------------------------------------------------------
     // LIST FOR DOCTOR
     // ---------------------------------------------------------
     public List<EncounterResponse> getEncountersForDoctor(Long doctorId) {
+        // highest risk first, then oldest
         return encounterRepository.findByDoctorId(doctorId)
-                .stream().map(this::toResponse).toList();
+                .stream()
+                .sorted(Comparator.comparing(Encounter::getRiskscore, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Encounter::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(EncounterService::toResponse).toList();
     }
 
     // ---------------------------------------------------------
     // MAPPER: Entity -> DTO
     // ---------------------------------------------------------
-    private EncounterResponse toResponse(Encounter e) {
+    static EncounterResponse toResponse(Encounter e) {
         return EncounterResponse.builder()
                 .id(e.getId())
                 .patientId(e.getPatientId())
@@ -153,7 +282,9 @@ public class EncounterService {
                 .symptoms(e.getSymptoms())
                 .provisionalDiagnosis(e.getProvisionalDiagnosis())
                 .Riskscore(e.getRiskscore())
+                .bloodSugar(e.getBloodSugar())
                 .vitalsJson(e.getVitalsJson())
+                .notes(e.getNotes())
                 .status(e.getStatus())
                 .createdAt(e.getCreatedAt())
                 .updatedAt(e.getUpdatedAt())
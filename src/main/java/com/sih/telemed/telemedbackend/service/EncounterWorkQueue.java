@@ -0,0 +1,280 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// ---------------------------------------------------------
+// RISK-PRIORITIZED ENCOUNTER QUEUE (one per hospital)
+// OPEN encounters ordered by createdAt minus risk * risk-weight:
+// a higher Riskscore buys a head start, and older encounters still
+// rise over time, so low-risk cases don't starve. Each queue is a
+// ConcurrentSkipListSet - a doctor's pull is one pollFirst() in
+// O(log n), no DB sort and no lock.
+// EMERGENCY FAST PATH: Riskscore >= emergency-threshold skips the
+// queue - the least-busy AVAILABLE doctor at the hospital is assigned
+// in the create transaction and, once committed, the encounter is
+// pushed to /topic/doctors/{doctorUserId}/emergency. Create-to-push
+// time is recorded against latency-target-ms. With no doctor free it
+// waits ahead of every non-emergency encounter.
+// Rebuilt from the OPEN rows on startup.
+// ---------------------------------------------------------
+@Slf4j
+@Service
+public class EncounterWorkQueue {
+
+    public static final String EMERGENCY_TOPIC = "/topic/doctors/%d/emergency";
+
+    private final EncounterRepository encounterRepository;
+    private final PatientRepository patientRepository;
+    private final VillageRoutingService villageRoutingService;
+    private final DoctorLoadBalancer loadBalancer;
+    private final DoctorPresenceRegistry presence;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final EncounterEventLog eventLog;
+    private final ChangeCursor changeCursor;
+
+    private final double emergencyThreshold;
+    private final long riskWeightSeconds;
+    private final Duration latencyTarget;
+
+    private final Map<String, ConcurrentSkipListSet<Queued>> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Queued> byId = new ConcurrentHashMap<>();
+
+    private Timer emergencyLatency;
+
+    // emergencies first, then smaller priority
+    record Queued(Long encounterId, String hospital, boolean emergency, long priority) {
+    }
+
+    private static final Comparator<Queued> ORDER = Comparator
+            .comparing(Queued::emergency).reversed()
+            .thenComparingLong(Queued::priority)
+            .thenComparing(Queued::encounterId);
+
+    public EncounterWorkQueue(EncounterRepository encounterRepository,
+                              PatientRepository patientRepository,
+                              VillageRoutingService villageRoutingService,
+                              DoctorLoadBalancer loadBalancer,
+                              DoctorPresenceRegistry presence,
+                              SimpMessagingTemplate messagingTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              EncounterEventLog eventLog,
+                              ChangeCursor changeCursor,
+                              @Value("${encounters.queue.emergency-threshold:0.8}") double emergencyThreshold,
+                              @Value("${encounters.queue.risk-weight-minutes:60}") long riskWeightMinutes,
+                              @Value("${encounters.queue.latency-target-ms:2000}") long latencyTargetMs) {
+        this.encounterRepository = encounterRepository;
+        this.patientRepository = patientRepository;
+        this.villageRoutingService = villageRoutingService;
+        this.loadBalancer = loadBalancer;
+        this.presence = presence;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.eventLog = eventLog;
+        this.changeCursor = changeCursor;
+        this.emergencyThreshold = emergencyThreshold;
+        this.riskWeightSeconds = riskWeightMinutes * 60;
+        this.latencyTarget = Duration.ofMillis(latencyTargetMs);
+    }
+
+    // ---------------------------------------------------------
+    // REBUILD FROM OPEN ROWS (on startup)
+    // ---------------------------------------------------------
+    @PostConstruct
+    void init() {
+        emergencyLatency = Timer.builder("encounters.emergency.latency")
+                .description("Encounter creation to emergency push")
+                .serviceLevelObjectives(latencyTarget)
+                .register(meterRegistry);
+        meterRegistry.gauge("encounters.queue.depth", byId, Map::size);
+        rebuild();
+    }
+
+    public void rebuild() {
+        queues.clear();
+        byId.clear();
+        List<Encounter> open = encounterRepository.findByStatus(EncounterStatus.OPEN);
+        Map<Long, Patient> patients = patientRepository.findAllById(
+                        open.stream().map(Encounter::getPatientId).filter(Objects::nonNull).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        // emergencies left OPEN (e.g. nobody was free) simply sit at the head
+        for (Encounter e : open) {
+            Patient p = patients.get(e.getPatientId());
+            add(e, villageRoutingService.getHospitalForVillage(p != null ? p.getVillage() : null));
+        }
+        if (!open.isEmpty()) {
+            log.info("Restored {} OPEN encounters into the work queues", open.size());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // HOOKS FROM EncounterService
+    // ---------------------------------------------------------
+    public boolean isEmergency(Encounter e) {
+        return e.getRiskscore() != null && e.getRiskscore() >= emergencyThreshold;
+    }
+
+    // user id of the least-busy AVAILABLE doctor at the hospital (assigned inside the create transaction)
+    public Optional<Long> emergencyDoctor(String hospital) {
+        return loadBalancer.leastBusy(hospital, id -> presence.userIdOf(id) != null)
+                .map(d -> presence.userIdOf(d.getId()));
+    }
+
+    // after commit: push an assigned emergency, queue anything still OPEN
+    public void submit(Encounter e, String hospital) {
+        AfterCommit.run(() -> {
+            if (e.getStatus() == EncounterStatus.OPEN) {
+                if (isEmergency(e)) {
+                    meterRegistry.counter("encounters.emergency.dispatch", "outcome", "queued").increment();
+                    log.warn("Emergency encounter {} (risk {}) queued: no AVAILABLE doctor at {}",
+                            e.getId(), e.getRiskscore(), hospital);
+                }
+                add(e, hospital);
+            } else if (isEmergency(e) && e.getDoctorId() != null) {
+                push(e);
+            }
+        });
+    }
+
+    // assigned by hand or completed: no longer waiting
+    public void withdraw(Long encounterId) {
+        AfterCommit.run(() -> remove(encounterId));
+    }
+
+    // ---------------------------------------------------------
+    // DOCTOR PULL: highest priority at the doctor's hospital
+    // ---------------------------------------------------------
+    public Optional<Encounter> pullNext(Long doctorUserId) {
+        Long doctorId = presence.doctorIdForUser(doctorUserId);
+        String hospital = presence.find(doctorId).map(d -> d.getHospital()).orElse(null);
+        if (hospital == null) throw new IllegalArgumentException("Doctor not found");
+
+        ConcurrentSkipListSet<Queued> queue = queues.get(hospital);
+        if (queue == null) return Optional.empty();
+
+        Queued q;
+        while ((q = queue.pollFirst()) != null) {
+            if (!byId.remove(q.encounterId(), q)) continue;
+            boolean claimed;
+            try {
+                claimed = claim(q.encounterId(), doctorUserId);
+            } catch (RuntimeException ex) {
+                // claim failed (DB down, ...): put it back, unless it was re-queued meanwhile
+                if (byId.putIfAbsent(q.encounterId(), q) == null) queue.add(q);
+                throw ex;
+            }
+            if (claimed) {
+                return encounterRepository.findById(q.encounterId());
+            }
+            // assigned or completed elsewhere in the meantime: try the next one
+        }
+        return Optional.empty();
+    }
+
+    // top of a hospital's queue without taking anything
+    public List<Long> peek(String hospital, int limit) {
+        ConcurrentSkipListSet<Queued> queue = queues.get(hospital);
+        if (queue == null) return List.of();
+        List<Long> ids = new ArrayList<>(Math.min(limit, queue.size()));
+        for (Queued q : queue) {
+            if (ids.size() == limit) break;
+            ids.add(q.encounterId());
+        }
+        return ids;
+    }
+
+    public int size(String hospital) {
+        ConcurrentSkipListSet<Queued> queue = queues.get(hospital);
+        return queue == null ? 0 : queue.size();
+    }
+
+    // ---------------------------------------------------------
+    // EMERGENCY PUSH (latency measured from encounter creation)
+    // ---------------------------------------------------------
+    private void push(Encounter e) {
+        try {
+            messagingTemplate.convertAndSend(EMERGENCY_TOPIC.formatted(e.getDoctorId()), EncounterService.toResponse(e));
+        } catch (RuntimeException ex) {
+            // the assignment is committed; the doctor still sees it in their list
+            meterRegistry.counter("encounters.emergency.dispatch", "outcome", "push_failed").increment();
+            log.error("Emergency push failed for encounter {}", e.getId(), ex);
+            return;
+        }
+
+        Duration latency = Duration.between(e.getCreatedAt(), Instant.now());
+        emergencyLatency.record(latency.toNanos(), TimeUnit.NANOSECONDS);
+        boolean late = latency.compareTo(latencyTarget) > 0;
+        meterRegistry.counter("encounters.emergency.dispatch", "outcome", late ? "late" : "pushed").increment();
+        if (late) {
+            log.warn("Emergency encounter {} pushed to doctor {} after {} ms (target {} ms)",
+                    e.getId(), e.getDoctorId(), latency.toMillis(), latencyTarget.toMillis());
+        }
+    }
+
+    private boolean claim(Long encounterId, Long doctorUserId) {
+        Instant at = Instant.now();
+        Integer updated = transactionTemplate.execute(st -> encounterRepository.claim(
+                encounterId, doctorUserId, EncounterStatus.OPEN, EncounterStatus.ASSIGNED, at, changeCursor.next()));
+        if (updated == null || updated == 0) return false;
+        eventLog.record(EncounterEventType.ASSIGNED, Encounter.builder()
+                .id(encounterId).doctorId(doctorUserId).status(EncounterStatus.ASSIGNED).updatedAt(at).build());
+        loadBalancer.encounterAssigned(doctorUserId);
+        return true;
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    private void add(Encounter e, String hospital) {
+        Instant created = e.getCreatedAt() != null ? e.getCreatedAt() : Instant.now();
+        double risk = e.getRiskscore() != null ? Math.max(0, e.getRiskscore()) : 0;
+        Queued q = new Queued(e.getId(), hospital, isEmergency(e),
+                created.getEpochSecond() - Math.round(risk * riskWeightSeconds));
+
+        Queued old = byId.put(e.getId(), q);
+        if (old != null) queue(old.hospital()).remove(old);
+        queue(hospital).add(q);
+    }
+
+    private void remove(Long encounterId) {
+        Queued q = byId.remove(encounterId);
+        if (q != null) queue(q.hospital()).remove(q);
+    }
+
+    private ConcurrentSkipListSet<Queued> queue(String hospital) {
+        return queues.computeIfAbsent(hospital, h -> new ConcurrentSkipListSet<>(ORDER));
+    }
+}
@@ -0,0 +1,180 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// ---------------------------------------------------------
+// IDEMPOTENCY-KEY STORE
+// First request with a key runs; concurrent duplicates wait for it
+// and get the same response; later retries (within the TTL) get the
+// cached response without re-running validation or inserts.
+// Failures are not cached, so a retry after an error runs again.
+// Bounded: oldest entries are dropped once maxEntries is reached.
+// A key is matched to its request by a SHA-256 of the JSON body.
+// ---------------------------------------------------------
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final ObjectWriter fingerprintWriter;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long waitMillis;
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${idempotency.wait-seconds:30}") long waitSeconds) {
+        // sorted map keys, so equal bodies always serialize the same way
+        this.fingerprintWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.waitMillis = TimeUnit.SECONDS.toMillis(waitSeconds);
+    }
+
+    // scope keeps keys of different endpoints apart; request is fingerprinted
+    // so a key reused for a different payload is rejected
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String k = scope + ":" + key;
+        byte[] fingerprint = fingerprint(request);
+
+        for (;;) {
+            long now = System.currentTimeMillis();
+            Entry mine = new Entry(fingerprint, now + ttlMillis);
+            Entry existing = entries.putIfAbsent(k, mine);
+
+            if (existing == null) {
+                insertionOrder.add(k);
+                trim();
+                return runFirst(k, mine, action);
+            }
+            if (existing.expiresAt < now) {
+                entries.remove(k, existing);
+                continue;
+            }
+            if (!MessageDigest.isEqual(existing.fingerprint, fingerprint)) {
+                throw new KeyReused();
+            }
+            return (T) await(existing);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // ---------------------------------------------------------
+    // TTL SWEEP
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${idempotency.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt < now && e.getValue().result.isDone());
+        insertionOrder.removeIf(k -> !entries.containsKey(k));
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(fingerprintWriter.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body could not be serialized.", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T runFirst(String k, Entry mine, Supplier<T> action) {
+        try {
+            T value = action.get();
+            mine.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            entries.remove(k, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new InProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request.");
+        }
+    }
+
+    // drop oldest completed entries until we are back under the bound
+    private void trim() {
+        int budget = insertionOrder.size();
+        while (entries.size() > maxEntries && budget-- > 0) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) return;
+            Entry e = entries.get(oldest);
+            if (e != null && !e.result.isDone()) {
+                insertionOrder.add(oldest);   // still in flight, keep it
+                continue;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    private static final class Entry {
+        final byte[] fingerprint;
+        final long expiresAt;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public static class KeyReused extends IllegalStateException {
+        KeyReused() {
+            super("Idempotency-Key was already used for a different request.");
+        }
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public static class InProgress extends IllegalStateException {
+        InProgress() {
+            super("A request with this Idempotency-Key is still in progress.");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.sih.telemed.telemedbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Stand-in until an SMS / IVR gateway is wired up
+@Slf4j
+@Component
+public class LoggingReminderSender implements ReminderSender {
+
+    @Override
+    public void send(List<Reminder> batch) {
+        for (Reminder r : batch) {
+            log.info("Reminder {} for appointment {} (patient {}, doctor {}) starting {}",
+                    r.type(), r.appointmentId(), r.patientId(), r.doctorId(), r.startTime());
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.TrigramIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// ---------------------------------------------------------
+// IN-MEMORY PATIENT SEARCH (name, phone, ABHA, village, block)
+// Every patient is a dense doc id; name and "village block" are kept
+// normalized back to back in one char arena (candidates are verified
+// in doc order, so the scan reads memory sequentially instead of
+// chasing a String per field), phone / ABHA digits in parallel arrays.
+// Words go into a TrigramIndex (text namespace), phone and ABHA
+// digits into a second namespace, so
+// "ram", "98765", "nabha" and "ram nabha" are posting-list
+// intersections, not table scans. Candidates are verified against
+// the stored fields and ranked:
+//   whole word > word prefix > inside a word, name > village/block;
+//   digits: exact > phone suffix / prefix > anywhere
+// ties: the older patient first. Only the top k are kept, as packed
+// rank keys in a small sorted array.
+// Loaded from the patients table on startup; new patients are
+// added after commit. Re-adding a patient replaces its old doc.
+// ---------------------------------------------------------
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientSearchIndex {
+
+    static final int MAX_RESULTS = 50;
+
+    private static final int TEXT = 0;
+    private static final int DIGITS = 1;
+    private static final int MIN_DIGITS = 3;
+
+    private static final String LOAD_SQL =
+            "SELECT id, user_id, name, phone, abha_id, village, block FROM patients ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TrigramIndex grams = new TrigramIndex();
+    private long[] patientIds = new long[1024];
+    private long[] owners = new long[1024];
+    private char[] chars = new char[64 * 1024];
+    private int charCount;
+    private int[] nameStart = new int[1024];       // name: [nameStart, placeStart)
+    private int[] placeStart = new int[1024];      // "village block": [placeStart, placeEnd)
+    private int[] placeEnd = new int[1024];
+    private String[] phones = new String[1024];     // digits only
+    private String[] abhas = new String[1024];      // digits only
+    private int size;
+    private BitSet dead = new BitSet();
+    private LongIntMap docOf = new LongIntMap();
+
+    // ---------------------------------------------------------
+    // LOAD / ADD
+    // ---------------------------------------------------------
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            grams = new TrigramIndex();
+            size = 0;
+            charCount = 0;
+            dead = new BitSet();
+            docOf = new LongIntMap();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                long owner = rs.getLong("user_id");
+                put(rs.getLong("id"), rs.wasNull() ? 0 : owner, rs.getString("name"), rs.getString("phone"),
+                        rs.getString("abha_id"), rs.getString("village"), rs.getString("block"));
+            });
+            log.info("Patient search index: {} patients, {} trigrams", size, grams.grams());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // after commit of a new / changed patient
+    public void add(Patient p) {
+        Long owner = p.getOwner() != null ? p.getOwner().getId() : null;
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                put(p.getId(), owner != null ? owner : 0, p.getName(), p.getPhone(), p.getAbhaId(),
+                        p.getVillage(), p.getBlock());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - dead.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------
+    // SEARCH: patient ids, best first
+    // Every query word must match (AND). Words of digits (3+) look in
+    // phone / ABHA; "98765 43210" or "12-3456-7890-1234" is one number.
+    // ownerId limits results to one CHW's / user's patients.
+    // ---------------------------------------------------------
+    public List<Long> search(String query, Long ownerId, int limit) {
+        List<String> tokens = tokens(query);
+        if (tokens.isEmpty()) throw new IllegalArgumentException("Search needs at least 2 letters or 3 digits");
+        int k = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        lock.readLock().lock();
+        try {
+            // best = the highest score the query allows; candidates come in
+            // doc order, so once the top k all have it no later doc gets in
+            List<TrigramIndex.Term> terms = new ArrayList<>(tokens.size());
+            int best = 0;
+            for (String t : tokens) {
+                boolean digits = isDigits(t);
+                terms.add(new TrigramIndex.Term(digits ? DIGITS : TEXT, t, !digits && t.length() < 3));
+                best += digits ? 50 : 30;
+            }
+            int[] candidates = grams.candidates(terms);
+
+            long[] top = new long[k];       // rank keys, ascending
+            int found = 0;
+            for (int doc : candidates) {
+                if (found == k && scoreOfKey(top[0]) == best) break;
+                if (dead.get(doc)) continue;
+                if (ownerId != null && owners[doc] != ownerId) continue;
+
+                int score = 0;
+                for (String t : tokens) {
+                    int s = score(doc, t);
+                    if (s == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += s;
+                }
+                if (score == 0) continue;
+
+                long key = rankKey(doc, score);
+                if (found < k) {
+                    insert(top, found++, key);
+                } else if (key > top[0]) {
+                    // drop the worst, keep ascending
+                    System.arraycopy(top, 1, top, 0, k - 1);
+                    insert(top, k - 1, key);
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(found);
+            for (int i = found - 1; i >= 0; i--) ids.add(patientIds[docOfKey(top[i])]);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS (caller holds the write lock for put)
+    // ---------------------------------------------------------
+    private void put(long patientId, long ownerId, String name, String phone, String abha,
+                     String village, String block) {
+        int old = docOf.get(patientId);
+        if (old >= 0) dead.set(old);
+
+        if (size == patientIds.length) grow();
+        int doc = size++;
+        patientIds[doc] = patientId;
+        owners[doc] = ownerId;
+        String n = text(name);
+        String place = (text(village) + " " + text(block)).trim();
+        phones[doc] = digits(phone);
+        abhas[doc] = digits(abha);
+        docOf.put(patientId, doc);
+
+        nameStart[doc] = append(n);
+        placeStart[doc] = append(place);
+        placeEnd[doc] = charCount;
+
+        for (String w : n.split(" ")) grams.add(doc, TEXT, w);
+        for (String w : place.split(" ")) grams.add(doc, TEXT, w);
+        grams.add(doc, DIGITS, phones[doc]);
+        grams.add(doc, DIGITS, abhas[doc]);
+    }
+
+    private int score(int doc, String token) {
+        if (isDigits(token)) {
+            return Math.max(digitScore(phones[doc], token), digitScore(abhas[doc], token));
+        }
+        int name = wordScore(nameStart[doc], placeStart[doc], token, 30, 20, 10);
+        if (name == 30) return name;
+        return Math.max(name, wordScore(placeStart[doc], placeEnd[doc], token, 12, 8, 4));
+    }
+
+    // higher is better: score, then older doc
+    private static long rankKey(int doc, int score) {
+        return (long) score << 32 | (Integer.MAX_VALUE - doc);
+    }
+
+    private static int scoreOfKey(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int docOfKey(long key) {
+        return Integer.MAX_VALUE - (int) key;
+    }
+
+    // insertion into top[0, n), ascending
+    private static void insert(long[] top, int n, long key) {
+        int i = n;
+        while (i > 0 && top[i - 1] > key) {
+            top[i] = top[i - 1];
+            i--;
+        }
+        top[i] = key;
+    }
+
+    private static int digitScore(String field, String token) {
+        if (field.isEmpty()) return 0;
+        if (field.equals(token)) return 50;
+        if (field.endsWith(token)) return 35;          // last digits of a phone number
+        if (field.startsWith(token)) return 30;
+        return field.contains(token) ? 20 : 0;
+    }
+
+    // best placement of token in the space-separated words of chars[from, to)
+    private int wordScore(int from, int to, String token, int whole, int prefix, int inside) {
+        int best = 0;
+        int len = token.length();
+        char first = token.charAt(0);
+        for (int at = from; at + len <= to && best < whole; at++) {
+            if (chars[at] != first || !matchesAt(at, token)) continue;
+            boolean starts = at == from || chars[at - 1] == ' ';
+            boolean ends = at + len == to || chars[at + len] == ' ';
+            best = Math.max(best, starts ? (ends ? whole : prefix) : inside);
+        }
+        return best;
+    }
+
+    private boolean matchesAt(int at, String token) {
+        for (int i = 1; i < token.length(); i++) {
+            if (chars[at + i] != token.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // copies s to the arena, returns where it starts
+    private int append(String s) {
+        if (charCount + s.length() > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + s.length()));
+        }
+        int start = charCount;
+        s.getChars(0, s.length(), chars, start);
+        charCount += s.length();
+        return start;
+    }
+
+    static List<String> tokens(String query) {
+        if (query == null) return List.of();
+        // a query that is one number (spaces / dashes / + inside) stays one token
+        String compact = query.replaceAll("[\\s\\-+()]", "");
+        if (!compact.isEmpty() && isDigits(compact)) {
+            return compact.length() >= MIN_DIGITS ? List.of(compact) : List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String t : text(query).split(" ")) {
+            if (isDigits(t) ? t.length() >= MIN_DIGITS : t.length() >= 2) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    // lowercase words separated by single spaces (Indic vowel signs kept)
+    static String text(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int type = Character.getType(c);
+            if (Character.isLetterOrDigit(c) || type == Character.NON_SPACING_MARK
+                    || type == Character.COMBINING_SPACING_MARK) {
+                sb.append(Character.toLowerCase(c));
+            } else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                sb.append(' ');
+            }
+        }
+        int end = sb.length();
+        return end > 0 && sb.charAt(end - 1) == ' ' ? sb.substring(0, end - 1) : sb.toString();
+    }
+
+    private static String digits(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isDigit(s.charAt(i))) sb.append(s.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    private static boolean isDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        return !s.isEmpty();
+    }
+
+    private void grow() {
+        int cap = patientIds.length * 2;
+        patientIds = Arrays.copyOf(patientIds, cap);
+        owners = Arrays.copyOf(owners, cap);
+        nameStart = Arrays.copyOf(nameStart, cap);
+        placeStart = Arrays.copyOf(placeStart, cap);
+        placeEnd = Arrays.copyOf(placeEnd, cap);
+        phones = Arrays.copyOf(phones, cap);
+        abhas = Arrays.copyOf(abhas, cap);
+    }
+
+    // patient id -> doc, open addressing (no boxing for a million entries)
+    private static final class LongIntMap {
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private boolean[] used = new boolean[1024];
+        private int count;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((count + 1) * 2 > keys.length) resize();
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i] && keys[i] != key) i = (i + 1) & mask;
+            if (!used[i]) count++;
+            used[i] = true;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void resize() {
+            long[] k = keys;
+            int[] v = values;
+            boolean[] u = used;
+            keys = new long[k.length * 2];
+            values = new int[k.length * 2];
+            used = new boolean[k.length * 2];
+            count = 0;
+            for (int i = 0; i < k.length; i++) {
+                if (u[i]) put(k[i], v[i]);
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
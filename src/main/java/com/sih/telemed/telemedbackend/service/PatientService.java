@@ -1,23 +1,36 @@
 package com.sih.telemed.telemedbackend.service;
 
+import com.sih.telemed.telemedbackend.dto.Patient.PatientPageResponse;
 import com.sih.telemed.telemedbackend.dto.Patient.PatientRequest;
 import com.sih.telemed.telemedbackend.dto.Patient.PatientResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientSummary;
 import com.sih.telemed.telemedbackend.model.Patient;
 import com.sih.telemed.telemedbackend.model.User;
 import com.sih.telemed.telemedbackend.Repository.PatientRepository;
 import com.sih.telemed.telemedbackend.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PatientService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final PatientSearchIndex searchIndex;
+    private final SignupGuard signupGuard;
 
     @Transactional
     public PatientResponse createPatient(PatientRequest request) {
@@ -29,34 +42,104 @@ public class PatientService {
                 .name(request.getName())
                 .dob(request.getDob())
                 .email(request.getEmail())
-                .phone(request.getPhone())
+                .phone(SignupGuard.normalizePhone(request.getPhone()))
                 .address(request.getAddress())
+                .village(request.getVillage())
+                .block(request.getBlock())
                 .bloodGroup(request.getBloodGroup())
                 .gender(request.getGender())
                 .bloodPressure(request.getBloodPressure())
                 .weight(request.getWeight())
                 .height(request.getHeight())
                 .age(request.getAge())
-                .abhaId(request.getAbhaId())
+                .abhaId(SignupGuard.normalizeAbhaId(request.getAbhaId()))
                 .build();
 
         Patient saved = patientRepository.save(patient);
+        searchIndex.add(saved);
+        signupGuard.recordPatient(saved);
 
         return toResponse(saved);
     }
 
+    // ranked by the in-memory index, rows loaded in one query
+    public List<PatientResponse> search(String query, Long ownerId, int limit) {
+        List<Long> ids = searchIndex.search(query, ownerId, limit);
+        if (ids.isEmpty()) return List.of();
+
+        Map<Long, Patient> byId = new HashMap<>();
+        patientRepository.findAllById(ids).forEach(p -> byId.put(p.getId(), p));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(PatientService::toResponse)
+                .toList();
+    }
+
     public List<PatientResponse> getPatientsForUser(Long userId) {
         return patientRepository.findByOwnerId(userId).stream()
-                .map(this::toResponse)
+                .map(PatientService::toResponse)
                 .toList();
     }
 
-    private PatientResponse toResponse(Patient p) {
+    // ---------------------------------------------------------
+    // LISTING: keyset pages on id (ownerId null = every patient)
+    // ---------------------------------------------------------
+    public PatientPageResponse getPatientsPage(Long ownerId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        long afterId = afterId(cursor);
+        PageRequest page = PageRequest.of(0, size);
+        List<PatientSummary> rows = ownerId == null
+                ? patientRepository.findSummaryPage(afterId, page)
+                : patientRepository.findSummaryPageForOwner(ownerId, afterId, page);
+
+        return PatientPageResponse.builder()
+                .items(rows)
+                .nextCursor(rows.size() == size ? String.valueOf(rows.get(size - 1).id()) : null)
+                .build();
+    }
+
+    // ---------------------------------------------------------
+    // EXPORT (rows handed to the sink as the JDBC cursor advances;
+    // DTO projections are never managed, so memory stays flat)
+    // ---------------------------------------------------------
+    @Transactional(readOnly = true)
+    public void streamPatients(Long ownerId, Consumer<PatientSummary> sink) {
+        try (Stream<PatientSummary> rows = ownerId == null
+                ? patientRepository.streamSummaries()
+                : patientRepository.streamSummariesForOwner(ownerId)) {
+            rows.forEach(sink);
+        }
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // the cursor is the last id of the previous page
+    private static long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    static PatientResponse toResponse(Patient p) {
         return PatientResponse.builder()
                 .id(p.getId())
                 .name(p.getName())
                 .phone(p.getPhone())
                 .abhaId(p.getAbhaId())
+                .dob(p.getDob())
+                .gender(p.getGender())
+                .age(p.getAge())
+                .bloodGroup(p.getBloodGroup())
+                .address(p.getAddress())
+                .village(p.getVillage())
+                .block(p.getBlock())
                 .build();
     }
 }
@@ -8,7 +8,9 @@ import com.sih.telemed.telemedbackend.dto.Patient.PatientSignupResponse;
 import com.sih.telemed.telemedbackend.model.Patient;
 import com.sih.telemed.telemedbackend.model.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -16,23 +18,28 @@ public class PatientSignupService {
 
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final PatientSearchIndex searchIndex;
+    private final SignupGuard signupGuard;
 
+    // one transaction: both rows or neither; the unique constraints
+    // have the last word on username / ABHA / phone
+    @Transactional
     public PatientSignupResponse register(PatientSignupDto dto) {
-
-        // -----------------------------
-        // VALIDATIONS
-        // -----------------------------
-        if (userRepository.existsByUsername(dto.getUsername())) {
-            throw new RuntimeException("Username already exists");
+        try {
+            return create(dto);
+        } catch (DataIntegrityViolationException e) {
+            throw signupGuard.translate(e);
         }
+    }
 
-        if (patientRepository.existsByAbhaId(dto.getAbhaId())) {
-            throw new RuntimeException("ABHA ID already registered");
-        }
+    private PatientSignupResponse create(PatientSignupDto dto) {
 
-        if (patientRepository.existsByPhone(dto.getPhoneNumber())) {
-            throw new RuntimeException("Phone number already registered");
-        }
+        // -----------------------------
+        // VALIDATIONS (in memory, at most one query - see SignupGuard)
+        // -----------------------------
+        String phone = SignupGuard.normalizePhone(dto.getPhoneNumber());
+        String abhaId = SignupGuard.normalizeAbhaId(dto.getAbhaId());
+        signupGuard.claim(dto.getUsername(), abhaId, phone);
 
 
         // -----------------------------
@@ -57,7 +64,7 @@ public class PatientSignupService {
         patient.setAge(String.valueOf(dto.getAge()));
         patient.setDob(dto.getDob());
         patient.setEmail(dto.getEmail());
-        patient.setPhone(dto.getPhoneNumber());
+        patient.setPhone(phone);
         patient.setBloodGroup(dto.getBloodGroup());
 
         patient.setVillage(dto.getVillage());
@@ -69,9 +76,10 @@ public class PatientSignupService {
         if (dto.getWeight() != null)
             patient.setWeight(dto.getWeight().toString());
 
-        patient.setAbhaId(dto.getAbhaId());
+        patient.setAbhaId(abhaId);
 
         Patient saved = patientRepository.save(patient);
+        searchIndex.add(saved);
 
 
         // -----------------------------
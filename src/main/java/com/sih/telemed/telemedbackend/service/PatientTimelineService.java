@@ -0,0 +1,116 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.TimelineEventType;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.Repository.PrescriptionRepository;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientTimelineResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent;
+import com.sih.telemed.telemedbackend.util.KWayMerge;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+// ---------------------------------------------------------
+// PATIENT TIMELINE (encounters, prescriptions, appointments)
+// One page = one bounded query per source, each already newest
+// first on its own (time, id) index and limited to a page + 1,
+// then a k-way merge that stops after page + 1 events - the
+// extra one only tells whether an older page exists.
+// Paging goes back in time: the cursor is the last event shown
+// (time, type, id), and each source resumes strictly before it
+// in the merged order, so no event is repeated or skipped even
+// when events of different types share a timestamp.
+// ---------------------------------------------------------
+@Service
+@RequiredArgsConstructor
+public class PatientTimelineService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    // newest first; same moment: APPOINTMENT, PRESCRIPTION, ENCOUNTER; then higher id
+    static final Comparator<TimelineEvent> ORDER = Comparator.comparing(TimelineEvent::at)
+            .thenComparing(TimelineEvent::type)
+            .thenComparing(TimelineEvent::id)
+            .reversed();
+
+    private final EncounterRepository encounterRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+
+    @Transactional(readOnly = true)
+    public PatientTimelineResponse getTimeline(Long patientId, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageRequest fetch = PageRequest.of(0, size + 1);
+
+        List<TimelineEvent> encounters;
+        List<TimelineEvent> prescriptions;
+        List<TimelineEvent> appointments;
+        if (cursor == null || cursor.isBlank()) {
+            encounters = encounterRepository.findTimeline(patientId, fetch);
+            prescriptions = prescriptionRepository.findTimeline(patientId, fetch);
+            appointments = appointmentRepository.findTimeline(patientId, fetch);
+        } else {
+            Cursor c = Cursor.decode(cursor);
+            encounters = encounterRepository.findTimelineBefore(patientId,
+                    c.at().atZone(ZONE).toInstant(), c.beforeId(TimelineEventType.ENCOUNTER), fetch);
+            prescriptions = prescriptionRepository.findTimelineBefore(patientId,
+                    c.at(), c.beforeId(TimelineEventType.PRESCRIPTION), fetch);
+            appointments = appointmentRepository.findTimelineBefore(patientId,
+                    c.at(), c.beforeId(TimelineEventType.APPOINTMENT), fetch);
+        }
+
+        List<TimelineEvent> events = new KWayMerge<>(ORDER,
+                List.of(encounters.iterator(), prescriptions.iterator(), appointments.iterator()))
+                .take(size + 1);
+
+        String next = null;
+        if (events.size() > size) {
+            events = events.subList(0, size);
+            TimelineEvent last = events.get(size - 1);
+            next = new Cursor(last.at(), last.type(), last.id()).encode();
+        }
+        return PatientTimelineResponse.builder()
+                .items(List.copyOf(events))
+                .nextCursor(next)
+                .build();
+    }
+
+    // opaque page token: base64url("at|type|id") of the last event shown
+    record Cursor(LocalDateTime at, TimelineEventType type, long id) {
+
+        // ids of this source that come after the cursor at the cursor's
+        // moment: all of them for types ordered below it, none above
+        long beforeId(TimelineEventType source) {
+            int c = source.compareTo(type);
+            return c < 0 ? Long.MAX_VALUE : c > 0 ? Long.MIN_VALUE : id;
+        }
+
+        String encode() {
+            String raw = at + "|" + type.ordinal() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]),
+                        TimelineEventType.values()[Integer.parseInt(parts[1])],
+                        Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+        }
+    }
+}
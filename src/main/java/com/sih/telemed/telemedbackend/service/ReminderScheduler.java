@@ -0,0 +1,243 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.ReminderType;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.service.ReminderSender.Reminder;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.HashedTimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// ---------------------------------------------------------
+// APPOINTMENT REMINDERS (T-24h and T-15min)
+// Only appointments starting within a rolling window are held in
+// memory, in a timer wheel keyed by (appointment, reminder type).
+// The window is extended by one range query per refresh; bookings
+// and cancellations inside it update the wheel directly. Due
+// reminders are re-checked against the DB in one query per batch
+// and handed to the ReminderSender. A reminder leaves pending only
+// once it is sent or dropped; a failed batch is put back on the
+// wheel and tried again after RETRY_MS.
+// ---------------------------------------------------------
+@Slf4j
+@Service
+public class ReminderScheduler {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    static final long RETRY_MS = 5_000;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReminderSender sender;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration window;
+    private final Duration grace;
+    private final int batchSize;
+    private final HashedTimerWheel<ReminderKey> wheel;
+
+    private final Map<ReminderKey, Reminder> pending = new ConcurrentHashMap<>();
+
+    // appointments starting at or before this are loaded / tracked live
+    private volatile LocalDateTime loadedUntil;
+
+    private Timer lagTimer;
+    private Counter sentCounter;
+    private Counter droppedCounter;
+
+    record ReminderKey(Long appointmentId, ReminderType type) {
+    }
+
+    public ReminderScheduler(AppointmentRepository appointmentRepository,
+                             ReminderSender sender,
+                             MeterRegistry meterRegistry,
+                             @Value("${reminders.window-hours:48}") long windowHours,
+                             @Value("${reminders.grace-seconds:300}") long graceSeconds,
+                             @Value("${reminders.batch-size:500}") int batchSize,
+                             @Value("${reminders.tick-ms:1000}") long tickMs,
+                             @Value("${reminders.wheel-size:4096}") int wheelSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.sender = sender;
+        this.meterRegistry = meterRegistry;
+        this.window = Duration.ofHours(windowHours);
+        this.grace = Duration.ofSeconds(graceSeconds);
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimerWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    void init() {
+        lagTimer = Timer.builder("appointments.reminders.lag")
+                .description("Time between a reminder falling due and being handed to the sender")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("appointments.reminders.sent").register(meterRegistry);
+        droppedCounter = Counter.builder("appointments.reminders.dropped").register(meterRegistry);
+        meterRegistry.gauge("appointments.reminders.pending", pending, Map::size);
+
+        LocalDateTime now = LocalDateTime.now(ZONE);
+        loadedUntil = now;
+        load(now, now.plus(window));
+    }
+
+    // ---------------------------------------------------------
+    // ROLLING WINDOW
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${reminders.window-refresh-ms:900000}",
+            initialDelayString = "${reminders.window-refresh-ms:900000}")
+    public void extendWindow() {
+        load(loadedUntil, LocalDateTime.now(ZONE).plus(window));
+    }
+
+    private synchronized void load(LocalDateTime after, LocalDateTime until) {
+        if (!until.isAfter(after)) return;
+        // widen first: a booking committed while the query runs is then tracked
+        // directly (scheduling the same key twice is harmless)
+        loadedUntil = until;
+        List<Appointment> upcoming = appointmentRepository
+                .findByStatusAndStartTimeGreaterThanAndStartTimeLessThanEqual(AppointmentStatus.SCHEDULED, after, until);
+        upcoming.forEach(this::schedule);
+        log.debug("Reminder window now ends {} ({} appointments added)", until, upcoming.size());
+    }
+
+    // ---------------------------------------------------------
+    // INCREMENTAL UPDATES (applied after commit)
+    // ---------------------------------------------------------
+    public void track(Appointment a) {
+        Long id = a.getId();
+        Long patientId = a.getPatientId();
+        Long doctorId = a.getDoctorId();
+        LocalDateTime start = a.getStartTime();
+
+        AfterCommit.run(() -> {
+            // beyond the window: picked up when the window rolls forward
+            if (start != null && !start.isAfter(loadedUntil)) {
+                schedule(id, patientId, doctorId, start);
+            }
+        });
+    }
+
+    public void untrack(Long appointmentId) {
+        AfterCommit.run(() -> {
+            for (ReminderType type : ReminderType.values()) {
+                ReminderKey key = new ReminderKey(appointmentId, type);
+                wheel.cancel(key);
+                pending.remove(key);
+            }
+        });
+    }
+
+    private void schedule(Appointment a) {
+        schedule(a.getId(), a.getPatientId(), a.getDoctorId(), a.getStartTime());
+    }
+
+    private void schedule(Long id, Long patientId, Long doctorId, LocalDateTime start) {
+        LocalDateTime now = LocalDateTime.now(ZONE);
+        if (!start.isAfter(now)) return;
+
+        for (ReminderType type : ReminderType.values()) {
+            LocalDateTime due = start.minusMinutes(type.getLeadMinutes());
+            // a reminder that fell due long before booking is pointless (e.g. T-24h for a same-day slot)
+            if (due.isBefore(now.minus(grace))) continue;
+
+            ReminderKey key = new ReminderKey(id, type);
+            pending.put(key, new Reminder(id, patientId, doctorId, type, start, due));
+            wheel.schedule(key, millis(due));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // TICK: hand due reminders to the sender in batches
+    // ---------------------------------------------------------
+    @Scheduled(fixedDelayString = "${reminders.tick-ms:1000}")
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    void tick(long nowMillis) {
+        List<ReminderKey> due = wheel.advance(nowMillis);
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<ReminderKey> keys = due.subList(i, Math.min(i + batchSize, due.size()));
+            try {
+                dispatch(keys);
+            } catch (RuntimeException e) {
+                // database or sender down: whatever is still pending goes back on the wheel
+                long retryAt = nowMillis + RETRY_MS;
+                for (ReminderKey k : keys) {
+                    if (pending.containsKey(k) && !wheel.contains(k)) wheel.schedule(k, retryAt);
+                }
+                log.error("Reminder batch of {} failed, retrying in {} ms", keys.size(), RETRY_MS, e);
+            }
+        }
+    }
+
+    private void dispatch(List<ReminderKey> keys) {
+        List<Reminder> reminders = new ArrayList<>(keys.size());
+        for (ReminderKey k : keys) {
+            Reminder r = pending.get(k);
+            if (r != null) reminders.add(r);
+        }
+        if (reminders.isEmpty()) return;
+
+        // one query per batch: drop anything completed, cancelled or moved since it was queued
+        Map<Long, Appointment> current = appointmentRepository.findAllById(
+                        reminders.stream().map(Reminder::appointmentId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+        List<Reminder> batch = new ArrayList<>(reminders.size());
+        for (Reminder r : reminders) {
+            Appointment a = current.get(r.appointmentId());
+            if (a == null || a.getStatus() != AppointmentStatus.SCHEDULED
+                    || !Objects.equals(a.getStartTime(), r.startTime())) {
+                pending.remove(key(r), r);
+                droppedCounter.increment();
+                continue;
+            }
+            // doctor may have been assigned after the reminder was queued
+            batch.add(new Reminder(r.appointmentId(), r.patientId(), a.getDoctorId(), r.type(), r.startTime(), r.dueAt()));
+        }
+        if (batch.isEmpty()) return;
+
+        sender.send(batch);
+        // only the queued value: a re-booking may have replaced it meanwhile
+        reminders.forEach(r -> pending.remove(key(r), r));
+
+        long now = System.currentTimeMillis();
+        for (Reminder r : batch) {
+            lagTimer.record(Math.max(0, now - millis(r.dueAt())), TimeUnit.MILLISECONDS);
+        }
+        sentCounter.increment(batch.size());
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private static ReminderKey key(Reminder r) {
+        return new ReminderKey(r.appointmentId(), r.type());
+    }
+
+    private static long millis(LocalDateTime t) {
+        return t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
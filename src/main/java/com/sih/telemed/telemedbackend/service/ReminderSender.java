@@ -0,0 +1,24 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.ReminderType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// ---------------------------------------------------------
+// Delivery channel for appointment reminders (SMS, IVR, push...).
+// ReminderScheduler hands over due reminders in batches; declare
+// another implementation as @Primary to replace the logging one.
+// ---------------------------------------------------------
+public interface ReminderSender {
+
+    void send(List<Reminder> batch);
+
+    record Reminder(Long appointmentId,
+                    Long patientId,
+                    Long doctorId,
+                    ReminderType type,
+                    LocalDateTime startTime,
+                    LocalDateTime dueAt) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.BloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ---------------------------------------------------------
+// SIGNUP UNIQUENESS GUARD (username, ABHA id, phone)
+//   0. phones and ABHA ids are compared in normalized form; every
+//      path that writes a patient stores normalizePhone() /
+//      normalizeAbhaId(), so "+91 98765 43210" and "9876543210"
+//      are the same value to the guard and to the constraints
+//   1. exact in-flight set: a value another signup in this JVM is
+//      registering right now is a conflict at once (released when
+//      that transaction ends)
+//   2. Bloom filter of every taken value, warmed from the tables on
+//      startup and fed after each commit: "not in filter" is a
+//      definite no, no query at all
+//   3. the values the filter cannot rule out: ONE UNION ALL query
+//   4. whatever still races past (other instances, rows written
+//      around the service) is settled by the unique constraints in
+//      the same transaction; translate() maps the violation to the
+//      same Conflict a check would have thrown
+// ---------------------------------------------------------
+@Slf4j
+@Component
+public class SignupGuard {
+
+    private static final String UNIQUE_VIOLATION = "23505";     // SQLState, Postgres and H2
+    private static final int LOOKUP_BATCH = 500;
+
+    enum Field {
+        USERNAME("Username already exists", "uk_users_username", "\"users\"", "username"),
+        ABHA("ABHA ID already registered", "uk_patients_abha_id", "patients", "abha_id"),
+        PHONE("Phone number already registered", "uk_patients_phone", "patients", "phone");
+
+        final String message;
+        final String constraint;
+        final String table;
+        final String column;
+        final String lookup;
+
+        Field(String message, String constraint, String table, String column) {
+            this.message = message;
+            this.constraint = constraint;
+            this.table = table;
+            this.column = column;
+            this.lookup = "SELECT '" + name() + "' FROM " + table + " WHERE " + column + " = ?";
+        }
+
+        String key(String value) {
+            return ordinal() + ":" + value;
+        }
+    }
+
+    @Getter
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public static class Conflict extends IllegalArgumentException {
+        private final String field;
+
+        Conflict(Field field) {
+            super(field.message);
+            this.field = field.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // NORMALIZED FORMS (blank is null; anything else invalid is rejected)
+    // ---------------------------------------------------------
+    // 10 digits starting 6-9; +91 / 0 prefixes and separators dropped
+    public static String normalizePhone(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String digits = raw.replaceAll("\\D", "");
+        if (digits.length() == 12 && digits.startsWith("91")) digits = digits.substring(2);
+        else if (digits.length() == 11 && digits.startsWith("0")) digits = digits.substring(1);
+        if (digits.length() != 10 || digits.charAt(0) < '6') throw new IllegalArgumentException("Invalid phone number");
+        return digits;
+    }
+
+    // 14 digits, stored as XX-XXXX-XXXX-XXXX
+    public static String normalizeAbhaId(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String d = raw.replaceAll("[\\s-]", "");
+        if (!d.matches("\\d{14}")) throw new IllegalArgumentException("Invalid ABHA number");
+        return d.substring(0, 2) + "-" + d.substring(2, 6) + "-" + d.substring(6, 10) + "-" + d.substring(10);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long expectedEntries;
+    private final double fpp;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter taken;
+
+    public SignupGuard(JdbcTemplate jdbcTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${signup.guard.expected-entries:1000000}") long expectedEntries,
+                       @Value("${signup.guard.fpp:0.01}") double fpp) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.expectedEntries = expectedEntries;
+        this.fpp = fpp;
+    }
+
+    // ---------------------------------------------------------
+    // WARM UP: every taken value, sized for twice what is there
+    // ---------------------------------------------------------
+    @PostConstruct
+    public void warm() {
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM \"users\") + 2 * (SELECT COUNT(*) FROM patients)", Long.class);
+        BloomFilter filter = new BloomFilter(Math.max(expectedEntries, 2 * (existing != null ? existing : 0)), fpp);
+        jdbcTemplate.query("SELECT username FROM \"users\"", rs -> {
+            add(filter, Field.USERNAME, rs.getString(1));
+        });
+        jdbcTemplate.query("SELECT abha_id, phone FROM patients", rs -> {
+            add(filter, Field.ABHA, rs.getString(1));
+            add(filter, Field.PHONE, rs.getString(2));
+        });
+        taken = filter;
+        log.info("Signup guard warmed: {} values, {} bits, {} hashes", existing, filter.bitSize(), filter.hashes());
+    }
+
+    // ---------------------------------------------------------
+    // CLAIM: inside the registering transaction, before the inserts
+    // null values are not checked (nothing to collide with)
+    // ---------------------------------------------------------
+    public void claim(String username, String abhaId, String phone) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("SignupGuard.claim needs a transaction");
+        }
+        Map<Field, String> values = new EnumMap<>(Field.class);
+        if (username != null) values.put(Field.USERNAME, username);
+        if (abhaId != null) values.put(Field.ABHA, abhaId);
+        if (phone != null) values.put(Field.PHONE, phone);
+
+        // 1. in-flight
+        List<String> reserved = new ArrayList<>(values.size());
+        for (Map.Entry<Field, String> v : values.entrySet()) {
+            String key = v.getKey().key(v.getValue());
+            if (!inFlight.add(key)) {
+                inFlight.removeAll(reserved);
+                meterRegistry.counter("signup.guard.conflicts", "source", "in-flight").increment();
+                throw new Conflict(v.getKey());
+            }
+            reserved.add(key);
+        }
+        AfterCommit.onRollback(() -> inFlight.removeAll(reserved));
+        AfterCommit.run(() -> {
+            values.forEach((field, value) -> add(taken, field, value));
+            inFlight.removeAll(reserved);
+        });
+
+        // 2. filter, 3. one query for the maybes
+        StringJoiner sql = new StringJoiner(" UNION ALL ");
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<Field, String> v : values.entrySet()) {
+            if (taken.mightContain(v.getKey().key(v.getValue()))) {
+                sql.add(v.getKey().lookup);
+                args.add(v.getValue());
+            }
+        }
+        if (args.isEmpty()) {
+            meterRegistry.counter("signup.guard.skipped").increment();
+            return;
+        }
+        meterRegistry.counter("signup.guard.lookups").increment();
+        List<String> hits = jdbcTemplate.queryForList(sql.toString(), String.class, args.toArray());
+        if (!hits.isEmpty()) {
+            meterRegistry.counter("signup.guard.conflicts", "source", "lookup").increment();
+            throw new Conflict(Field.valueOf(hits.get(0)));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // SET-BASED CHECK (bulk imports): which of these values are taken?
+    // The filter drops the definite no's; the rest go in IN queries
+    // of at most LOOKUP_BATCH values. No in-flight reservation - the
+    // caller's constraints settle races (see translate()); after losing
+    // one, trustFilter=false checks every value against the table
+    // (the winner may be another instance, unknown to our filter).
+    // ---------------------------------------------------------
+    Set<String> taken(Field field, Collection<String> values, boolean trustFilter) {
+        List<String> maybe = new ArrayList<>();
+        for (String v : values) {
+            if (v != null && (!trustFilter || taken.mightContain(field.key(v)))) maybe.add(v);
+        }
+        meterRegistry.counter("signup.guard.skipped").increment(values.size() - maybe.size());
+        Set<String> hits = new HashSet<>();
+        for (int i = 0; i < maybe.size(); i += LOOKUP_BATCH) {
+            List<String> slice = maybe.subList(i, Math.min(i + LOOKUP_BATCH, maybe.size()));
+            StringJoiner in = new StringJoiner(", ", "(", ")");
+            slice.forEach(v -> in.add("?"));
+            meterRegistry.counter("signup.guard.lookups").increment();
+            hits.addAll(jdbcTemplate.queryForList(
+                    "SELECT " + field.column + " FROM " + field.table + " WHERE " + field.column + " IN " + in,
+                    String.class, slice.toArray()));
+        }
+        return hits;
+    }
+
+    // after commit of a user / patient created outside claim() (doctors, CHW patients)
+    public void recordUsername(String username) {
+        AfterCommit.run(() -> add(taken, Field.USERNAME, username));
+    }
+
+    public void recordPatient(Patient p) {
+        String abhaId = p.getAbhaId();
+        String phone = p.getPhone();
+        AfterCommit.run(() -> {
+            add(taken, Field.ABHA, abhaId);
+            add(taken, Field.PHONE, phone);
+        });
+    }
+
+    // ---------------------------------------------------------
+    // 4. CONSTRAINT VIOLATION -> Conflict (anything else unchanged)
+    // Matched on our constraint names, then on the column in the
+    // driver's message (constraints created before they were named).
+    // ---------------------------------------------------------
+    public RuntimeException translate(DataIntegrityViolationException e) {
+        SQLException sql = null;
+        for (Throwable t = e; t != null && sql == null; t = t.getCause()) {
+            if (t instanceof SQLException s) sql = s;
+        }
+        if (sql == null || !UNIQUE_VIOLATION.equals(sql.getSQLState())) return e;
+
+        String text = String.valueOf(sql.getMessage()).toLowerCase(Locale.ROOT);
+        for (Field field : Field.values()) {
+            if (text.contains(field.constraint)) return raced(field);
+        }
+        for (Field field : Field.values()) {
+            if (text.contains(field.column)) return raced(field);
+        }
+        return e;
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    private Conflict raced(Field field) {
+        meterRegistry.counter("signup.guard.conflicts", "source", "constraint").increment();
+        return new Conflict(field);
+    }
+
+    private static void add(BloomFilter filter, Field field, String value) {
+        if (value != null) filter.add(field.key(value));
+    }
+}
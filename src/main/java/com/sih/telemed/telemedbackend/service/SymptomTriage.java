@@ -0,0 +1,379 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.model.Symptom;
+import com.sih.telemed.telemedbackend.util.AhoCorasick;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ---------------------------------------------------------
+// IN-JVM SYMPTOM TRIAGE (no network, microseconds per encounter)
+// Every dictionary term and negation word is compiled into one
+// Aho-Corasick automaton; free text is normalized (lowercase,
+// punctuation -> spaces, clause breaks kept, nukta dropped) and
+// scanned once. Terms match whole words only; a longer term wins
+// over one it contains ("tez bukhar" over "bukhar").
+// Negation: "no / without / denies ..." negate what follows (up to
+// 3 words), "nahi / नहीं / ਨਹੀਂ / absent" what precedes (up to 2
+// words), never across a clause break or a word that turns the
+// sentence ("no fever but chest pain", "bukhar nahi lekin ulti").
+// Risk (0..1, same scale as Encounter.Riskscore): noisy-OR of the
+// weights of the symptoms present, raised to the floor of every
+// combination rule that fires (chest pain + sweating, fever + stiff
+// neck, pregnancy + bleeding, ...). Red flags alone reach the
+// emergency threshold.
+// ---------------------------------------------------------
+@Slf4j
+@Component
+public class SymptomTriage {
+
+    // ---------------------------------------------------------
+    // DICTIONARY
+    // ---------------------------------------------------------
+    static final List<Symptom> SYMPTOMS = List.of(
+            symptom("FEVER", "Fever", 0.15,
+                    "fever", "febrile", "feverish", "bukhar", "bukhaar", "bukhār", "jwar", "jvar",
+                    "बुखार", "ज्वर", "ਬੁਖਾਰ", "ਬੁਖ਼ਾਰ"),
+            symptom("HIGH_FEVER", "High fever", 0.35,
+                    "high fever", "very high fever", "high grade fever", "tez bukhar", "tej bukhar",
+                    "bahut bukhar", "bahut tez bukhar", "tez bukhaar", "तेज बुखार", "बहुत बुखार", "ਤੇਜ਼ ਬੁਖਾਰ"),
+            symptom("COUGH", "Cough", 0.08,
+                    "cough", "coughing", "khansi", "khaansi", "khasi", "khangh", "khang",
+                    "खांसी", "खाँसी", "ਖੰਘ"),
+            symptom("BLOOD_IN_COUGH", "Coughing blood", 0.5,
+                    "coughing blood", "cough with blood", "blood in cough", "blood in sputum", "hemoptysis",
+                    "haemoptysis", "khansi mein khoon", "khansi me khoon", "khoon ki khansi",
+                    "khangh vich khoon", "खांसी में खून", "ਖੰਘ ਵਿੱਚ ਖੂਨ"),
+            symptom("BREATHLESSNESS", "Breathlessness", 0.45,
+                    "breathlessness", "shortness of breath", "short of breath", "difficulty breathing",
+                    "difficulty in breathing", "breathing difficulty", "can t breathe", "cannot breathe",
+                    "saans phoolna", "saans phulna", "sans phulna", "saans ki taklif", "saans lene mein taklif",
+                    "saans lene me dikkat", "dam phoolna", "saah charhna", "sah chadhna", "saah lain vich takleef",
+                    "सांस फूलना", "साँस फूलना", "दम फूलना", "सांस लेने में तकलीफ", "ਸਾਹ ਚੜ੍ਹਨਾ", "ਸਾਹ ਲੈਣ ਵਿੱਚ ਤਕਲੀਫ"),
+            symptom("CHEST_PAIN", "Chest pain", 0.7,
+                    "chest pain", "pain in chest", "chest tightness", "tightness in chest", "chest heaviness",
+                    "seene mein dard", "seene me dard", "sine mein dard", "chhati mein dard", "chhati me dard",
+                    "chhati dard", "chhati vich dard", "सीने में दर्द", "छाती में दर्द", "ਛਾਤੀ ਵਿੱਚ ਦਰਦ", "ਛਾਤੀ ਦਰਦ"),
+            symptom("SWEATING", "Sweating", 0.1,
+                    "sweating", "sweaty", "cold sweat", "pasina", "paseena", "पसीना", "ਪਸੀਨਾ"),
+            symptom("UNCONSCIOUS", "Unconscious / fainted", 0.9,
+                    "unconscious", "unresponsive", "fainted", "fainting", "collapsed", "not responding",
+                    "behosh", "behoshi", "behosh ho gaya", "बेहोश", "बेहोशी", "ਬੇਹੋਸ਼", "ਬੇਹੋਸ਼ੀ"),
+            symptom("SEIZURE", "Seizure / fits", 0.85,
+                    "seizure", "seizures", "convulsion", "convulsions", "fits", "mirgi", "daura", "dora pada",
+                    "jhatke", "मिर्गी", "दौरा", "झटके", "ਮਿਰਗੀ", "ਦੌਰਾ"),
+            symptom("HEAVY_BLEEDING", "Heavy bleeding", 0.85,
+                    "heavy bleeding", "severe bleeding", "bleeding heavily", "profuse bleeding",
+                    "bahut khoon", "zyada khoon", "jyada khoon", "bahut khoon beh raha", "बहुत खून", "ज्यादा खून",
+                    "ਬਹੁਤ ਖੂਨ"),
+            symptom("BLEEDING", "Bleeding", 0.3,
+                    "bleeding", "blood loss", "khoon behna", "khoon beh raha", "khoon aana", "khoon aa raha",
+                    "खून बहना", "खून आना", "ਖੂਨ ਵਗਣਾ", "ਖੂਨ ਆਉਣਾ"),
+            symptom("PREGNANCY", "Pregnant", 0.2,
+                    "pregnant", "pregnancy", "antenatal", "garbhvati", "garbhwati", "garbhavastha",
+                    "pet se hai", "गर्भवती", "गर्भावस्था", "ਗਰਭਵਤੀ"),
+            symptom("STIFF_NECK", "Stiff neck", 0.35,
+                    "stiff neck", "neck stiffness", "neck rigidity", "gardan akadna", "gardan mein akdan",
+                    "gardan akad gayi", "गर्दन अकड़ना", "गर्दन में अकड़न", "ਗਰਦਨ ਆਕੜਨਾ"),
+            symptom("RASH", "Rash", 0.1,
+                    "rash", "rashes", "daane", "dane", "chakatte", "दाने", "चकत्ते", "ਧੱਫੜ", "ਦਾਣੇ"),
+            symptom("VOMITING", "Vomiting", 0.12,
+                    "vomiting", "vomit", "vomits", "vomited", "ulti", "ultee", "ultiyan", "उल्टी", "ਉਲਟੀ", "ਉਲਟੀਆਂ"),
+            symptom("DIARRHOEA", "Diarrhoea", 0.12,
+                    "diarrhea", "diarrhoea", "loose motion", "loose motions", "loose stools", "dast",
+                    "patle dast", "pechish", "दस्त", "पतले दस्त", "ਦਸਤ"),
+            symptom("DEHYDRATION", "Dehydration", 0.35,
+                    "dehydration", "dehydrated", "sunken eyes", "no urine", "very thirsty", "peshab nahi",
+                    "pishab nahi", "पेशाब नहीं", "ਪਿਸ਼ਾਬ ਨਹੀਂ"),
+            symptom("HEADACHE", "Headache", 0.06,
+                    "headache", "head ache", "head pain", "sir dard", "sar dard", "sirdard", "sardard",
+                    "sir mein dard", "sir vich dard", "सिर दर्द", "सिरदर्द", "सर दर्द", "ਸਿਰ ਦਰਦ", "ਸਿਰਦਰਦ"),
+            symptom("SEVERE_HEADACHE", "Severe headache", 0.3,
+                    "severe headache", "worst headache", "terrible headache", "tez sir dard", "bahut sir dard",
+                    "bahut tez sir dard", "तेज सिर दर्द", "ਤੇਜ਼ ਸਿਰ ਦਰਦ"),
+            symptom("ABDOMINAL_PAIN", "Abdominal pain", 0.12,
+                    "abdominal pain", "stomach pain", "stomach ache", "pain in abdomen", "belly pain",
+                    "pet dard", "pet mein dard", "pet me dard", "dhidd dard", "dhidd vich dard",
+                    "पेट दर्द", "पेट में दर्द", "ਪੇਟ ਦਰਦ", "ਢਿੱਡ ਦਰਦ", "ਢਿੱਡ ਵਿੱਚ ਦਰਦ"),
+            symptom("BODY_ACHE", "Body ache", 0.04,
+                    "body ache", "body pain", "bodyache", "badan dard", "sharir mein dard", "badan toot raha",
+                    "बदन दर्द", "शरीर में दर्द", "ਸਰੀਰ ਦਰਦ"),
+            symptom("WEAKNESS", "Weakness / fatigue", 0.06,
+                    "weakness", "fatigue", "tiredness", "kamzori", "kamjori", "thakan", "thakaan",
+                    "कमजोरी", "कमज़ोरी", "थकान", "ਕਮਜ਼ੋਰੀ", "ਥਕਾਵਟ"),
+            symptom("DIZZINESS", "Dizziness", 0.1,
+                    "dizziness", "dizzy", "giddiness", "giddy", "vertigo", "chakkar", "chakkar aana",
+                    "chakkar aa rahe", "चक्कर", "ਚੱਕਰ"),
+            symptom("CONFUSION", "Confusion", 0.5,
+                    "confusion", "confused", "disoriented", "altered sensorium", "drowsy", "talking nonsense",
+                    "behki behki baatein", "hosh nahi", "होश नहीं", "ਹੋਸ਼ ਨਹੀਂ"),
+            symptom("PARALYSIS", "Paralysis / stroke signs", 0.85,
+                    "paralysis", "paralysed", "paralyzed", "stroke", "face drooping", "facial droop",
+                    "slurred speech", "one side weakness", "weakness on one side", "lakwa", "laqwa", "lakva",
+                    "adhrang", "लकवा", "ਅਧਰੰਗ"),
+            symptom("SNAKE_BITE", "Snake bite", 0.9,
+                    "snake bite", "snakebite", "bitten by snake", "bitten by a snake", "saanp ne kaata",
+                    "saanp ne kata", "sanp ne kata", "saap ne kaata", "saanp ka kaatna", "sapp ne dangya",
+                    "सांप ने काटा", "साँप ने काटा", "ਸੱਪ ਨੇ ਡੰਗਿਆ", "ਸੱਪ ਨੇ ਡੰਗ"),
+            symptom("DOG_BITE", "Animal bite", 0.4,
+                    "dog bite", "dog bitten", "bitten by dog", "bitten by a dog", "animal bite",
+                    "kutte ne kaata", "kutte ne kata", "kutta kaat gaya", "कुत्ते ने काटा", "ਕੁੱਤੇ ਨੇ ਵੱਢਿਆ"),
+            symptom("POISONING", "Poisoning", 0.9,
+                    "poisoning", "poison", "pesticide", "insecticide", "swallowed poison", "zeher", "zehar",
+                    "jahar", "keetnashak", "ज़हर", "जहर", "कीटनाशक", "ਜ਼ਹਿਰ", "ਜਹਿਰ"),
+            symptom("BURN", "Burn", 0.45,
+                    "burnt", "burned", "burn injury", "burns injury", "jal gaya", "jal gayi", "jhulas", "जल गया", "जल गई",
+                    "ਸੜ ਗਿਆ", "ਸੜ ਗਈ"),
+            symptom("JAUNDICE", "Jaundice", 0.25,
+                    "jaundice", "yellow eyes", "yellowness of eyes", "peeliya", "piliya", "pilia",
+                    "पीलिया", "ਪੀਲੀਆ"),
+            symptom("SWELLING", "Swelling", 0.1,
+                    "swelling", "swollen", "edema", "oedema", "sujan", "soojan", "sojh", "सूजन", "ਸੋਜ"),
+            symptom("BLURRED_VISION", "Blurred vision", 0.2,
+                    "blurred vision", "blurry vision", "vision blurred", "dhundhla dikhna", "dhundla dikhta",
+                    "धुंधला दिखना", "ਧੁੰਦਲਾ ਦਿਸਣਾ")
+    );
+
+    // negate the words after them ("no fever", "without cough")
+    private static final List<String> NEGATE_FOLLOWING = List.of(
+            "no", "not", "without", "denies", "denied", "deny", "never", "free of", "na koi");
+
+    // negate the words before them ("bukhar nahi hai", "ਬੁਖਾਰ ਨਹੀਂ", "fever absent")
+    private static final List<String> NEGATE_PRECEDING = List.of(
+            "nahi", "nahin", "nai", "nhi", "nahi hai", "absent", "negative", "नहीं", "नही", "ਨਹੀਂ", "ਨਹੀ");
+
+    // end a negation's reach, as in NegEx; "and" too, so "no fever and chest pain"
+    // keeps the chest pain - a missed negation only over-triages
+    private static final List<String> SCOPE_BREAKS = List.of(
+            "but", "however", "except", "although", "though", "yet", "and",
+            "lekin", "par", "magar", "parantu", "kintu", "aur", "ate",
+            "लेकिन", "पर", "मगर", "परंतु", "किंतु", "और", "ਪਰ", "ਲੇਕਿਨ", "ਪਰੰਤੂ", "ਅਤੇ");
+
+    private static final int FOLLOWING_WINDOW = 3;
+    private static final int PRECEDING_WINDOW = 2;
+
+    // ---------------------------------------------------------
+    // COMBINATION RULES: every group must have one symptom present
+    // ---------------------------------------------------------
+    private static final List<Rule> RULES = List.of(
+            rule("Chest pain with sweating - possible heart attack", 0.9,
+                    Set.of("CHEST_PAIN"), Set.of("SWEATING")),
+            rule("Chest pain with breathlessness", 0.9,
+                    Set.of("CHEST_PAIN"), Set.of("BREATHLESSNESS")),
+            rule("Fever with stiff neck - possible meningitis", 0.85,
+                    Set.of("FEVER", "HIGH_FEVER"), Set.of("STIFF_NECK")),
+            rule("Fever with confusion", 0.85,
+                    Set.of("FEVER", "HIGH_FEVER"), Set.of("CONFUSION")),
+            rule("Fever with rash - rule out dengue / measles", 0.55,
+                    Set.of("FEVER", "HIGH_FEVER"), Set.of("RASH")),
+            rule("Fever with bleeding - rule out dengue", 0.8,
+                    Set.of("FEVER", "HIGH_FEVER"), Set.of("BLEEDING", "HEAVY_BLEEDING")),
+            rule("Bleeding in pregnancy", 0.9,
+                    Set.of("PREGNANCY"), Set.of("BLEEDING", "HEAVY_BLEEDING")),
+            rule("Headache / blurred vision in pregnancy - possible pre-eclampsia", 0.85,
+                    Set.of("PREGNANCY"), Set.of("SEVERE_HEADACHE", "BLURRED_VISION", "SWELLING")),
+            rule("Abdominal pain in pregnancy", 0.6,
+                    Set.of("PREGNANCY"), Set.of("ABDOMINAL_PAIN")),
+            rule("Vomiting and diarrhoea - dehydration risk", 0.45,
+                    Set.of("VOMITING"), Set.of("DIARRHOEA")),
+            rule("Diarrhoea with dehydration signs", 0.7,
+                    Set.of("DIARRHOEA", "VOMITING"), Set.of("DEHYDRATION")),
+            rule("Cough with fever and breathlessness - possible pneumonia", 0.7,
+                    Set.of("COUGH"), Set.of("FEVER", "HIGH_FEVER"), Set.of("BREATHLESSNESS"))
+    );
+
+    public record Match(Symptom symptom, String term, boolean negated) {
+    }
+
+    public record Assessment(double risk, boolean emergency, List<Match> matches, List<String> reasons) {
+
+        public boolean recognized() {
+            return matches.stream().anyMatch(m -> !m.negated());
+        }
+    }
+
+    private record Rule(String reason, double floor, List<Set<String>> groups) {
+    }
+
+    // automaton value: a symptom, a negation word (direction +1 forward, -1 backward)
+    // or a scope break (no symptom, 0)
+    private record Term(Symptom symptom, int negates) {
+    }
+
+    // one automaton hit in normalized text, [start, end) without the padding spaces
+    private record Hit(Term term, int start, int end) {
+    }
+
+    private final AhoCorasick<Term> automaton;
+    private final double emergencyThreshold;
+
+    public SymptomTriage(@Value("${encounters.queue.emergency-threshold:0.8}") double emergencyThreshold) {
+        this.emergencyThreshold = emergencyThreshold;
+
+        // " term " -> value; the padding spaces make matches whole-word
+        Map<String, Term> patterns = new LinkedHashMap<>();
+        for (Symptom s : SYMPTOMS) {
+            for (String t : s.getTerms()) put(patterns, t, new Term(s, 0));
+        }
+        NEGATE_FOLLOWING.forEach(t -> put(patterns, t, new Term(null, 1)));
+        NEGATE_PRECEDING.forEach(t -> put(patterns, t, new Term(null, -1)));
+        SCOPE_BREAKS.forEach(t -> put(patterns, t, new Term(null, 0)));
+        this.automaton = new AhoCorasick<>(patterns);
+        log.info("Triage dictionary: {} symptoms, {} terms, {} automaton states",
+                SYMPTOMS.size(), patterns.size(), automaton.states());
+    }
+
+    // ---------------------------------------------------------
+    // ASSESS FREE TEXT
+    // ---------------------------------------------------------
+    public Assessment assess(String text) {
+        if (text == null || text.isBlank()) return new Assessment(0, false, List.of(), List.of());
+
+        String norm = normalize(text);
+        List<Hit> hits = new ArrayList<>();
+        automaton.scan(norm, (start, end, term) -> hits.add(new Hit(term, start + 1, end - 1)));
+
+        // word / clause number of every position
+        int[] word = new int[norm.length()];
+        int[] clause = new int[norm.length()];
+        for (int i = 1; i < norm.length(); i++) {
+            word[i] = word[i - 1] + (norm.charAt(i - 1) == ' ' ? 1 : 0);
+            clause[i] = clause[i - 1] + (norm.charAt(i - 1) == '|' ? 1 : 0);
+        }
+
+        List<Hit> symptoms = new ArrayList<>();
+        List<Hit> negators = new ArrayList<>();
+        List<Hit> breaks = new ArrayList<>();
+        for (Hit h : hits) {
+            if (h.term().symptom() != null) {
+                if (!containedInLonger(h, hits, true)) symptoms.add(h);
+            } else if (!containedInLonger(h, hits, false)) {
+                (h.term().negates() == 0 ? breaks : negators).add(h);
+            }
+        }
+
+        // code -> match; one present occurrence beats negated ones
+        Map<String, Match> byCode = new LinkedHashMap<>();
+        for (Hit h : symptoms) {
+            boolean negated = negated(h, negators, breaks, word, clause);
+            Symptom s = h.term().symptom();
+            Match m = byCode.get(s.getCode());
+            if (m == null || (m.negated() && !negated)) {
+                byCode.put(s.getCode(), new Match(s, norm.substring(h.start(), h.end()), negated));
+            }
+        }
+
+        Set<String> present = new HashSet<>();
+        double none = 1;
+        for (Match m : byCode.values()) {
+            if (m.negated()) continue;
+            present.add(m.symptom().getCode());
+            none *= 1 - m.symptom().getWeight();
+        }
+        double risk = 1 - none;
+
+        List<String> reasons = new ArrayList<>();
+        for (Rule r : RULES) {
+            if (r.groups().stream().allMatch(g -> g.stream().anyMatch(present::contains))) {
+                risk = Math.max(risk, r.floor());
+                reasons.add(r.reason());
+            }
+        }
+        risk = Math.round(Math.min(1, risk) * 1000) / 1000.0;
+        return new Assessment(risk, risk >= emergencyThreshold, List.copyOf(byCode.values()), reasons);
+    }
+
+    // risk for a new encounter: the higher of the reported one and ours (null if neither)
+    public Double riskscore(String symptoms, Double reported) {
+        Assessment a = assess(symptoms);
+        if (!a.recognized()) return reported;
+        return reported == null ? a.risk() : Math.max(reported, a.risk());
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    private static boolean negated(Hit h, List<Hit> negators, List<Hit> breaks, int[] word, int[] clause) {
+        int first = word[h.start()];
+        int last = word[h.end() - 1];
+        for (Hit n : negators) {
+            if (clause[n.start()] != clause[h.start()]) continue;
+            if (n.term().negates() > 0) {
+                int gap = first - word[n.end() - 1];
+                if (gap > 0 && gap <= FOLLOWING_WINDOW && !breakBetween(n.end(), h.start(), breaks)) return true;
+            } else {
+                int gap = word[n.start()] - last;
+                if (gap > 0 && gap <= PRECEDING_WINDOW && !breakBetween(h.end(), n.start(), breaks)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean breakBetween(int from, int to, List<Hit> breaks) {
+        for (Hit b : breaks) {
+            if (b.start() >= from && b.end() <= to) return true;
+        }
+        return false;
+    }
+
+    // symptoms: inside a longer symptom term; negators: inside any symptom term ("peshab nahi")
+    private static boolean containedInLonger(Hit h, List<Hit> hits, boolean symptom) {
+        for (Hit o : hits) {
+            if (o == h || o.term().symptom() == null) continue;
+            boolean inside = o.start() <= h.start() && h.end() <= o.end();
+            if (inside && (!symptom || o.end() - o.start() > h.end() - h.start())) return true;
+        }
+        return false;
+    }
+
+    private static void put(Map<String, Term> patterns, String term, Term value) {
+        String key = normalize(term);
+        Term old = patterns.put(key, value);
+        // spellings that only differ by a nukta collapse into one key
+        if (old != null && !old.equals(value)) throw new IllegalStateException("Triage term used twice: " + term);
+    }
+
+    // " lowercase words | next clause " - padded with spaces, nukta removed, NFC
+    static String normalize(String text) {
+        String s = Normalizer.normalize(text, Normalizer.Form.NFC);
+        StringBuilder sb = new StringBuilder(s.length() + 2).append(' ');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\u093C' || c == '\u0A3C') continue;     // Devanagari / Gurmukhi nukta
+            if (isWordChar(c)) {
+                sb.append(Character.toLowerCase(c));
+            } else if (c == '.' || c == ',' || c == ';' || c == '!' || c == '?' || c == '\n' || c == '|') {
+                if (sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+                if (sb.length() < 2 || sb.charAt(sb.length() - 2) != '|') sb.append("| ");
+            } else if (sb.charAt(sb.length() - 1) != ' ') {
+                sb.append(' ');
+            }
+        }
+        if (sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+        return sb.toString();
+    }
+
+    private static boolean isWordChar(char c) {
+        if (Character.isLetterOrDigit(c)) return true;
+        int type = Character.getType(c);
+        // Indic vowel signs / virama are marks, not letters
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static Symptom symptom(String code, String label, double weight, String... terms) {
+        return new Symptom(code, label, weight, List.of(terms));
+    }
+
+    @SafeVarargs
+    private static Rule rule(String reason, double floor, Set<String>... groups) {
+        return new Rule(reason, floor, List.of(groups));
+    }
+}
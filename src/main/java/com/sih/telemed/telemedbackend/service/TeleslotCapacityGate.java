@@ -0,0 +1,99 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.Status;
+import com.sih.telemed.telemedbackend.Repository.TeleslotRepository;
+import com.sih.telemed.telemedbackend.model.Teleslot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ---------------------------------------------------------
+// IN-MEMORY ADMISSION GATE FOR TELESLOT SEATS
+// Each slot has a CAS counter; once it reaches maxPatients every
+// further request is turned away here, so at most maxPatients
+// transactions ever reach the conditional UPDATE on the slot row.
+// Counters are loaded lazily under lock stripes (one DB read per
+// slot, even when thousands of requests arrive at once).
+// ---------------------------------------------------------
+@Component
+@RequiredArgsConstructor
+public class TeleslotCapacityGate {
+
+    private static final int STRIPES = 64;
+
+    private final TeleslotRepository teleslotRepository;
+
+    private final Map<Long, SlotCounter> counters = new ConcurrentHashMap<>();
+    private final Object[] stripes = newStripes();
+
+    public boolean tryAcquire(Long slotId) {
+        return counter(slotId).tryAcquire();
+    }
+
+    public void release(Long slotId) {
+        SlotCounter c = counters.get(slotId);
+        if (c != null) c.release();
+    }
+
+    // drop the cached counter; next access reloads it from the DB
+    public void evict(Long slotId) {
+        counters.remove(slotId);
+    }
+
+    public int remaining(Long slotId) {
+        SlotCounter c = counter(slotId);
+        return Math.max(0, c.capacity - c.booked.get());
+    }
+
+    private SlotCounter counter(Long slotId) {
+        SlotCounter c = counters.get(slotId);
+        if (c != null) return c;
+
+        synchronized (stripes[Math.floorMod(slotId.hashCode(), STRIPES)]) {
+            c = counters.get(slotId);
+            if (c == null) {
+                Teleslot slot = teleslotRepository.findById(slotId)
+                        .orElseThrow(() -> new IllegalArgumentException("Teleslot not found"));
+                c = new SlotCounter(capacityOf(slot), slot.getBookedPatients() != null ? slot.getBookedPatients() : 0);
+                counters.put(slotId, c);
+            }
+            return c;
+        }
+    }
+
+    private static int capacityOf(Teleslot slot) {
+        if (slot.getStatus() == Status.CANCELLED || slot.getStatus() == Status.COMPLETED) return 0;
+        return slot.getMaxPatients() != null ? slot.getMaxPatients() : Integer.MAX_VALUE;
+    }
+
+    private static Object[] newStripes() {
+        Object[] s = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) s[i] = new Object();
+        return s;
+    }
+
+    static final class SlotCounter {
+        final int capacity;
+        final AtomicInteger booked;
+
+        SlotCounter(int capacity, int booked) {
+            this.capacity = capacity;
+            this.booked = new AtomicInteger(booked);
+        }
+
+        boolean tryAcquire() {
+            for (;;) {
+                int b = booked.get();
+                if (b >= capacity) return false;
+                if (booked.compareAndSet(b, b + 1)) return true;
+            }
+        }
+
+        void release() {
+            booked.updateAndGet(b -> b > 0 ? b - 1 : 0);
+        }
+    }
+}
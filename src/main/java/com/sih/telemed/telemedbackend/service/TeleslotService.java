@@ -0,0 +1,145 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.Status;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.TeleslotRepository;
+import com.sih.telemed.telemedbackend.dto.Teleslot.TeleslotRequest;
+import com.sih.telemed.telemedbackend.dto.Teleslot.TeleslotResponse;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Teleslot;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.FlexibleDateTimeParser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TeleslotService {
+
+    private final TeleslotRepository teleslotRepository;
+    private final DoctorRepository doctorRepository;
+    private final TeleslotCapacityGate capacityGate;
+
+    // ---------------------------------------------------------
+    // CREATE SLOT (doctor publishes capacity)
+    // ---------------------------------------------------------
+    @Transactional
+    public TeleslotResponse createSlot(TeleslotRequest req) {
+
+        Doctor doctor = doctorRepository.findById(req.getDoctorId())
+                .orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+
+        LocalDateTime start = FlexibleDateTimeParser.parse("startTime", req.getStartTime());
+        LocalDateTime end = FlexibleDateTimeParser.parse("endTime", req.getEndTime());
+
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("endTime must be after startTime.");
+        }
+        if (req.getMaxPatients() == null || req.getMaxPatients() < 1) {
+            throw new IllegalArgumentException("maxPatients must be at least 1.");
+        }
+        if (req.getMinPatients() != null && req.getMinPatients() > req.getMaxPatients()) {
+            throw new IllegalArgumentException("minPatients cannot exceed maxPatients.");
+        }
+
+        Teleslot slot = new Teleslot();
+        slot.setDoctor(doctor);
+        slot.setStartTime(start);
+        slot.setEndTime(end);
+        slot.setAppointmentType(req.getAppointmentType());
+        slot.setStatus(Status.PENDING);
+        slot.setMaxPatients(req.getMaxPatients());
+        slot.setMinPatients(req.getMinPatients());
+        slot.setBookedPatients(0);
+
+        return toResponse(teleslotRepository.save(slot));
+    }
+
+    public TeleslotResponse getSlot(Long slotId) {
+        return toResponse(teleslotRepository.findById(slotId)
+                .orElseThrow(() -> new IllegalArgumentException("Teleslot not found")));
+    }
+
+    public List<TeleslotResponse> getUpcomingSlotsForDoctor(Long doctorId) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
+        return teleslotRepository.findByDoctorIdAndStartTimeGreaterThanEqualOrderByStartTimeAsc(doctorId, now)
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    // ---------------------------------------------------------
+    // RESERVE / RELEASE A SEAT
+    // only through a booking or its cancellation, never on its own.
+    // in-memory gate first, then the conditional UPDATE as the
+    // source of truth; joins the caller's transaction if any
+    // ---------------------------------------------------------
+    @Transactional
+    public void reserveSeat(Long slotId, Long doctorId, LocalDateTime start, LocalDateTime end) {
+
+        Teleslot slot = teleslotRepository.findById(slotId)
+                .orElseThrow(() -> new IllegalArgumentException("Teleslot not found"));
+
+        // the booking must sit inside the slot, with the slot's doctor if one was asked for
+        if (doctorId != null && !doctorId.equals(slot.getDoctor().getId())) {
+            throw new IllegalArgumentException("Teleslot belongs to another doctor.");
+        }
+        if (start.isBefore(slot.getStartTime()) || end.isAfter(slot.getEndTime())) {
+            throw new IllegalArgumentException("Appointment time is outside the teleslot.");
+        }
+
+        reserveSeat(slotId);
+    }
+
+    private void reserveSeat(Long slotId) {
+
+        if (!capacityGate.tryAcquire(slotId)) {
+            throw new IllegalStateException("Teleslot is full.");
+        }
+
+        boolean reserved = false;
+        try {
+            reserved = teleslotRepository.tryReserveSeat(slotId) == 1;
+        } finally {
+            if (!reserved) {
+                // DB disagrees with the counter (or failed): give the seat back and resync
+                capacityGate.release(slotId);
+                capacityGate.evict(slotId);
+            }
+        }
+        if (!reserved) {
+            throw new IllegalStateException("Teleslot is full.");
+        }
+
+        AfterCommit.onRollback(() -> capacityGate.release(slotId));
+    }
+
+    @Transactional
+    public void releaseSeat(Long slotId) {
+        if (teleslotRepository.releaseSeat(slotId) == 1) {
+            AfterCommit.run(() -> capacityGate.release(slotId));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // MAPPER
+    // ---------------------------------------------------------
+    private TeleslotResponse toResponse(Teleslot t) {
+        return TeleslotResponse.builder()
+                .id(t.getId())
+                .doctorId(t.getDoctor() != null ? t.getDoctor().getId() : null)
+                .startTime(t.getStartTime() != null ? t.getStartTime().toString() : null)
+                .endTime(t.getEndTime() != null ? t.getEndTime().toString() : null)
+                .appointmentType(t.getAppointmentType())
+                .status(t.getStatus())
+                .maxPatients(t.getMaxPatients())
+                .minPatients(t.getMinPatients())
+                .bookedPatients(t.getBookedPatients() != null ? t.getBookedPatients() : 0)
+                .build();
+    }
+}
@@ -2,18 +2,27 @@ package com.sih.telemed.telemedbackend.service;
 
 
 import com.sih.telemed.telemedbackend.dto.Auth.RegisterRequest;
+import com.sih.telemed.telemedbackend.dto.Auth.UserPageResponse;
 import com.sih.telemed.telemedbackend.dto.Auth.UserResponse;
+import com.sih.telemed.telemedbackend.dto.Auth.UserSummary;
 import com.sih.telemed.telemedbackend.model.User;
 import com.sih.telemed.telemedbackend.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
+    private final SignupGuard signupGuard;
 
     @Transactional
     public UserResponse register(RegisterRequest request) {
@@ -30,6 +39,7 @@ public class UserService {
                 .build();
 
         User saved = userRepository.save(user);
+        signupGuard.recordUsername(saved.getUsername());
 
         return UserResponse.builder()
                 .id(saved.getId())
@@ -38,4 +48,21 @@ public class UserService {
                 .role(saved.getRole())
                 .build();
     }
+
+    // keyset pages on id; the cursor is the last id of the previous page
+    public UserPageResponse getUsersPage(String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId;
+        try {
+            afterId = cursor == null || cursor.isBlank() ? 0 : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+
+        List<UserSummary> rows = userRepository.findSummaryPage(afterId, PageRequest.of(0, size));
+        return UserPageResponse.builder()
+                .items(rows)
+                .nextCursor(rows.size() == size ? String.valueOf(rows.get(size - 1).id()) : null)
+                .build();
+    }
 }
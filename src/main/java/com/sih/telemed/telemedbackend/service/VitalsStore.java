@@ -0,0 +1,283 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.telemed.telemedbackend.dto.Vitals.VitalsSeriesResponse;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.util.AfterCommit;
+import com.sih.telemed.telemedbackend.util.FlexibleDateTimeParser;
+import com.sih.telemed.telemedbackend.util.VitalsSeries;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ---------------------------------------------------------
+// PER-PATIENT VITALS TIME-SERIES
+// Numeric readings are pulled out of Encounter.vitalsJson (and
+// bloodSugar) into one VitalsSeries per patient and metric, so a
+// trend is a range scan over primitive arrays instead of loading
+// and parsing every encounter. Keys are matched loosely
+// ("BP": "120/80", "heartRate", "SpO2", "glucose", ...) onto the
+// METRICS below; anything else in the blob is ignored.
+// Rebuilt from the encounters table on startup, fed after commit.
+// ---------------------------------------------------------
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VitalsStore {
+
+    public static final String SYSTOLIC = "systolic";
+    public static final String DIASTOLIC = "diastolic";
+    public static final String PULSE = "pulse";
+    public static final String TEMPERATURE = "temperature";
+    public static final String SPO2 = "spo2";
+    public static final String SUGAR = "sugar";
+    public static final String WEIGHT = "weight";
+    public static final String RESPIRATORY_RATE = "respiratoryRate";
+
+    // normalized key (lowercase, letters and digits only) -> metric; "bp" is split into two
+    private static final Map<String, String> METRICS = Map.ofEntries(
+            Map.entry("systolic", SYSTOLIC), Map.entry("sys", SYSTOLIC), Map.entry("sbp", SYSTOLIC),
+            Map.entry("bpsystolic", SYSTOLIC),
+            Map.entry("diastolic", DIASTOLIC), Map.entry("dia", DIASTOLIC), Map.entry("dbp", DIASTOLIC),
+            Map.entry("bpdiastolic", DIASTOLIC),
+            Map.entry("pulse", PULSE), Map.entry("heartrate", PULSE), Map.entry("hr", PULSE),
+            Map.entry("temperature", TEMPERATURE), Map.entry("temp", TEMPERATURE),
+            Map.entry("spo2", SPO2), Map.entry("oxygen", SPO2), Map.entry("o2sat", SPO2),
+            Map.entry("sugar", SUGAR), Map.entry("bloodsugar", SUGAR), Map.entry("glucose", SUGAR),
+            Map.entry("rbs", SUGAR),
+            Map.entry("weight", WEIGHT), Map.entry("wt", WEIGHT),
+            Map.entry("respiratoryrate", RESPIRATORY_RATE), Map.entry("rr", RESPIRATORY_RATE),
+            Map.entry("resprate", RESPIRATORY_RATE)
+    );
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(365);
+    private static final int MAX_POINTS = 5000;
+
+    private static final String LOAD_SQL = """
+            SELECT patient_id, created_at, vitals_json, blood_sugar
+            FROM encounters
+            WHERE patient_id IS NOT NULL AND created_at IS NOT NULL
+              AND (vitals_json IS NOT NULL OR blood_sugar IS NOT NULL)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Map<String, VitalsSeries>> patients = new ConcurrentHashMap<>();
+
+    // ---------------------------------------------------------
+    // REBUILD FROM DB (on startup)
+    // ---------------------------------------------------------
+    @PostConstruct
+    public void rebuild() {
+        patients.clear();
+        int[] rows = {0};
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            Timestamp created = rs.getTimestamp("created_at");
+            Object sugar = rs.getObject("blood_sugar");
+            record(rs.getLong("patient_id"), created.toInstant(), rs.getString("vitals_json"),
+                    sugar != null ? ((Number) sugar).doubleValue() : null);
+            rows[0]++;
+        });
+        log.info("Loaded vitals from {} encounters for {} patients", rows[0], patients.size());
+    }
+
+    // after commit of a new encounter
+    public void record(Encounter e) {
+        if (e.getPatientId() == null || e.getCreatedAt() == null) return;
+        AfterCommit.run(() -> record(e.getPatientId(), e.getCreatedAt(), e.getVitalsJson(), e.getBloodSugar()));
+    }
+
+    void record(Long patientId, Instant at, String vitalsJson, Double bloodSugar) {
+        Map<String, Double> readings = parse(vitalsJson);
+        if (bloodSugar != null) readings.putIfAbsent(SUGAR, bloodSugar);
+        if (readings.isEmpty()) return;
+
+        Map<String, VitalsSeries> series = patients.computeIfAbsent(patientId, id -> new ConcurrentHashMap<>());
+        readings.forEach((metric, value) ->
+                series.computeIfAbsent(metric, m -> new VitalsSeries()).add(at.getEpochSecond(), value.floatValue()));
+    }
+
+    // ---------------------------------------------------------
+    // READS
+    // ---------------------------------------------------------
+    public VitalsSeries series(Long patientId, String metric) {
+        Map<String, VitalsSeries> series = patients.get(patientId);
+        return series == null ? null : series.get(metric);
+    }
+
+    // metric -> number of readings
+    public Map<String, Integer> metrics(Long patientId) {
+        Map<String, VitalsSeries> series = patients.get(patientId);
+        if (series == null) return Collections.emptyMap();
+        Map<String, Integer> counts = new TreeMap<>();
+        series.forEach((metric, s) -> counts.put(metric, s.size()));
+        return counts;
+    }
+
+    // ---------------------------------------------------------
+    // RANGE QUERY: raw points, or min/max/avg buckets
+    // bucket: "raw", seconds, or 30m / 6h / 1d / 1w; omitted -> raw
+    // when the range holds at most maxPoints readings, otherwise the
+    // smallest bucket that fits into maxPoints.
+    // from / to default to the last 365 days up to now.
+    // ---------------------------------------------------------
+    public VitalsSeriesResponse query(Long patientId, String metricName, String from, String to,
+                                      String bucket, int maxPoints) {
+        String metric = metricFor(metricName);
+        if (metric == null) throw new IllegalArgumentException("Unknown metric: " + metricName);
+
+        long end = to != null ? instant("to", to) : Instant.now().getEpochSecond() + 1;
+        long start = from != null ? instant("from", from) : end - DEFAULT_RANGE.toSeconds();
+        if (start >= end) throw new IllegalArgumentException("from must be before to");
+        int limit = Math.max(1, Math.min(maxPoints, MAX_POINTS));
+
+        VitalsSeriesResponse.VitalsSeriesResponseBuilder response = VitalsSeriesResponse.builder()
+                .patientId(patientId)
+                .metric(metric)
+                .from(start)
+                .to(end);
+
+        VitalsSeries s = series(patientId, metric);
+        long bucketSeconds = bucket != null ? bucketSeconds(bucket) : 0;
+        if (s != null && bucket == null) {
+            int[] n = {0};
+            s.forEach(start, end, (t, v) -> n[0]++);
+            if (n[0] > limit) bucketSeconds = (end - start + limit - 1) / limit;
+        }
+
+        if (s == null) {
+            return response.bucketSeconds(bucketSeconds).t(new long[0]).value(new float[0]).build();
+        }
+        if (bucketSeconds == 0) {
+            long[] t = new long[s.size()];
+            float[] value = new float[s.size()];
+            int[] n = {0};
+            s.forEach(start, end, (at, v) -> {
+                if (n[0] == t.length) return;      // appended since size() was read
+                t[n[0]] = at;
+                value[n[0]++] = v;
+            });
+            return response.bucketSeconds(0).t(Arrays.copyOf(t, n[0])).value(Arrays.copyOf(value, n[0])).build();
+        }
+
+        VitalsSeries.Downsampled d = s.downsample(start, end, bucketSeconds);
+        return response.bucketSeconds(bucketSeconds)
+                .t(d.start()).value(d.avg()).min(d.min()).max(d.max()).count(d.count())
+                .build();
+    }
+
+    private static long instant(String field, String value) {
+        return FlexibleDateTimeParser.parse(field, value).atZone(ZONE).toEpochSecond();
+    }
+
+    static long bucketSeconds(String bucket) {
+        String b = bucket.trim().toLowerCase(Locale.ROOT);
+        if (b.equals("raw")) return 0;
+        if (b.isEmpty()) throw new IllegalArgumentException("bucket is empty");
+
+        long unit = switch (b.charAt(b.length() - 1)) {
+            case 's' -> 1;
+            case 'm' -> 60;
+            case 'h' -> 3600;
+            case 'd' -> 86400;
+            case 'w' -> 7 * 86400;
+            default -> 0;
+        };
+        String digits = unit == 0 ? b : b.substring(0, b.length() - 1);
+        long n;
+        try {
+            n = Long.parseLong(digits);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid bucket: " + bucket);
+        }
+        if (n <= 0) throw new IllegalArgumentException("Invalid bucket: " + bucket);
+        return n * Math.max(unit, 1);
+    }
+
+    public static String metricFor(String key) {
+        return METRICS.get(normalize(key));
+    }
+
+    // ---------------------------------------------------------
+    // vitalsJson -> metric readings; not JSON (e.g. old free-text notes) -> nothing
+    // ---------------------------------------------------------
+    Map<String, Double> parse(String vitalsJson) {
+        Map<String, Double> readings = new LinkedHashMap<>();
+        if (vitalsJson == null || vitalsJson.isBlank() || vitalsJson.charAt(0) != '{') return readings;
+
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(vitalsJson);
+        } catch (Exception ex) {
+            log.debug("Ignoring unparseable vitalsJson: {}", ex.getMessage());
+            return readings;
+        }
+
+        for (Iterator<Map.Entry<String, JsonNode>> it = root.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            String key = normalize(field.getKey());
+            JsonNode node = field.getValue();
+
+            if (key.equals("bp") || key.equals("bloodpressure")) {
+                // "120/80"
+                String[] parts = node.asText().split("/");
+                if (parts.length == 2) {
+                    Double sys = number(parts[0]);
+                    Double dia = number(parts[1]);
+                    if (sys != null && dia != null) {
+                        readings.put(SYSTOLIC, sys);
+                        readings.put(DIASTOLIC, dia);
+                    }
+                }
+                continue;
+            }
+
+            String metric = METRICS.get(key);
+            if (metric == null) continue;
+            Double value = node.isNumber() ? Double.valueOf(node.doubleValue()) : number(node.asText());
+            if (value != null) readings.put(metric, value);
+        }
+        return readings;
+    }
+
+    private static String normalize(String key) {
+        StringBuilder sb = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // leading number of "98.6", " 72 bpm", "101F"
+    private static Double number(String s) {
+        String t = s.trim();
+        int end = 0;
+        while (end < t.length() && (Character.isDigit(t.charAt(end)) || t.charAt(end) == '.')) end++;
+        if (end == 0) return null;
+        try {
+            double v = Double.parseDouble(t.substring(0, end));
+            return Double.isFinite(v) ? v : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+// ---------------------------------------------------------
+// AHO-CORASICK MULTI-PATTERN MATCHER
+// All patterns are compiled into one trie with failure links, so a
+// text is scanned once, left to right, whatever the number of
+// patterns: O(text length + matches). Each state keeps its edges
+// as a sorted char[] (binary search - the alphabet is open, Latin,
+// Devanagari and Gurmukhi mixed) and the ids of every pattern that
+// ends there, suffix matches included.
+// Patterns are matched as given (callers normalize case / spacing).
+// Immutable once built; safe to share between threads.
+// ---------------------------------------------------------
+public final class AhoCorasick<V> {
+
+    public interface Visitor<V> {
+        // [start, end) in the scanned text
+        void accept(int start, int end, V value);
+    }
+
+    private static final int[] NONE = new int[0];
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[][] outputs;     // pattern ids ending in each state
+    private final int[] lengths;       // per pattern id
+    private final List<V> values;      // per pattern id
+
+    public AhoCorasick(Map<String, V> patterns) {
+        // ---------------------------------------------------------
+        // TRIE
+        // ---------------------------------------------------------
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<int[]> out = new ArrayList<>();
+        children.add(new TreeMap<>());
+        out.add(NONE);
+
+        lengths = new int[patterns.size()];
+        values = new ArrayList<>(patterns.size());
+        int id = 0;
+        for (Map.Entry<String, V> p : patterns.entrySet()) {
+            String pattern = p.getKey();
+            if (pattern.isEmpty()) throw new IllegalArgumentException("Empty pattern");
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = children.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(pattern.charAt(i), next);
+                    children.add(new TreeMap<>());
+                    out.add(NONE);
+                }
+                state = next;
+            }
+            out.set(state, append(out.get(state), id));
+            lengths[id] = pattern.length();
+            values.add(p.getValue());
+            id++;
+        }
+
+        int states = children.size();
+        edgeChars = new char[states][];
+        edgeTargets = new int[states][];
+        for (int s = 0; s < states; s++) {
+            TreeMap<Character, Integer> edges = children.get(s);
+            edgeChars[s] = new char[edges.size()];
+            edgeTargets[s] = new int[edges.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> e : edges.entrySet()) {
+                edgeChars[s][k] = e.getKey();
+                edgeTargets[s][k++] = e.getValue();
+            }
+        }
+
+        // ---------------------------------------------------------
+        // FAILURE LINKS (breadth first) + inherited outputs
+        // ---------------------------------------------------------
+        fail = new int[states];
+        outputs = new int[states][];
+        outputs[0] = out.get(0);
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int t : edgeTargets[0]) {
+            fail[t] = 0;
+            outputs[t] = out.get(t);
+            queue.add(t);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int k = 0; k < edgeChars[s].length; k++) {
+                char c = edgeChars[s][k];
+                int t = edgeTargets[s][k];
+                int f = fail[s];
+                int via;
+                while ((via = step(f, c)) < 0 && f != 0) f = fail[f];
+                fail[t] = via >= 0 ? via : 0;
+                outputs[t] = concat(out.get(t), outputs[fail[t]]);
+                queue.add(t);
+            }
+        }
+    }
+
+    // every occurrence of every pattern, ordered by end position
+    public void scan(CharSequence text, Visitor<V> visitor) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(state, c)) < 0 && state != 0) state = fail[state];
+            state = next >= 0 ? next : 0;
+            for (int p : outputs[state]) {
+                visitor.accept(i + 1 - lengths[p], i + 1, values.get(p));
+            }
+        }
+    }
+
+    public int states() {
+        return fail.length;
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    private int step(int state, char c) {
+        int k = Arrays.binarySearch(edgeChars[state], c);
+        return k >= 0 ? edgeTargets[state][k] : -1;
+    }
+
+    private static int[] append(int[] a, int v) {
+        int[] r = Arrays.copyOf(a, a.length + 1);
+        r[a.length] = v;
+        return r;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        if (b.length == 0) return a;
+        if (a.length == 0) return b;
+        int[] r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+}
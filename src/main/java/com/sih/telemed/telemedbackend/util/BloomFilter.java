@@ -0,0 +1,84 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// ---------------------------------------------------------
+// BLOOM FILTER over strings
+// "false" from mightContain is definite: the value was never added.
+// "true" may be a false positive (about fpp once the filter holds
+// expectedEntries values; more beyond that, never false negatives).
+// k bit positions per value from one 64-bit hash split in two
+// (Kirsch-Mitzenmacher double hashing). Bits live in an
+// AtomicLongArray, so concurrent adds never lose each other's bits
+// and readers need no lock.
+// ---------------------------------------------------------
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public BloomFilter(long expectedEntries, double fpp) {
+        if (expectedEntries <= 0) throw new IllegalArgumentException("expectedEntries must be positive");
+        if (fpp <= 0 || fpp >= 1) throw new IllegalArgumentException("fpp must be in (0, 1)");
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-expectedEntries * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        long wordCount = Math.max(1, (m + 63) / 64);
+        if (wordCount > Integer.MAX_VALUE) throw new IllegalArgumentException("Bloom filter too large");
+        words = new AtomicLongArray((int) wordCount);
+        bits = wordCount * 64;
+        hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * Math.log(2)));
+    }
+
+    public void add(String value) {
+        long h = hash(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long old = words.get(word);
+            while ((old & mask) == 0 && !words.compareAndSet(word, old, old | mask)) {
+                old = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h = hash(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & 1L << bit) == 0) return false;
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bits;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    // FNV-1a over the chars, then a murmur3 finalizer so both halves mix
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
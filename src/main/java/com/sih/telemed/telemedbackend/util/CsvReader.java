@@ -0,0 +1,138 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// ---------------------------------------------------------
+// STREAMING CSV READER (RFC 4180, the way spreadsheets export it)
+// One record per next(), read through a fixed char buffer, so a
+// file of any size costs one record of memory.
+//   - fields separated by ',', records by \n, \r\n or \r
+//   - "quoted" fields may hold commas, line breaks and "" (a quote)
+//   - a UTF-8 byte order mark before the first field is dropped
+//   - blank lines are skipped
+// line() is the line the last record started on (1-based), for
+// reporting; a quoted line break makes a record span several lines.
+// Not thread-safe.
+// ---------------------------------------------------------
+public final class CsvReader implements Closeable {
+
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private final char[] buf = new char[1 << 16];
+    private int pos;
+    private int len;
+    private int pending = NONE;     // char read ahead past a \r
+
+    private long line = 1;          // line the reader is on
+    private long recordLine;        // line the last record started on
+    private boolean started;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    // the next record's fields, or null at the end of the input
+    public String[] next() {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') c = read();
+        }
+        while (c == '\n' || c == '\r') {
+            newline(c);
+            c = read();
+        }
+        if (c < 0) return null;
+
+        recordLine = line;
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) throw new IllegalArgumentException("Unclosed quote in the record starting on line " + recordLine);
+                if (c == '"') {
+                    c = read();
+                    if (c == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n' || c == '\r') {
+                    field.append('\n');
+                    newline(c);
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                fields.add(field.toString());
+                if (c >= 0) newline(c);
+                return fields.toArray(new String[0]);
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    public long line() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    // c is \n or \r: counts the line break, swallowing the \n of a \r\n
+    private void newline(int c) {
+        line++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') pending = next;
+        }
+    }
+
+    private int read() {
+        if (pending != NONE) {
+            int c = pending;
+            pending = NONE;
+            return c;
+        }
+        if (pos == len) {
+            try {
+                len = in.read(buf, 0, buf.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return -1;
+            }
+        }
+        return buf[pos++];
+    }
+}
@@ -0,0 +1,163 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.time.LocalDateTime;
+
+// ---------------------------------------------------------
+// SINGLE-PASS APPOINTMENT TIMESTAMP PARSER
+// Accepts:
+//   2025-12-08T10:30
+//   2025-12-08T10:30:00[.fraction]
+//   ...followed by optional Z or +05:30 / +0530 / +05
+// The offset is validated but dropped (wall-clock time is kept),
+// same as OffsetDateTime.parse(..).toLocalDateTime().
+// No exceptions are thrown on the happy path; bad input gets an
+// IllegalArgumentException naming the field, the problem and index.
+// ---------------------------------------------------------
+public final class FlexibleDateTimeParser {
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private FlexibleDateTimeParser() {
+    }
+
+    public static LocalDateTime parse(String field, CharSequence s) {
+        if (s == null) {
+            throw new IllegalArgumentException(field + " is required.");
+        }
+        int len = s.length();
+        if (len < 16) {
+            throw fail(field, s, "too short, expected yyyy-MM-ddTHH:mm", len);
+        }
+
+        // ---- date: yyyy-MM-dd ----
+        int year = digits(s, 0, 4);
+        if (year < 0) throw fail(field, s, "expected 4-digit year", firstNonDigit(s, 0, 4));
+        expect(field, s, 4, '-');
+        int month = digits(s, 5, 2);
+        if (month < 0) throw fail(field, s, "expected 2-digit month", firstNonDigit(s, 5, 2));
+        expect(field, s, 7, '-');
+        int day = digits(s, 8, 2);
+        if (day < 0) throw fail(field, s, "expected 2-digit day", firstNonDigit(s, 8, 2));
+
+        char t = s.charAt(10);
+        if (t != 'T' && t != 't') throw fail(field, s, "expected 'T'", 10);
+
+        // ---- time: HH:mm[:ss[.fffffffff]] ----
+        int hour = digits(s, 11, 2);
+        if (hour < 0) throw fail(field, s, "expected 2-digit hour", firstNonDigit(s, 11, 2));
+        expect(field, s, 13, ':');
+        int minute = digits(s, 14, 2);
+        if (minute < 0) throw fail(field, s, "expected 2-digit minute", firstNonDigit(s, 14, 2));
+
+        int pos = 16;
+        int second = 0;
+        int nano = 0;
+
+        if (pos < len && s.charAt(pos) == ':') {
+            second = digits(s, pos + 1, 2);
+            if (second < 0) throw fail(field, s, "expected 2-digit second", firstNonDigit(s, pos + 1, 2));
+            pos += 3;
+
+            if (pos < len && s.charAt(pos) == '.') {
+                int start = ++pos;
+                int scale = 100_000_000;
+                while (pos < len && isDigit(s.charAt(pos))) {
+                    if (pos - start == 9) throw fail(field, s, "fraction longer than 9 digits", pos);
+                    nano += (s.charAt(pos) - '0') * scale;
+                    scale /= 10;
+                    pos++;
+                }
+                if (pos == start) throw fail(field, s, "expected fraction digits", pos);
+            }
+        }
+
+        // ---- optional offset ----
+        if (pos < len) {
+            char c = s.charAt(pos);
+            if (c == 'Z' || c == 'z') {
+                pos++;
+            } else if (c == '+' || c == '-') {
+                pos = skipOffset(field, s, pos + 1);
+            } else {
+                throw fail(field, s, "unexpected character '" + c + "'", pos);
+            }
+            if (pos != len) throw fail(field, s, "unexpected trailing characters", pos);
+        }
+
+        // ---- range checks ----
+        if (month < 1 || month > 12) throw fail(field, s, "month out of range", 5);
+        int maxDay = DAYS_IN_MONTH[month - 1] + (month == 2 && isLeap(year) ? 1 : 0);
+        if (day < 1 || day > maxDay) throw fail(field, s, "day out of range", 8);
+        if (hour > 23) throw fail(field, s, "hour out of range", 11);
+        if (minute > 59) throw fail(field, s, "minute out of range", 14);
+        if (second > 59) throw fail(field, s, "second out of range", 17);
+
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    // +HH, +HHmm, +HH:mm, +HH:mm:ss  -> returns position after the offset
+    private static int skipOffset(String field, CharSequence s, int pos) {
+        int hours = digits(s, pos, 2);
+        if (hours < 0) throw fail(field, s, "expected 2-digit offset hours", firstNonDigit(s, pos, 2));
+        pos += 2;
+
+        int minutes = 0;
+        int seconds = 0;
+        int len = s.length();
+        if (pos < len) {
+            boolean colon = s.charAt(pos) == ':';
+            int at = colon ? pos + 1 : pos;
+            minutes = digits(s, at, 2);
+            if (minutes < 0) throw fail(field, s, "expected 2-digit offset minutes", firstNonDigit(s, at, 2));
+            pos = at + 2;
+
+            if (colon && pos < len && s.charAt(pos) == ':') {
+                seconds = digits(s, pos + 1, 2);
+                if (seconds < 0) throw fail(field, s, "expected 2-digit offset seconds", firstNonDigit(s, pos + 1, 2));
+                pos += 3;
+            }
+        }
+
+        if (minutes > 59 || seconds > 59 || hours * 3600 + minutes * 60 + seconds > 18 * 3600) {
+            throw fail(field, s, "offset out of range", pos);
+        }
+        return pos;
+    }
+
+    // value of n digits at [from, from + n), or -1 if any is missing / not a digit
+    private static int digits(CharSequence s, int from, int n) {
+        if (from + n > s.length()) return -1;
+        int v = 0;
+        for (int i = from; i < from + n; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static int firstNonDigit(CharSequence s, int from, int n) {
+        int end = Math.min(from + n, s.length());
+        for (int i = from; i < end; i++) {
+            if (!isDigit(s.charAt(i))) return i;
+        }
+        return end;
+    }
+
+    private static void expect(String field, CharSequence s, int index, char c) {
+        if (s.charAt(index) != c) throw fail(field, s, "expected '" + c + "'", index);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static IllegalArgumentException fail(String field, CharSequence s, String problem, int index) {
+        return new IllegalArgumentException(
+                "Invalid " + field + " '" + s + "': " + problem + " at index " + index + ".");
+    }
+}
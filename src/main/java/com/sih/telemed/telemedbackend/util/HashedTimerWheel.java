@@ -0,0 +1,137 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ---------------------------------------------------------
+// HASHED TIMER WHEEL
+// wheelSize buckets of tickMillis each; a timeout further out than
+// one revolution carries a "rounds" count. schedule / cancel are O(1)
+// (doubly-linked bucket lists + key map), advance() touches only the
+// buckets whose ticks have elapsed. One timeout per key: scheduling
+// an existing key moves it. Deadlines already behind the wheel (and
+// fireNext) go to an overdue queue drained by the next advance().
+// Not driven by its own thread - the owner calls advance(now) periodically.
+// ---------------------------------------------------------
+public final class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final long startMillis;
+    private final Node<K>[] buckets;
+    private final Map<K, Node<K>> byKey = new HashMap<>();
+    private final Set<K> overdue = new LinkedHashSet<>();
+
+    // next tick to be processed
+    private long currentTick = 0;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive.");
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two.");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.startMillis = startMillis;
+        this.buckets = new Node[wheelSize];
+    }
+
+    public synchronized void schedule(K key, long deadlineMillis) {
+        remove(key);
+
+        // round up so a timeout never fires early
+        long tick = ceilDiv(deadlineMillis - startMillis, tickMillis);
+        if (tick < currentTick) {
+            overdue.add(key);
+            return;
+        }
+        Node<K> n = new Node<>(key, (tick - currentTick) / (mask + 1));
+        int b = (int) (tick & mask);
+        n.next = buckets[b];
+        if (n.next != null) n.next.prev = n;
+        n.bucket = b;
+        buckets[b] = n;
+        byKey.put(key, n);
+    }
+
+    // expire on the next advance(), whatever the time
+    public synchronized void fireNext(K key) {
+        remove(key);
+        overdue.add(key);
+    }
+
+    public synchronized boolean cancel(K key) {
+        return remove(key);
+    }
+
+    public synchronized boolean contains(K key) {
+        return byKey.containsKey(key) || overdue.contains(key);
+    }
+
+    public synchronized int size() {
+        return byKey.size() + overdue.size();
+    }
+
+    // expire every timeout whose tick has elapsed by nowMillis; returns their keys
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+
+        while (currentTick <= target) {
+            Node<K> n = buckets[(int) (currentTick & mask)];
+            while (n != null) {
+                Node<K> next = n.next;
+                if (n.rounds <= 0) {
+                    byKey.remove(n.key);
+                    unlink(n);
+                    expired.add(n.key);
+                } else {
+                    n.rounds--;
+                }
+                n = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    private boolean remove(K key) {
+        Node<K> n = byKey.remove(key);
+        if (n != null) {
+            unlink(n);
+            return true;
+        }
+        return overdue.remove(key);
+    }
+
+    private void unlink(Node<K> n) {
+        if (n.prev != null) n.prev.next = n.next;
+        else buckets[n.bucket] = n.next;
+        if (n.next != null) n.next.prev = n.prev;
+        n.prev = null;
+        n.next = null;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private static final class Node<K> {
+        final K key;
+        long rounds;
+        int bucket;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key, long rounds) {
+            this.key = key;
+            this.rounds = rounds;
+        }
+    }
+}
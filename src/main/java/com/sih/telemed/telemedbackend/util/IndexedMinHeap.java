@@ -0,0 +1,126 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+// ---------------------------------------------------------
+// INDEXED BINARY MIN-HEAP of (id, load), ties broken by lower id.
+// A position map makes set / remove O(log n) for any id, not just
+// the top. first(accept) walks the heap best-first (a frontier of
+// heap slots), so it stops after O(k log k) work when the k-th
+// lightest entry is the first acceptable one - no copying, no popping.
+// Thread-safe: every method locks this heap.
+// ---------------------------------------------------------
+public final class IndexedMinHeap {
+
+    private long[] ids = new long[16];
+    private int[] loads = new int[16];
+    private final Map<Long, Integer> position = new HashMap<>();
+    private int size = 0;
+
+    // add id, or move it to its new load
+    public synchronized void set(long id, int load) {
+        Integer at = position.get(id);
+        if (at == null) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                loads = Arrays.copyOf(loads, size * 2);
+            }
+            place(size, id, load);
+            siftUp(size++);
+            return;
+        }
+        int old = loads[at];
+        loads[at] = load;
+        if (load < old) siftUp(at);
+        else if (load > old) siftDown(at);
+    }
+
+    // like set, but ignores ids that aren't in the heap
+    public synchronized boolean update(long id, int load) {
+        if (!position.containsKey(id)) return false;
+        set(id, load);
+        return true;
+    }
+
+    public synchronized boolean remove(long id) {
+        Integer at = position.remove(id);
+        if (at == null) return false;
+        int last = --size;
+        if (at != last) {
+            long moved = ids[last];
+            place(at, moved, loads[last]);
+            siftUp(at);
+            siftDown(position.get(moved));
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(long id) {
+        return position.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // lightest id, or null when empty
+    public synchronized Long peek() {
+        return size == 0 ? null : ids[0];
+    }
+
+    // lightest id that passes accept, or null (accept runs under the heap's lock: keep it cheap)
+    public synchronized Long first(LongPredicate accept) {
+        if (size == 0) return null;
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> less(a, b) ? -1 : less(b, a) ? 1 : 0);
+        frontier.add(0);
+        while (!frontier.isEmpty()) {
+            int i = frontier.poll();
+            if (accept.test(ids[i])) return ids[i];
+            int l = 2 * i + 1;
+            if (l < size) frontier.add(l);
+            if (l + 1 < size) frontier.add(l + 1);
+        }
+        return null;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1;
+            if (l >= size) return;
+            int smallest = l + 1 < size && less(l + 1, l) ? l + 1 : l;
+            if (!less(smallest, i)) return;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return loads[a] < loads[b] || (loads[a] == loads[b] && ids[a] < ids[b]);
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        int load = loads[a];
+        place(a, ids[b], loads[b]);
+        place(b, id, load);
+    }
+
+    private void place(int i, long id, int load) {
+        ids[i] = id;
+        loads[i] = load;
+        position.put(id, i);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// ---------------------------------------------------------
+// K-WAY MERGE of sources already sorted by one comparator
+// Lazy: holds one head per source in a heap, so next() costs
+// O(log k) and a source is only read as far as the merge gets -
+// stopping after n items leaves the rest unread.
+// Equal items come out in source order. Not thread-safe.
+// ---------------------------------------------------------
+public final class KWayMerge<T> implements Iterator<T> {
+
+    private record Head<T>(T item, int source) {
+    }
+
+    private final List<Iterator<? extends T>> sources;
+    private final PriorityQueue<Head<T>> heap;
+
+    public KWayMerge(Comparator<? super T> order, List<? extends Iterator<? extends T>> sources) {
+        this.sources = new ArrayList<>(sources);
+        Comparator<Head<T>> byItem = (a, b) -> order.compare(a.item(), b.item());
+        this.heap = new PriorityQueue<>(Math.max(1, sources.size()),
+                byItem.thenComparingInt(Head::source));
+        for (int i = 0; i < this.sources.size(); i++) advance(i);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heap.poll();
+        if (head == null) throw new NoSuchElementException();
+        advance(head.source());
+        return head.item();
+    }
+
+    // the first n items (fewer if the sources run out)
+    public List<T> take(int n) {
+        List<T> out = new ArrayList<>(n);
+        while (out.size() < n && hasNext()) out.add(next());
+        return out;
+    }
+
+    private void advance(int source) {
+        Iterator<? extends T> it = sources.get(source);
+        if (it.hasNext()) heap.add(new Head<>(it.next(), source));
+    }
+}
@@ -0,0 +1,45 @@
+package com.sih.telemed.telemedbackend.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// ---------------------------------------------------------
+// Writes one JSON document per line (application/x-ndjson),
+// flushing every few rows so nothing piles up in memory.
+// ---------------------------------------------------------
+public class NdjsonWriter<T> implements Consumer<T> {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream out;
+    private int written = 0;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    @Override
+    public void accept(T item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getWritten() {
+        return written;
+    }
+}
@@ -0,0 +1,256 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// ---------------------------------------------------------
+// APPEND-ONLY SEGMENTED RECORD LOG
+// Records are framed as [int length][int crc32][payload] and
+// appended to numbered segment files (0000000000.seg, ...); a new
+// segment starts once the current one would exceed segmentBytes.
+// A record is addressed by its position: segment << 40 | offset.
+// append() only writes to the OS; sync() fsyncs everything appended
+// since the last sync in one force() - callers batch durability by
+// calling it on a timer (group commit) instead of per record.
+// On open, a torn or corrupt tail of the last segment (crash mid
+// write) is truncated back to the last good record.
+// Thread-safe: appends and syncs lock the log; reads use positional
+// reads and run concurrently.
+// ---------------------------------------------------------
+public final class SegmentedLog implements Closeable {
+
+    private static final int HEADER = 8;
+    private static final long OFFSET_MASK = (1L << 40) - 1;
+    private static final String SUFFIX = ".seg";
+
+    public interface Visitor {
+        void accept(long position, byte[] payload);
+    }
+
+    private final Path dir;
+    private final long segmentBytes;
+
+    // segment number -> channel; sealed segments stay open for reads
+    private final Map<Integer, FileChannel> segments = new ConcurrentHashMap<>();
+    private int current;
+    private long size;              // bytes in the current segment
+    private long appendedSinceSync;
+    private int recordsSinceSync;
+
+    public SegmentedLog(Path dir, long segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(dir);
+            TreeMap<Integer, Path> found = new TreeMap<>();
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                        .forEach(p -> found.put(segmentNumber(p), p));
+            }
+            for (Map.Entry<Integer, Path> e : found.entrySet()) {
+                segments.put(e.getKey(), FileChannel.open(e.getValue(),
+                        StandardOpenOption.READ, StandardOpenOption.WRITE));
+            }
+            if (found.isEmpty()) {
+                open(0);
+            } else {
+                current = found.lastKey();
+                size = recover(segments.get(current));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open log in " + dir, ex);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // WRITE
+    // ---------------------------------------------------------
+    public synchronized long append(byte[] payload) {
+        int frame = HEADER + payload.length;
+        if (frame > segmentBytes) throw new IllegalArgumentException("Record larger than a segment");
+        try {
+            if (size + frame > segmentBytes) roll();
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer buf = ByteBuffer.allocate(frame);
+            buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+            FileChannel ch = segments.get(current);
+            long offset = size;
+            while (buf.hasRemaining()) ch.write(buf, offset + buf.position());
+            size += frame;
+            appendedSinceSync += frame;
+            recordsSinceSync++;
+            return position(current, offset);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Append failed in " + dir, ex);
+        }
+    }
+
+    // fsync what was appended since the last call; returns the number of records made durable
+    public synchronized int sync() {
+        if (appendedSinceSync == 0) return 0;
+        try {
+            segments.get(current).force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("fsync failed in " + dir, ex);
+        }
+        int records = recordsSinceSync;
+        appendedSinceSync = 0;
+        recordsSinceSync = 0;
+        return records;
+    }
+
+    // position the next append will get (bar a segment roll)
+    public synchronized long end() {
+        return position(current, size);
+    }
+
+    // ---------------------------------------------------------
+    // READ
+    // ---------------------------------------------------------
+    public byte[] read(long position) {
+        FileChannel ch = segments.get(segmentOf(position));
+        if (ch == null) throw new IllegalArgumentException("No segment for position " + position);
+        try {
+            byte[] payload = readAt(ch, offsetOf(position), Long.MAX_VALUE);
+            if (payload == null) throw new IllegalStateException("Corrupt record at " + position);
+            return payload;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Read failed in " + dir, ex);
+        }
+    }
+
+    // every record at or after position, in order
+    public void scan(long from, Visitor visitor) {
+        long end = end();
+        List<Integer> numbers = new ArrayList<>(new TreeMap<>(segments).keySet());
+        try {
+            for (int n : numbers) {
+                if (n < segmentOf(from)) continue;
+                FileChannel ch = segments.get(n);
+                long limit = n == segmentOf(end) ? offsetOf(end) : ch.size();
+                long offset = n == segmentOf(from) ? offsetOf(from) : 0;
+                while (offset < limit) {
+                    byte[] payload = readAt(ch, offset, limit);
+                    if (payload == null) break;
+                    visitor.accept(position(n, offset), payload);
+                    offset += HEADER + payload.length;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Scan failed in " + dir, ex);
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        sync();
+        for (FileChannel ch : segments.values()) {
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+        segments.clear();
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    public static int segmentOf(long position) {
+        return (int) (position >>> 40);
+    }
+
+    public static long offsetOf(long position) {
+        return position & OFFSET_MASK;
+    }
+
+    private static long position(int segment, long offset) {
+        return (long) segment << 40 | offset;
+    }
+
+    private void roll() throws IOException {
+        FileChannel sealed = segments.get(current);
+        sealed.force(false);
+        appendedSinceSync = 0;
+        recordsSinceSync = 0;
+        open(current + 1);
+    }
+
+    private void open(int number) throws IOException {
+        Path file = dir.resolve(String.format("%010d%s", number, SUFFIX));
+        segments.put(number, FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        current = number;
+        size = 0;
+    }
+
+    // length of the valid prefix; anything after it is cut off
+    private static long recover(FileChannel ch) throws IOException {
+        long offset = 0;
+        long length = ch.size();
+        while (offset < length) {
+            byte[] payload = readAt(ch, offset, length);
+            if (payload == null) break;
+            offset += HEADER + payload.length;
+        }
+        if (offset < length) {
+            ch.truncate(offset);
+            ch.force(true);
+        }
+        return offset;
+    }
+
+    // null if the frame at offset is incomplete or fails its checksum
+    private static byte[] readAt(FileChannel ch, long offset, long limit) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        if (!readFully(ch, header, offset)) return null;
+        header.flip();
+        int length = header.getInt();
+        int crc = header.getInt();
+        if (length < 0 || offset + HEADER + length > Math.min(limit, ch.size())) return null;
+
+        ByteBuffer body = ByteBuffer.allocate(length);
+        if (!readFully(ch, body, offset + HEADER)) return null;
+        CRC32 check = new CRC32();
+        check.update(body.array());
+        return (int) check.getValue() == crc ? body.array() : null;
+    }
+
+    private static boolean readFully(FileChannel ch, ByteBuffer buf, long offset) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, offset + buf.position());
+            if (n < 0) return false;
+        }
+        return true;
+    }
+
+    private static int segmentNumber(Path p) {
+        String name = p.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("Unexpected file in log directory: " + p, ex);
+        }
+    }
+}
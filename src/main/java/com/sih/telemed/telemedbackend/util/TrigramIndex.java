@@ -0,0 +1,151 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// ---------------------------------------------------------
+// TRIGRAM INDEX over words of int documents
+// Each word is posted under the trigrams of "^word$", so one
+// structure answers substring ("ama"), prefix ("^ra") and whole
+// word ("am$") lookups. Posting lists are growable int[] kept in
+// ascending doc order - callers must add documents with increasing
+// ids - so a lookup is a merge intersection, smallest list first.
+// A gram held by 1 doc in 16 or more ("kau" of every kaur) also
+// keeps a bitmap (at most twice the list's size), so intersecting
+// with it is one bit test per surviving doc instead of a merge.
+// Results are candidates: a doc holding every trigram of a token
+// usually, but not always, contains the token, so callers verify.
+// Grams of different fields stay apart through a namespace (0..15).
+// Not thread-safe: callers lock.
+// ---------------------------------------------------------
+public final class TrigramIndex {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int SKIP_RATIO = 64;
+    private static final int DENSE_MIN = 1024;
+    private static final int DENSE_RATIO = 16;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+        long[] bits;        // same docs as a bitmap, once dense
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;      // gram repeats within the doc
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+
+            if (bits != null) {
+                set(doc);
+            } else if (size >= DENSE_MIN && (long) size * DENSE_RATIO > doc) {
+                bits = new long[(doc >> 6) + 1];
+                for (int i = 0; i < size; i++) set(docs[i]);
+            }
+        }
+
+        boolean contains(int doc) {
+            int word = doc >> 6;
+            return word < bits.length && (bits[word] & 1L << doc) != 0;
+        }
+
+        private void set(int doc) {
+            int word = doc >> 6;
+            if (word >= bits.length) bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+            bits[word] |= 1L << doc;
+        }
+    }
+
+    public void add(int doc, int namespace, String word) {
+        if (word.isEmpty()) return;
+        String padded = "^" + word + "$";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            postings.computeIfAbsent(gram(namespace, padded, i), g -> new Postings()).add(doc);
+        }
+    }
+
+    // one query word: namespace, text, and whether it must start a word
+    public record Term(int namespace, String token, boolean prefix) {
+    }
+
+    // docs holding every trigram of token (prefix: token starts a word);
+    // null when the token is too short to have one - callers must not treat that as "no match"
+    public int[] candidates(int namespace, String token, boolean prefix) {
+        return candidates(List.of(new Term(namespace, token, prefix)));
+    }
+
+    // docs holding every trigram of every term. The gram lists of all
+    // terms are intersected together, smallest first, so the rarest
+    // gram of the query ("e42" of "gurpreet village42") sets the cost.
+    public int[] candidates(List<Term> terms) {
+        List<Postings> lists = new ArrayList<>();
+        for (Term t : terms) {
+            String s = t.prefix() ? "^" + t.token() : t.token();
+            for (int i = 0; i + 3 <= s.length(); i++) {
+                Postings p = postings.get(gram(t.namespace(), s, i));
+                if (p == null) return EMPTY;
+                lists.add(p);
+            }
+        }
+        if (lists.isEmpty()) return null;
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int n = result.length;
+        for (int l = 1; l < lists.size() && n > 0; l++) {
+            // a list far longer than the survivors ("vil" of "village42")
+            // filters almost nothing; callers verify anyway
+            if ((long) n * SKIP_RATIO < lists.get(l).size) break;
+            n = intersect(result, n, lists.get(l));
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    public int grams() {
+        return postings.size();
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    // keeps the docs of result[0, n) that are also in p; returns the new n
+    private static int intersect(int[] result, int n, Postings p) {
+        int kept = 0;
+        if (p.bits != null) {
+            for (int i = 0; i < n; i++) {
+                if (p.contains(result[i])) result[kept++] = result[i];
+            }
+            return kept;
+        }
+        int j = 0;
+        for (int i = 0; i < n && j < p.size; i++) {
+            int doc = result[i];
+            if (p.docs[j] < doc) j = gallop(p.docs, j, p.size, doc);
+            if (j < p.size && p.docs[j] == doc) result[kept++] = doc;
+        }
+        return kept;
+    }
+
+    // first index in [from, to) with docs[index] >= doc (docs[from] < doc):
+    // steps of 1, 2, 4... then a binary search inside the last step,
+    // so lists of similar length cost a merge, not a search per doc
+    private static int gallop(int[] docs, int from, int to, int doc) {
+        int lo = from;
+        int step = 1;
+        while (lo + step < to && docs[lo + step] < doc) {
+            lo += step;
+            step <<= 1;
+        }
+        int k = Arrays.binarySearch(docs, lo + 1, Math.min(lo + step + 1, to), doc);
+        return k >= 0 ? k : -k - 1;
+    }
+
+    private static long gram(int namespace, String s, int at) {
+        return (long) namespace << 48 | (long) s.charAt(at) << 32 | (long) s.charAt(at + 1) << 16 | s.charAt(at + 2);
+    }
+}
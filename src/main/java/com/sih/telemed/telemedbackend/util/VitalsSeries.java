@@ -0,0 +1,157 @@
+package com.sih.telemed.telemedbackend.util;
+
+import java.util.Arrays;
+
+// ---------------------------------------------------------
+// COMPACT TIME-SERIES FOR ONE VITAL OF ONE PATIENT
+// Readings live in two primitive arrays: int deltas (seconds since
+// the previous reading) and float values - 8 bytes a reading, no
+// boxing. Every CHECKPOINT-th reading also keeps its absolute time,
+// so a range query binary-searches the checkpoints and decodes at
+// most CHECKPOINT deltas before it reaches the range.
+// Appends in time order are O(1); a late (out-of-order) reading is
+// spliced in with one O(n) re-encode. One reading per second: the
+// same timestamp again overwrites the value (replays are harmless).
+// Thread-safe: every method locks this series.
+// ---------------------------------------------------------
+public final class VitalsSeries {
+
+    static final int CHECKPOINT = 64;
+
+    private int[] deltas = new int[8];
+    private float[] values = new float[8];
+    private long[] checkpoints = new long[1];
+    private long last;
+    private int size = 0;
+
+    public interface Visitor {
+        void accept(long epochSecond, float value);
+    }
+
+    // per-bucket aggregates; bucket i starts at start[i] (epoch seconds)
+    public record Downsampled(long[] start, float[] min, float[] max, float[] avg, int[] count) {
+    }
+
+    public synchronized void add(long epochSecond, float value) {
+        if (size > 0 && epochSecond < last) {
+            insert(epochSecond, value);
+            return;
+        }
+        if (size > 0 && epochSecond == last) {
+            values[size - 1] = value;
+            return;
+        }
+        append(epochSecond, value);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // readings with from <= t < to, oldest first
+    public synchronized void forEach(long from, long to, Visitor visitor) {
+        if (size == 0 || from >= to) return;
+
+        int block = Arrays.binarySearch(checkpoints, 0, blocks(), from);
+        if (block < 0) block = Math.max(0, -block - 2);
+
+        int i = block * CHECKPOINT;
+        long t = checkpoints[block];
+        while (t < from) {
+            if (++i == size) return;
+            t += deltas[i];
+        }
+        while (t < to) {
+            visitor.accept(t, values[i]);
+            if (++i == size) return;
+            t += deltas[i];
+        }
+    }
+
+    // min / max / avg per bucket of bucketSeconds, aligned to from; empty buckets are left out
+    public synchronized Downsampled downsample(long from, long to, long bucketSeconds) {
+        if (bucketSeconds <= 0) throw new IllegalArgumentException("bucketSeconds must be positive");
+        int buckets = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(0, (to - from + bucketSeconds - 1) / bucketSeconds));
+
+        // touched buckets only, in order; sized for the worst case of one reading per bucket
+        int cap = Math.min(buckets, size);
+        long[] start = new long[cap];
+        float[] min = new float[cap];
+        float[] max = new float[cap];
+        double[] sum = new double[cap];
+        int[] count = new int[cap];
+        int[] n = {-1};
+        long[] current = {Long.MIN_VALUE};
+
+        forEach(from, to, (t, v) -> {
+            long b = (t - from) / bucketSeconds;
+            if (b != current[0]) {
+                current[0] = b;
+                int k = ++n[0];
+                start[k] = from + b * bucketSeconds;
+                min[k] = v;
+                max[k] = v;
+            }
+            int k = n[0];
+            if (v < min[k]) min[k] = v;
+            if (v > max[k]) max[k] = v;
+            sum[k] += v;
+            count[k]++;
+        });
+
+        int used = n[0] + 1;
+        float[] avg = new float[used];
+        for (int k = 0; k < used; k++) avg[k] = (float) (sum[k] / count[k]);
+        return new Downsampled(Arrays.copyOf(start, used), Arrays.copyOf(min, used),
+                Arrays.copyOf(max, used), avg, Arrays.copyOf(count, used));
+    }
+
+    // ---------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------
+    private void append(long t, float value) {
+        if (size == deltas.length) {
+            deltas = Arrays.copyOf(deltas, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        long delta = size == 0 ? 0 : t - last;
+        if (delta > Integer.MAX_VALUE) throw new IllegalArgumentException("Readings more than 68 years apart");
+        deltas[size] = (int) delta;
+        values[size] = value;
+        if (size % CHECKPOINT == 0) {
+            int block = size / CHECKPOINT;
+            if (block == checkpoints.length) checkpoints = Arrays.copyOf(checkpoints, block * 2);
+            checkpoints[block] = t;
+        }
+        last = t;
+        size++;
+    }
+
+    // late reading: decode, splice, re-encode
+    private void insert(long t, float value) {
+        long[] times = new long[size];
+        long acc = 0;
+        for (int i = 0; i < size; i++) times[i] = acc += deltas[i] + (i == 0 ? checkpoints[0] : 0);
+
+        int at = Arrays.binarySearch(times, t);
+        if (at >= 0) {
+            values[at] = value;
+            return;
+        }
+        at = -at - 1;
+
+        float[] oldValues = values;
+        int n = size;
+        size = 0;
+        deltas = new int[Math.max(8, deltas.length)];
+        values = new float[deltas.length];
+        for (int i = 0; i < n; i++) {
+            if (i == at) append(t, value);
+            append(times[i], oldValues[i]);
+        }
+    }
+
+    private int blocks() {
+        return (size + CHECKPOINT - 1) / CHECKPOINT;
+    }
+}
@@ -0,0 +1,108 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.service.AppointmentIntervalIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ---------------------------------------------------------
+// Conflict check for one doctor with 10k+ scheduled appointments:
+// JPQL countOverlappingScheduledAppointments (H2) vs the
+// in-memory AppointmentIntervalIndex.
+// Run main() from the IDE after `mvn test-compile`.
+// ---------------------------------------------------------
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentConflictBenchmark {
+
+    private static final long DOCTOR_ID = 1L;
+    private static final int QUERIES = 1024;
+
+    @Param({"10000"})
+    public int appointmentsPerDoctor;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository repository;
+    private AppointmentIntervalIndex index;
+
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("conflicts");
+        repository = context.getBean(AppointmentRepository.class);
+        index = context.getBean(AppointmentIntervalIndex.class);
+
+        // back-to-back 20 minute slots with 10 minute gaps
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 8, 0);
+        List<Appointment> batch = new ArrayList<>();
+        for (int i = 0; i < appointmentsPerDoctor; i++) {
+            LocalDateTime s = base.plusMinutes(30L * i);
+            batch.add(Appointment.builder()
+                    .patientId((long) i)
+                    .doctorId(DOCTOR_ID)
+                    .appointmentType(AppointmentType.Video_Calling)
+                    .routingStatus(AppointmentRountingStatus.ASSIGNED)
+                    .status(AppointmentStatus.SCHEDULED)
+                    .startTime(s)
+                    .endTime(s.plusMinutes(20))
+                    .build());
+            if (batch.size() == 1000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+        index.rebuild();
+
+        Random rnd = new Random(42);
+        starts = new LocalDateTime[QUERIES];
+        ends = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            starts[i] = base.plusMinutes(rnd.nextInt(appointmentsPerDoctor * 30));
+            ends[i] = starts[i].plusMinutes(15);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long jpqlCountOverlapping() {
+        int i = next++ & (QUERIES - 1);
+        return repository.countOverlappingScheduledAppointments(DOCTOR_ID, starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public long indexCountOverlapping() {
+        int i = next++ & (QUERIES - 1);
+        return index.countOverlapping(DOCTOR_ID, starts[i], ends[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AppointmentConflictBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,40 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.TelemedBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ---------------------------------------------------------
+// Boots the real application against an in-memory H2 database
+// so benchmarks can compare in-process structures with the
+// repository (JPQL / JDBC) paths they replace.
+// ---------------------------------------------------------
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String name, String... extraProperties) {
+        // passed as command-line args so they override application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                "--server.port=0",
+                "--debug=false",
+                "--logging.level.root=WARN"
+        ));
+        for (String p : extraProperties) {
+            args.add("--" + p);
+        }
+        return new SpringApplicationBuilder(TelemedBackendApplication.class)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,196 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.util.IndexedMinHeap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+// ---------------------------------------------------------
+// Least-busy assignment.
+// main() first runs a queue simulation (one hospital, Poisson
+// arrivals at 90% utilisation, exponential consult times) and prints
+// the variance of per-doctor queue lengths for three strategies:
+//   caller   - callers pick doctors with a Zipf-like preference
+//              (what assignDoctor with an explicit id amounts to)
+//   random   - uniform choice
+//   heap     - least-loaded doctor from the indexed heap
+// then the JMH part compares a heap pick + re-weigh against a
+// min-scan over the hospital's doctors, both reading the same
+// per-doctor counters the balancer keeps.
+// Run main() from the IDE after `mvn test-compile`.
+// ---------------------------------------------------------
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeastBusyAssignmentBenchmark {
+
+    @Param({"50", "500"})
+    public int doctors;
+
+    private IndexedMinHeap heap;
+    private List<Long> roster;
+    private Map<Long, AtomicInteger> loads;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        heap = new IndexedMinHeap();
+        roster = new ArrayList<>();
+        loads = new ConcurrentHashMap<>();
+        for (long d = 1; d <= doctors; d++) {
+            int load = random.nextInt(10);
+            roster.add(d);
+            loads.put(d, new AtomicInteger(load));
+            heap.set(d, load);
+        }
+    }
+
+    // pick the lightest, give it an encounter, finish one somewhere else
+    @Benchmark
+    public long heapPick() {
+        long d = heap.peek();
+        heap.set(d, loads.get(d).incrementAndGet());
+        long done = 1 + random.nextInt(doctors);
+        AtomicInteger c = loads.get(done);
+        if (c.get() > 0) heap.set(done, c.decrementAndGet());
+        return d;
+    }
+
+    @Benchmark
+    public long linearScan() {
+        long best = -1;
+        int bestLoad = Integer.MAX_VALUE;
+        for (Long d : roster) {
+            int load = loads.get(d).get();
+            if (load < bestLoad) {
+                bestLoad = load;
+                best = d;
+            }
+        }
+        loads.get(best).incrementAndGet();
+        AtomicInteger c = loads.get(1L + random.nextInt(doctors));
+        if (c.get() > 0) c.decrementAndGet();
+        return best;
+    }
+
+    // ---------------------------------------------------------
+    // QUEUE SIMULATION
+    // ---------------------------------------------------------
+    record Result(double meanVariance, int maxQueue, double meanWaitMinutes) {
+    }
+
+    static Result simulate(String strategy, int doctors, int minutes, long seed) {
+        Random random = new Random(seed);
+        double consultMinutes = 15;
+        double arrivalsPerMinute = 0.9 * doctors / consultMinutes;
+
+        // per doctor: queue of arrival minutes (head is in consultation) and when the current consult ends
+        @SuppressWarnings("unchecked")
+        ArrayDeque<Integer>[] queues = new ArrayDeque[doctors];
+        double[] busyUntil = new double[doctors];
+        for (int d = 0; d < doctors; d++) queues[d] = new ArrayDeque<>();
+        IndexedMinHeap heap = new IndexedMinHeap();
+        for (int d = 0; d < doctors; d++) heap.set(d, 0);
+
+        double[] zipf = new double[doctors];
+        double total = 0;
+        for (int d = 0; d < doctors; d++) total += 1.0 / (d + 1);
+        double acc = 0;
+        for (int d = 0; d < doctors; d++) zipf[d] = (acc += 1.0 / (d + 1) / total);
+
+        IntSupplier pick = switch (strategy) {
+            case "caller" -> () -> {
+                double u = random.nextDouble();
+                int d = 0;
+                while (d < doctors - 1 && zipf[d] < u) d++;
+                return d;
+            };
+            case "random" -> () -> random.nextInt(doctors);
+            default -> () -> (int) (long) heap.peek();
+        };
+
+        double varianceSum = 0;
+        int maxQueue = 0;
+        long waited = 0;
+        long served = 0;
+
+        for (int t = 0; t < minutes; t++) {
+            // finish consults, start the next one
+            for (int d = 0; d < doctors; d++) {
+                while (!queues[d].isEmpty() && busyUntil[d] <= t) {
+                    queues[d].poll();
+                    heap.set(d, queues[d].size());
+                    if (!queues[d].isEmpty()) {
+                        waited += t - queues[d].peek();
+                        served++;
+                        busyUntil[d] = t - consultMinutes * Math.log(1 - random.nextDouble());
+                    }
+                }
+            }
+            // arrivals this minute
+            int arrivals = poisson(random, arrivalsPerMinute);
+            for (int a = 0; a < arrivals; a++) {
+                int d = pick.getAsInt();
+                if (queues[d].isEmpty()) {
+                    served++;
+                    busyUntil[d] = t - consultMinutes * Math.log(1 - random.nextDouble());
+                }
+                queues[d].add(t);
+                heap.set(d, queues[d].size());
+            }
+            // spread of queue lengths across doctors at this minute
+            double mean = 0;
+            for (ArrayDeque<Integer> q : queues) mean += q.size();
+            mean /= doctors;
+            double var = 0;
+            for (ArrayDeque<Integer> q : queues) {
+                var += (q.size() - mean) * (q.size() - mean);
+                maxQueue = Math.max(maxQueue, q.size());
+            }
+            varianceSum += var / doctors;
+        }
+        return new Result(varianceSum / minutes, maxQueue, served == 0 ? 0 : (double) waited / served);
+    }
+
+    private static int poisson(Random random, double lambda) {
+        double l = Math.exp(-lambda);
+        double p = 1;
+        int k = 0;
+        do {
+            k++;
+            p *= random.nextDouble();
+        } while (p > l);
+        return k - 1;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int minutes = 8 * 60 * 20;   // twenty 8-hour OPD days
+        for (int doctors : new int[]{10, 50}) {
+            System.out.printf("%n%d doctors, %d simulated minutes%n", doctors, minutes);
+            System.out.printf("%-8s %14s %10s %14s%n", "strategy", "queue variance", "max queue", "mean wait min");
+            for (String strategy : new String[]{"caller", "random", "heap"}) {
+                Result r = simulate(strategy, doctors, minutes, 42);
+                System.out.printf("%-8s %14.2f %10d %14.1f%n", strategy, r.meanVariance(), r.maxQueue(), r.meanWaitMinutes());
+            }
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(LeastBusyAssignmentBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.service.AppointmentIntervalIndex;
+import com.sih.telemed.telemedbackend.service.DoctorAvailabilityIndex;
+import com.sih.telemed.telemedbackend.service.DoctorPresenceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// ---------------------------------------------------------
+// "Earliest 15-minute slot with any doctor at the hospital":
+// free-slot bitmap scan vs. stepping every doctor through the
+// interval index in 5-minute increments (the per-doctor overlap
+// check the bitmap replaces, minus the DB round trips).
+// Run main() from the IDE after `mvn test-compile`.
+// ---------------------------------------------------------
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NextAvailableSlotBenchmark {
+
+    private static final String HOSPITAL = "PHC Nabha";
+
+    @Param({"50", "200"})
+    public int doctors;
+
+    // fraction of each working day already booked
+    @Param({"0.5", "0.9", "1.0"})
+    public double load;
+
+    private AppointmentIntervalIndex intervals;
+    private DoctorAvailabilityIndex availability;
+    private List<Long> doctorIds;
+    private LocalDateTime after;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime day = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        after = day.withHour(9);
+
+        Random random = new Random(42);
+        List<Appointment> booked = new ArrayList<>();
+        List<Doctor> roster = new ArrayList<>();
+        doctorIds = new ArrayList<>();
+        long id = 1;
+
+        for (long d = 1; d <= doctors; d++) {
+            roster.add(Doctor.builder().id(d).name("Dr " + d).hospital(HOSPITAL).specialization("General")
+                    .status(DoctorStatus.AVAILABLE).active(true).build());
+            doctorIds.add(d);
+
+            for (int dayOffset = 0; dayOffset < 3; dayOffset++) {
+                // 32 quarter-hour slots between 09:00 and 17:00
+                for (int q = 0; q < 32; q++) {
+                    if (random.nextDouble() >= load) continue;
+                    LocalDateTime start = day.plusDays(dayOffset).withHour(9).plusMinutes(15L * q);
+                    booked.add(Appointment.builder().id(id++).doctorId(d).status(AppointmentStatus.SCHEDULED)
+                            .startTime(start).endTime(start.plusMinutes(15)).build());
+                }
+            }
+        }
+
+        AppointmentRepository appointments = mock(AppointmentRepository.class);
+        when(appointments.findByStatusAndDoctorIdIsNotNull(AppointmentStatus.SCHEDULED)).thenReturn(booked);
+        intervals = new AppointmentIntervalIndex(appointments);
+        intervals.rebuild();
+
+        DoctorPresenceRegistry presence = new DoctorPresenceRegistry(
+                mock(DoctorRepository.class), mock(JdbcTemplate.class), new SimpleMeterRegistry(), 0);
+        roster.forEach(presence::register);
+        availability = new DoctorAvailabilityIndex(intervals, presence, "09:00", "17:00", 14);
+        availability.rebuild();
+    }
+
+    @Benchmark
+    public Object bitmap() {
+        return availability.nextAvailable(HOSPITAL, "General", after, 15).orElse(null);
+    }
+
+    @Benchmark
+    public Object perDoctorOverlapScan() {
+        for (LocalDateTime t = after; t.isBefore(after.plusDays(14)); t = t.plusMinutes(5)) {
+            int minute = t.getHour() * 60 + t.getMinute();
+            if (minute < 9 * 60 || minute + 15 > 17 * 60) continue;
+            for (Long d : doctorIds) {
+                if (intervals.isFree(d, t, t.plusMinutes(15))) return d;
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NextAvailableSlotBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.model.User;
+import com.sih.telemed.telemedbackend.service.PatientSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ---------------------------------------------------------
+// Top-20 search over a million synthetic patients (common Punjabi
+// names, ~2000 villages, 10-digit phones, 14-digit ABHA ids) -
+// what /patients/search costs instead of the client downloading
+// the whole table.
+// Run main() from the IDE after `mvn test-compile`.
+// ---------------------------------------------------------
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class PatientSearchBenchmark {
+
+    private static final String[] FIRST = {"ram", "gurpreet", "harpreet", "manjit", "paramjit", "sukhwinder",
+            "jaswinder", "kuldeep", "ramandeep", "amandeep", "baljit", "rajinder", "simran", "navdeep", "karan"};
+    private static final String[] LAST = {"singh", "kaur", "kumar", "sharma", "devi", "gill", "sidhu", "brar"};
+    private static final String[] BLOCKS = {"nabha", "patiala", "rajpura", "samana", "sanour", "bhunerheri"};
+
+    @Param({"1000000"})
+    public int patients;
+
+    @Param({"ram", "preet kaur", "kaur nabha", "98765", "gurpreet singh village42"})
+    public String query;
+
+    private PatientSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new PatientSearchIndex(null);
+        Random random = new Random(42);
+        User owner = new User();
+        owner.setId(1L);
+        for (int i = 1; i <= patients; i++) {
+            index.add(Patient.builder()
+                    .id((long) i)
+                    .owner(owner)
+                    .name(FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)])
+                    .phone(String.valueOf(9_000_000_000L + random.nextInt(1_000_000_000)))
+                    .abhaId(String.format("%014d", Math.abs(random.nextLong()) % 100_000_000_000_000L))
+                    .village("village" + random.nextInt(2000))
+                    .block(BLOCKS[random.nextInt(BLOCKS.length)])
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, null, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PatientSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,49 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.service.SymptomTriage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// ---------------------------------------------------------
+// One triage of a typical CHW note (mixed script, negation,
+// combination rule) - the cost createEncounter now pays instead
+// of the remote symptom-check round trip.
+// Run main() from the IDE after `mvn test-compile`.
+// ---------------------------------------------------------
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymptomTriageBenchmark {
+
+    @Param({
+            "bukhar 3 din se, khansi, saans phoolna. no chest pain",
+            "Patient garbhvati hai, pet mein dard aur khoon beh raha hai since morning, chakkar aa rahe",
+            "ਤੇਜ਼ ਬੁਖਾਰ, ਸਿਰ ਦਰਦ, ਉਲਟੀ ਨਹੀਂ"
+    })
+    public String note;
+
+    private SymptomTriage triage;
+
+    @Setup
+    public void setUp() {
+        triage = new SymptomTriage(0.8);
+    }
+
+    @Benchmark
+    public SymptomTriage.Assessment assess() {
+        return triage.assess(note);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SymptomTriageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.TeleslotRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Teleslot.TeleslotRequest;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.User;
+import com.sih.telemed.telemedbackend.service.TeleslotCapacityGate;
+import com.sih.telemed.telemedbackend.service.TeleslotService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// ---------------------------------------------------------
+// Many threads booking one popular teleslot (H2):
+//   conditionalUpdateOnly - every attempt runs UPDATE ... WHERE booked < max
+//   gatedReserve          - TeleslotService.reserveSeat (in-memory gate first)
+// Each iteration starts with an empty slot; oversubscription fails the run.
+// Run main() from the IDE after `mvn test-compile`.
+// ---------------------------------------------------------
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class TeleslotContentionBenchmark {
+
+    private static final int MAX_PATIENTS = 200;
+
+    private ConfigurableApplicationContext context;
+    private TeleslotService teleslotService;
+    private TeleslotRepository teleslotRepository;
+    private TeleslotCapacityGate capacityGate;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private Long slotId;
+    private LocalDateTime slotStart;
+    private LocalDateTime slotEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("teleslots", "routing.engine.enabled=false");
+        teleslotService = context.getBean(TeleslotService.class);
+        teleslotRepository = context.getBean(TeleslotRepository.class);
+        capacityGate = context.getBean(TeleslotCapacityGate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .username("bench-doctor").password("x").role(Role.DOCTOR).active(true).build());
+        Doctor doctor = context.getBean(DoctorRepository.class).save(Doctor.builder()
+                .user(user).name("Bench Doctor").email("bench@example.org").phone("0000000000")
+                .specialization("General").hospital("Nabha Civil Hospital")
+                .status(DoctorStatus.AVAILABLE).active(true).build());
+
+        slotStart = LocalDateTime.now().plusDays(1).withNano(0);
+        slotEnd = slotStart.plusHours(1);
+        slotId = teleslotService.createSlot(TeleslotRequest.builder()
+                .doctorId(doctor.getId())
+                .startTime(slotStart.toString())
+                .endTime(slotEnd.toString())
+                .appointmentType(AppointmentType.Video_Calling)
+                .maxPatients(MAX_PATIENTS)
+                .build()).getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptySlot() {
+        jdbcTemplate.update("UPDATE tele_slot SET booked_patients = 0 WHERE id = ?", slotId);
+        capacityGate.evict(slotId);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNoOversubscription() {
+        Integer booked = jdbcTemplate.queryForObject(
+                "SELECT booked_patients FROM tele_slot WHERE id = ?", Integer.class, slotId);
+        if (booked == null || booked > MAX_PATIENTS) {
+            throw new IllegalStateException("Slot oversubscribed: " + booked + " > " + MAX_PATIENTS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int conditionalUpdateOnly() {
+        Integer updated = transactionTemplate.execute(s -> teleslotRepository.tryReserveSeat(slotId));
+        return updated != null ? updated : 0;
+    }
+
+    @Benchmark
+    public int gatedReserve() {
+        try {
+            transactionTemplate.executeWithoutResult(s -> teleslotService.reserveSeat(slotId, null, slotStart, slotEnd));
+            return 1;
+        } catch (IllegalStateException full) {
+            return 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TeleslotContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
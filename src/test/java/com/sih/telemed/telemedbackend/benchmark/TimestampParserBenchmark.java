@@ -0,0 +1,57 @@
+package com.sih.telemed.telemedbackend.benchmark;
+
+import com.sih.telemed.telemedbackend.util.FlexibleDateTimeParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+// ---------------------------------------------------------
+// Old exception-driven parseFlexible vs FlexibleDateTimeParser,
+// one benchmark per accepted client format.
+// Run main() from the IDE after `mvn test-compile`.
+// ---------------------------------------------------------
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampParserBenchmark {
+
+    @Param({
+            "2025-12-08T10:30",            // most common client format
+            "2025-12-08T10:30:00",
+            "2025-12-08T10:30:00Z",
+            "2025-12-08T10:30:00+05:30"
+    })
+    public String input;
+
+    @Benchmark
+    public LocalDateTime legacy() {
+        try {
+            return OffsetDateTime.parse(input).toLocalDateTime();
+        } catch (Exception e1) {
+            try {
+                return LocalDateTime.parse(input);
+            } catch (Exception e2) {
+                return LocalDateTime.parse(input + ":00");
+            }
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime singlePass() {
+        return FlexibleDateTimeParser.parse("startTime", input);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TimestampParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
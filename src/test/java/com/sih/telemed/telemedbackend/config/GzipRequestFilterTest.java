@@ -0,0 +1,76 @@
+package com.sih.telemed.telemedbackend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipRequestFilterTest {
+
+    private final GzipRequestFilter filter = new GzipRequestFilter(1);   // 1 MB
+
+    @Test
+    void bodyIsInflatedForTheChain() throws Exception {
+        String json = "{\"patients\":[]}";
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(gzipped(json.getBytes(StandardCharsets.UTF_8)), new MockHttpServletResponse(), (req, res) -> {
+            HttpServletRequest r = (HttpServletRequest) req;
+            assertNull(r.getHeader(HttpHeaders.CONTENT_ENCODING));
+            seen.set(new String(r.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        });
+
+        assertEquals(json, seen.get());
+    }
+
+    @Test
+    void inflatingPastTheCapIs413() throws Exception {
+        // ~2 MB of zeros packs into a few KB
+        MockHttpServletRequest bomb = gzipped(new byte[2 * 1024 * 1024]);
+        assertTrue(bomb.getContentAsByteArray().length < 16 * 1024);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                filter.doFilter(bomb, new MockHttpServletResponse(),
+                        (req, res) -> req.getInputStream().transferTo(OutputStream.nullOutputStream())));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatusCode());
+    }
+
+    @Test
+    void plainBodiesAreNotTouched() throws Exception {
+        MockHttpServletRequest plain = new MockHttpServletRequest("POST", "/api/sync/chw/1");
+        plain.setContent(new byte[2 * 1024 * 1024]);
+        AtomicReference<Integer> length = new AtomicReference<>();
+
+        filter.doFilter(plain, new MockHttpServletResponse(),
+                (req, res) -> length.set(req.getInputStream().readAllBytes().length));
+
+        assertEquals(2 * 1024 * 1024, length.get());
+    }
+
+    private static MockHttpServletRequest gzipped(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/sync/chw/1");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(out.toByteArray());
+        return request;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentIntervalIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+    private AppointmentRepository repository;
+    private AppointmentIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AppointmentRepository.class);
+        when(repository.findByStatusAndDoctorIdIsNotNull(AppointmentStatus.SCHEDULED)).thenReturn(List.of(
+                appt(1L, 7L, 9, 0, 9, 30),
+                appt(2L, 7L, 9, 30, 10, 0),
+                appt(3L, 7L, 11, 0, 13, 0),
+                appt(4L, 8L, 9, 0, 9, 30)
+        ));
+        index = new AppointmentIntervalIndex(repository);
+        index.rebuild();
+    }
+
+    @Test
+    void countsOnlyTrueOverlapsForThatDoctor() {
+        assertThat(index.countOverlapping(7L, at(9, 15), at(9, 45))).isEqualTo(2);
+        assertThat(index.countOverlapping(7L, at(10, 0), at(11, 0))).isZero();   // touching edges are free
+        assertThat(index.countOverlapping(7L, at(12, 59), at(14, 0))).isEqualTo(1); // long interval found
+        assertThat(index.countOverlapping(9L, at(9, 0), at(18, 0))).isZero();
+        assertThat(index.findConflicts(7L, at(8, 0), at(9, 31))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void trackAndUntrackKeepIndexInStep() {
+        Appointment moved = appt(4L, 7L, 10, 0, 10, 30);
+        index.track(moved);
+
+        assertThat(index.size(8L)).isZero();
+        assertThat(index.isFree(7L, at(10, 0), at(10, 30))).isFalse();
+        assertThat(index.countOverlapping(7L, at(10, 0), at(10, 30), 4L)).isZero();
+
+        index.untrack(4L);
+        assertThat(index.isFree(7L, at(10, 0), at(10, 30))).isTrue();
+
+        Appointment cancelled = appt(3L, 7L, 11, 0, 13, 0);
+        cancelled.setStatus(AppointmentStatus.CANCELLED);
+        index.track(cancelled);
+        assertThat(index.size(7L)).isEqualTo(2);
+    }
+
+    @Test
+    void busyIntervalsAreMergedAndClipped() {
+        List<AppointmentIntervalIndex.BusyBlock> busy = index.busyIntervals(7L, at(9, 10), at(12, 0));
+
+        assertThat(busy).containsExactly(
+                new AppointmentIntervalIndex.BusyBlock(at(9, 10), at(10, 0)),
+                new AppointmentIntervalIndex.BusyBlock(at(11, 0), at(12, 0))
+        );
+    }
+
+    @Test
+    void scanBoundShrinksWhenTheLongestAppointmentGoes() {
+        AppointmentIntervalIndex.DoctorTimeline t = new AppointmentIntervalIndex.DoctorTimeline();
+        t.put(new AppointmentIntervalIndex.Interval(1L, 0, 1800));
+        t.put(new AppointmentIntervalIndex.Interval(2L, 3600, 3600 + 8 * 3600));
+        t.put(new AppointmentIntervalIndex.Interval(3L, 40_000, 40_000 + 8 * 3600));
+        assertThat(t.maxLength()).isEqualTo(8 * 3600);
+
+        t.remove(2L);
+        assertThat(t.maxLength()).isEqualTo(8 * 3600);   // 3 still has that length
+        t.put(new AppointmentIntervalIndex.Interval(3L, 40_000, 41_200));   // shortened
+        assertThat(t.maxLength()).isEqualTo(1800);
+        t.remove(1L);
+        t.remove(3L);
+        assertThat(t.maxLength()).isZero();
+    }
+
+    @Test
+    void endedAppointmentsArePurged() {
+        assertThat(index.purgeEnded(at(10, 0))).isEqualTo(3);
+
+        assertThat(index.size(7L)).isEqualTo(1);
+        assertThat(index.size(8L)).isZero();
+        assertThat(index.doctorIds()).containsExactly(7L);
+        assertThat(index.findConflicts(7L, at(9, 0), at(14, 0))).containsExactly(3L);
+
+        // a purged id can come back (e.g. rescheduled) without trouble
+        index.track(appt(1L, 8L, 15, 0, 15, 30));
+        assertThat(index.size(8L)).isEqualTo(1);
+    }
+
+    private static LocalDateTime at(int h, int m) {
+        return DAY.withHour(h).withMinute(m);
+    }
+
+    private static Appointment appt(Long id, Long doctorId, int sh, int sm, int eh, int em) {
+        return Appointment.builder()
+                .id(id)
+                .doctorId(doctorId)
+                .status(AppointmentStatus.SCHEDULED)
+                .startTime(at(sh, sm))
+                .endTime(at(eh, em))
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentPageResponse;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentResponse;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.util.NdjsonWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AppointmentPagingTest {
+
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestFixtures fixtures;
+
+    private Doctor doctor;
+    private Patient patient;
+    // ids in (startTime, id) order
+    private final List<Long> expected = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.doctor("Dr. Sidhu", "PHC Nabha");
+        patient = fixtures.patient("Manjit");
+
+        // pairs share a start time, so the id tiebreak decides page borders
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        expected.clear();
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime start = base.plusHours(i / 2);
+            expected.add(appointmentRepository.save(Appointment.builder()
+                    .patientId(patient.getId())
+                    .doctorId(doctor.getId())
+                    .startTime(start)
+                    .endTime(start.plusMinutes(20))
+                    .appointmentType(AppointmentType.Video_Calling)
+                    .status(AppointmentStatus.SCHEDULED)
+                    .routingStatus(AppointmentRountingStatus.ASSIGNED)
+                    .build()).getId());
+        }
+        // not upcoming: never listed
+        appointmentRepository.save(Appointment.builder()
+                .patientId(patient.getId())
+                .doctorId(doctor.getId())
+                .startTime(base)
+                .endTime(base.plusMinutes(20))
+                .appointmentType(AppointmentType.CHAT)
+                .status(AppointmentStatus.CANCELLED)
+                .routingStatus(AppointmentRountingStatus.ASSIGNED)
+                .build());
+    }
+
+    @Test
+    void cursorWalksEveryRowOnceInOrder() {
+        assertEquals(expected, walk(true, 2));
+        assertEquals(expected, walk(false, 3));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        AppointmentPageResponse all = appointmentService.getUpcomingAppointmentsPageForDoctor(doctor.getId(), null, 50);
+
+        assertEquals(7, all.getItems().size());
+        assertNull(all.getNextCursor());
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () ->
+                appointmentService.getUpcomingAppointmentsPageForPatient(patient.getId(), "not-a-cursor", 2));
+        assertThrows(IllegalArgumentException.class, () ->
+                appointmentService.getUpcomingAppointmentsPageForDoctor(doctor.getId(), "%%%", 2));
+    }
+
+    @Test
+    void streamWritesOneJsonLinePerRow() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonWriter<AppointmentResponse> writer = new NdjsonWriter<>(objectMapper, out);
+
+        appointmentService.streamUpcomingAppointmentsForPatient(patient.getId(), writer);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(7, writer.getWritten());
+        assertEquals(7, lines.length);
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals("Manjit", row.get("patientName").asText());
+            ids.add(row.get("id").asLong());
+        }
+        assertEquals(expected, ids);
+    }
+
+    private List<Long> walk(boolean byPatient, int limit) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            AppointmentPageResponse page = byPatient
+                    ? appointmentService.getUpcomingAppointmentsPageForPatient(patient.getId(), cursor, limit)
+                    : appointmentService.getUpcomingAppointmentsPageForDoctor(doctor.getId(), cursor, limit);
+            page.getItems().forEach(a -> seen.add(a.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+}
@@ -0,0 +1,157 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentPageResponse;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentResponse;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Patient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AppointmentReadModelTest {
+
+    private static final String PATIENT_NAME_QUERY = "SELECT p.name FROM Patient p WHERE p.id = :id";
+
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TestFixtures fixtures;
+
+    private Statistics stats;
+    private Doctor doctor;
+    private final List<Patient> patients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        doctor = fixtures.doctor("Dr. Kaur", "PHC Nabha");
+
+        patients.clear();
+        for (int p = 0; p < 3; p++) {
+            patients.add(fixtures.patient("Patient " + p));
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 12; i++) {
+            appointmentRepository.save(Appointment.builder()
+                    .patientId(patients.get(i % 3).getId())
+                    .doctorId(doctor.getId())
+                    .startTime(base.plusMinutes(30L * i))
+                    .endTime(base.plusMinutes(30L * i + 20))
+                    .appointmentType(AppointmentType.Video_Calling)
+                    .status(AppointmentStatus.SCHEDULED)
+                    .routingStatus(AppointmentRountingStatus.ASSIGNED)
+                    .build());
+        }
+        stats.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void doctorListIsOneStatementWithRealNames() {
+        List<AppointmentResponse> list = appointmentService.getUpcomingAppointmentsForDoctor(doctor.getId());
+
+        assertEquals(12, list.size());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals("Dr. Kaur", list.get(0).getDoctorName());
+        assertEquals("Patient 0", list.get(0).getPatientName());
+        assertEquals("Patient 2", list.get(2).getPatientName());
+    }
+
+    @Test
+    void patientPageIsOneStatementPerPage() {
+        AppointmentPageResponse page = appointmentService
+                .getUpcomingAppointmentsPageForPatient(patients.get(1).getId(), null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals("Patient 1", page.getItems().get(0).getPatientName());
+        assertEquals("Dr. Kaur", page.getItems().get(0).getDoctorName());
+
+        appointmentService.getUpcomingAppointmentsPageForPatient(patients.get(1).getId(), page.getNextCursor(), 2);
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamIsOneStatement() {
+        List<AppointmentResponse> out = new ArrayList<>();
+        appointmentService.streamUpcomingAppointmentsForDoctor(doctor.getId(), out::add);
+
+        assertEquals(12, out.size());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals("Patient 1", out.get(1).getPatientName());
+    }
+
+    @Test
+    void assignLooksUpEachNameOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        LocalDateTime base = LocalDateTime.now().plusDays(3).withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ids.add(appointmentRepository.save(Appointment.builder()
+                    .patientId(patients.get(0).getId())
+                    .startTime(base.plusHours(i))
+                    .endTime(base.plusHours(i).plusMinutes(20))
+                    .appointmentType(AppointmentType.CHAT)
+                    .status(AppointmentStatus.SCHEDULED)
+                    .routingStatus(AppointmentRountingStatus.REQUESTED)
+                    .build()).getId());
+        }
+        stats.clear();
+
+        AppointmentResponse first = appointmentService.assignDoctor(ids.get(0), doctor.getId());
+        AppointmentResponse second = appointmentService.assignDoctor(ids.get(1), doctor.getId());
+
+        assertEquals("Patient 0", first.getPatientName());
+        assertEquals("Dr. Kaur", second.getDoctorName());
+        assertEquals(1, stats.getQueryStatistics(PATIENT_NAME_QUERY).getExecutionCount());
+    }
+
+    @Test
+    void unassignedAppointmentHasNoDoctorName() {
+        Appointment a = appointmentRepository.save(Appointment.builder()
+                .patientId(patients.get(2).getId())
+                .startTime(LocalDateTime.now().plusDays(5))
+                .endTime(LocalDateTime.now().plusDays(5).plusMinutes(15))
+                .appointmentType(AppointmentType.CHAT)
+                .status(AppointmentStatus.SCHEDULED)
+                .routingStatus(AppointmentRountingStatus.REQUESTED)
+                .build());
+
+        AppointmentResponse r = appointmentService
+                .getUpcomingAppointmentsForPatient(patients.get(2).getId())
+                .stream().filter(x -> x.getId().equals(a.getId())).findFirst().orElseThrow();
+
+        assertEquals("Patient 2", r.getPatientName());
+        assertNull(r.getDoctorName());
+    }
+}
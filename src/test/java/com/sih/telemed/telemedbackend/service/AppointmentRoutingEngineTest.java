@@ -0,0 +1,160 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Patient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "routing.engine.enabled=false")   // batches driven by the test
+@ActiveProfiles("h2")
+class AppointmentRoutingEngineTest {
+
+    private static final String HOSPITAL = "PHC Block 2";
+    private static final String EMPTY_HOSPITAL = "PHC Block 1";
+
+    @Autowired private AppointmentRoutingEngine engine;
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private DoctorPresenceRegistry presence;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private TestFixtures fixtures;
+
+    private Patient patient;
+    private final Set<Long> doctorIds = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        // leave only this test's doctors routable, and nothing else queued
+        presence.doctors().forEach(d -> presence.setStatus(d.getId(), DoctorStatus.OFFLINE));
+        while (engine.routeBatch() > 0) {
+            // drain requests left by other tests
+        }
+
+        doctorIds.clear();
+        for (int i = 0; i < 2; i++) {
+            Doctor d = fixtures.doctor("Dr " + i, HOSPITAL);
+            presence.register(d);
+            doctorIds.add(d.getId());
+        }
+        patient = fixtures.patient("Harjit");
+    }
+
+    @Test
+    void batchIsOfferedToFreeDoctorsAndTheRestHasNoDoctor() {
+        double assignedBefore = routed("assigned");
+        double noDoctorBefore = routed("no_doctor");
+
+        // three requests for the same 20 minutes, two doctors
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Appointment> sameTime = new ArrayList<>();
+        for (int i = 0; i < 3; i++) sameTime.add(request(start, HOSPITAL));
+        Appointment elsewhere = request(start, EMPTY_HOSPITAL);
+
+        assertThat(engine.routeBatch()).isEqualTo(4);
+
+        List<Appointment> routed = sameTime.stream().map(this::reload).toList();
+        List<Appointment> offered = routed.stream()
+                .filter(a -> a.getRoutingStatus() == AppointmentRountingStatus.WAITING).toList();
+        assertThat(offered).hasSize(2);
+        assertThat(offered).extracting(Appointment::getDoctorId).doesNotHaveDuplicates().isSubsetOf(doctorIds);
+        assertThat(offered).allSatisfy(a -> assertThat(a.getRoutingAttempts()).isEqualTo(1));
+
+        Appointment left = routed.stream()
+                .filter(a -> a.getRoutingStatus() != AppointmentRountingStatus.WAITING).findFirst().orElseThrow();
+        assertThat(left.getRoutingStatus()).isEqualTo(AppointmentRountingStatus.NO_DOCTOR_AVAILABLE);
+        assertThat(left.getDoctorId()).isNull();
+        assertThat(reload(elsewhere).getRoutingStatus()).isEqualTo(AppointmentRountingStatus.NO_DOCTOR_AVAILABLE);
+
+        assertThat(routed("assigned") - assignedBefore).isEqualTo(2);
+        assertThat(routed("no_doctor") - noDoctorBefore).isEqualTo(2);
+
+        // the doctor takes the offer
+        Appointment first = offered.get(0);
+        appointmentService.acceptAssignment(first.getId(), first.getDoctorId());
+        assertThat(reload(first).getRoutingStatus()).isEqualTo(AppointmentRountingStatus.ASSIGNED);
+        assertThat(engine.routeBatch()).isZero();
+    }
+
+    @Test
+    void tickStopsAfterMaxBatches() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        List<Appointment> queued = new ArrayList<>();
+        for (int i = 0; i < 6; i++) queued.add(request(start.plusHours(i), EMPTY_HOSPITAL));
+
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "batchSize", 2);
+        ReflectionTestUtils.setField(engine, "maxBatchesPerTick", 2);
+        try {
+            engine.tick();
+        } finally {
+            ReflectionTestUtils.setField(engine, "enabled", false);
+            ReflectionTestUtils.setField(engine, "batchSize", 100);
+            ReflectionTestUtils.setField(engine, "maxBatchesPerTick", 10);
+        }
+
+        assertThat(queued.stream().map(this::reload).map(Appointment::getRoutingStatus))
+                .containsExactly(
+                        AppointmentRountingStatus.NO_DOCTOR_AVAILABLE, AppointmentRountingStatus.NO_DOCTOR_AVAILABLE,
+                        AppointmentRountingStatus.NO_DOCTOR_AVAILABLE, AppointmentRountingStatus.NO_DOCTOR_AVAILABLE,
+                        AppointmentRountingStatus.REQUESTED, AppointmentRountingStatus.REQUESTED);
+    }
+
+    @Test
+    void rowsClaimedElsewhereAreLeftToTheirClaimer() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withNano(0);
+        Appointment mine = request(start, HOSPITAL);
+        Appointment theirs = request(start.plusHours(1), HOSPITAL);
+
+        // the page was read while both were REQUESTED, then another instance took one
+        List<Appointment> page = List.of(reload(mine), reload(theirs));
+        LocalDateTime theirClaim = LocalDateTime.now().minusSeconds(5).withNano(0);
+        theirs.setRoutingStatus(AppointmentRountingStatus.ASSIGNING);
+        theirs.setRoutingUpdatedAt(theirClaim);
+        appointmentRepository.save(theirs);
+
+        List<Appointment> claimed = engine.claim(page);
+
+        assertThat(claimed).extracting(Appointment::getId).containsExactly(mine.getId());
+        assertThat(reload(mine).getRoutingStatus()).isEqualTo(AppointmentRountingStatus.ASSIGNING);
+        assertThat(reload(theirs).getRoutingUpdatedAt()).isEqualTo(theirClaim);
+    }
+
+    private double routed(String outcome) {
+        return meterRegistry.counter("appointments.routing.routed", "outcome", outcome).count();
+    }
+
+    private Appointment request(LocalDateTime start, String hospital) {
+        return appointmentRepository.save(Appointment.builder()
+                .patientId(patient.getId())
+                .startTime(start)
+                .endTime(start.plusMinutes(20))
+                .appointmentType(AppointmentType.Video_Calling)
+                .status(AppointmentStatus.SCHEDULED)
+                .routingStatus(AppointmentRountingStatus.REQUESTED)
+                .assignedHospital(hospital)
+                .build());
+    }
+
+    private Appointment reload(Appointment a) {
+        return appointmentRepository.findById(a.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentRountingStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Patient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "routing.timeouts.max-attempts=2",
+        "routing.timeouts.tick-ms=3600000"       // ticks driven by the test
+})
+@ActiveProfiles("h2")
+class AssignmentTimeoutServiceTest {
+
+    private static final String HOSPITAL = "PHC Block 3";
+
+    @Autowired private AppointmentRoutingEngine engine;
+    @Autowired private AssignmentTimeoutService timeouts;
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private AppointmentIntervalIndex intervalIndex;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private DoctorPresenceRegistry presence;
+    @Autowired private TestFixtures fixtures;
+
+    private Patient patient;
+    private final Set<Long> doctorIds = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        // leave only this test's doctors routable
+        presence.doctors().forEach(d -> presence.setStatus(d.getId(), DoctorStatus.OFFLINE));
+        doctorIds.clear();
+        for (int i = 0; i < 3; i++) {
+            Doctor d = fixtures.doctor("Dr " + i, HOSPITAL);
+            presence.register(d);
+            doctorIds.add(d.getId());
+        }
+        patient = fixtures.patient("Gurpreet");
+    }
+
+    @Test
+    void rejectedAndUnansweredOffersMoveOnThenGiveUp() {
+        Appointment a = request(LocalDateTime.now().plusDays(1));
+
+        engine.routeBatch();
+        Appointment offer1 = reload(a);
+        assertThat(offer1.getRoutingStatus()).isEqualTo(AppointmentRountingStatus.WAITING);
+        assertThat(doctorIds).contains(offer1.getDoctorId());
+        assertThat(offer1.getRoutingAttempts()).isEqualTo(1);
+
+        // first doctor declines -> fires immediately, re-queued without them
+        appointmentService.rejectAssignment(a.getId(), offer1.getDoctorId());
+        timeouts.tick();
+        assertThat(reload(a).getRoutingStatus()).isEqualTo(AppointmentRountingStatus.REQUESTED);
+        assertThat(intervalIndex.size(offer1.getDoctorId())).isZero();
+
+        engine.routeBatch();
+        Appointment offer2 = reload(a);
+        assertThat(offer2.getRoutingStatus()).isEqualTo(AppointmentRountingStatus.WAITING);
+        assertThat(offer2.getDoctorId()).isNotEqualTo(offer1.getDoctorId());
+
+        // second doctor never answers -> max-attempts (2) reached
+        timeouts.expire(List.of(a.getId()));
+        Appointment gaveUp = reload(a);
+        assertThat(gaveUp.getRoutingStatus()).isEqualTo(AppointmentRountingStatus.NO_DOCTOR_AVAILABLE);
+        assertThat(gaveUp.getDoctorId()).isNull();
+    }
+
+    @Test
+    void acceptedOfferIsNotTimedOut() {
+        Appointment a = request(LocalDateTime.now().plusDays(2));
+        engine.routeBatch();
+        Appointment offer = reload(a);
+
+        appointmentService.acceptAssignment(a.getId(), offer.getDoctorId());
+        timeouts.expire(List.of(a.getId()));
+
+        Appointment accepted = reload(a);
+        assertThat(accepted.getRoutingStatus()).isEqualTo(AppointmentRountingStatus.ASSIGNED);
+        assertThat(accepted.getDoctorId()).isEqualTo(offer.getDoctorId());
+    }
+
+    @Test
+    void stuckClaimsAreRequeuedAndRestoredOnRestart() {
+        Appointment a = request(LocalDateTime.now().plusDays(3));
+        a.setRoutingStatus(AppointmentRountingStatus.ASSIGNING);
+        a.setRoutingUpdatedAt(LocalDateTime.now().minusHours(1));
+        appointmentRepository.save(a);
+
+        timeouts.rebuild();
+        timeouts.tick();
+
+        assertThat(reload(a).getRoutingStatus()).isEqualTo(AppointmentRountingStatus.REQUESTED);
+    }
+
+    @Test
+    void failedTickPutsItsIdsBackOnTheWheel() {
+        AppointmentRepository rows = mock(AppointmentRepository.class);
+        when(rows.findAllById(List.of(1L)))
+                .thenThrow(new CannotCreateTransactionException("database down"))
+                .thenReturn(List.of());
+        AssignmentTimeoutService service = new AssignmentTimeoutService(rows, mock(AppointmentIntervalIndex.class),
+                mock(JdbcTemplate.class), mock(TransactionTemplate.class), new SimpleMeterRegistry(),
+                mock(ChangeCursor.class), 0, 120, 3, 100, 64);
+        long now = System.currentTimeMillis();
+
+        service.claimed(1L);                 // claim-seconds=0: due at once
+        service.tick(now + 200);
+        assertThat(service.pending()).isEqualTo(1);
+
+        service.tick(now + 1_000);           // not before the retry delay
+        verify(rows, times(1)).findAllById(any());
+
+        service.tick(now + AssignmentTimeoutService.RETRY_MS + 500);
+        verify(rows, times(2)).findAllById(List.of(1L));
+        assertThat(service.pending()).isZero();
+    }
+
+    private Appointment request(LocalDateTime start) {
+        return appointmentRepository.save(Appointment.builder()
+                .patientId(patient.getId())
+                .startTime(start)
+                .endTime(start.plusMinutes(20))
+                .appointmentType(AppointmentType.Video_Calling)
+                .status(AppointmentStatus.SCHEDULED)
+                .routingStatus(AppointmentRountingStatus.REQUESTED)
+                .assignedHospital(HOSPITAL)
+                .build());
+    }
+
+    private Appointment reload(Appointment a) {
+        return appointmentRepository.findById(a.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,155 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.CensusImportStatus;
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.CensusImportRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Census.CensusImportResponse;
+import com.sih.telemed.telemedbackend.dto.Census.CensusRejectResponse;
+import com.sih.telemed.telemedbackend.model.CensusImport;
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CensusImportServiceTest {
+
+    // distinct phone / ABHA numbers across tests sharing the database
+    private static final AtomicLong NUMBERS = new AtomicLong(System.currentTimeMillis() % 100_000_000L * 10);
+
+    @Autowired private CensusImportService importService;
+    @Autowired private CensusImportRepository importRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private UserRepository userRepository;
+
+    private User chw;
+
+    @BeforeEach
+    void setUp() {
+        chw = userRepository.save(User.builder()
+                .username("chw-" + System.nanoTime()).password("x").role(Role.CHW).active(true)
+                .build());
+    }
+
+    private static String phone() {
+        return String.valueOf(9_000_000_000L + NUMBERS.incrementAndGet() % 1_000_000_000L);
+    }
+
+    private static String abha() {
+        return String.valueOf(10_000_000_000_000L + NUMBERS.incrementAndGet());
+    }
+
+    private CensusImportResponse awaitDone(Long id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            CensusImportResponse job = importService.getImport(id);
+            if (job.getStatus() == CensusImportStatus.COMPLETED || job.getStatus() == CensusImportStatus.FAILED) return job;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import " + id + " did not finish");
+    }
+
+    @Test
+    void importsValidMembersAndReportsRejects() throws Exception {
+        String p1 = phone(), p2 = phone(), p3 = phone(), registered = phone();
+        String a1 = abha();
+
+        // already in the table, but not through the signup guard (its filter has never seen it)
+        Patient existing = new Patient();
+        existing.setOwner(chw);
+        existing.setName("Already Here");
+        existing.setPhone(registered);
+        patientRepository.save(existing);
+
+        String csv = "Full Name,Mobile,ABHA Number,Sex,DOB,Blood Group,Village\n"
+                + "\"Kaur,  Gurpreet\",+91 " + p1 + "," + a1 + ",F,14/02/1990,b +ve,Bhadson\n"
+                + "Ramesh Kumar,0" + p2 + ",,m,,,\n"
+                + "Bad Phone,12345,,,,,\n"
+                + "Repeat Phone," + p1 + ",,,,,\n"
+                + "Old Number," + registered + ",,,,,\n"
+                + "Sita Devi," + p3 + ",,female,,O-,\n";
+        CensusImportResponse queued = importService.upload(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "bhadson.csv", chw.getId(), "Nabha", "Nabha");
+        assertEquals(CensusImportStatus.QUEUED, queued.getStatus());
+
+        CensusImportResponse done = awaitDone(queued.getId());
+        assertEquals(CensusImportStatus.COMPLETED, done.getStatus(), done.getError());
+        assertEquals(6, done.getTotalRows());
+        assertEquals(6, done.getProcessedRows());
+        assertEquals(3, done.getCreated());
+        assertEquals(3, done.getRejected());
+
+        List<CensusRejectResponse> rejects = importService.getRejects(queued.getId(), null, null).getItems();
+        assertEquals(List.of(4L, 5L, 6L), rejects.stream().map(CensusRejectResponse::getLine).toList());
+        assertEquals("Invalid phone number", rejects.get(0).getReason());
+        assertEquals("Phone number repeated in the file", rejects.get(1).getReason());
+        assertEquals("Phone number already registered", rejects.get(2).getReason());
+
+        Patient gurpreet = patientRepository.findAll().stream()
+                .filter(p -> p1.equals(p.getPhone())).findFirst().orElseThrow();
+        assertEquals("Kaur, Gurpreet", gurpreet.getName());
+        assertEquals(a1.substring(0, 2) + "-" + a1.substring(2, 6) + "-" + a1.substring(6, 10) + "-" + a1.substring(10),
+                gurpreet.getAbhaId());
+        assertEquals("FEMALE", gurpreet.getGender());
+        assertEquals("1990-02-14", gurpreet.getDob());
+        assertEquals("B+", gurpreet.getBloodGroup());
+        assertEquals("Bhadson", gurpreet.getVillage());
+        assertTrue(patientRepository.findAll().stream().anyMatch(p -> p2.equals(p.getPhone()) && "Nabha".equals(p.getVillage())));
+        assertTrue(userRepository.existsByUsername("census-" + queued.getId() + "-2"));
+    }
+
+    @Test
+    void resumesAfterTheCommittedRecords() throws Exception {
+        String p1 = phone(), p2 = phone(), p3 = phone();
+        CensusImport job = importRepository.save(CensusImport.builder()
+                .fileName("crashed.csv").importedBy(chw.getId()).defaultVillage("Nabha")
+                .status(CensusImportStatus.RUNNING).totalRows(3L).processedRows(2).created(2)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now())
+                .build());
+        Path file = importService.file(job.getId());
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "name,phone\nOne," + p1 + "\nTwo," + p2 + "\nThree," + p3 + "\n");
+
+        importService.run(job.getId());
+
+        CensusImportResponse done = importService.getImport(job.getId());
+        assertEquals(CensusImportStatus.COMPLETED, done.getStatus());
+        assertEquals(3, done.getProcessedRows());
+        assertEquals(3, done.getCreated());
+        assertTrue(patientRepository.findAll().stream().anyMatch(p -> p3.equals(p.getPhone())));
+        assertFalse(patientRepository.findAll().stream().anyMatch(p -> p1.equals(p.getPhone()) || p2.equals(p.getPhone())));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void fileWithoutNameColumnIsRefused() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> importService.upload(
+                new ByteArrayInputStream("phone,village\n9876543210,Nabha\n".getBytes(StandardCharsets.UTF_8)),
+                "bad.csv", chw.getId(), null, null));
+        assertEquals("The CSV needs a name column", e.getMessage());
+
+        CensusImport failed = importRepository.findAll().stream()
+                .filter(j -> "bad.csv".equals(j.getFileName())).reduce((a, b) -> b).orElseThrow();
+        assertEquals(CensusImportStatus.FAILED, importRepository.findById(failed.getId()).orElseThrow().getStatus());
+        assertNull(importService.getImport(failed.getId()).getTotalRows());
+    }
+}
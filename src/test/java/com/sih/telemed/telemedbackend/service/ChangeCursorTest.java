@@ -0,0 +1,72 @@
+package com.sih.telemed.telemedbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeCursorTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private ChangeCursor cursor(long max) {
+        when(jdbc.queryForObject(anyString(), eq(Long.class))).thenReturn(max);
+        return new ChangeCursor(jdbc);
+    }
+
+    @Test
+    void startsAboveExistingRows() {
+        ChangeCursor cursor = cursor(41);
+
+        assertEquals(41, cursor.watermark());
+        assertEquals(42, cursor.next());
+        assertEquals(42, cursor.watermark());
+    }
+
+    @Test
+    void watermarkStopsBelowOpenTransaction() {
+        ChangeCursor cursor = cursor(10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(11, cursor.next());
+        assertEquals(12, cursor.next());
+        List<TransactionSynchronization> open = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // a later auto-commit write doesn't move the watermark past the open transaction
+        assertEquals(13, cursor.next());
+        assertEquals(10, cursor.watermark());
+
+        open.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(13, cursor.watermark());
+    }
+
+    @Test
+    void rolledBackSeqsAreReleasedToo() {
+        ChangeCursor cursor = cursor(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cursor.next();
+        assertEquals(0, cursor.watermark());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(1, cursor.watermark());
+    }
+}
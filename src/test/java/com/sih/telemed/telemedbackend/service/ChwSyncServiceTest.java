@@ -0,0 +1,119 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientRequest;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncItem;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncItemResult;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncRequest;
+import com.sih.telemed.telemedbackend.dto.Sync.SyncResponse;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterRequest;
+import com.sih.telemed.telemedbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ChwSyncServiceTest {
+
+    @Autowired private ChwSyncService syncService;
+    @Autowired private UserRepository userRepository;
+
+    private Long chwId;
+
+    @BeforeEach
+    void setUp() {
+        chwId = userRepository.save(User.builder()
+                .username("chw-" + System.nanoTime()).password("x").role(Role.CHW).active(true)
+                .build()).getId();
+    }
+
+    @Test
+    void uploadResolvesPatientsOfTheSameBatchAndIsIdempotent() {
+        SyncResponse first = syncService.sync(chwId, upload("p1", "e1"));
+
+        List<SyncItemResult> results = first.getResults();
+        assertEquals(2, results.size());
+        assertNull(results.get(1).getError());
+        assertEquals(1, first.getPatients().size());
+        assertEquals(1, first.getEncounters().size());
+        assertEquals(first.getPatients().get(0).getId(), first.getEncounters().get(0).getPatientId());
+        assertFalse(first.isHasMore());
+
+        // the same upload again (lost response): no duplicates, same ids
+        SyncResponse replay = syncService.sync(chwId, upload("p1", "e1"));
+        assertEquals(results.get(0).getId(), replay.getResults().get(0).getId());
+        assertEquals(results.get(1).getId(), replay.getResults().get(1).getId());
+
+        SyncResponse next = syncService.pull(chwId, first.getCursor(), null);
+        assertTrue(next.getPatients().isEmpty());
+        assertTrue(next.getEncounters().isEmpty());
+    }
+
+    @Test
+    void badItemIsReportedWithoutFailingTheBatch() {
+        SyncRequest req = upload("p2", "e2");
+        req.getEncounters().get(0).setPatientClientId("unknown");
+
+        SyncResponse response = syncService.sync(chwId, req);
+
+        assertNotNull(response.getResults().get(0).getId());
+        assertNotNull(response.getResults().get(1).getError());
+        assertEquals(1, response.getPatients().size());
+        assertTrue(response.getEncounters().isEmpty());
+    }
+
+    @Test
+    void pagesFollowTheCursorWithoutGapsOrRepeats() {
+        for (int i = 0; i < 5; i++) syncService.sync(chwId, upload("p" + i, "e" + i));
+
+        List<Long> patients = new ArrayList<>();
+        List<Long> encounters = new ArrayList<>();
+        Long since = null;
+        SyncResponse page;
+        int calls = 0;
+        do {
+            page = syncService.pull(chwId, since, 2);
+            page.getPatients().forEach(p -> patients.add(p.getId()));
+            page.getEncounters().forEach(e -> encounters.add(e.getId()));
+            since = page.getCursor();
+            calls++;
+        } while (page.isHasMore());
+
+        assertEquals(5, patients.stream().distinct().count());
+        assertEquals(5, patients.size());
+        assertEquals(5, encounters.size());
+        assertTrue(calls > 1);
+    }
+
+    private SyncRequest upload(String patientClientId, String encounterClientId) {
+        PatientRequest patient = new PatientRequest();
+        patient.setName("Gurpreet " + patientClientId);
+        patient.setVillage("Nabha");
+
+        EncounterRequest encounter = EncounterRequest.builder()
+                .symptoms("fever")
+                .vitalsJson("{\"temp\": 101.2}")
+                .build();
+
+        List<SyncItem<PatientRequest>> patients = new ArrayList<>();
+        patients.add(SyncItem.<PatientRequest>builder().clientId(patientClientId).data(patient).build());
+        List<SyncItem<EncounterRequest>> encounters = new ArrayList<>();
+        encounters.add(SyncItem.<EncounterRequest>builder()
+                .clientId(encounterClientId).patientClientId(patientClientId).data(encounter).build());
+
+        return SyncRequest.builder().patients(patients).encounters(encounters).build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorAvailabilityIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+
+    private AppointmentIntervalIndex intervals;
+    private DoctorAvailabilityIndex availability;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentRepository appointments = mock(AppointmentRepository.class);
+        when(appointments.findByStatusAndDoctorIdIsNotNull(AppointmentStatus.SCHEDULED)).thenReturn(List.of(
+                appt(1L, 7L, 9, 0, 10, 0),
+                appt(2L, 8L, 9, 0, 9, 20)
+        ));
+        intervals = new AppointmentIntervalIndex(appointments);
+        intervals.rebuild();
+
+        DoctorPresenceRegistry presence = new DoctorPresenceRegistry(
+                mock(DoctorRepository.class), mock(JdbcTemplate.class), new SimpleMeterRegistry(), 0);
+        presence.register(doctor(7L, "PHC Nabha", "General"));
+        presence.register(doctor(8L, "PHC Nabha", "General"));
+        presence.register(doctor(9L, "PHC Nabha", "Pediatrics"));
+        presence.register(doctor(10L, "CHC Bhadson", "General"));
+
+        availability = new DoctorAvailabilityIndex(intervals, presence, "09:00", "17:00", 3);
+        availability.init();
+    }
+
+    @Test
+    void findsRunsAcrossWordBoundaries() {
+        long[] busy = new long[DoctorAvailabilityIndex.WORDS];
+        DoctorAvailabilityIndex.setBits(busy, 0, 60);
+        DoctorAvailabilityIndex.setBits(busy, 66, 288 + 32);
+        long[] scratch = new long[DoctorAvailabilityIndex.WORDS];
+
+        assertThat(DoctorAvailabilityIndex.firstFreeRun(busy, 6, 0, scratch)).isEqualTo(60);
+        assertThat(DoctorAvailabilityIndex.firstFreeRun(busy, 7, 0, scratch)).isEqualTo(-1);
+        assertThat(DoctorAvailabilityIndex.firstFreeRun(busy, 3, 62, scratch)).isEqualTo(62);
+        assertThat(DoctorAvailabilityIndex.firstFreeRun(busy, 3, 64, scratch)).isEqualTo(-1);
+    }
+
+    @Test
+    void picksEarliestFreeDoctorAtHospital() {
+        var match = availability.nextAvailable("PHC Nabha", "General", DAY.withHour(8), 15).orElseThrow();
+
+        // 7 is booked 09:00-10:00, 8 only 09:00-09:20 (rounded up to the 5-minute grid)
+        assertThat(match.doctor().getId()).isEqualTo(8L);
+        assertThat(match.start()).isEqualTo(DAY.withHour(9).withMinute(20));
+        assertThat(match.end()).isEqualTo(DAY.withHour(9).withMinute(35));
+    }
+
+    @Test
+    void specializationAndWorkingHoursAreRespected() {
+        var peds = availability.nextAvailable("PHC Nabha", "pediatrics", DAY.withHour(16).withMinute(50), 15).orElseThrow();
+
+        // 16:50 + 15 min runs past 17:00, so the next morning
+        assertThat(peds.doctor().getId()).isEqualTo(9L);
+        assertThat(peds.start()).isEqualTo(DAY.plusDays(1).withHour(9));
+
+        assertThat(availability.nextAvailable("PHC Nabha", "Cardiology", DAY, 15)).isEmpty();
+        assertThat(availability.nextAvailable("Unknown", null, DAY, 15)).isEmpty();
+    }
+
+    @Test
+    void bookingAndCancellingUpdateTheBitmap() {
+        intervals.track(appt(3L, 8L, 9, 20, 11, 0));
+        intervals.track(appt(4L, 9L, 9, 0, 12, 0));
+        intervals.track(appt(5L, 9L, 9, 0, 10, 0));   // overlaps 4
+
+        var match = availability.nextAvailable("PHC Nabha", "General", DAY.withHour(9), 30).orElseThrow();
+        assertThat(match.doctor().getId()).isEqualTo(7L);
+        assertThat(match.start()).isEqualTo(DAY.withHour(10));
+
+        intervals.untrack(3L);
+        match = availability.nextAvailable("PHC Nabha", "General", DAY.withHour(9), 30).orElseThrow();
+        assertThat(match.doctor().getId()).isEqualTo(8L);
+        assertThat(match.start()).isEqualTo(DAY.withHour(9).withMinute(20));
+
+        // cancelling one of two overlapping bookings keeps the other's slots busy
+        intervals.untrack(5L);
+        var peds = availability.nextAvailable("PHC Nabha", "Pediatrics", DAY.withHour(9), 30).orElseThrow();
+        assertThat(peds.start()).isEqualTo(DAY.withHour(12));
+    }
+
+    private static Appointment appt(Long id, Long doctorId, int sh, int sm, int eh, int em) {
+        return Appointment.builder()
+                .id(id)
+                .doctorId(doctorId)
+                .status(AppointmentStatus.SCHEDULED)
+                .startTime(DAY.withHour(sh).withMinute(sm))
+                .endTime(DAY.withHour(eh).withMinute(em))
+                .build();
+    }
+
+    private static Doctor doctor(Long id, String hospital, String specialization) {
+        return Doctor.builder()
+                .id(id)
+                .name("Dr " + id)
+                .hospital(hospital)
+                .specialization(specialization)
+                .status(DoctorStatus.AVAILABLE)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorDirectoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DoctorPresenceRegistry presence;
+    private DoctorDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctors = mock(DoctorRepository.class);
+        when(doctors.findAll()).thenReturn(List.of(doctor(1L), doctor(2L), doctor(3L)));
+        presence = new DoctorPresenceRegistry(doctors, mock(JdbcTemplate.class), new SimpleMeterRegistry(), 0);
+        presence.init();
+        directory = new DoctorDirectory(presence, objectMapper);
+    }
+
+    @Test
+    void snapshotIsReusedUntilSomethingChanges() throws Exception {
+        DoctorDirectory.Snapshot first = directory.current();
+        JsonNode roster = objectMapper.readTree(first.json());
+        assertThat(roster).hasSize(3);
+        assertThat(roster.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(roster.get(0).get("status").asText()).isEqualTo("AVAILABLE");
+
+        presence.heartbeat(2L);
+        presence.setStatus(3L, DoctorStatus.AVAILABLE);   // unchanged
+        assertThat(directory.current()).isSameAs(first);
+
+        presence.setStatus(2L, DoctorStatus.BUSY);
+        DoctorDirectory.Snapshot second = directory.current();
+        assertThat(second.version()).isGreaterThan(first.version());
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(objectMapper.readTree(second.json()).get(1).get("status").asText()).isEqualTo("BUSY");
+
+        // untouched doctors keep their serialized bytes
+        assertThat(second.items().get(0).json()).isSameAs(first.items().get(0).json());
+        assertThat(second.items().get(1).json()).isNotSameAs(first.items().get(1).json());
+    }
+
+    @Test
+    void deltaCarriesOnlyDoctorsChangedSinceTheClientsVersion() throws Exception {
+        long since = directory.current().version();
+
+        presence.setStatus(3L, DoctorStatus.OFFLINE);
+        presence.register(doctor(4L));
+
+        JsonNode delta = objectMapper.readTree(directory.delta(since));
+        assertThat(delta.get("full").asBoolean()).isFalse();
+        assertThat(delta.get("version").asLong()).isEqualTo(presence.version());
+        assertThat(delta.get("doctors").findValuesAsText("id")).containsExactly("3", "4");
+
+        JsonNode none = objectMapper.readTree(directory.delta(delta.get("version").asLong()));
+        assertThat(none.get("doctors")).isEmpty();
+    }
+
+    @Test
+    void unknownVersionGetsTheFullRoster() throws Exception {
+        JsonNode stale = objectMapper.readTree(directory.delta(presence.baseVersion() - 1));
+        assertThat(stale.get("full").asBoolean()).isTrue();
+        assertThat(stale.get("doctors")).hasSize(3);
+
+        JsonNode future = objectMapper.readTree(directory.delta(Long.MAX_VALUE));
+        assertThat(future.get("full").asBoolean()).isTrue();
+    }
+
+    private static Doctor doctor(Long id) {
+        return Doctor.builder()
+                .id(id)
+                .name("Dr " + id)
+                .email(id + "@phc.in")
+                .hospital("PHC Nabha")
+                .specialization("General")
+                .status(DoctorStatus.AVAILABLE)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorLoadBalancerTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    private DoctorPresenceRegistry presence;
+    private AppointmentIntervalIndex intervals;
+    private DoctorLoadBalancer balancer;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctors = mock(DoctorRepository.class);
+        when(doctors.findAll()).thenReturn(List.of(
+                doctor(1L, 101L, "PHC Nabha"),
+                doctor(2L, 102L, "PHC Nabha"),
+                doctor(3L, 103L, "PHC Nabha"),
+                doctor(4L, 104L, "CHC Bhadson")
+        ));
+        presence = new DoctorPresenceRegistry(doctors, mock(JdbcTemplate.class), new SimpleMeterRegistry(), 0);
+        presence.init();
+
+        AppointmentRepository appointments = mock(AppointmentRepository.class);
+        when(appointments.findByStatusAndDoctorIdIsNotNull(AppointmentStatus.SCHEDULED)).thenReturn(List.of(
+                appt(11L, 1L, 9), appt(12L, 1L, 10), appt(13L, 3L, 9)
+        ));
+        intervals = new AppointmentIntervalIndex(appointments);
+        intervals.rebuild();
+
+        // doctor 2 (user 102) already has two open encounters
+        EncounterRepository encounters = mock(EncounterRepository.class);
+        when(encounters.countByDoctorForStatus(EncounterStatus.ASSIGNED))
+                .thenReturn(List.<Object[]>of(new Object[]{102L, 2L}));
+
+        balancer = new DoctorLoadBalancer(presence, intervals, encounters);
+        balancer.init();
+    }
+
+    @Test
+    void seedsLoadFromEncountersAndAppointments() {
+        assertThat(balancer.load(1L)).isEqualTo(2);
+        assertThat(balancer.load(2L)).isEqualTo(2);
+        assertThat(balancer.load(3L)).isEqualTo(1);
+        assertThat(balancer.load(4L)).isZero();
+
+        assertThat(balancer.leastBusy("PHC Nabha")).get().extracting(Doctor::getId).isEqualTo(3L);
+        assertThat(balancer.leastBusy("Unknown")).isEmpty();
+    }
+
+    @Test
+    void countersMoveThePick() {
+        balancer.encounterAssigned(103L);
+        balancer.encounterAssigned(103L);
+        // 1 -> 2, 2 -> 2, 3 -> 3: tie broken by lower id
+        assertThat(balancer.leastBusy("PHC Nabha")).get().extracting(Doctor::getId).isEqualTo(1L);
+
+        intervals.untrack(11L);
+        intervals.untrack(12L);
+        balancer.encounterClosed(102L);
+        assertThat(balancer.load(1L)).isZero();
+        assertThat(balancer.leastBusy("PHC Nabha")).get().extracting(Doctor::getId).isEqualTo(1L);
+
+        intervals.track(appt(14L, 1L, 11));
+        intervals.track(appt(15L, 1L, 12));
+        assertThat(balancer.leastBusy("PHC Nabha")).get().extracting(Doctor::getId).isEqualTo(2L);
+    }
+
+    @Test
+    void onlyAvailableDoctorsThatPassTheFilterArePicked() {
+        presence.setStatus(3L, DoctorStatus.BUSY);
+        assertThat(balancer.leastBusy("PHC Nabha")).get().extracting(Doctor::getId).isEqualTo(1L);
+
+        // doctor 1 already has the 09:00 slot
+        assertThat(balancer.leastBusy("PHC Nabha", id -> intervals.isFree(id, DAY.withHour(9), DAY.withHour(10))))
+                .get().extracting(Doctor::getId).isEqualTo(2L);
+
+        presence.setStatus(3L, DoctorStatus.AVAILABLE);
+        assertThat(balancer.leastBusy("PHC Nabha")).get().extracting(Doctor::getId).isEqualTo(3L);
+    }
+
+    private static Appointment appt(Long id, Long doctorId, int hour) {
+        return Appointment.builder()
+                .id(id)
+                .doctorId(doctorId)
+                .status(AppointmentStatus.SCHEDULED)
+                .startTime(DAY.withHour(hour))
+                .endTime(DAY.withHour(hour).plusMinutes(30))
+                .build();
+    }
+
+    private static Doctor doctor(Long id, Long userId, String hospital) {
+        return Doctor.builder()
+                .id(id)
+                .user(User.builder().id(userId).build())
+                .name("Dr " + id)
+                .hospital(hospital)
+                .specialization("General")
+                .status(DoctorStatus.AVAILABLE)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorPresenceRegistryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DoctorPresenceRegistry presence;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctors = mock(DoctorRepository.class);
+        when(doctors.findAll()).thenReturn(List.of(
+                doctor(1L, DoctorStatus.AVAILABLE),
+                doctor(2L, DoctorStatus.BUSY),
+                doctor(3L, DoctorStatus.OFFLINE)
+        ));
+        jdbcTemplate = mock(JdbcTemplate.class);
+        presence = new DoctorPresenceRegistry(doctors, jdbcTemplate, new SimpleMeterRegistry(), 60);
+        presence.init();
+    }
+
+    @Test
+    void silentDoctorsGoOfflineAndHeartbeatRestoresThem() {
+        long later = System.currentTimeMillis() + 61_000;
+        presence.sweep(later);
+
+        assertThat(presence.status(1L)).isEqualTo(DoctorStatus.OFFLINE);
+        assertThat(presence.status(2L)).isEqualTo(DoctorStatus.OFFLINE);
+        assertThat(presence.availableDoctors()).isEmpty();
+
+        presence.heartbeat(1L);
+        presence.heartbeat(2L);
+        presence.heartbeat(3L);   // was offline by choice, stays offline
+
+        assertThat(presence.status(1L)).isEqualTo(DoctorStatus.AVAILABLE);
+        assertThat(presence.status(2L)).isEqualTo(DoctorStatus.BUSY);
+        assertThat(presence.status(3L)).isEqualTo(DoctorStatus.OFFLINE);
+        assertThat(presence.availableDoctors()).extracting(Doctor::getId).containsExactly(1L);
+    }
+
+    @Test
+    void recentHeartbeatKeepsDoctorOnline() {
+        presence.heartbeat(1L);
+        presence.sweep(System.currentTimeMillis() + 30_000);
+
+        assertThat(presence.status(1L)).isEqualTo(DoctorStatus.AVAILABLE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void changesAreCoalescedIntoOneBatch() {
+        long v = presence.version();
+        presence.setStatus(1L, DoctorStatus.BUSY);
+        presence.setStatus(1L, DoctorStatus.AVAILABLE);
+        presence.setStatus(1L, DoctorStatus.OFFLINE);
+        presence.setStatus(3L, DoctorStatus.AVAILABLE);
+        presence.setStatus(2L, DoctorStatus.BUSY);   // no change, nothing to write
+
+        assertThat(presence.version()).isGreaterThan(v);
+        assertThat(presence.pendingWrites()).isEqualTo(2);
+
+        presence.flush();
+
+        ArgumentCaptor<Collection<Map.Entry<Long, DoctorStatus>>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(rows.getValue()).containsExactlyInAnyOrder(
+                Map.entry(1L, DoctorStatus.OFFLINE),
+                Map.entry(3L, DoctorStatus.AVAILABLE));
+        assertThat(presence.pendingWrites()).isZero();
+
+        presence.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void heartbeatDoesNotWrite() {
+        presence.heartbeat(1L);
+        presence.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void unknownDoctorIsRejected() {
+        assertThatThrownBy(() -> presence.heartbeat(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Doctor not found");
+    }
+
+    private static Doctor doctor(Long id, DoctorStatus status) {
+        return Doctor.builder()
+                .id(id)
+                .name("Dr " + id)
+                .hospital("PHC Nabha")
+                .specialization("General")
+                .status(status)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterBulkResponse;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterBulkResult;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterRequest;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class EncounterBulkServiceTest {
+
+    @Autowired private EncounterBulkService bulkService;
+    @Autowired private EncounterRepository encounterRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private DoctorPresenceRegistry presence;
+    @Autowired private DoctorLoadBalancer loadBalancer;
+    @Autowired private VillageRoutingService villageRoutingService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private User chw;
+    private final List<Patient> patients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        chw = userRepository.save(User.builder()
+                .username("chw-" + System.nanoTime()).password("x").role(Role.CHW).active(true)
+                .build());
+        patients.clear();
+        for (int p = 0; p < 10; p++) {
+            Patient patient = new Patient();
+            patient.setOwner(chw);
+            patient.setName("Villager " + p);
+            patient.setVillage("Nabha");
+            patients.add(patientRepository.save(patient));
+        }
+    }
+
+    @Test
+    void hundredItemsInConstantQueriesWithPartialSuccess() {
+        List<EncounterRequest> upload = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            upload.add(EncounterRequest.builder()
+                    .patientId(patients.get(i % patients.size()).getId())
+                    .chwId(chw.getId())
+                    .symptoms("cough " + i)
+                    .vitalsJson("{\"pulse\": " + (70 + i % 20) + "}")
+                    .build());
+        }
+        upload.get(7).setPatientId(-1L);
+        upload.get(42).setChwId(null);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        EncounterBulkResponse response = bulkService.createEncounters(upload);
+
+        // the two IN lookups; the insert is one JDBC batch outside Hibernate
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals(98, response.getCreated());
+        assertEquals(2, response.getRejected());
+        assertEquals("Patient not found", response.getResults().get(7).getError());
+        assertEquals("chwId is required", response.getResults().get(42).getError());
+
+        List<Long> ids = response.getResults().stream()
+                .map(EncounterBulkResult::getId)
+                .filter(id -> id != null)
+                .toList();
+        Map<Long, Encounter> saved = encounterRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Encounter::getId, Function.identity()));
+        assertEquals(98, saved.size());
+
+        EncounterBulkResult r = response.getResults().get(43);
+        assertNull(r.getError());
+        Encounter e = saved.get(r.getId());
+        assertEquals("cough 43", e.getSymptoms());
+        assertEquals(patients.get(3).getId(), e.getPatientId());
+        assertEquals(EncounterStatus.OPEN, e.getStatus());
+        assertNotNull(e.getChangeSeq());
+        assertNotNull(e.getCreatedAt());
+    }
+
+    @Test
+    void emergenciesOfOneUploadSpreadAcrossDoctorsAndRollbackUndoesTheirLoad() {
+        String hospital = villageRoutingService.getHospitalForVillage("Nabha");
+        List<Doctor> doctors = new ArrayList<>();
+        try {
+            for (int d = 0; d < 3; d++) {
+                String tag = System.nanoTime() + "-" + d;
+                User user = userRepository.save(User.builder()
+                        .username("doc-" + tag).password("x").role(Role.DOCTOR).active(true).build());
+                Doctor doctor = doctorRepository.save(Doctor.builder()
+                        .user(user).name("Dr. " + d).email(tag + "@nabha.in").phone(tag)
+                        .specialization("General").hospital(hospital).status(DoctorStatus.AVAILABLE).build());
+                presence.register(doctor);
+                doctors.add(doctor);
+            }
+            List<EncounterRequest> upload = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                upload.add(EncounterRequest.builder()
+                        .patientId(patients.get(i).getId()).chwId(chw.getId()).symptoms("chest pain").Riskscore(0.95)
+                        .build());
+            }
+            Map<Long, Integer> before = loads(doctors);
+
+            // rolled back: nothing stays counted
+            transactionTemplate.executeWithoutResult(status -> {
+                bulkService.createEncounters(upload);
+                status.setRollbackOnly();
+            });
+            assertEquals(before, loads(doctors));
+
+            // committed: three different doctors, one more encounter each
+            EncounterBulkResponse response = bulkService.createEncounters(upload);
+            List<Long> assigned = encounterRepository.findAllById(response.getResults().stream()
+                            .map(EncounterBulkResult::getId).toList()).stream()
+                    .map(Encounter::getDoctorId).toList();
+            assertEquals(3, new HashSet<>(assigned).size());
+            Map<Long, Integer> after = loads(doctors);
+            int added = 0;
+            for (Doctor d : doctors) added += after.get(d.getId()) - before.get(d.getId());
+            assertEquals(3, added);
+        } finally {
+            doctors.forEach(d -> presence.setStatus(d.getId(), DoctorStatus.OFFLINE));
+        }
+    }
+
+    private Map<Long, Integer> loads(List<Doctor> doctors) {
+        return doctors.stream().collect(Collectors.toMap(Doctor::getId, d -> loadBalancer.load(d.getId())));
+    }
+
+    @Test
+    void rejectsOversizedUpload() {
+        List<EncounterRequest> upload = new ArrayList<>();
+        for (int i = 0; i <= EncounterBulkService.MAX_ITEMS; i++) upload.add(new EncounterRequest());
+
+        assertThrows(IllegalArgumentException.class, () -> bulkService.createEncounters(upload));
+    }
+}
@@ -0,0 +1,89 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterChangeEvent;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EncounterChangeFeedTest {
+
+    private SimpMessagingTemplate messaging;
+    private SimpleMeterRegistry meters;
+    private EncounterChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        messaging = mock(SimpMessagingTemplate.class);
+        meters = new SimpleMeterRegistry();
+        feed = new EncounterChangeFeed(messaging, meters);
+    }
+
+    private static Encounter encounter(long id, Long doctorId, EncounterStatus status, long seq) {
+        return Encounter.builder().id(id).patientId(100 + id).chwId(7L).doctorId(doctorId)
+                .status(status).changeSeq(seq).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void burstOnOneEncounterGoesOutOnceWithLatestState() {
+        feed.publish(EncounterEventType.CREATED, encounter(1, null, EncounterStatus.OPEN, 10), null);
+        feed.publish(EncounterEventType.ASSIGNED, encounter(1, 50L, EncounterStatus.ASSIGNED, 11), null);
+        feed.publish(EncounterEventType.COMPLETED, encounter(1, 50L, EncounterStatus.COMPLETED, 12), null);
+        feed.publish(EncounterEventType.CREATED, encounter(2, null, EncounterStatus.OPEN, 13), null);
+
+        feed.flush();
+
+        ArgumentCaptor<Object> chw = ArgumentCaptor.forClass(Object.class);
+        verify(messaging).convertAndSend(eq("/topic/chws/7/encounters"), chw.capture());
+        List<EncounterChangeEvent> events = (List<EncounterChangeEvent>) chw.getValue();
+        assertEquals(2, events.size());
+        assertEquals(EncounterStatus.COMPLETED, events.get(0).getStatus());
+        assertEquals(2L, events.get(1).getId());
+
+        verify(messaging).convertAndSend(eq("/topic/doctors/50/encounters"), any(Object.class));
+        verify(messaging, times(2)).convertAndSend(anyString(), any(Object.class));
+        assertEquals(2, meters.counter("encounters.feed.coalesced").count());
+        assertEquals(0, feed.pendingEvents());
+    }
+
+    @Test
+    void olderEventArrivingLateDoesNotOverwriteNewer() {
+        feed.publish(EncounterEventType.COMPLETED, encounter(3, 50L, EncounterStatus.COMPLETED, 21), null);
+        feed.publish(EncounterEventType.ASSIGNED, encounter(3, 50L, EncounterStatus.ASSIGNED, 20), null);
+
+        feed.flush();
+
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(messaging).convertAndSend(eq("/topic/doctors/50/encounters"), sent.capture());
+        assertEquals(EncounterStatus.COMPLETED, ((List<?>) sent.getValue()).stream()
+                .map(e -> ((EncounterChangeEvent) e).getStatus()).findFirst().orElseThrow());
+    }
+
+    @Test
+    void reassignmentAlsoTellsThePreviousDoctor() {
+        feed.publish(EncounterEventType.ASSIGNED, encounter(4, 60L, EncounterStatus.ASSIGNED, 30), 50L);
+
+        feed.flush();
+        feed.flush();
+
+        verify(messaging).convertAndSend(eq("/topic/doctors/50/encounters"), any(Object.class));
+        verify(messaging).convertAndSend(eq("/topic/doctors/60/encounters"), any(Object.class));
+        verify(messaging, never()).convertAndSend(eq("/topic/doctors/4/encounters"), any(Object.class));
+    }
+}
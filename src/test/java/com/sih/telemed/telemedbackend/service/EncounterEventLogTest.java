@@ -0,0 +1,149 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.EncounterEventType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class EncounterEventLogTest {
+
+    private static final Instant T0 = Instant.parse("2025-03-01T04:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private EncounterEventLog events;
+
+    @AfterEach
+    void tearDown() {
+        if (events != null) events.shutdown();
+    }
+
+    @Test
+    void replaysAnyPointInTime() {
+        events = open();
+        Encounter e = Encounter.builder()
+                .id(1L).patientId(7L).chwId(3L).symptoms("fever").Riskscore(0.4)
+                .status(EncounterStatus.OPEN).createdAt(T0).updatedAt(T0)
+                .build();
+        events.record(EncounterEventType.CREATED, e);
+
+        e.setDoctorId(101L);
+        e.setStatus(EncounterStatus.ASSIGNED);
+        e.setUpdatedAt(T0.plusSeconds(600));
+        events.record(EncounterEventType.ASSIGNED, e);
+
+        e.setProvisionalDiagnosis("viral fever");
+        e.setNotes("paracetamol, review in 3 days");
+        e.setStatus(EncounterStatus.COMPLETED);
+        e.setUpdatedAt(T0.plusSeconds(1800));
+        events.record(EncounterEventType.COMPLETED, e);
+
+        assertThat(events.stateAt(1L, T0.minusSeconds(1))).isEmpty();
+        assertThat(events.stateAt(1L, T0.plusSeconds(60))).get()
+                .satisfies(s -> {
+                    assertThat(s.getStatus()).isEqualTo(EncounterStatus.OPEN);
+                    assertThat(s.getDoctorId()).isNull();
+                    assertThat(s.getSymptoms()).isEqualTo("fever");
+                });
+        assertThat(events.stateAt(1L, T0.plusSeconds(900)).get().getDoctorId()).isEqualTo(101L);
+        assertThat(events.stateAt(1L, T0.plusSeconds(3600))).get()
+                .satisfies(s -> {
+                    assertThat(s.getStatus()).isEqualTo(EncounterStatus.COMPLETED);
+                    assertThat(s.getNotes()).isEqualTo("paracetamol, review in 3 days");
+                    assertThat(s.getPatientId()).isEqualTo(7L);
+                });
+
+        assertThat(events.history(1L)).extracting(EncounterEventLog.EncounterEvent::type)
+                .containsExactly(EncounterEventType.CREATED, EncounterEventType.ASSIGNED, EncounterEventType.COMPLETED);
+        // an assignment carries only what it changed
+        assertThat(events.history(1L).get(1).changes().getSymptoms()).isNull();
+    }
+
+    @Test
+    void snapshotsBoundReplayAndIndexSurvivesRestart() throws IOException {
+        events = open();
+        Encounter e = Encounter.builder().id(5L).patientId(7L).status(EncounterStatus.OPEN)
+                .createdAt(T0).updatedAt(T0).build();
+        events.record(EncounterEventType.CREATED, e);
+        // reassigned back and forth: 9 more events, snapshot every 4
+        for (int i = 1; i <= 9; i++) {
+            e.setDoctorId(100L + i);
+            e.setStatus(EncounterStatus.ASSIGNED);
+            e.setUpdatedAt(T0.plusSeconds(60L * i));
+            events.record(EncounterEventType.ASSIGNED, e);
+        }
+        assertThat(events.history(5L)).filteredOn(ev -> ev.type() == EncounterEventType.SNAPSHOT).hasSize(2);
+        assertThat(events.stateAt(5L, T0.plusSeconds(60 * 6 + 1)).get().getDoctorId()).isEqualTo(106L);
+
+        // restart without a checkpoint: full scan
+        int count = events.eventCount(5L);
+        events.shutdown();
+        Files.delete(dir.resolve("index.snap"));
+        events = open();
+        assertThat(events.eventCount(5L)).isEqualTo(count);
+
+        // checkpoint, one more event, restart: checkpoint + tail
+        events.checkpoint();
+        e.setDoctorId(200L);
+        e.setUpdatedAt(T0.plusSeconds(3600));
+        events.record(EncounterEventType.ASSIGNED, e);
+        events.shutdown();
+        events = open();
+        assertThat(events.eventCount(5L)).isEqualTo(count + 1);
+        assertThat(events.stateAt(5L, T0.plusSeconds(7200)).get().getDoctorId()).isEqualTo(200L);
+        assertThat(events.stateAt(5L, T0.plusSeconds(121)).get().getDoctorId()).isEqualTo(102L);
+    }
+
+    @Test
+    void checkpointsTakenWhileAppendingStayConsistent() throws Exception {
+        events = open();
+        // a flag, not interrupt(): interrupting a thread in FileChannel I/O closes the channel
+        AtomicBoolean done = new AtomicBoolean();
+        Thread checkpointer = new Thread(() -> {
+            while (!done.get()) events.checkpoint();
+        });
+        checkpointer.start();
+        try {
+            for (long id = 1; id <= 200; id++) {
+                Encounter e = Encounter.builder().id(id).patientId(7L).status(EncounterStatus.OPEN)
+                        .createdAt(T0).updatedAt(T0).build();
+                events.record(EncounterEventType.CREATED, e);
+                e.setDoctorId(100L);
+                e.setStatus(EncounterStatus.ASSIGNED);
+                events.record(EncounterEventType.ASSIGNED, e);
+            }
+        } finally {
+            done.set(true);
+            checkpointer.join();
+        }
+
+        events.shutdown();
+        events = open();
+        for (long id = 1; id <= 200; id++) {
+            assertThat(events.eventCount(id)).isEqualTo(2);
+        }
+        assertThat(events.stateAt(200L, T0).get().getDoctorId()).isEqualTo(100L);
+    }
+
+    private EncounterEventLog open() {
+        EncounterEventLog log = new EncounterEventLog(mock(JdbcTemplate.class), mock(EncounterRepository.class),
+                new SimpleMeterRegistry(), dir.toString(), 1, 4);
+        log.init();
+        return log;
+    }
+}
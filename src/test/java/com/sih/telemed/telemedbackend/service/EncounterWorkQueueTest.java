@@ -0,0 +1,156 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.dto.encounter.EncounterResponse;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EncounterWorkQueueTest {
+
+    private static final String HOSPITAL = "PHC Nabha";
+    private static final Instant NOW = Instant.now();
+
+    private EncounterRepository encounters;
+    private SimpMessagingTemplate messaging;
+    private SimpleMeterRegistry meters;
+    private EncounterWorkQueue queue;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DoctorRepository doctors = mock(DoctorRepository.class);
+        when(doctors.findAll()).thenReturn(List.of(doctor(1L, 101L)));
+        DoctorPresenceRegistry presence = new DoctorPresenceRegistry(doctors, mock(JdbcTemplate.class), meters = new SimpleMeterRegistry(), 0);
+        presence.init();
+
+        encounters = mock(EncounterRepository.class);
+        AppointmentIntervalIndex intervals = new AppointmentIntervalIndex(mock(AppointmentRepository.class));
+        DoctorLoadBalancer balancer = new DoctorLoadBalancer(presence, intervals, encounters);
+        balancer.init();
+
+        TransactionTemplate tx = mock(TransactionTemplate.class);
+        when(tx.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        when(encounters.claim(anyLong(), anyLong(), eq(EncounterStatus.OPEN), eq(EncounterStatus.ASSIGNED), any(), any()))
+                .thenReturn(1);
+
+        messaging = mock(SimpMessagingTemplate.class);
+        queue = new EncounterWorkQueue(encounters, mock(PatientRepository.class), new VillageRoutingService(),
+                balancer, presence, messaging, tx, meters, mock(EncounterEventLog.class), mock(ChangeCursor.class), 0.8, 60, 2000);
+        queue.init();
+    }
+
+    @Test
+    void higherRiskJumpsAheadButAgeStillCounts() {
+        queue.submit(open(1L, 0.1, 0), HOSPITAL);
+        queue.submit(open(2L, 0.5, 0), HOSPITAL);
+        queue.submit(open(3L, 0.1, 90), HOSPITAL);     // 90 min old beats 0.5 (30 min head start)
+        queue.submit(open(4L, null, 10), HOSPITAL);
+
+        assertThat(queue.peek(HOSPITAL, 10)).containsExactly(3L, 2L, 4L, 1L);
+
+        queue.withdraw(2L);
+        assertThat(queue.peek(HOSPITAL, 10)).containsExactly(3L, 4L, 1L);
+        assertThat(queue.size("Elsewhere")).isZero();
+    }
+
+    @Test
+    void pullClaimsTheHeadAndSkipsRowsTakenElsewhere() {
+        queue.submit(open(1L, 0.2, 0), HOSPITAL);
+        queue.submit(open(2L, 0.6, 0), HOSPITAL);
+        when(encounters.claim(eq(2L), eq(101L), any(), any(), any(), any())).thenReturn(0);   // assigned by hand meanwhile
+        when(encounters.findById(1L)).thenReturn(Optional.of(open(1L, 0.2, 0)));
+
+        assertThat(queue.pullNext(101L)).get().extracting(Encounter::getId).isEqualTo(1L);
+        assertThat(queue.size(HOSPITAL)).isZero();
+        assertThat(queue.pullNext(101L)).isEmpty();
+    }
+
+    @Test
+    void failedClaimLeavesTheEncounterQueued() {
+        queue.submit(open(1L, 0.2, 0), HOSPITAL);
+        when(encounters.claim(eq(1L), eq(101L), any(), any(), any(), any()))
+                .thenThrow(new CannotCreateTransactionException("database down"))
+                .thenReturn(1);
+        when(encounters.findById(1L)).thenReturn(Optional.of(open(1L, 0.2, 0)));
+
+        assertThatThrownBy(() -> queue.pullNext(101L)).isInstanceOf(CannotCreateTransactionException.class);
+        assertThat(queue.peek(HOSPITAL, 10)).containsExactly(1L);
+
+        assertThat(queue.pullNext(101L)).get().extracting(Encounter::getId).isEqualTo(1L);
+        assertThat(queue.size(HOSPITAL)).isZero();
+    }
+
+    @Test
+    void assignedEmergencyIsPushedToTheDoctorNotQueued() {
+        assertThat(queue.emergencyDoctor(HOSPITAL)).contains(101L);
+
+        Encounter e = open(7L, 0.95, 0);
+        e.setDoctorId(101L);
+        e.setStatus(EncounterStatus.ASSIGNED);
+        queue.submit(e, HOSPITAL);
+
+        verify(messaging).convertAndSend(eq("/topic/doctors/101/emergency"), any(EncounterResponse.class));
+        assertThat(queue.size(HOSPITAL)).isZero();
+        assertThat(meters.get("encounters.emergency.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void emergencyWithNoDoctorFreeWaitsAtTheHead() {
+        queue.submit(open(1L, 0.3, 120), HOSPITAL);
+        queue.submit(open(2L, 0.9, 0), HOSPITAL);
+
+        verify(messaging, never()).convertAndSend(any(String.class), any(Object.class));
+        assertThat(queue.peek(HOSPITAL, 1)).containsExactly(2L);
+        assertThat(meters.get("encounters.emergency.dispatch").tag("outcome", "queued").counter().count()).isEqualTo(1);
+    }
+
+    private static Encounter open(Long id, Double risk, int minutesAgo) {
+        return Encounter.builder()
+                .id(id)
+                .patientId(1L)
+                .Riskscore(risk)
+                .status(EncounterStatus.OPEN)
+                .createdAt(NOW.minusSeconds(minutesAgo * 60L))
+                .build();
+    }
+
+    private static Doctor doctor(Long id, Long userId) {
+        return Doctor.builder()
+                .id(id)
+                .user(User.builder().id(userId).build())
+                .name("Dr " + id)
+                .hospital(HOSPITAL)
+                .specialization("General")
+                .status(DoctorStatus.AVAILABLE)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), 60, 100, 5);
+
+    @Test
+    void concurrentDuplicatesRunOnceAndShareTheResponse() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> store.execute("appointments", "k1", "body", () -> {
+                runs.incrementAndGet();
+                await(release);
+                return "created-42";
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<String> f : results) {
+            assertThat(f.get()).isEqualTo("created-42");
+        }
+        pool.shutdown();
+        assertThat(runs).hasValue(1);
+
+        // a later retry is a replay too
+        assertThat(store.execute("appointments", "k1", "body", () -> "again")).isEqualTo("created-42");
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        assertThatThrownBy(() -> store.execute("encounters", "k2", "body", () -> {
+            throw new IllegalArgumentException("Patient not found");
+        })).hasMessage("Patient not found");
+
+        assertThat(store.execute("encounters", "k2", "body", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void keyReusedForDifferentPayloadIsRejectedAndScopesAreSeparate() {
+        store.execute("appointments", "k3", "body-a", () -> "a");
+
+        assertThatThrownBy(() -> store.execute("appointments", "k3", "body-b", () -> "b"))
+                .isInstanceOf(IdempotencyStore.KeyReused.class);
+        assertThat(store.execute("encounters", "k3", "body-b", () -> "b")).isEqualTo("b");
+    }
+
+    @Test
+    void payloadsWithTheSameHashCodeAreStillDifferent() {
+        // "Aa" and "BB" collide on String.hashCode
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        store.execute("appointments", "k4", Map.of("name", "Aa"), () -> "a");
+
+        assertThatThrownBy(() -> store.execute("appointments", "k4", Map.of("name", "BB"), () -> "b"))
+                .isInstanceOf(IdempotencyStore.KeyReused.class);
+        assertThat(store.execute("appointments", "k4", Map.of("name", "Aa"), () -> "again")).isEqualTo("a");
+    }
+
+    @Test
+    void waitingPastTheOriginalIsInProgress() throws Exception {
+        IdempotencyStore impatient = new IdempotencyStore(new ObjectMapper(), 60, 100, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<String> first = pool.submit(() -> impatient.execute("appointments", "k5", "body", () -> {
+            started.countDown();
+            await(release);
+            return "done";
+        }));
+        started.await();
+
+        assertThatThrownBy(() -> impatient.execute("appointments", "k5", "body", () -> "dup"))
+                .isInstanceOf(IdempotencyStore.InProgress.class);
+
+        release.countDown();
+        assertThat(first.get()).isEqualTo("done");
+        pool.shutdown();
+    }
+
+    @Test
+    void staysWithinBoundAndRunsWithoutKey() {
+        for (int i = 0; i < 250; i++) {
+            int n = i;
+            store.execute("patient-register", "key-" + i, n, () -> n);
+        }
+        assertThat(store.size()).isLessThanOrEqualTo(100);
+
+        AtomicInteger runs = new AtomicInteger();
+        store.execute("appointments", null, "x", runs::incrementAndGet);
+        store.execute("appointments", null, "x", runs::incrementAndGet);
+        assertThat(runs).hasValue(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
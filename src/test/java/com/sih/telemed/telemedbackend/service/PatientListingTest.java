@@ -0,0 +1,92 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Auth.UserPageResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientPageResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientSummary;
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class PatientListingTest {
+
+    @Autowired private PatientService patientService;
+    @Autowired private UserService userService;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private final List<Long> patientIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String tag = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder()
+                .username("chw-" + tag).password("x").role(Role.CHW).active(true).build());
+        for (int i = 0; i < 5; i++) {
+            patientIds.add(patientRepository.save(Patient.builder()
+                    .owner(owner).name("Patient " + i).phone(tag + i).village("Bhadson").block("Nabha")
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void ownerPagesAreOneQueryEachAndFollowTheCursor() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        PatientPageResponse first = patientService.getPatientsPage(owner.getId(), null, 2);
+        PatientPageResponse second = patientService.getPatientsPage(owner.getId(), first.getNextCursor(), 2);
+        PatientPageResponse last = patientService.getPatientsPage(owner.getId(), second.getNextCursor(), 2);
+
+        // projections only: no entity loads, no owner fetch
+        assertEquals(3, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+
+        List<Long> ids = new ArrayList<>();
+        for (PatientPageResponse page : List.of(first, second, last)) {
+            page.getItems().forEach(p -> ids.add(p.id()));
+        }
+        assertEquals(patientIds, ids);
+        assertEquals(owner.getId(), first.getItems().get(0).ownerUserId());
+        assertEquals("Bhadson", first.getItems().get(0).village());
+        assertEquals(1, last.getItems().size());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void streamHandsOverEveryRowOfTheOwner() {
+        List<PatientSummary> rows = new ArrayList<>();
+        patientService.streamPatients(owner.getId(), rows::add);
+        assertEquals(patientIds, rows.stream().map(PatientSummary::id).toList());
+    }
+
+    @Test
+    void userPagesListSummaries() {
+        UserPageResponse page = userService.getUsersPage(String.valueOf(owner.getId() - 1), 1);
+        assertEquals(1, page.getItems().size());
+        assertEquals(owner.getUsername(), page.getItems().get(0).username());
+        assertEquals(String.valueOf(owner.getId()), page.getNextCursor());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsersPage("abc", 10));
+    }
+}
@@ -0,0 +1,76 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatientSearchIndexTest {
+
+    private PatientSearchIndex index;
+
+    private static Patient patient(long id, long owner, String name, String phone, String abha,
+                                   String village, String block) {
+        User user = new User();
+        user.setId(owner);
+        return Patient.builder().id(id).owner(user).name(name).phone(phone).abhaId(abha)
+                .village(village).block(block).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // no transaction: add() indexes immediately
+        index = new PatientSearchIndex(null);
+        index.add(patient(1, 10, "Ram Singh", "9876543210", "12-3456-7890-1234", "Bhadson", "Nabha"));
+        index.add(patient(2, 10, "Paramjit Kaur", "9812300000", null, "Nabha", "Nabha"));
+        index.add(patient(3, 20, "Ramandeep Kaur", "9000012345", null, "Rohti", "Nabha"));
+        index.add(patient(4, 20, "Sukhwinder Singh", "9123456789", null, "Kakrala", "Patiala"));
+    }
+
+    @Test
+    void ranksWholeWordOverPrefixOverInsideAWord() {
+        assertEquals(List.of(1L, 3L, 2L), index.search("ram", null, 10));
+        assertEquals(List.of(1L, 3L), index.search("ra", null, 10));
+    }
+
+    @Test
+    void matchesEveryWordAcrossNameAndPlace() {
+        // same score: older patient first
+        assertEquals(List.of(2L, 3L), index.search("kaur nabha", null, 10));
+        assertEquals(List.of(4L), index.search("singh kakrala", null, 10));
+        assertEquals(List.of(), index.search("singh rohti", null, 10));
+    }
+
+    @Test
+    void findsPhoneAndAbhaDigits() {
+        assertEquals(List.of(1L), index.search("98765 43210", null, 10));
+        assertEquals(List.of(1L), index.search("12-3456-7890-1234", null, 10));
+        // last digits of a phone beat digits inside a phone or ABHA
+        assertEquals(List.of(3L, 1L, 4L), index.search("2345", null, 10));
+    }
+
+    @Test
+    void filtersByOwnerAndLimits() {
+        assertEquals(List.of(3L), index.search("kaur", 20L, 10));
+        assertEquals(List.of(1L), index.search("ram", null, 1));
+    }
+
+    @Test
+    void reAddingAPatientReplacesItsEntry() {
+        index.add(patient(4, 20, "Sukhwinder Singh", "9123456789", null, "Bhadson", "Nabha"));
+        assertEquals(List.of(), index.search("kakrala", null, 10));
+        assertEquals(List.of(1L, 4L), index.search("singh bhadson", null, 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void rejectsQueriesTooShortToIndex() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("r", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("98", null, 10));
+    }
+}
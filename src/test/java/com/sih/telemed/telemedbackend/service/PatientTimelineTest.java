@@ -0,0 +1,140 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.Enums.EncounterStatus;
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Enums.TimelineEventType;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.EncounterRepository;
+import com.sih.telemed.telemedbackend.Repository.PrescriptionRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientTimelineResponse;
+import com.sih.telemed.telemedbackend.dto.Patient.TimelineEvent;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Encounter;
+import com.sih.telemed.telemedbackend.model.Prescription;
+import com.sih.telemed.telemedbackend.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class PatientTimelineTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired private PatientTimelineService timelineService;
+    @Autowired private EncounterRepository encounterRepository;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private PrescriptionRepository prescriptionRepository;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private final long patientId = System.nanoTime();
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        String tag = String.valueOf(System.nanoTime());
+        User user = userRepository.save(User.builder()
+                .username("doc-" + tag).password("x").role(Role.DOCTOR).active(true).build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .user(user).name("Dr. Harpreet").email(tag + "@nabha.in").phone(tag)
+                .specialization("General").hospital("Nabha CHC").build());
+    }
+
+    private void encounter(LocalDateTime at, String diagnosis) {
+        encounterRepository.save(Encounter.builder()
+                .patientId(patientId).chwId(1L).doctorId(doctor.getUser().getId())
+                .symptoms("bukhar, khansi").provisionalDiagnosis(diagnosis).status(EncounterStatus.COMPLETED)
+                .createdAt(at.atZone(ZoneId.of("Asia/Kolkata")).toInstant())
+                .build());
+    }
+
+    private void appointment(LocalDateTime at) {
+        appointmentRepository.save(Appointment.builder()
+                .patientId(patientId).doctorId(doctor.getId()).appointmentType(AppointmentType.Video_Calling)
+                .status(AppointmentStatus.SCHEDULED).startTime(at).endTime(at.plusMinutes(15))
+                .build());
+    }
+
+    private void prescription(LocalDateTime at, String instructions) {
+        prescriptionRepository.save(Prescription.builder()
+                .patientId(patientId).doctorId(doctor.getId()).instructions(instructions).createdAt(at)
+                .build());
+    }
+
+    @Test
+    void pagesBackInTimeAcrossSourcesWithoutGapsOrRepeats() {
+        encounter(T0, "Viral fever");
+        prescription(T0.plusMinutes(30), "Paracetamol 500 mg twice a day for 3 days");
+        encounter(T0.plusDays(2), null);
+        // three events at the same moment, one of each type
+        encounter(T0.plusDays(5), "Follow-up");
+        prescription(T0.plusDays(5), "Continue");
+        appointment(T0.plusDays(5));
+        appointment(T0.plusDays(9));
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<TimelineEvent> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PatientTimelineResponse page = timelineService.getTimeline(patientId, cursor, 2);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, pages);
+        assertEquals(12, stats.getPrepareStatementCount());     // three bounded queries per page
+        assertEquals(0, stats.getEntityLoadCount());
+        assertEquals(List.of(
+                        TimelineEventType.APPOINTMENT,
+                        TimelineEventType.APPOINTMENT, TimelineEventType.PRESCRIPTION, TimelineEventType.ENCOUNTER,
+                        TimelineEventType.ENCOUNTER,
+                        TimelineEventType.PRESCRIPTION,
+                        TimelineEventType.ENCOUNTER),
+                all.stream().map(TimelineEvent::type).toList());
+        assertEquals(List.of(T0.plusDays(9), T0.plusDays(5), T0.plusDays(5), T0.plusDays(5),
+                        T0.plusDays(2), T0.plusMinutes(30), T0),
+                all.stream().map(TimelineEvent::at).toList());
+
+        TimelineEvent first = all.get(all.size() - 1);
+        assertEquals("Viral fever", first.summary());
+        assertEquals("COMPLETED", first.status());
+        assertEquals("Dr. Harpreet", first.doctorName());
+        assertEquals("bukhar, khansi", all.get(4).summary());
+        assertEquals("Video_Calling", all.get(0).summary());
+        assertEquals("Dr. Harpreet", all.get(0).doctorName());
+    }
+
+    @Test
+    void emptyTimelineAndBadCursor() {
+        PatientTimelineResponse page = timelineService.getTimeline(patientId, null, null);
+        assertEquals(List.of(), page.getItems());
+        assertNull(page.getNextCursor());
+        assertThrows(IllegalArgumentException.class, () -> timelineService.getTimeline(patientId, "nope", 10));
+    }
+}
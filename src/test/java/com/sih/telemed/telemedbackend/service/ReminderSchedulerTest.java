@@ -0,0 +1,131 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentStatus;
+import com.sih.telemed.telemedbackend.Enums.ReminderType;
+import com.sih.telemed.telemedbackend.Repository.AppointmentRepository;
+import com.sih.telemed.telemedbackend.model.Appointment;
+import com.sih.telemed.telemedbackend.service.ReminderSender.Reminder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReminderSchedulerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final List<Appointment> rows = new ArrayList<>();
+    private final List<Reminder> sent = new ArrayList<>();
+    private AppointmentRepository repository;
+    private SimpleMeterRegistry metrics;
+    private ReminderScheduler scheduler;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now(ZONE);
+        repository = mock(AppointmentRepository.class);
+        when(repository.findByStatusAndStartTimeGreaterThanAndStartTimeLessThanEqual(eq(AppointmentStatus.SCHEDULED), any(), any()))
+                .thenAnswer(inv -> rows.stream()
+                        .filter(a -> a.getStartTime().isAfter(inv.getArgument(1))
+                                && !a.getStartTime().isAfter(inv.getArgument(2)))
+                        .toList());
+        when(repository.findAllById(anyIterable())).thenAnswer(inv -> rows);
+
+        // starts in 15 min + 200 ms: only the T-15min reminder is still useful
+        rows.add(appt(1L, now.plusMinutes(15).plusNanos(200_000_000)));
+        // starts in 24 h + 200 ms: T-24h due almost now, T-15min tomorrow
+        rows.add(appt(2L, now.plusHours(24).plusNanos(200_000_000)));
+        // beyond the 48 h window
+        rows.add(appt(3L, now.plusHours(72)));
+
+        metrics = new SimpleMeterRegistry();
+        scheduler = new ReminderScheduler(repository, sent::addAll, metrics, 48, 300, 500, 10, 512);
+        scheduler.init();
+    }
+
+    @Test
+    void loadsTheWindowAndSendsDueReminders() throws InterruptedException {
+        assertThat(scheduler.pendingCount()).isEqualTo(3);   // 1:T-15, 2:T-24h, 2:T-15
+
+        Thread.sleep(400);
+        scheduler.tick();
+
+        assertThat(sent).extracting(Reminder::appointmentId, Reminder::type).containsExactlyInAnyOrder(
+                tuple(1L, ReminderType.FIFTEEN_MINUTES),
+                tuple(2L, ReminderType.DAY_BEFORE));
+        assertThat(scheduler.pendingCount()).isEqualTo(1);
+        assertThat(metrics.get("appointments.reminders.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void failedBatchIsSentOnTheRetry() throws InterruptedException {
+        int[] calls = {0};
+        ReminderScheduler flaky = new ReminderScheduler(repository, batch -> {
+            if (calls[0]++ == 0) throw new IllegalStateException("SMS gateway down");
+            sent.addAll(batch);
+        }, new SimpleMeterRegistry(), 48, 300, 500, 10, 512);
+        flaky.init();
+
+        Thread.sleep(400);
+        long failedAt = System.currentTimeMillis();
+        flaky.tick(failedAt);
+        assertThat(sent).isEmpty();
+        assertThat(flaky.pendingCount()).isEqualTo(3);
+
+        flaky.tick(failedAt + ReminderScheduler.RETRY_MS + 100);
+        assertThat(sent).extracting(Reminder::appointmentId, Reminder::type).containsExactlyInAnyOrder(
+                tuple(1L, ReminderType.FIFTEEN_MINUTES),
+                tuple(2L, ReminderType.DAY_BEFORE));
+        assertThat(flaky.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledAndChangedAppointmentsAreNotReminded() throws InterruptedException {
+        scheduler.untrack(1L);
+        rows.get(1).setStatus(AppointmentStatus.CANCELLED);   // cancelled elsewhere, still queued
+
+        Thread.sleep(400);
+        scheduler.tick();
+
+        assertThat(sent).isEmpty();
+        assertThat(metrics.get("appointments.reminders.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bookingsInsideTheWindowAreTrackedAndLaterOnesWaitForIt() {
+        Appointment soon = appt(4L, now.plusHours(30));
+        Appointment later = appt(5L, now.plusHours(60));
+        rows.add(soon);
+        rows.add(later);
+
+        scheduler.track(soon);
+        scheduler.track(later);
+        assertThat(scheduler.pendingCount()).isEqualTo(5);
+
+        scheduler.extendWindow();   // window still ends ~48 h out
+        assertThat(scheduler.pendingCount()).isEqualTo(5);
+    }
+
+    private static Appointment appt(Long id, LocalDateTime start) {
+        return Appointment.builder()
+                .id(id)
+                .patientId(100 + id)
+                .status(AppointmentStatus.SCHEDULED)
+                .startTime(start)
+                .endTime(start.plusMinutes(20))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientSignupDto;
+import com.sih.telemed.telemedbackend.dto.Patient.PatientSignupResponse;
+import com.sih.telemed.telemedbackend.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class SignupGuardTest {
+
+    @Autowired private PatientSignupService signupService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private MeterRegistry meterRegistry;
+
+    // 8xxxxxxxxx phones, 3xxxxxxxxxxxxx ABHA ids: apart from the other tests' ranges
+    private static final AtomicLong NUMBERS = new AtomicLong(System.nanoTime() % 1_000_000_000L);
+
+    private static String phone() {
+        return String.valueOf(8_000_000_000L + NUMBERS.incrementAndGet() % 1_000_000_000L);
+    }
+
+    private static String abha() {
+        return String.valueOf(30_000_000_000_000L + NUMBERS.incrementAndGet());
+    }
+
+    private static PatientSignupDto signup(String tag) {
+        PatientSignupDto dto = new PatientSignupDto();
+        dto.setUsername("user-" + tag);
+        dto.setPassword("x");
+        dto.setFullName("Gurpreet Kaur");
+        dto.setAbhaId(abha());
+        dto.setPhoneNumber(phone());
+        dto.setVillage("Bhadson");
+        dto.setBlock("Nabha");
+        return dto;
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    @Test
+    void newValuesSkipTheDatabaseAndTakenOnesAreRejected() {
+        String tag = String.valueOf(System.nanoTime());
+        double skipped = count("signup.guard.skipped");
+
+        PatientSignupResponse first = signupService.register(signup(tag));
+        assertNotNull(first.getId());
+        assertEquals(skipped + 1, count("signup.guard.skipped"));
+
+        // now in the filter: one lookup query finds it
+        PatientSignupDto again = signup(tag + "-2");
+        again.setPhoneNumber(first.getPhoneNumber());
+        SignupGuard.Conflict conflict = assertThrows(SignupGuard.Conflict.class, () -> signupService.register(again));
+        assertEquals("phone", conflict.getField());
+        assertEquals("Phone number already registered", conflict.getMessage());
+
+        // the user row of the failed signup was rolled back with it
+        again.setPhoneNumber(phone());
+        assertNotNull(signupService.register(again).getId());
+    }
+
+    @Test
+    void phonesAndAbhaIdsAreComparedInNormalizedForm() {
+        String tag = String.valueOf(System.nanoTime());
+        PatientSignupDto dto = signup(tag);
+        String phone = dto.getPhoneNumber();
+        String abha = dto.getAbhaId();
+        dto.setPhoneNumber("+91 " + phone.substring(0, 5) + " " + phone.substring(5));
+        PatientSignupResponse first = signupService.register(dto);
+        assertEquals(phone, first.getPhoneNumber());
+        assertEquals(abha.substring(0, 2) + "-" + abha.substring(2, 6) + "-" + abha.substring(6, 10) + "-"
+                + abha.substring(10), first.getAbhaId());
+
+        PatientSignupDto samePhone = signup(tag + "-2");
+        samePhone.setPhoneNumber("0" + phone);
+        assertEquals("phone", assertThrows(SignupGuard.Conflict.class,
+                () -> signupService.register(samePhone)).getField());
+
+        PatientSignupDto sameAbha = signup(tag + "-3");
+        sameAbha.setAbhaId(first.getAbhaId());
+        assertEquals("abha", assertThrows(SignupGuard.Conflict.class,
+                () -> signupService.register(sameAbha)).getField());
+    }
+
+    @Test
+    void normalizedForms() {
+        assertEquals("9876543210", SignupGuard.normalizePhone("+91 98765-43210"));
+        assertEquals("9876543210", SignupGuard.normalizePhone("09876543210"));
+        assertEquals("12-3456-7890-1234", SignupGuard.normalizeAbhaId("12 3456 7890 1234"));
+        assertNull(SignupGuard.normalizePhone(" "));
+        assertThrows(IllegalArgumentException.class, () -> SignupGuard.normalizePhone("12345"));
+        assertThrows(IllegalArgumentException.class, () -> SignupGuard.normalizeAbhaId("abha-1"));
+    }
+
+    @Test
+    void rowsWrittenAroundTheGuardAreCaughtByTheConstraint() {
+        String tag = String.valueOf(System.nanoTime());
+        // never recorded: the filter says "definitely free"
+        userRepository.save(User.builder().username("user-" + tag).password("x").role(Role.PATIENT).active(true)
+                .build());
+
+        SignupGuard.Conflict conflict = assertThrows(SignupGuard.Conflict.class,
+                () -> signupService.register(signup(tag)));
+        assertEquals("username", conflict.getField());
+        assertEquals("Username already exists", conflict.getMessage());
+    }
+}
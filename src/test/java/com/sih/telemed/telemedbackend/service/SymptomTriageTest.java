@@ -0,0 +1,86 @@
+package com.sih.telemed.telemedbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymptomTriageTest {
+
+    private final SymptomTriage triage = new SymptomTriage(0.8);
+
+    private static List<String> present(SymptomTriage.Assessment a) {
+        return a.matches().stream().filter(m -> !m.negated()).map(m -> m.symptom().getCode()).toList();
+    }
+
+    @Test
+    void matchesEnglishHindiAndPunjabiTerms() {
+        assertEquals(List.of("FEVER", "COUGH"), present(triage.assess("Bukhar aur khansi 3 din se")));
+        assertEquals(List.of("FEVER", "HEADACHE"), present(triage.assess("ਬੁਖਾਰ, ਸਿਰ ਦਰਦ")));
+        assertEquals(List.of("VOMITING", "DIARRHOEA"), present(triage.assess("उल्टी और दस्त")));
+        // nukta or not, the same term
+        assertEquals(List.of("POISONING"), present(triage.assess("ज़हर खा लिया")));
+        assertEquals(List.of("POISONING"), present(triage.assess("जहर खा लिया")));
+    }
+
+    @Test
+    void longerTermWinsAndWholeWordsOnly() {
+        SymptomTriage.Assessment a = triage.assess("tez bukhar since morning");
+        assertEquals(List.of("HIGH_FEVER"), present(a));
+        // "dast" inside "dastak" is not diarrhoea
+        assertEquals(List.of(), present(triage.assess("dastak")));
+    }
+
+    @Test
+    void negationInBothDirectionsWithinAClause() {
+        assertEquals(List.of("COUGH"), present(triage.assess("cough, no fever")));
+        assertEquals(List.of("COUGH"), present(triage.assess("khansi hai, bukhar nahi hai")));
+        // "no" belongs to the second clause, chest pain stays
+        assertEquals(List.of("CHEST_PAIN"), present(triage.assess("chest pain. no sweating")));
+        // negation word that is part of a term is not a negation
+        assertEquals(List.of("DEHYDRATION"), present(triage.assess("peshab nahi aa raha")));
+    }
+
+    @Test
+    void negationEndsAtButAndAnd() {
+        SymptomTriage.Assessment but = triage.assess("no fever but chest pain");
+        assertEquals(List.of("CHEST_PAIN"), present(but));
+        assertEquals(0.7, but.risk());
+
+        assertEquals(List.of("CHEST_PAIN"), present(triage.assess("no fever and chest pain")));
+        assertEquals(List.of("CHEST_PAIN"), present(triage.assess("bukhar nahi lekin seene mein dard")));
+        assertEquals(List.of("CHEST_PAIN"), present(triage.assess("koi bukhar nahi magar chhati mein dard")));
+        assertEquals(List.of("CHEST_PAIN", "SWEATING"), present(triage.assess("denies fever however chest pain and sweating")));
+        assertTrue(triage.assess("no fever but chest pain and sweating").emergency());
+        // still negated when nothing turns the sentence
+        assertEquals(List.of(), present(triage.assess("no fever or cough")));
+    }
+
+    @Test
+    void combinationsAndRedFlagsReachTheEmergencyThreshold() {
+        SymptomTriage.Assessment mild = triage.assess("cough and body ache");
+        assertTrue(mild.risk() < 0.2);
+        assertFalse(mild.emergency());
+
+        SymptomTriage.Assessment cardiac = triage.assess("seene mein dard aur pasina");
+        assertEquals(0.9, cardiac.risk());
+        assertTrue(cardiac.emergency());
+        assertEquals(1, cardiac.reasons().size());
+
+        assertTrue(triage.assess("saanp ne kaata").emergency());
+        assertTrue(triage.assess("garbhvati, khoon beh raha").emergency());
+    }
+
+    @Test
+    void riskscoreKeepsTheHigherAndIgnoresUnknownText() {
+        assertNull(triage.riskscore("follow-up visit", null));
+        assertEquals(0.3, triage.riskscore("follow-up visit", 0.3));
+        assertEquals(0.15, triage.riskscore("fever", null));
+        assertEquals(0.5, triage.riskscore("fever", 0.5));
+        assertEquals(0.9, triage.riskscore("unconscious", 0.2));
+    }
+}
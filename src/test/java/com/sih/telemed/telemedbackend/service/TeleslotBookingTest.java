@@ -0,0 +1,85 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.AppointmentType;
+import com.sih.telemed.telemedbackend.dto.Appoinment.AppointmentRequest;
+import com.sih.telemed.telemedbackend.dto.Teleslot.TeleslotRequest;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class TeleslotBookingTest {
+
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private TeleslotService teleslotService;
+    @Autowired private TestFixtures fixtures;
+
+    private Doctor doctor;
+    private Doctor otherDoctor;
+    private Patient patient;
+    private Long slotId;
+    private LocalDateTime slotStart;
+
+    @BeforeEach
+    void setUp() {
+        doctor = fixtures.doctor("Dr. Slot", "PHC Nabha");
+        otherDoctor = fixtures.doctor("Dr. Other", "PHC Nabha");
+        patient = fixtures.patient("Slot Patient");
+
+        slotStart = LocalDateTime.now().plusDays(2).withNano(0);
+        slotId = teleslotService.createSlot(TeleslotRequest.builder()
+                .doctorId(doctor.getId())
+                .startTime(slotStart.toString())
+                .endTime(slotStart.plusHours(1).toString())
+                .appointmentType(AppointmentType.Video_Calling)
+                .maxPatients(4)
+                .build()).getId();
+    }
+
+    @Test
+    void bookingInsideTheSlotTakesASeat() {
+        appointmentService.bookAppointment(booking(doctor.getId(), slotStart.plusMinutes(10), slotStart.plusMinutes(30)));
+        appointmentService.bookAppointment(booking(null, slotStart, slotStart.plusMinutes(20)));
+
+        assertEquals(2, teleslotService.getSlot(slotId).getBookedPatients());
+    }
+
+    @Test
+    void slotOfAnotherDoctorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookAppointment(
+                booking(otherDoctor.getId(), slotStart, slotStart.plusMinutes(20))));
+
+        assertEquals(0, teleslotService.getSlot(slotId).getBookedPatients());
+    }
+
+    @Test
+    void timeOutsideTheSlotIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookAppointment(
+                booking(null, slotStart.plusMinutes(50), slotStart.plusMinutes(70))));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookAppointment(
+                booking(null, slotStart.plusDays(1), slotStart.plusDays(1).plusMinutes(20))));
+
+        assertEquals(0, teleslotService.getSlot(slotId).getBookedPatients());
+    }
+
+    private AppointmentRequest booking(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        return AppointmentRequest.builder()
+                .patientId(patient.getId())
+                .doctorId(doctorId)
+                .startTime(start.toString())
+                .endTime(end.toString())
+                .teleSlotId(slotId.toString())
+                .appointmentType(AppointmentType.Video_Calling)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.Status;
+import com.sih.telemed.telemedbackend.Repository.TeleslotRepository;
+import com.sih.telemed.telemedbackend.model.Teleslot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TeleslotCapacityGateTest {
+
+    @Test
+    void neverAdmitsMoreThanMaxPatientsUnderContention() throws Exception {
+        TeleslotRepository repository = mock(TeleslotRepository.class);
+        when(repository.findById(1L)).thenReturn(Optional.of(slot(50, 5, Status.PENDING)));
+        TeleslotCapacityGate gate = new TeleslotCapacityGate(repository);
+
+        int threads = 64;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                go.await();
+                int admitted = 0;
+                for (int i = 0; i < 100; i++) {
+                    if (gate.tryAcquire(1L)) admitted++;
+                }
+                return admitted;
+            }));
+        }
+        go.countDown();
+
+        int total = 0;
+        for (Future<Integer> f : results) total += f.get();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(total).isEqualTo(45);
+        assertThat(gate.remaining(1L)).isZero();
+        verify(repository, times(1)).findById(1L);   // loaded once despite the stampede
+    }
+
+    @Test
+    void releaseAndEvictReopenSeats() {
+        TeleslotRepository repository = mock(TeleslotRepository.class);
+        when(repository.findById(2L)).thenReturn(Optional.of(slot(1, 0, Status.PENDING)));
+        TeleslotCapacityGate gate = new TeleslotCapacityGate(repository);
+
+        assertThat(gate.tryAcquire(2L)).isTrue();
+        assertThat(gate.tryAcquire(2L)).isFalse();
+        gate.release(2L);
+        assertThat(gate.tryAcquire(2L)).isTrue();
+
+        gate.evict(2L);
+        assertThat(gate.remaining(2L)).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledSlotAdmitsNobody() {
+        TeleslotRepository repository = mock(TeleslotRepository.class);
+        when(repository.findById(3L)).thenReturn(Optional.of(slot(10, 0, Status.CANCELLED)));
+
+        assertThat(new TeleslotCapacityGate(repository).tryAcquire(3L)).isFalse();
+    }
+
+    private static Teleslot slot(int max, int booked, Status status) {
+        Teleslot t = new Teleslot();
+        t.setMaxPatients(max);
+        t.setBookedPatients(booked);
+        t.setStatus(status);
+        return t;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.sih.telemed.telemedbackend.Enums.DoctorStatus;
+import com.sih.telemed.telemedbackend.Enums.Role;
+import com.sih.telemed.telemedbackend.Repository.DoctorRepository;
+import com.sih.telemed.telemedbackend.Repository.PatientRepository;
+import com.sih.telemed.telemedbackend.Repository.UserRepository;
+import com.sih.telemed.telemedbackend.model.Doctor;
+import com.sih.telemed.telemedbackend.model.Patient;
+import com.sih.telemed.telemedbackend.model.User;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// ---------------------------------------------------------
+// SAVED USERS / DOCTORS / PATIENTS FOR THE @SpringBootTest CLASSES
+// The H2 database is shared by every context in a run, so each
+// username, email and phone gets a fresh tag.
+// ---------------------------------------------------------
+@Component
+class TestFixtures {
+
+    private static final AtomicLong SEQ = new AtomicLong();
+
+    private final UserRepository userRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+
+    TestFixtures(UserRepository userRepository, DoctorRepository doctorRepository, PatientRepository patientRepository) {
+        this.userRepository = userRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+    }
+
+    // digits only, so it also works as a phone number
+    String tag() {
+        return Long.toString(System.nanoTime()) + SEQ.incrementAndGet();
+    }
+
+    User user(String prefix, Role role) {
+        return userRepository.save(User.builder()
+                .username(prefix + "-" + tag()).password("x").role(role).active(true)
+                .build());
+    }
+
+    // AVAILABLE, active, General
+    Doctor doctor(String name, String hospital) {
+        String tag = tag();
+        return doctorRepository.save(Doctor.builder()
+                .user(user("doc", Role.DOCTOR))
+                .name(name).email(tag + "@phc.in").phone(tag)
+                .specialization("General").hospital(hospital)
+                .status(DoctorStatus.AVAILABLE).active(true)
+                .build());
+    }
+
+    Patient patient(String name) {
+        Patient patient = new Patient();
+        patient.setOwner(user("pat", Role.PATIENT));
+        patient.setName(name);
+        return patientRepository.save(patient);
+    }
+}
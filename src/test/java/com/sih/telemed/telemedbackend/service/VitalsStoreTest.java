@@ -0,0 +1,68 @@
+package com.sih.telemed.telemedbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sih.telemed.telemedbackend.dto.Vitals.VitalsSeriesResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class VitalsStoreTest {
+
+    private static final Instant JAN_1 = LocalDateTime.of(2025, 1, 1, 9, 0).atZone(ZoneId.of("Asia/Kolkata")).toInstant();
+
+    private final VitalsStore store = new VitalsStore(mock(JdbcTemplate.class), new ObjectMapper());
+
+    @Test
+    void looseKeysAndBloodPressureAreExtracted() {
+        assertThat(store.parse("{\"BP\":\"120/80\",\"heart_rate\":72,\"SpO2\":\"97 %\",\"temp\":\"98.6F\",\"note\":\"ok\"}"))
+                .containsEntry(VitalsStore.SYSTOLIC, 120.0)
+                .containsEntry(VitalsStore.DIASTOLIC, 80.0)
+                .containsEntry(VitalsStore.PULSE, 72.0)
+                .containsEntry(VitalsStore.SPO2, 97.0)
+                .containsEntry(VitalsStore.TEMPERATURE, 98.6)
+                .hasSize(5);
+
+        // old completed encounters carry free-text notes here
+        assertThat(store.parse("Patient stable, review in 2 weeks")).isEmpty();
+    }
+
+    @Test
+    void yearOfReadingsComesBackRawOrInBuckets() {
+        for (int d = 0; d < 365; d++) {
+            store.record(7L, JAN_1.plusSeconds(d * 86_400L), "{\"bp\":\"" + (120 + d % 10) + "/80\"}", 110.0 + d);
+        }
+
+        assertThat(store.metrics(7L)).containsEntry("systolic", 365).containsEntry("sugar", 365);
+
+        VitalsSeriesResponse weekly = store.query(7L, "Systolic", "2025-01-01T00:00", "2026-01-01T00:00", "1w", 500);
+        assertThat(weekly.getBucketSeconds()).isEqualTo(7 * 86_400);
+        assertThat(weekly.getT()).hasSize(53);
+        assertThat(weekly.getMin()[0]).isEqualTo(120f);
+        assertThat(weekly.getMax()[0]).isEqualTo(126f);
+        assertThat(weekly.getCount()[0]).isEqualTo(7);
+
+        // 31 January readings fit into maxPoints -> raw
+        VitalsSeriesResponse january = store.query(7L, "glucose", "2025-01-01T00:00", "2025-02-01T00:00", null, 100);
+        assertThat(january.getBucketSeconds()).isZero();
+        assertThat(january.getValue()).hasSize(31);
+        assertThat(january.getMin()).isNull();
+
+        // too many for maxPoints -> buckets chosen for us
+        VitalsSeriesResponse auto = store.query(7L, "sugar", "2025-01-01T00:00", "2026-01-01T00:00", null, 12);
+        assertThat(auto.getT().length).isLessThanOrEqualTo(12);
+    }
+
+    @Test
+    void unknownMetricAndEmptyPatient() {
+        assertThatThrownBy(() -> store.query(7L, "mood", null, null, null, 500))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.query(99L, "pulse", null, null, null, 500).getT()).isEmpty();
+    }
+}
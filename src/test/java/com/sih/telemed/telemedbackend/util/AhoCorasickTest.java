@@ -0,0 +1,46 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AhoCorasickTest {
+
+    private static List<String> scan(AhoCorasick<String> ac, String text) {
+        List<String> out = new ArrayList<>();
+        ac.scan(text, (start, end, v) -> out.add(v + "@" + start + "-" + end));
+        return out;
+    }
+
+    @Test
+    void findsOverlappingAndSuffixMatches() {
+        Map<String, String> patterns = new LinkedHashMap<>();
+        patterns.put("he", "he");
+        patterns.put("she", "she");
+        patterns.put("his", "his");
+        patterns.put("hers", "hers");
+        AhoCorasick<String> ac = new AhoCorasick<>(patterns);
+
+        // classic example: "ushers" contains she, he and hers
+        assertEquals(List.of("she@1-4", "he@2-4", "hers@2-6"), scan(ac, "ushers"));
+        assertEquals(List.of("his@0-3", "she@2-5", "he@3-5"), scan(ac, "hishe"));
+    }
+
+    @Test
+    void followsFailureLinksAcrossScripts() {
+        Map<String, String> patterns = new LinkedHashMap<>();
+        patterns.put("बुखार", "fever-hi");
+        patterns.put("ਬੁਖਾਰ", "fever-pa");
+        patterns.put("aab", "aab");
+        AhoCorasick<String> ac = new AhoCorasick<>(patterns);
+
+        assertEquals(List.of("aab@2-5"), scan(ac, "aaaab"));
+        assertEquals(List.of("fever-hi@4-9", "fever-pa@10-15"), scan(ac, "तेज बुखार ਬੁਖਾਰ"));
+        assertEquals(List.of(), scan(ac, "nothing here"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAndRarelyInvents() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.add("98" + i);
+        for (int i = 0; i < 10_000; i++) assertTrue(filter.mightContain("98" + i));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("70" + i)) falsePositives++;
+        }
+        // 1% expected at capacity; allow some slack
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        assertFalse(filter.mightContain("ramesh"));
+        assertFalse(filter.mightContain(""));
+    }
+}
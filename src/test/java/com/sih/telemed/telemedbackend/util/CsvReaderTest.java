@@ -0,0 +1,44 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAcrossLinesAndBuffers() {
+        String csv = "﻿name,village\r\n"
+                + "\"Kaur, Gurpreet\",Bhadson\r\n"
+                + "\r\n"
+                + "\"Singh \"\"Babbu\"\"\",\"Line one\r\nline two\"\n"
+                + "Ramesh,\n"
+                + "x".repeat(70_000) + ",Nabha";
+        CsvReader reader = new CsvReader(new StringReader(csv));
+
+        assertArrayEquals(new String[]{"name", "village"}, reader.next());
+        assertEquals(1, reader.line());
+        assertArrayEquals(new String[]{"Kaur, Gurpreet", "Bhadson"}, reader.next());
+        assertEquals(2, reader.line());
+        assertArrayEquals(new String[]{"Singh \"Babbu\"", "Line one\nline two"}, reader.next());
+        assertEquals(4, reader.line());
+        assertArrayEquals(new String[]{"Ramesh", ""}, reader.next());
+        assertEquals(6, reader.line());
+        String[] last = reader.next();
+        assertEquals(70_000, last[0].length());
+        assertEquals("Nabha", last[1]);
+        assertNull(reader.next());
+    }
+
+    @Test
+    void unclosedQuoteIsAnError() {
+        CsvReader reader = new CsvReader(new StringReader("name\n\"Ramesh,Nabha\n"));
+        reader.next();
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+}
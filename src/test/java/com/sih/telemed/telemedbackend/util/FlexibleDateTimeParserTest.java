@@ -0,0 +1,67 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlexibleDateTimeParserTest {
+
+    // the implementation AppointmentService used before
+    private static LocalDateTime legacy(String input) {
+        try {
+            return OffsetDateTime.parse(input).toLocalDateTime();
+        } catch (Exception e1) {
+            try {
+                return LocalDateTime.parse(input);
+            } catch (Exception e2) {
+                return LocalDateTime.parse(input + ":00");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-12-08T10:30",
+            "2025-12-08T10:30:15",
+            "2025-12-08T10:30:15.5",
+            "2025-12-08T10:30:15.123456789",
+            "2025-12-08T10:30Z",
+            "2025-12-08T10:30:00Z",
+            "2025-12-08T23:59:59+05:30",
+            "2025-12-08T00:00-03:00",
+            "2024-02-29T08:00:00.120+05:30",
+    })
+    void matchesLegacyParserOnAcceptedShapes(String input) {
+        assertThat(FlexibleDateTimeParser.parse("startTime", input)).isEqualTo(legacy(input));
+    }
+
+    @Test
+    void acceptsCompactOffsets() {
+        LocalDateTime expected = LocalDateTime.of(2025, 12, 8, 10, 30);
+        assertThat(FlexibleDateTimeParser.parse("t", "2025-12-08T10:30+0530")).isEqualTo(expected);
+        assertThat(FlexibleDateTimeParser.parse("t", "2025-12-08T10:30:00+05")).isEqualTo(expected);
+    }
+
+    @Test
+    void reportsFieldProblemAndIndex() {
+        assertThatThrownBy(() -> FlexibleDateTimeParser.parse("startTime", "2025-12-08 10:30"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid startTime '2025-12-08 10:30': expected 'T' at index 10.");
+        assertThatThrownBy(() -> FlexibleDateTimeParser.parse("endTime", "2025-02-30T10:30"))
+                .hasMessageContaining("day out of range at index 8");
+        assertThatThrownBy(() -> FlexibleDateTimeParser.parse("endTime", "2025-12-08T1x:30"))
+                .hasMessageContaining("expected 2-digit hour at index 12");
+        assertThatThrownBy(() -> FlexibleDateTimeParser.parse("endTime", "2025-12-08T10:30+19:00"))
+                .hasMessageContaining("offset out of range");
+        assertThatThrownBy(() -> FlexibleDateTimeParser.parse("endTime", "2025-12-08T10:30:00Zjunk"))
+                .hasMessageContaining("unexpected trailing characters at index 20");
+        assertThatThrownBy(() -> FlexibleDateTimeParser.parse("endTime", null))
+                .hasMessage("endTime is required.");
+    }
+}
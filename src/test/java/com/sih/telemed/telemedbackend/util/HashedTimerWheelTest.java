@@ -0,0 +1,56 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimerWheelTest {
+
+    // 100 ms ticks, 8 buckets -> one revolution is 800 ms
+    private final HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+
+    @Test
+    void firesOnTheDeadlineTickAndNeverEarly() {
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+
+        assertThat(wheel.advance(299)).isEmpty();
+        assertThat(wheel.advance(300)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timeoutsBeyondOneRevolutionWaitTheirRounds() {
+        wheel.schedule("far", 2_000);     // 20 ticks = 2 rounds + 4
+        wheel.schedule("near", 400);      // same bucket, this round
+
+        assertThat(wheel.advance(400)).containsExactly("near");
+        assertThat(wheel.advance(1_999)).isEmpty();
+        assertThat(wheel.advance(2_000)).containsExactly("far");
+    }
+
+    @Test
+    void cancelAndRescheduleReplaceTheTimeout() {
+        wheel.schedule("x", 200);
+        wheel.schedule("y", 200);
+        wheel.schedule("x", 900);         // moved, not duplicated
+        assertThat(wheel.cancel("y")).isTrue();
+        assertThat(wheel.cancel("y")).isFalse();
+
+        assertThat(wheel.advance(800)).isEmpty();
+        assertThat(wheel.contains("x")).isTrue();
+        assertThat(wheel.advance(900)).containsExactly("x");
+    }
+
+    @Test
+    void pastDeadlinesAndFireNextExpireOnTheNextAdvance() {
+        wheel.advance(1_000);
+        wheel.schedule("late", 10);
+        wheel.fireNext("now");
+        wheel.fireNext("dropped");
+        wheel.cancel("dropped");
+
+        assertThat(wheel.size()).isEqualTo(2);
+        assertThat(wheel.advance(1_000)).containsExactly("late", "now");
+    }
+}
@@ -0,0 +1,80 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedMinHeapTest {
+
+    private final IndexedMinHeap heap = new IndexedMinHeap();
+
+    @Test
+    void lightestFirstTiesByLowerId() {
+        heap.set(5, 2);
+        heap.set(3, 1);
+        heap.set(9, 1);
+
+        assertThat(heap.peek()).isEqualTo(3L);
+
+        heap.set(3, 4);                   // moved down
+        assertThat(heap.peek()).isEqualTo(9L);
+        heap.set(5, 0);                   // moved up
+        assertThat(heap.peek()).isEqualTo(5L);
+        assertThat(heap.size()).isEqualTo(3);
+    }
+
+    @Test
+    void firstSkipsRejectedIdsInLoadOrder() {
+        for (long id = 1; id <= 20; id++) heap.set(id, (int) (id % 5));
+
+        // loads: 5,10,15,20 -> 0; 1,6,11,16 -> 1; ...
+        assertThat(heap.first(id -> true)).isEqualTo(5L);
+        assertThat(heap.first(id -> id % 5 != 0)).isEqualTo(1L);
+        assertThat(heap.first(id -> id > 18)).isEqualTo(20L);
+        assertThat(heap.first(id -> false)).isNull();
+    }
+
+    @Test
+    void updateIgnoresUnknownIdsAndRemoveKeepsOrder() {
+        assertThat(heap.update(1, 3)).isFalse();
+        assertThat(heap.size()).isZero();
+
+        heap.set(1, 3);
+        heap.set(2, 1);
+        heap.set(3, 2);
+        assertThat(heap.remove(2)).isTrue();
+        assertThat(heap.remove(2)).isFalse();
+        assertThat(heap.peek()).isEqualTo(3L);
+        assertThat(heap.contains(2)).isFalse();
+    }
+
+    @Test
+    void matchesANaiveScanUnderRandomChanges() {
+        Random random = new Random(7);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            long id = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                heap.remove(id);
+                expected.remove(id);
+            } else {
+                int load = random.nextInt(30);
+                heap.set(id, load);
+                expected.put(id, load);
+            }
+            Long naive = expected.entrySet().stream()
+                    .min(Comparator.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue)
+                            .thenComparing(Map.Entry::getKey))
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+            assertThat(heap.peek()).isEqualTo(naive);
+        }
+        assertThat(heap.size()).isEqualTo(expected.size());
+    }
+}
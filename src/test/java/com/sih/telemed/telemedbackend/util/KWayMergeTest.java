@@ -0,0 +1,42 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KWayMergeTest {
+
+    @Test
+    void mergesSortedSourcesInOrder() {
+        KWayMerge<Integer> merge = new KWayMerge<>(Comparator.reverseOrder(), List.of(
+                List.of(9, 5, 1).iterator(),
+                List.<Integer>of().iterator(),
+                List.of(8, 5, 4, 2).iterator(),
+                List.of(7).iterator()));
+
+        List<Integer> out = new ArrayList<>();
+        merge.forEachRemaining(out::add);
+        assertEquals(List.of(9, 8, 7, 5, 5, 4, 2, 1), out);
+        assertFalse(merge.hasNext());
+        assertThrows(NoSuchElementException.class, merge::next);
+    }
+
+    @Test
+    void readsSourcesOnlyAsFarAsTaken() {
+        List<Integer> pulled = new ArrayList<>();
+        Iterator<Integer> a = List.of(1, 3, 5, 7, 9).stream().peek(pulled::add).iterator();
+        Iterator<Integer> b = List.of(2, 4, 6, 8).stream().peek(pulled::add).iterator();
+
+        assertEquals(List.of(1, 2, 3), new KWayMerge<>(Comparator.<Integer>naturalOrder(), List.of(a, b)).take(3));
+        // one head per source beyond what was returned
+        assertEquals(List.of(1, 2, 3, 4, 5), pulled.stream().sorted().toList());
+    }
+}
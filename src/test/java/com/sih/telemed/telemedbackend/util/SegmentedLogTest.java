@@ -0,0 +1,63 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rollsSegmentsAndReadsByPosition() {
+        List<Long> positions = new ArrayList<>();
+        try (SegmentedLog log = new SegmentedLog(dir, 100)) {
+            for (int i = 0; i < 10; i++) positions.add(log.append(bytes("event-" + i + "-padding")));
+            assertThat(log.segmentCount()).isGreaterThan(1);
+            assertThat(log.sync()).isPositive();
+            assertThat(log.sync()).isZero();
+
+            assertThat(new String(log.read(positions.get(7)), StandardCharsets.UTF_8)).isEqualTo("event-7-padding");
+
+            List<String> tail = new ArrayList<>();
+            log.scan(positions.get(8), (p, payload) -> tail.add(new String(payload, StandardCharsets.UTF_8)));
+            assertThat(tail).containsExactly("event-8-padding", "event-9-padding");
+        }
+    }
+
+    @Test
+    void tornTailIsCutOffOnReopen() throws IOException {
+        long end;
+        try (SegmentedLog log = new SegmentedLog(dir, 1 << 20)) {
+            log.append(bytes("one"));
+            log.append(bytes("two"));
+            end = log.end();
+        }
+        // half a frame, as if the process died mid-write
+        try (FileChannel ch = FileChannel.open(dir.resolve("0000000000.seg"), StandardOpenOption.WRITE)) {
+            ch.write(java.nio.ByteBuffer.wrap(new byte[]{0, 0, 0, 9, 1, 2}), SegmentedLog.offsetOf(end));
+        }
+
+        try (SegmentedLog log = new SegmentedLog(dir, 1 << 20)) {
+            assertThat(log.end()).isEqualTo(end);
+            log.append(bytes("three"));
+            List<String> all = new ArrayList<>();
+            log.scan(0, (p, payload) -> all.add(new String(payload, StandardCharsets.UTF_8)));
+            assertThat(all).containsExactly("one", "two", "three");
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
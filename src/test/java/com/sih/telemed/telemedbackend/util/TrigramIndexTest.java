@@ -0,0 +1,54 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsPrefixesAndKeepsNamespacesApart() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(0, 0, "ramesh");
+        index.add(1, 0, "paramjit");
+        index.add(2, 0, "ramandeep");
+        index.add(2, 1, "9876543210");
+        index.add(3, 0, "sukhwinder");
+
+        assertArrayEquals(new int[]{0, 1, 2}, index.candidates(0, "ram", false));
+        assertArrayEquals(new int[]{0, 2}, index.candidates(0, "ra", true));
+        assertArrayEquals(new int[]{0}, index.candidates(0, "mesh", false));
+        assertArrayEquals(new int[]{2}, index.candidates(1, "3210", false));
+        assertArrayEquals(new int[0], index.candidates(0, "3210", false));
+        assertArrayEquals(new int[0], index.candidates(0, "xyz", false));
+        assertNull(index.candidates(0, "ra", false));
+    }
+
+    @Test
+    void intersectsLongPostingLists() {
+        TrigramIndex index = new TrigramIndex();
+        for (int doc = 0; doc < 10_000; doc++) {
+            index.add(doc, 0, doc % 1000 == 7 ? "gurpreet" : "gurdeep");
+        }
+        int[] hits = index.candidates(0, "preet", false);
+        assertArrayEquals(new int[]{7, 1007, 2007, 3007, 4007, 5007, 6007, 7007, 8007, 9007}, hits);
+    }
+
+    @Test
+    void intersectsDenseGramsThroughTheirBitmaps() {
+        TrigramIndex index = new TrigramIndex();
+        for (int doc = 0; doc < 12_000; doc++) {
+            if (doc % 2 == 0) index.add(doc, 0, "kaur");
+            if (doc % 3 == 0) index.add(doc, 0, "nabha");
+            index.add(doc, 0, "village" + doc);
+        }
+        int[] hits = index.candidates(List.of(new TrigramIndex.Term(0, "kaur", false),
+                new TrigramIndex.Term(0, "nabha", false)));
+        assertEquals(2000, hits.length);
+        for (int i = 0; i < hits.length; i++) assertEquals(i * 6, hits[i]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sih.telemed.telemedbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VitalsSeriesTest {
+
+    private static final long DAY = 86_400;
+    private static final long T0 = 1_735_689_600L;   // 2025-01-01T00:00Z
+
+    private final VitalsSeries series = new VitalsSeries();
+
+    @Test
+    void rangeIsHalfOpenAndCrossesCheckpoints() {
+        for (int d = 0; d < 200; d++) series.add(T0 + d * DAY, 100 + d);
+
+        List<Long> times = new ArrayList<>();
+        series.forEach(T0 + 70 * DAY, T0 + 140 * DAY, (t, v) -> times.add(t));
+
+        assertThat(times).hasSize(70);
+        assertThat(times.get(0)).isEqualTo(T0 + 70 * DAY);
+        assertThat(times.get(69)).isEqualTo(T0 + 139 * DAY);
+    }
+
+    @Test
+    void lateReadingsAreSplicedInAndSameSecondOverwrites() {
+        Random random = new Random(3);
+        TreeMap<Long, Float> expected = new TreeMap<>();
+        for (int i = 0; i < 500; i++) {
+            long t = T0 + random.nextInt(1000) * 60L;
+            float v = random.nextInt(200);
+            series.add(t, v);
+            expected.put(t, v);
+        }
+
+        TreeMap<Long, Float> actual = new TreeMap<>();
+        series.forEach(Long.MIN_VALUE, Long.MAX_VALUE, actual::put);
+
+        assertThat(series.size()).isEqualTo(expected.size());
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void downsampleKeepsMinMaxAvgPerBucket() {
+        series.add(T0 + 60, 120);
+        series.add(T0 + 120, 140);
+        series.add(T0 + 3 * DAY, 130);
+
+        VitalsSeries.Downsampled d = series.downsample(T0, T0 + 7 * DAY, DAY);
+
+        assertThat(d.start()).containsExactly(T0, T0 + 3 * DAY);
+        assertThat(d.min()).containsExactly(120f, 130f);
+        assertThat(d.max()).containsExactly(140f, 130f);
+        assertThat(d.avg()).containsExactly(130f, 130f);
+        assertThat(d.count()).containsExactly(2, 1);
+    }
+}